@@ -79,6 +79,126 @@ CREATE INDEX idx_transaction_master_txn_date ON operators.transaction_master(txn
 CREATE INDEX idx_transaction_details_master_txn_id ON operators.transaction_details(master_txn_id);
 CREATE INDEX idx_members_member_id ON operators.members(member_id);
 
+-- ============================================================================
+-- INDEXES (Backend API)
+-- ============================================================================
+
+-- Newest transaction per merchant in one probe; used to derive ETags for transaction pages
+CREATE INDEX idx_transaction_master_merchant_txn_id ON operators.transaction_master(merchant_id, txn_id DESC);
+
+-- Planner row estimate for a merchant's transactions in a date range, used for approximate page totals.
+-- The values are inlined with format('%L') because EXPLAIN cannot take bind parameters, and so the
+-- planner sees the actual merchant and dates rather than a generic plan.
+CREATE OR REPLACE FUNCTION operators.estimate_transaction_count(
+    p_merchant_id VARCHAR, p_start_date DATE, p_end_date DATE
+) RETURNS BIGINT AS $$
+DECLARE
+    query TEXT := format('SELECT 1 FROM operators.transaction_master WHERE merchant_id = %L', p_merchant_id);
+    plan JSON;
+BEGIN
+    IF p_start_date IS NOT NULL THEN
+        query := query || format(' AND txn_date >= %L', p_start_date);
+    END IF;
+    IF p_end_date IS NOT NULL THEN
+        query := query || format(' AND txn_date <= %L', p_end_date);
+    END IF;
+    EXECUTE 'EXPLAIN (FORMAT JSON) ' || query INTO plan;
+    RETURN (plan -> 0 -> 'Plan' ->> 'Plan Rows')::BIGINT;
+END;
+$$ LANGUAGE plpgsql STABLE;
+
+-- ============================================================================
+-- Table: settlement_daily_aggregates
+-- Completed amount per acquirer, settlement day and currency, kept current by trigger
+-- ============================================================================
+
+DROP TABLE IF EXISTS operators.settlement_daily_aggregates CASCADE;
+
+CREATE TABLE operators.settlement_daily_aggregates (
+    aggregate_id BIGSERIAL PRIMARY KEY,
+    acquirer_id BIGINT NOT NULL REFERENCES operators.members(member_id),
+    settlement_date DATE NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    total_amount DECIMAL(18,2) NOT NULL DEFAULT 0,
+    transaction_count BIGINT NOT NULL DEFAULT 0,
+    closed BOOLEAN NOT NULL DEFAULT FALSE,
+    closed_at TIMESTAMP WITH TIME ZONE,
+    -- Changes to a closed day land here, so reported totals stay frozen
+    late_amount DECIMAL(18,2) NOT NULL DEFAULT 0,
+    late_count BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    CONSTRAINT uq_settlement_daily_aggregates UNIQUE (acquirer_id, settlement_date, currency)
+);
+
+-- Report range scans by day; the unique constraint serves per-acquirer lookups
+CREATE INDEX idx_settlement_daily_aggregates_date ON operators.settlement_daily_aggregates(settlement_date);
+
+-- Days before closed_before are closed, including days that have no aggregate row yet
+DROP TABLE IF EXISTS operators.settlement_close_cutoff CASCADE;
+
+CREATE TABLE operators.settlement_close_cutoff (
+    id BOOLEAN PRIMARY KEY DEFAULT TRUE CHECK (id),
+    closed_before DATE NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW()
+);
+
+CREATE OR REPLACE FUNCTION operators.apply_settlement_delta(
+    p_acquirer_id BIGINT, p_settlement_date DATE, p_currency VARCHAR, p_amount DECIMAL, p_count BIGINT
+) RETURNS VOID AS $$
+DECLARE
+    v_closed BOOLEAN;
+BEGIN
+    -- A correction to a closed day without a row starts a closed row, so it is booked as late as well
+    SELECT p_settlement_date < c.closed_before INTO v_closed FROM operators.settlement_close_cutoff c;
+    v_closed := COALESCE(v_closed, FALSE);
+
+    INSERT INTO operators.settlement_daily_aggregates AS agg
+        (acquirer_id, settlement_date, currency, total_amount, transaction_count,
+         closed, closed_at, late_amount, late_count)
+    VALUES (p_acquirer_id, p_settlement_date, p_currency,
+            CASE WHEN v_closed THEN 0 ELSE p_amount END,
+            CASE WHEN v_closed THEN 0 ELSE p_count END,
+            v_closed,
+            CASE WHEN v_closed THEN NOW() END,
+            CASE WHEN v_closed THEN p_amount ELSE 0 END,
+            CASE WHEN v_closed THEN p_count ELSE 0 END)
+    ON CONFLICT (acquirer_id, settlement_date, currency) DO UPDATE
+        SET total_amount      = agg.total_amount      + CASE WHEN agg.closed THEN 0 ELSE p_amount END,
+            transaction_count = agg.transaction_count + CASE WHEN agg.closed THEN 0 ELSE p_count END,
+            late_amount       = agg.late_amount       + CASE WHEN agg.closed THEN p_amount ELSE 0 END,
+            late_count        = agg.late_count        + CASE WHEN agg.closed THEN p_count ELSE 0 END,
+            updated_at        = NOW();
+END;
+$$ LANGUAGE plpgsql;
+
+-- Only completed transactions with an acquirer settle. An update is applied as removal of the old
+-- row's contribution plus addition of the new one, so status changes and reversals net out.
+CREATE OR REPLACE FUNCTION operators.maintain_settlement_aggregates() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') AND OLD.status = 'completed' AND OLD.gp_acquirer_id IS NOT NULL THEN
+        PERFORM operators.apply_settlement_delta(OLD.gp_acquirer_id, OLD.txn_date, OLD.currency, -OLD.amount, -1);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') AND NEW.status = 'completed' AND NEW.gp_acquirer_id IS NOT NULL THEN
+        PERFORM operators.apply_settlement_delta(NEW.gp_acquirer_id, NEW.txn_date, NEW.currency, NEW.amount, 1);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_transaction_master_settlement
+    AFTER INSERT OR DELETE OR UPDATE OF status, amount, currency, txn_date, gp_acquirer_id
+    ON operators.transaction_master
+    FOR EACH ROW EXECUTE FUNCTION operators.maintain_settlement_aggregates();
+
+-- One-off backfill of existing transactions; afterwards the trigger keeps the table current
+INSERT INTO operators.settlement_daily_aggregates (acquirer_id, settlement_date, currency, total_amount, transaction_count)
+SELECT gp_acquirer_id, txn_date, currency, SUM(amount), COUNT(*)
+FROM operators.transaction_master
+WHERE status = 'completed'
+  AND gp_acquirer_id IS NOT NULL
+GROUP BY gp_acquirer_id, txn_date, currency
+ON CONFLICT (acquirer_id, settlement_date, currency) DO NOTHING;
+
 -- ============================================================================
 -- COMMENTS
 -- ============================================================================
@@ -86,10 +206,13 @@ CREATE INDEX idx_members_member_id ON operators.members(member_id);
 COMMENT ON TABLE operators.transaction_master IS 'Main transaction records - header level';
 COMMENT ON TABLE operators.transaction_details IS 'Transaction detail records - multiple per transaction';
 COMMENT ON TABLE operators.members IS 'Acquirer and issuer member directory';
+COMMENT ON TABLE operators.settlement_daily_aggregates IS 'Daily settlement per acquirer and currency, maintained by trg_transaction_master_settlement';
 
 COMMENT ON COLUMN operators.transaction_master.txn_date IS 'Transaction date (used for partitioning in production)';
 COMMENT ON COLUMN operators.transaction_master.local_txn_date_time IS 'Transaction timestamp in local timezone';
 COMMENT ON COLUMN operators.transaction_details.master_txn_id IS 'Foreign key to transaction_master';
+COMMENT ON COLUMN operators.settlement_daily_aggregates.closed IS 'Set by the backend closing job; totals no longer change, late changes go to late_amount/late_count';
+COMMENT ON TABLE operators.settlement_close_cutoff IS 'Single row; settlement days before closed_before are closed, advanced by the backend closing job';
 
 -- ============================================================================
 -- TABLE STATISTICS
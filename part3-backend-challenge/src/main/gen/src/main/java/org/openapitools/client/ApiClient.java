@@ -13,6 +13,7 @@
 
 package org.openapitools.client;
 
+import com.google.gson.JsonParseException;
 import okhttp3.*;
 import okhttp3.internal.http.HttpMethod;
 import okhttp3.internal.tls.OkHostnameVerifier;
@@ -72,6 +73,7 @@ public class ApiClient {
     protected Integer serverIndex = 0;
     protected Map<String, String> serverVariables = null;
     private boolean debugging = false;
+    private boolean preferCbor = false;
     private Map<String, String> defaultHeaderMap = new HashMap<String, String>();
     private Map<String, String> defaultCookieMap = new HashMap<String, String>();
     private String tempFolderPath = null;
@@ -545,6 +547,27 @@ public class ApiClient {
         return this;
     }
 
+    /**
+     * Check that whether CBOR is preferred over JSON.
+     *
+     * @return True if CBOR is preferred
+     */
+    public boolean isPreferCbor() {
+        return preferCbor;
+    }
+
+    /**
+     * Prefer CBOR ({@code application/cbor}) over JSON for operations that exchange JSON.
+     * Responses are still read as JSON when the server does not offer CBOR.
+     *
+     * @param preferCbor To prefer CBOR (true) or use JSON only (false)
+     * @return ApiClient
+     */
+    public ApiClient setPreferCbor(boolean preferCbor) {
+        this.preferCbor = preferCbor;
+        return this;
+    }
+
     /**
      * The path of temporary folder used to store downloaded files from endpoints
      * with file response. The default value is <code>null</code>, i.e. using
@@ -885,6 +908,14 @@ public class ApiClient {
             return (T) downloadFileFromResponse(response);
         }
 
+        if (CBOR.isCborMime(response.headers().get("Content-Type")) && response.body() != null) {
+            try {
+                return CBOR.deserialize(response.body().byteStream(), returnType);
+            } catch (JsonParseException e) {
+                throw new ApiException(e.getMessage(), e, response.code(), response.headers().toMultimap());
+            }
+        }
+
         String respBody;
         try {
             if (response.body() != null)
@@ -936,6 +967,8 @@ public class ApiClient {
             return RequestBody.create((File) obj, MediaType.parse(contentType));
         } else if ("text/plain".equals(contentType) && obj instanceof String) {
             return RequestBody.create((String) obj, MediaType.parse(contentType));
+        } else if (CBOR.isCborMime(contentType)) {
+            return RequestBody.create(CBOR.serialize(obj), MediaType.parse(contentType));
         } else if (isJsonMime(contentType)) {
             String content;
             if (obj != null) {
@@ -1177,6 +1210,10 @@ public class ApiClient {
 
         final String url = buildUrl(baseUrl, path, queryParams, collectionQueryParams);
 
+        if (preferCbor) {
+            negotiateCbor(body, headerParams);
+        }
+
         // prepare HTTP request body
         RequestBody reqBody;
         String contentType = headerParams.get("Content-Type");
@@ -1225,6 +1262,23 @@ public class ApiClient {
         return request;
     }
 
+    /**
+     * Ask for CBOR ahead of JSON and send JSON bodies as CBOR.
+     *
+     * @param body The request body object
+     * @param headerParams The header parameters, updated in place
+     */
+    private void negotiateCbor(Object body, Map<String, String> headerParams) {
+        String accept = headerParams.get("Accept");
+        if (accept != null && isJsonMime(accept)) {
+            headerParams.put("Accept", CBOR.MEDIA_TYPE + ", " + accept + ";q=0.9");
+        }
+        String contentType = headerParams.get("Content-Type");
+        if (body != null && contentType != null && isJsonMime(contentType)) {
+            headerParams.put("Content-Type", CBOR.MEDIA_TYPE);
+        }
+    }
+
     /**
      * Build full URL by concatenating base path, the given sub path and query parameters.
      *
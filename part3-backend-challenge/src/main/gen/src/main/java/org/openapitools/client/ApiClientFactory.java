@@ -0,0 +1,202 @@
+package org.openapitools.client;
+
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds an {@link ApiClient} whose {@link OkHttpClient} is sized for bulk work.
+ * <p>
+ * OkHttp's defaults allow only 5 concurrent requests per host, so a job issuing thousands of calls spends most
+ * of its time queued in the dispatcher. This factory raises the dispatcher limits, keeps a larger pool of warm
+ * connections and can switch to HTTP/2 so that many calls share one connection.
+ *
+ * <pre>
+ * ClientMetrics metrics = new ClientMetrics();
+ * ApiClient client = new ApiClientFactory()
+ *         .basePath("http://localhost:8080")
+ *         .maxRequestsPerHost(128)
+ *         .http2(true)
+ *         .metrics(metrics)
+ *         .responseCache(new ResponseCache().memory(1_000, 16 * 1024 * 1024))
+ *         .create();
+ * </pre>
+ */
+public class ApiClientFactory {
+
+    private String basePath;
+    private int maxRequests = 256;
+    private int maxRequestsPerHost = 64;
+    private int maxIdleConnections = 16;
+    private long keepAliveSeconds = 300;
+    private long connectTimeoutMillis = 10_000;
+    private long readTimeoutMillis = 30_000;
+    private long writeTimeoutMillis = 30_000;
+    private long pingIntervalSeconds = 30;
+    private boolean http2 = false;
+    private ClientMetrics metrics;
+    private ResponseCache responseCache;
+
+    /**
+     * @param basePath Base path of the URL (e.g http://localhost:8080)
+     * @return this factory
+     */
+    public ApiClientFactory basePath(String basePath) {
+        this.basePath = basePath;
+        return this;
+    }
+
+    /**
+     * @param maxRequests Maximum number of requests executing concurrently across all hosts
+     * @return this factory
+     */
+    public ApiClientFactory maxRequests(int maxRequests) {
+        this.maxRequests = maxRequests;
+        return this;
+    }
+
+    /**
+     * @param maxRequestsPerHost Maximum number of requests executing concurrently against one host
+     * @return this factory
+     */
+    public ApiClientFactory maxRequestsPerHost(int maxRequestsPerHost) {
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        return this;
+    }
+
+    /**
+     * @param maxIdleConnections Idle connections kept open for reuse
+     * @return this factory
+     */
+    public ApiClientFactory maxIdleConnections(int maxIdleConnections) {
+        this.maxIdleConnections = maxIdleConnections;
+        return this;
+    }
+
+    /**
+     * @param keepAliveSeconds How long an idle connection is kept before it is closed
+     * @return this factory
+     */
+    public ApiClientFactory keepAliveSeconds(long keepAliveSeconds) {
+        this.keepAliveSeconds = keepAliveSeconds;
+        return this;
+    }
+
+    /**
+     * @param connectTimeoutMillis Connect timeout in milliseconds
+     * @return this factory
+     */
+    public ApiClientFactory connectTimeoutMillis(long connectTimeoutMillis) {
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * @param readTimeoutMillis Read timeout in milliseconds
+     * @return this factory
+     */
+    public ApiClientFactory readTimeoutMillis(long readTimeoutMillis) {
+        this.readTimeoutMillis = readTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * @param writeTimeoutMillis Write timeout in milliseconds
+     * @return this factory
+     */
+    public ApiClientFactory writeTimeoutMillis(long writeTimeoutMillis) {
+        this.writeTimeoutMillis = writeTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * @param pingIntervalSeconds HTTP/2 ping interval that keeps a multiplexed connection alive; 0 disables pings
+     * @return this factory
+     */
+    public ApiClientFactory pingIntervalSeconds(long pingIntervalSeconds) {
+        this.pingIntervalSeconds = pingIntervalSeconds;
+        return this;
+    }
+
+    /**
+     * Use HTTP/2. Against an {@code http://} base path the client speaks h2c with prior knowledge, which the
+     * server accepts when {@code micronaut.server.http-version} is 2.0. Over TLS HTTP/2 is negotiated with ALPN
+     * and falls back to HTTP/1.1.
+     *
+     * @param http2 To enable (true) or disable (false) HTTP/2
+     * @return this factory
+     */
+    public ApiClientFactory http2(boolean http2) {
+        this.http2 = http2;
+        return this;
+    }
+
+    /**
+     * @param metrics Collector for per-call latency and connection reuse
+     * @return this factory
+     */
+    public ApiClientFactory metrics(ClientMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * @param responseCache ETag-aware memory and disk cache for GET responses
+     * @return this factory
+     */
+    public ApiClientFactory responseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+        return this;
+    }
+
+    /**
+     * Build a new {@link ApiClient}. Each call creates its own connection pool and dispatcher, so create one
+     * client per job and share it between threads.
+     *
+     * @return ApiClient
+     */
+    public ApiClient create() {
+        ApiClient apiClient = new ApiClient();
+        if (basePath != null) {
+            apiClient.setBasePath(basePath);
+        }
+
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(maxRequests);
+        dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+        // Start from the default client so the progress interceptor used by the *Async methods stays in place
+        OkHttpClient.Builder builder = apiClient.getHttpClient().newBuilder()
+                .dispatcher(dispatcher)
+                .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS))
+                .connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS)
+                .writeTimeout(writeTimeoutMillis, TimeUnit.MILLISECONDS);
+
+        if (http2) {
+            if (apiClient.getBasePath().startsWith("http://")) {
+                builder.protocols(Collections.singletonList(Protocol.H2_PRIOR_KNOWLEDGE));
+            } else {
+                builder.protocols(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1));
+            }
+            builder.pingInterval(pingIntervalSeconds, TimeUnit.SECONDS);
+        }
+        if (metrics != null) {
+            builder.eventListenerFactory(metrics);
+        }
+        if (responseCache != null) {
+            builder.addInterceptor(responseCache);
+            if (responseCache.getDiskCache() != null) {
+                builder.cache(responseCache.getDiskCache());
+            }
+        }
+
+        apiClient.setHttpClient(builder.build());
+        return apiClient;
+    }
+}
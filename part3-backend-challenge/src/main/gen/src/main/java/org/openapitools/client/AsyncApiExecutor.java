@@ -0,0 +1,276 @@
+package org.openapitools.client;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Turns the generated {@code *Async} methods into {@link CompletableFuture}s with timeouts, retries and hedging.
+ * <p>
+ * Futures never block a thread: HTTP runs on the OkHttp dispatcher and timers run on one shared daemon thread.
+ * Cancelling a returned future cancels the HTTP call(s) in flight. {@code join()} is cheap on virtual threads.
+ */
+public class AsyncApiExecutor {
+
+    /**
+     * Starts one HTTP call that reports to the given callback, e.g.
+     * {@code callback -> api.getTransactionsAsync(merchantId, 0, 20, null, null, null, callback)}.
+     *
+     * @param <R> Result type
+     */
+    public interface CallStarter<R> {
+        okhttp3.Call start(ApiCallback<R> callback) throws ApiException;
+    }
+
+    private static final ScheduledExecutorService SHARED_TIMER = newTimer();
+
+    private final ScheduledExecutorService timer;
+
+    public AsyncApiExecutor() {
+        this(SHARED_TIMER);
+    }
+
+    /**
+     * @param timer Scheduler for timeouts, backoff and hedge delays. Tasks are short and never block.
+     */
+    public AsyncApiExecutor(ScheduledExecutorService timer) {
+        this.timer = timer;
+    }
+
+    /**
+     * Execute a call according to the policy.
+     *
+     * @param <R>        Result type
+     * @param starter    Starts one HTTP attempt
+     * @param policy     Timeouts, retries and hedging
+     * @param idempotent Whether the operation may be sent more than once; if false it is attempted exactly once
+     * @return Future of the deserialized result. Fails with {@link ApiException} or {@link TimeoutException}.
+     */
+    public <R> CompletableFuture<R> execute(CallStarter<R> starter, AsyncCallPolicy policy, boolean idempotent) {
+        int maxAttempts = idempotent ? policy.getMaxAttempts() : 1;
+        boolean hedged = idempotent && policy.getHedgeDelayMillis() > 0;
+
+        CompletableFuture<R> result = new CompletableFuture<R>();
+        AtomicReference<CompletableFuture<R>> current = new AtomicReference<CompletableFuture<R>>();
+        runAttempt(starter, policy, hedged, maxAttempts, 1, result, current);
+
+        ScheduledFuture<?> deadline = policy.getOverallTimeoutMillis() > 0
+                ? timer.schedule(() -> result.completeExceptionally(new TimeoutException(
+                        "Call did not complete within " + policy.getOverallTimeoutMillis() + " ms")),
+                        policy.getOverallTimeoutMillis(), TimeUnit.MILLISECONDS)
+                : null;
+
+        result.whenComplete((value, error) -> {
+            if (deadline != null) {
+                deadline.cancel(false);
+            }
+            // propagates cancellation and the overall timeout to whatever is in flight
+            CompletableFuture<R> inFlight = current.get();
+            if (inFlight != null) {
+                inFlight.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private <R> void runAttempt(CallStarter<R> starter, AsyncCallPolicy policy, boolean hedged, int maxAttempts,
+                                int attempt, CompletableFuture<R> result, AtomicReference<CompletableFuture<R>> current) {
+        if (result.isDone()) {
+            return;
+        }
+        CompletableFuture<R> future = hedged ? hedgedAttempt(starter, policy) : attempt(starter, policy.getAttemptTimeoutMillis());
+        current.set(future);
+        if (result.isDone()) {
+            // lost a race with cancellation between the check above and publishing the attempt
+            future.cancel(true);
+            return;
+        }
+        future.whenComplete((value, error) -> {
+            if (error == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            if (attempt < maxAttempts && !result.isDone() && isRetryable(cause)) {
+                timer.schedule(() -> runAttempt(starter, policy, hedged, maxAttempts, attempt + 1, result, current),
+                        backoffMillis(policy, attempt, cause), TimeUnit.MILLISECONDS);
+            } else {
+                result.completeExceptionally(cause);
+            }
+        });
+    }
+
+    /**
+     * One HTTP call with its own timeout. Completing the future early in any way cancels the call.
+     */
+    private <R> CompletableFuture<R> attempt(CallStarter<R> starter, long timeoutMillis) {
+        CompletableFuture<R> future = new CompletableFuture<R>();
+        final okhttp3.Call call;
+        try {
+            call = starter.start(new FutureCallback<R>(future));
+        } catch (ApiException e) {
+            future.completeExceptionally(e);
+            return future;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(new ApiException(e));
+            return future;
+        }
+
+        ScheduledFuture<?> timeout = timeoutMillis > 0
+                ? timer.schedule(() -> future.completeExceptionally(new TimeoutException(
+                        "Attempt did not complete within " + timeoutMillis + " ms")), timeoutMillis, TimeUnit.MILLISECONDS)
+                : null;
+        future.whenComplete((value, error) -> {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+            if (error != null) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Primary attempt plus, if it is still outstanding after the hedge delay, one duplicate. The first success
+     * wins and the other call is cancelled; the attempt only fails once every launched call has failed.
+     */
+    private <R> CompletableFuture<R> hedgedAttempt(CallStarter<R> starter, AsyncCallPolicy policy) {
+        CompletableFuture<R> winner = new CompletableFuture<R>();
+        List<CompletableFuture<R>> launched = new CopyOnWriteArrayList<CompletableFuture<R>>();
+        AtomicInteger pending = new AtomicInteger();
+
+        launch(starter, policy, winner, launched, pending);
+        ScheduledFuture<?> hedge = timer.schedule(() -> {
+            if (!winner.isDone()) {
+                launch(starter, policy, winner, launched, pending);
+            }
+        }, policy.getHedgeDelayMillis(), TimeUnit.MILLISECONDS);
+
+        winner.whenComplete((value, error) -> {
+            hedge.cancel(false);
+            for (CompletableFuture<R> call : launched) {
+                call.cancel(true);
+            }
+        });
+        return winner;
+    }
+
+    private <R> void launch(CallStarter<R> starter, AsyncCallPolicy policy, CompletableFuture<R> winner,
+                            List<CompletableFuture<R>> launched, AtomicInteger pending) {
+        pending.incrementAndGet();
+        CompletableFuture<R> call = attempt(starter, policy.getAttemptTimeoutMillis());
+        launched.add(call);
+        call.whenComplete((value, error) -> {
+            if (error == null) {
+                winner.complete(value);
+            } else if (pending.decrementAndGet() == 0) {
+                winner.completeExceptionally(unwrap(error));
+            }
+        });
+    }
+
+    /**
+     * Connection failures, timeouts, 429 and 5xx are worth another attempt; other 4xx are not.
+     */
+    static boolean isRetryable(Throwable error) {
+        if (error instanceof CancellationException) {
+            return false;
+        }
+        if (error instanceof TimeoutException) {
+            return true;
+        }
+        if (error instanceof ApiException) {
+            int code = ((ApiException) error).getCode();
+            return code == 0 || code == 429 || code >= 500;
+        }
+        return false;
+    }
+
+    /**
+     * Full jitter: a random delay up to {@code initial * 2^(attempt-1)}, capped at {@code maxBackoffMillis}, but never
+     * shorter than a server-provided {@code Retry-After}. The cap does not apply to {@code Retry-After}: a throttling
+     * server is not retried earlier than it asked, and the overall timeout bounds how long that may take.
+     */
+    static long backoffMillis(AsyncCallPolicy policy, int attempt, Throwable error) {
+        long ceiling = Math.min(policy.getMaxBackoffMillis(),
+                policy.getInitialBackoffMillis() << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(Math.max(1, ceiling) + 1);
+        return Math.max(delay, retryAfterMillis(error));
+    }
+
+    private static long retryAfterMillis(Throwable error) {
+        if (!(error instanceof ApiException)) {
+            return 0;
+        }
+        Map<String, List<String>> headers = ((ApiException) error).getResponseHeaders();
+        if (headers == null) {
+            return 0;
+        }
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if ("Retry-After".equalsIgnoreCase(header.getKey()) && !header.getValue().isEmpty()) {
+                try {
+                    return TimeUnit.SECONDS.toMillis(Long.parseLong(header.getValue().get(0).trim()));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static ScheduledExecutorService newTimer() {
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "api-client-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+
+    /**
+     * Bridges {@link ApiCallback} to a future.
+     */
+    private static final class FutureCallback<R> implements ApiCallback<R> {
+
+        private final CompletableFuture<R> future;
+
+        FutureCallback(CompletableFuture<R> future) {
+            this.future = future;
+        }
+
+        @Override
+        public void onFailure(ApiException e, int statusCode, Map<String, List<String>> responseHeaders) {
+            future.completeExceptionally(e);
+        }
+
+        @Override
+        public void onSuccess(R result, int statusCode, Map<String, List<String>> responseHeaders) {
+            future.complete(result);
+        }
+
+        @Override
+        public void onUploadProgress(long bytesWritten, long contentLength, boolean done) {
+        }
+
+        @Override
+        public void onDownloadProgress(long bytesRead, long contentLength, boolean done) {
+        }
+    }
+}
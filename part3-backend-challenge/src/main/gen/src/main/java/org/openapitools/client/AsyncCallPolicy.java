@@ -0,0 +1,120 @@
+package org.openapitools.client;
+
+/**
+ * Timeouts, retry and hedging settings for calls made through {@link AsyncApiExecutor}.
+ * <p>
+ * Retries and hedging only apply to idempotent operations; the executor runs other operations once.
+ */
+public class AsyncCallPolicy {
+
+    private long attemptTimeoutMillis = 10_000;
+    private long overallTimeoutMillis = 0;
+    private int maxAttempts = 3;
+    private long initialBackoffMillis = 100;
+    private long maxBackoffMillis = 2_000;
+    private long hedgeDelayMillis = 0;
+
+    /**
+     * @return A policy with the defaults: 10s per attempt, 3 attempts, 100ms-2s backoff, no hedging
+     */
+    public static AsyncCallPolicy defaults() {
+        return new AsyncCallPolicy();
+    }
+
+    /**
+     * @return A copy of this policy
+     */
+    public AsyncCallPolicy copy() {
+        return new AsyncCallPolicy()
+                .attemptTimeoutMillis(attemptTimeoutMillis)
+                .overallTimeoutMillis(overallTimeoutMillis)
+                .maxAttempts(maxAttempts)
+                .initialBackoffMillis(initialBackoffMillis)
+                .maxBackoffMillis(maxBackoffMillis)
+                .hedgeDelayMillis(hedgeDelayMillis);
+    }
+
+    /**
+     * @param attemptTimeoutMillis Time allowed for a single HTTP attempt; 0 disables the timeout
+     * @return this policy
+     */
+    public AsyncCallPolicy attemptTimeoutMillis(long attemptTimeoutMillis) {
+        this.attemptTimeoutMillis = attemptTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * @param overallTimeoutMillis Time allowed for the call including retries and backoff; 0 disables the timeout
+     * @return this policy
+     */
+    public AsyncCallPolicy overallTimeoutMillis(long overallTimeoutMillis) {
+        this.overallTimeoutMillis = overallTimeoutMillis;
+        return this;
+    }
+
+    /**
+     * @param maxAttempts Total attempts for idempotent operations, including the first one
+     * @return this policy
+     */
+    public AsyncCallPolicy maxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * @param initialBackoffMillis Upper bound of the first retry delay; doubles on every retry
+     * @return this policy
+     */
+    public AsyncCallPolicy initialBackoffMillis(long initialBackoffMillis) {
+        this.initialBackoffMillis = initialBackoffMillis;
+        return this;
+    }
+
+    /**
+     * @param maxBackoffMillis Cap on the computed retry delay; a longer server {@code Retry-After} is still honoured
+     * @return this policy
+     */
+    public AsyncCallPolicy maxBackoffMillis(long maxBackoffMillis) {
+        this.maxBackoffMillis = maxBackoffMillis;
+        return this;
+    }
+
+    /**
+     * Send a second, identical request when the first has not answered after this delay, and use whichever
+     * answers first. Set it near the observed p95 latency so that only the slow tail is duplicated.
+     *
+     * @param hedgeDelayMillis Delay before the hedge request; 0 disables hedging
+     * @return this policy
+     */
+    public AsyncCallPolicy hedgeDelayMillis(long hedgeDelayMillis) {
+        this.hedgeDelayMillis = hedgeDelayMillis;
+        return this;
+    }
+
+    public long getAttemptTimeoutMillis() {
+        return attemptTimeoutMillis;
+    }
+
+    public long getOverallTimeoutMillis() {
+        return overallTimeoutMillis;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public long getInitialBackoffMillis() {
+        return initialBackoffMillis;
+    }
+
+    public long getMaxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    public long getHedgeDelayMillis() {
+        return hedgeDelayMillis;
+    }
+}
@@ -0,0 +1,155 @@
+package org.openapitools.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Runs many asynchronous API calls with at most {@code maxConcurrency} outstanding at once.
+ * <p>
+ * Calls are issued through the generated {@code *Async} methods, so they run on the OkHttp dispatcher and, with
+ * HTTP/2, are multiplexed over shared connections. The calling thread only blocks while waiting for a free slot
+ * and for the last response.
+ *
+ * <pre>
+ * List&lt;BulkCall.Outcome&lt;Map&lt;String, Object&gt;&gt;&gt; pages = BulkCall.execute(merchantIds, 64,
+ *         (merchantId, callback) -&gt; api.getTransactionsAsync(merchantId, 0, 100, null, null, null, callback));
+ * </pre>
+ */
+public final class BulkCall {
+
+    private BulkCall() {
+    }
+
+    /**
+     * Starts one asynchronous call for an input item.
+     *
+     * @param <T> Input type
+     * @param <R> Result type
+     */
+    public interface AsyncInvoker<T, R> {
+        okhttp3.Call invoke(T input, ApiCallback<R> callback) throws ApiException;
+    }
+
+    /**
+     * Issue one call per input and wait for all of them.
+     *
+     * @param <T>            Input type
+     * @param <R>            Result type
+     * @param inputs         Items to call the API for
+     * @param maxConcurrency Maximum number of calls in flight
+     * @param invoker        Starts the call for one item
+     * @return One outcome per input, in input order
+     * @throws InterruptedException If the calling thread is interrupted while waiting
+     */
+    public static <T, R> List<Outcome<R>> execute(List<T> inputs, int maxConcurrency, AsyncInvoker<T, R> invoker)
+            throws InterruptedException {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be at least 1");
+        }
+        int size = inputs.size();
+        AtomicReferenceArray<Outcome<R>> outcomes = new AtomicReferenceArray<Outcome<R>>(size);
+        CountDownLatch done = new CountDownLatch(size);
+        Semaphore slots = new Semaphore(maxConcurrency);
+
+        for (int i = 0; i < size; i++) {
+            slots.acquire();
+            SlotCallback<R> callback = new SlotCallback<R>(i, outcomes, done, slots);
+            try {
+                invoker.invoke(inputs.get(i), callback);
+            } catch (ApiException e) {
+                callback.onFailure(e, e.getCode(), e.getResponseHeaders());
+            } catch (RuntimeException e) {
+                callback.onFailure(new ApiException(e), 0, null);
+            }
+        }
+        done.await();
+
+        List<Outcome<R>> result = new ArrayList<Outcome<R>>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(outcomes.get(i));
+        }
+        return result;
+    }
+
+    /**
+     * Completes one slot: stores the outcome and frees a permit for the next call.
+     */
+    private static final class SlotCallback<R> implements ApiCallback<R> {
+
+        private final int index;
+        private final AtomicReferenceArray<Outcome<R>> outcomes;
+        private final CountDownLatch done;
+        private final Semaphore slots;
+
+        SlotCallback(int index, AtomicReferenceArray<Outcome<R>> outcomes, CountDownLatch done, Semaphore slots) {
+            this.index = index;
+            this.outcomes = outcomes;
+            this.done = done;
+            this.slots = slots;
+        }
+
+        @Override
+        public void onFailure(ApiException e, int statusCode, Map<String, List<String>> responseHeaders) {
+            complete(new Outcome<R>(null, e, statusCode));
+        }
+
+        @Override
+        public void onSuccess(R result, int statusCode, Map<String, List<String>> responseHeaders) {
+            complete(new Outcome<R>(result, null, statusCode));
+        }
+
+        @Override
+        public void onUploadProgress(long bytesWritten, long contentLength, boolean done) {
+        }
+
+        @Override
+        public void onDownloadProgress(long bytesRead, long contentLength, boolean done) {
+        }
+
+        private void complete(Outcome<R> outcome) {
+            // a callback may fire twice if the invoker both threw and reported; only the first one counts
+            if (outcomes.compareAndSet(index, null, outcome)) {
+                slots.release();
+                done.countDown();
+            }
+        }
+    }
+
+    /**
+     * Result of one call: either a value or the exception that ended it.
+     *
+     * @param <R> Result type
+     */
+    public static final class Outcome<R> {
+
+        private final R result;
+        private final ApiException error;
+        private final int statusCode;
+
+        Outcome(R result, ApiException error, int statusCode) {
+            this.result = result;
+            this.error = error;
+            this.statusCode = statusCode;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        public R getResult() {
+            return result;
+        }
+
+        public ApiException getError() {
+            return error;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package org.openapitools.client;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonPrimitive;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+
+/**
+ * CBOR (RFC 8949) encoding of the API models.
+ * <p>
+ * Models are bound with the same Gson instance and type adapters as {@link JSON}; only the token stream
+ * underneath is binary. Amounts travel as CBOR decimal fractions, so {@code BigDecimal} values keep their scale.
+ * <p>
+ * Decoding reads the CBOR value into a Gson {@link JsonElement} tree first and binds that, because Gson's own
+ * adapters (maps in particular) rely on internals of {@link com.google.gson.stream.JsonReader} that a subclass
+ * cannot provide.
+ */
+public class CBOR {
+
+    public static final String MEDIA_TYPE = "application/cbor";
+
+    private static final CBORFactory FACTORY = new CBORFactory();
+
+    private CBOR() {
+    }
+
+    /**
+     * Check if the given MIME is CBOR, ignoring parameters such as charset.
+     *
+     * @param mime MIME (Multipurpose Internet Mail Extensions)
+     * @return True if the given MIME is CBOR, false otherwise.
+     */
+    public static boolean isCborMime(String mime) {
+        if (mime == null) {
+            return false;
+        }
+        int semicolon = mime.indexOf(';');
+        String pure = (semicolon >= 0 ? mime.substring(0, semicolon) : mime).trim();
+        return MEDIA_TYPE.equalsIgnoreCase(pure);
+    }
+
+    /**
+     * Serialize the given Java object into CBOR.
+     *
+     * @param obj Object
+     * @return CBOR bytes
+     */
+    public static byte[] serialize(Object obj) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = FACTORY.createGenerator(out);
+             CborJsonWriter writer = new CborJsonWriter(generator)) {
+            if (obj == null) {
+                writer.nullValue();
+            } else {
+                JSON.getGson().toJson(obj, obj.getClass(), writer);
+            }
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Deserialize the given CBOR stream to Java object. The stream is not closed.
+     *
+     * @param <T>        Type
+     * @param body       The CBOR stream
+     * @param returnType The type to deserialize into
+     * @return The deserialized Java object, or null for an empty body
+     */
+    public static <T> T deserialize(InputStream body, Type returnType) {
+        try (JsonParser parser = FACTORY.createParser(body)) {
+            if (parser.nextToken() == null) {
+                return null;
+            }
+            return JSON.getGson().fromJson(readTree(parser), returnType);
+        } catch (IOException e) {
+            throw new JsonParseException(e);
+        }
+    }
+
+    /**
+     * Read the value starting at the parser's current token. The parser is left on the last token of the value.
+     *
+     * @param parser Parser positioned on the first token of a value
+     * @return The value as a Gson tree
+     * @throws IOException If the value cannot be read
+     */
+    static JsonElement readTree(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            throw new JsonParseException("Expected a value but was end of input");
+        }
+        switch (token) {
+            case START_OBJECT:
+                JsonObject object = new JsonObject();
+                for (token = parser.nextToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                    String name = parser.getCurrentName();
+                    parser.nextToken();
+                    object.add(name, readTree(parser));
+                }
+                if (token != JsonToken.END_OBJECT) {
+                    throw new JsonParseException("Unterminated object at " + parser.getParsingContext().pathAsPointer());
+                }
+                return object;
+            case START_ARRAY:
+                JsonArray array = new JsonArray();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    array.add(readTree(parser));
+                }
+                return array;
+            case VALUE_STRING:
+                return new JsonPrimitive(parser.getText());
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                // decimal fractions come back as BigDecimal with their scale
+                return new JsonPrimitive(parser.getNumberValue());
+            case VALUE_TRUE:
+                return new JsonPrimitive(Boolean.TRUE);
+            case VALUE_FALSE:
+                return new JsonPrimitive(Boolean.FALSE);
+            case VALUE_NULL:
+                return JsonNull.INSTANCE;
+            case VALUE_EMBEDDED_OBJECT:
+                // byte strings, as Gson would expect them in JSON
+                return new JsonPrimitive(Base64Variants.getDefaultVariant().encode(parser.getBinaryValue()));
+            default:
+                throw new JsonParseException("Unexpected " + token + " at "
+                        + parser.getParsingContext().pathAsPointer());
+        }
+    }
+}
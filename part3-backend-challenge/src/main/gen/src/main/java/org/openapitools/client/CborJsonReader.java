@@ -0,0 +1,255 @@
+package org.openapitools.client;
+
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonParser;
+import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+/**
+ * Gson {@link JsonReader} backed by a Jackson CBOR parser, used by {@link JsonStreamReader} to walk a CBOR
+ * envelope token by token.
+ * <p>
+ * Values are not bound through this reader: Gson's adapters reach into {@link JsonReader} internals (map keys
+ * go through {@code promoteNameToValue}) that a subclass cannot update. Read each value with
+ * {@link #nextJsonElement()} and bind the tree instead.
+ */
+class CborJsonReader extends JsonReader {
+
+    private static final Reader UNREADABLE = new StringReader("");
+
+    private final JsonParser parser;
+    private com.fasterxml.jackson.core.JsonToken current;
+
+    CborJsonReader(JsonParser parser) {
+        super(UNREADABLE);
+        this.parser = parser;
+    }
+
+    @Override
+    public void beginArray() throws IOException {
+        expect(com.fasterxml.jackson.core.JsonToken.START_ARRAY);
+    }
+
+    @Override
+    public void endArray() throws IOException {
+        expect(com.fasterxml.jackson.core.JsonToken.END_ARRAY);
+    }
+
+    @Override
+    public void beginObject() throws IOException {
+        expect(com.fasterxml.jackson.core.JsonToken.START_OBJECT);
+    }
+
+    @Override
+    public void endObject() throws IOException {
+        expect(com.fasterxml.jackson.core.JsonToken.END_OBJECT);
+    }
+
+    @Override
+    public boolean hasNext() throws IOException {
+        fill();
+        return current != null
+                && current != com.fasterxml.jackson.core.JsonToken.END_OBJECT
+                && current != com.fasterxml.jackson.core.JsonToken.END_ARRAY;
+    }
+
+    @Override
+    public JsonToken peek() throws IOException {
+        fill();
+        if (current == null) {
+            return JsonToken.END_DOCUMENT;
+        }
+        switch (current) {
+            case START_ARRAY:
+                return JsonToken.BEGIN_ARRAY;
+            case END_ARRAY:
+                return JsonToken.END_ARRAY;
+            case START_OBJECT:
+                return JsonToken.BEGIN_OBJECT;
+            case END_OBJECT:
+                return JsonToken.END_OBJECT;
+            case FIELD_NAME:
+                return JsonToken.NAME;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return JsonToken.NUMBER;
+            case VALUE_TRUE:
+            case VALUE_FALSE:
+                return JsonToken.BOOLEAN;
+            case VALUE_NULL:
+                return JsonToken.NULL;
+            default:
+                // text and byte strings
+                return JsonToken.STRING;
+        }
+    }
+
+    @Override
+    public String nextName() throws IOException {
+        fill();
+        if (current != com.fasterxml.jackson.core.JsonToken.FIELD_NAME) {
+            throw unexpected("a name");
+        }
+        String name = parser.getCurrentName();
+        current = null;
+        return name;
+    }
+
+    /**
+     * Read the next value as a Gson tree, e.g. one array element.
+     *
+     * @return The value
+     * @throws IOException If the value cannot be read
+     */
+    JsonElement nextJsonElement() throws IOException {
+        fill();
+        if (current == null || current == com.fasterxml.jackson.core.JsonToken.FIELD_NAME
+                || current == com.fasterxml.jackson.core.JsonToken.END_OBJECT
+                || current == com.fasterxml.jackson.core.JsonToken.END_ARRAY) {
+            throw unexpected("a value");
+        }
+        JsonElement value = CBOR.readTree(parser);
+        current = null;
+        return value;
+    }
+
+    @Override
+    public String nextString() throws IOException {
+        fill();
+        String value;
+        switch (current == null ? com.fasterxml.jackson.core.JsonToken.NOT_AVAILABLE : current) {
+            case FIELD_NAME:
+                // a map key read as a value, as JsonReader allows after promoteNameToValue
+                value = parser.getCurrentName();
+                break;
+            case VALUE_STRING:
+                value = parser.getText();
+                break;
+            case VALUE_NUMBER_INT:
+                value = parser.getBigIntegerValue().toString();
+                break;
+            case VALUE_NUMBER_FLOAT:
+                // decimal fractions come back exact; plain doubles go through BigDecimal's shortest form
+                value = parser.getDecimalValue().toString();
+                break;
+            case VALUE_EMBEDDED_OBJECT:
+                value = Base64Variants.getDefaultVariant().encode(parser.getBinaryValue());
+                break;
+            default:
+                throw unexpected("a string");
+        }
+        current = null;
+        return value;
+    }
+
+    @Override
+    public boolean nextBoolean() throws IOException {
+        fill();
+        if (current != com.fasterxml.jackson.core.JsonToken.VALUE_TRUE
+                && current != com.fasterxml.jackson.core.JsonToken.VALUE_FALSE) {
+            throw unexpected("a boolean");
+        }
+        boolean value = current == com.fasterxml.jackson.core.JsonToken.VALUE_TRUE;
+        current = null;
+        return value;
+    }
+
+    @Override
+    public void nextNull() throws IOException {
+        expect(com.fasterxml.jackson.core.JsonToken.VALUE_NULL);
+    }
+
+    @Override
+    public double nextDouble() throws IOException {
+        fill();
+        double value;
+        if (current == com.fasterxml.jackson.core.JsonToken.VALUE_STRING) {
+            value = Double.parseDouble(parser.getText());
+        } else if (current != null && current.isNumeric()) {
+            value = parser.getDoubleValue();
+        } else {
+            throw unexpected("a double");
+        }
+        current = null;
+        return value;
+    }
+
+    @Override
+    public long nextLong() throws IOException {
+        fill();
+        long value;
+        if (current == com.fasterxml.jackson.core.JsonToken.VALUE_STRING) {
+            value = Long.parseLong(parser.getText());
+        } else if (current == com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT) {
+            value = parser.getLongValue();
+        } else {
+            throw unexpected("a long");
+        }
+        current = null;
+        return value;
+    }
+
+    @Override
+    public int nextInt() throws IOException {
+        fill();
+        int value;
+        if (current == com.fasterxml.jackson.core.JsonToken.VALUE_STRING) {
+            value = Integer.parseInt(parser.getText());
+        } else if (current == com.fasterxml.jackson.core.JsonToken.VALUE_NUMBER_INT) {
+            value = parser.getIntValue();
+        } else {
+            throw unexpected("an int");
+        }
+        current = null;
+        return value;
+    }
+
+    @Override
+    public void skipValue() throws IOException {
+        fill();
+        if (current == com.fasterxml.jackson.core.JsonToken.START_OBJECT
+                || current == com.fasterxml.jackson.core.JsonToken.START_ARRAY) {
+            parser.skipChildren();
+        }
+        current = null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        current = null;
+        parser.close();
+    }
+
+    @Override
+    public String getPath() {
+        return parser.getParsingContext().pathAsPointer().toString();
+    }
+
+    @Override
+    public String toString() {
+        return "CborJsonReader at " + getPath();
+    }
+
+    private void fill() throws IOException {
+        if (current == null) {
+            current = parser.nextToken();
+        }
+    }
+
+    private void expect(com.fasterxml.jackson.core.JsonToken expected) throws IOException {
+        fill();
+        if (current != expected) {
+            throw unexpected(expected.name());
+        }
+        current = null;
+    }
+
+    private IllegalStateException unexpected(String expected) {
+        return new IllegalStateException("Expected " + expected + " but was " + current + " at path " + getPath());
+    }
+}
@@ -0,0 +1,223 @@
+package org.openapitools.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Gson {@link JsonWriter} backed by a Jackson CBOR generator, so generated models and their type adapters can be
+ * written as CBOR without an intermediate JSON document.
+ * <p>
+ * Like {@link JsonWriter}, a name is held back until its value arrives so that null members can be dropped
+ * when null serialization is off.
+ */
+class CborJsonWriter extends JsonWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final Writer UNWRITABLE = new Writer() {
+        @Override
+        public void write(char[] buffer, int offset, int counter) {
+            throw new AssertionError();
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    private final JsonGenerator generator;
+    private String deferredName;
+
+    CborJsonWriter(JsonGenerator generator) {
+        super(UNWRITABLE);
+        this.generator = generator;
+    }
+
+    @Override
+    public JsonWriter beginArray() throws IOException {
+        writeDeferredName();
+        generator.writeStartArray();
+        return this;
+    }
+
+    @Override
+    public JsonWriter endArray() throws IOException {
+        generator.writeEndArray();
+        return this;
+    }
+
+    @Override
+    public JsonWriter beginObject() throws IOException {
+        writeDeferredName();
+        generator.writeStartObject();
+        return this;
+    }
+
+    @Override
+    public JsonWriter endObject() throws IOException {
+        if (deferredName != null) {
+            throw new IllegalStateException("Dangling name: " + deferredName);
+        }
+        generator.writeEndObject();
+        return this;
+    }
+
+    @Override
+    public JsonWriter name(String name) throws IOException {
+        if (name == null) {
+            throw new NullPointerException("name == null");
+        }
+        if (deferredName != null) {
+            throw new IllegalStateException("Name already set: " + deferredName);
+        }
+        deferredName = name;
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        writeDeferredName();
+        generator.writeString(value);
+        return this;
+    }
+
+    /**
+     * Writes one raw JSON value by parsing it and copying its tokens. Fractions are copied as decimals so they
+     * keep their scale, as {@link #value(Number)} does for {@code BigDecimal}.
+     */
+    @Override
+    public JsonWriter jsonValue(String value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        writeDeferredName();
+        try (JsonParser parser = JSON_FACTORY.createParser(value)) {
+            int depth = 0;
+            do {
+                JsonToken token = parser.nextToken();
+                if (token == null) {
+                    throw new IOException("Incomplete JSON value: " + value);
+                }
+                if (token.isStructStart()) {
+                    depth++;
+                } else if (token.isStructEnd()) {
+                    depth--;
+                }
+                if (token == JsonToken.VALUE_NUMBER_FLOAT) {
+                    generator.writeNumber(parser.getDecimalValue());
+                } else {
+                    generator.copyCurrentEvent(parser);
+                }
+            } while (depth > 0);
+            if (parser.nextToken() != null) {
+                throw new IOException("More than one JSON value: " + value);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public JsonWriter nullValue() throws IOException {
+        if (deferredName != null) {
+            if (!getSerializeNulls()) {
+                deferredName = null;
+                return this;
+            }
+            writeDeferredName();
+        }
+        generator.writeNull();
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(boolean value) throws IOException {
+        writeDeferredName();
+        generator.writeBoolean(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Boolean value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        return value(value.booleanValue());
+    }
+
+    @Override
+    public JsonWriter value(float value) throws IOException {
+        writeDeferredName();
+        generator.writeNumber(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(double value) throws IOException {
+        writeDeferredName();
+        generator.writeNumber(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(long value) throws IOException {
+        writeDeferredName();
+        generator.writeNumber(value);
+        return this;
+    }
+
+    @Override
+    public JsonWriter value(Number value) throws IOException {
+        if (value == null) {
+            return nullValue();
+        }
+        writeDeferredName();
+        if (value instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            generator.writeNumber((BigInteger) value);
+        } else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            generator.writeNumber(value.longValue());
+        } else if (value instanceof Float) {
+            generator.writeNumber(value.floatValue());
+        } else if (value instanceof Double) {
+            generator.writeNumber(value.doubleValue());
+        } else {
+            // LazilyParsedNumber and other textual numbers
+            generator.writeNumber(new BigDecimal(value.toString()));
+        }
+        return this;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+
+    private void writeDeferredName() throws IOException {
+        if (deferredName != null) {
+            generator.writeFieldName(deferredName);
+            deferredName = null;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package org.openapitools.client;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and throughput counters for an {@link okhttp3.OkHttpClient}, collected through {@link EventListener}.
+ * <p>
+ * Register with {@link ApiClientFactory#metrics(ClientMetrics)}. Counters are lock free; latencies are kept in
+ * power-of-two microsecond buckets, so percentiles are accurate to within a factor of two.
+ */
+public class ClientMetrics implements EventListener.Factory {
+
+    private static final int BUCKETS = 40;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder inFlight = new LongAdder();
+    private final LongAdder connectionsOpened = new LongAdder();
+    private final LongAdder connectionsAcquired = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder firstByteNanos = new LongAdder();
+    private final LongAdder firstByteSamples = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final LongAdder[] latencyBuckets = new LongAdder[BUCKETS];
+    private volatile long windowStartNanos = System.nanoTime();
+
+    public ClientMetrics() {
+        for (int i = 0; i < BUCKETS; i++) {
+            latencyBuckets[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public EventListener create(Call call) {
+        return new CallListener();
+    }
+
+    /**
+     * Take a consistent-enough view of the counters. Throughput is measured since creation or the last
+     * {@link #reset()}.
+     *
+     * @return Snapshot
+     */
+    public Snapshot snapshot() {
+        long completed = calls.sum();
+        long elapsedNanos = Math.max(1, System.nanoTime() - windowStartNanos);
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = latencyBuckets[i].sum();
+        }
+        long samples = firstByteSamples.sum();
+        return new Snapshot(
+                completed,
+                failures.sum(),
+                inFlight.sum(),
+                connectionsOpened.sum(),
+                connectionsAcquired.sum(),
+                completed == 0 ? 0 : toMillis(latencyNanos.sum()) / completed,
+                toMillis(maxLatencyNanos.get()),
+                percentileMillis(counts, completed, 0.50),
+                percentileMillis(counts, completed, 0.99),
+                samples == 0 ? 0 : toMillis(firstByteNanos.sum()) / samples,
+                completed * 1_000_000_000.0 / elapsedNanos);
+    }
+
+    /**
+     * Clear all counters except the in-flight gauge and start a new throughput window.
+     */
+    public void reset() {
+        calls.reset();
+        failures.reset();
+        connectionsOpened.reset();
+        connectionsAcquired.reset();
+        latencyNanos.reset();
+        firstByteNanos.reset();
+        firstByteSamples.reset();
+        maxLatencyNanos.set(0);
+        for (LongAdder bucket : latencyBuckets) {
+            bucket.reset();
+        }
+        windowStartNanos = System.nanoTime();
+    }
+
+    private void recordCall(long nanos, boolean failed) {
+        calls.increment();
+        if (failed) {
+            failures.increment();
+        }
+        inFlight.decrement();
+        latencyNanos.add(nanos);
+        maxLatencyNanos.accumulateAndGet(nanos, Math::max);
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        latencyBuckets[bucket].increment();
+    }
+
+    private static double percentileMillis(long[] counts, long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // upper bound of bucket i is 2^i microseconds
+                return (1L << i) / 1000.0;
+            }
+        }
+        return (1L << (counts.length - 1)) / 1000.0;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    /**
+     * Per-call listener. OkHttp creates one per call and invokes it from a single thread at a time.
+     */
+    private final class CallListener extends EventListener {
+
+        private long callStartNanos;
+
+        @Override
+        public void callStart(Call call) {
+            callStartNanos = System.nanoTime();
+            inFlight.increment();
+        }
+
+        @Override
+        public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+            connectionsOpened.increment();
+        }
+
+        @Override
+        public void connectionAcquired(Call call, Connection connection) {
+            connectionsAcquired.increment();
+        }
+
+        @Override
+        public void responseHeadersEnd(Call call, Response response) {
+            firstByteNanos.add(System.nanoTime() - callStartNanos);
+            firstByteSamples.increment();
+        }
+
+        @Override
+        public void callEnd(Call call) {
+            recordCall(System.nanoTime() - callStartNanos, false);
+        }
+
+        @Override
+        public void callFailed(Call call, IOException ioe) {
+            recordCall(System.nanoTime() - callStartNanos, true);
+        }
+    }
+
+    /**
+     * Point-in-time view of {@link ClientMetrics}.
+     */
+    public static class Snapshot {
+
+        private final long calls;
+        private final long failures;
+        private final long inFlight;
+        private final long connectionsOpened;
+        private final long connectionsAcquired;
+        private final double meanLatencyMillis;
+        private final double maxLatencyMillis;
+        private final double p50LatencyMillis;
+        private final double p99LatencyMillis;
+        private final double meanTimeToFirstByteMillis;
+        private final double callsPerSecond;
+
+        Snapshot(long calls, long failures, long inFlight, long connectionsOpened, long connectionsAcquired,
+                 double meanLatencyMillis, double maxLatencyMillis, double p50LatencyMillis, double p99LatencyMillis,
+                 double meanTimeToFirstByteMillis, double callsPerSecond) {
+            this.calls = calls;
+            this.failures = failures;
+            this.inFlight = inFlight;
+            this.connectionsOpened = connectionsOpened;
+            this.connectionsAcquired = connectionsAcquired;
+            this.meanLatencyMillis = meanLatencyMillis;
+            this.maxLatencyMillis = maxLatencyMillis;
+            this.p50LatencyMillis = p50LatencyMillis;
+            this.p99LatencyMillis = p99LatencyMillis;
+            this.meanTimeToFirstByteMillis = meanTimeToFirstByteMillis;
+            this.callsPerSecond = callsPerSecond;
+        }
+
+        public long getCalls() {
+            return calls;
+        }
+
+        public long getFailures() {
+            return failures;
+        }
+
+        public long getInFlight() {
+            return inFlight;
+        }
+
+        public long getConnectionsOpened() {
+            return connectionsOpened;
+        }
+
+        public long getConnectionsAcquired() {
+            return connectionsAcquired;
+        }
+
+        public double getMeanLatencyMillis() {
+            return meanLatencyMillis;
+        }
+
+        public double getMaxLatencyMillis() {
+            return maxLatencyMillis;
+        }
+
+        public double getP50LatencyMillis() {
+            return p50LatencyMillis;
+        }
+
+        public double getP99LatencyMillis() {
+            return p99LatencyMillis;
+        }
+
+        public double getMeanTimeToFirstByteMillis() {
+            return meanTimeToFirstByteMillis;
+        }
+
+        public double getCallsPerSecond() {
+            return callsPerSecond;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "calls=%d failures=%d inFlight=%d connections=%d/%d latency(mean=%.2fms p50<=%.2fms p99<=%.2fms max=%.2fms) ttfb=%.2fms throughput=%.1f/s",
+                    calls, failures, inFlight, connectionsOpened, connectionsAcquired, meanLatencyMillis,
+                    p50LatencyMillis, p99LatencyMillis, maxLatencyMillis, meanTimeToFirstByteMillis, callsPerSecond);
+        }
+    }
+}
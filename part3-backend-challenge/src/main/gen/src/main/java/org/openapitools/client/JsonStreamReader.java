@@ -0,0 +1,261 @@
+package org.openapitools.client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads a large response one element at a time instead of binding the whole body into one object graph.
+ * <p>
+ * Two layouts are supported:
+ * <ul>
+ *   <li>{@link #ndjson(Response, Type) NDJSON}: one JSON value per line, as sent by
+ *   {@code /transactions/export};</li>
+ *   <li>{@link #array(Response, Type, String...) an array inside an envelope}, such as
+ *   {@code data.transactions} of a transaction page. The rest of the envelope (pagination, summary, response
+ *   code) is collected into {@link #getEnvelope()} as the reader passes it.</li>
+ * </ul>
+ * Memory use is bounded by the largest single element. CBOR bodies are read through the same API.
+ * Close the reader, or read it to the end, to release the connection.
+ *
+ * @param <T> Element type
+ */
+public class JsonStreamReader<T> implements Iterator<T>, Closeable {
+
+    private static final CBORFactory CBOR_FACTORY = new CBORFactory();
+
+    private final Response response;
+    private final JsonReader reader;
+    private final Type elementType;
+    private final String[] path;
+    private final JsonObject envelope = new JsonObject();
+    private final JsonObject[] levels;
+
+    private boolean started;
+    private boolean finished;
+    private long count;
+
+    private JsonStreamReader(Response response, JsonReader reader, Type elementType, String[] path) {
+        this.response = response;
+        this.reader = reader;
+        this.elementType = elementType;
+        this.path = path;
+        this.levels = new JsonObject[path.length];
+    }
+
+    /**
+     * Stream newline-delimited JSON values from the response body.
+     *
+     * @param <T>         Element type
+     * @param response    Successful response; the reader takes ownership of it
+     * @param elementType Type of each line
+     * @return Reader
+     * @throws IOException If the body cannot be opened
+     */
+    public static <T> JsonStreamReader<T> ndjson(Response response, Type elementType) throws IOException {
+        JsonReader reader = open(response);
+        // lenient mode accepts a sequence of top-level values
+        reader.setLenient(true);
+        return new JsonStreamReader<T>(response, reader, elementType, new String[0]);
+    }
+
+    /**
+     * Stream the elements of the array found at {@code path}, e.g. {@code "data", "transactions"}.
+     *
+     * @param <T>         Element type
+     * @param response    Successful response; the reader takes ownership of it
+     * @param elementType Type of each array element
+     * @param path        Member names leading from the root object to the array
+     * @return Reader
+     * @throws IOException If the body cannot be opened
+     */
+    public static <T> JsonStreamReader<T> array(Response response, Type elementType, String... path) throws IOException {
+        if (path.length == 0) {
+            throw new IllegalArgumentException("path must name at least one member");
+        }
+        return new JsonStreamReader<T>(response, open(response), elementType, path);
+    }
+
+    private static JsonReader open(Response response) throws IOException {
+        ResponseBody body = response.body();
+        if (body == null) {
+            throw new IOException("Response has no body");
+        }
+        if (CBOR.isCborMime(response.header("Content-Type"))) {
+            JsonParser parser = CBOR_FACTORY.createParser(body.byteStream());
+            return new CborJsonReader(parser);
+        }
+        return new JsonReader(body.charStream());
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            if (finished) {
+                return false;
+            }
+            if (!started) {
+                started = true;
+                if (path.length > 0 && !descend()) {
+                    finish();
+                    return false;
+                }
+            }
+            boolean more = path.length == 0 ? reader.peek() != JsonToken.END_DOCUMENT : reader.hasNext();
+            if (!more) {
+                finish();
+            }
+            return more;
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T element;
+        try {
+            element = read(elementType);
+        } catch (IOException e) {
+            closeQuietly();
+            throw new UncheckedIOException(e);
+        }
+        count++;
+        return element;
+    }
+
+    /**
+     * @return Number of elements returned so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Members around the array, e.g. {@code response_code} and {@code data.pagination}. Members after the array
+     * are only present once iteration has finished.
+     *
+     * @return Envelope without the streamed array
+     */
+    public JsonObject getEnvelope() {
+        return envelope;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        try {
+            reader.close();
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Walk from the root to the array named by {@code path}, keeping every other member in the envelope.
+     *
+     * @return False if some object on the path is missing or null
+     */
+    private boolean descend() throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            return false;
+        }
+        JsonObject current = envelope;
+        for (int level = 0; level < path.length; level++) {
+            reader.beginObject();
+            levels[level] = current;
+            boolean found = false;
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (!name.equals(path[level])) {
+                    current.add(name, readElement());
+                    continue;
+                }
+                boolean last = level == path.length - 1;
+                if (reader.peek() != (last ? JsonToken.BEGIN_ARRAY : JsonToken.BEGIN_OBJECT)) {
+                    // e.g. "data": null on an error response
+                    current.add(name, readElement());
+                    return false;
+                }
+                if (last) {
+                    reader.beginArray();
+                    return true;
+                }
+                JsonObject child = new JsonObject();
+                current.add(name, child);
+                current = child;
+                found = true;
+                break;
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * After the array: close it and collect the members that follow it on the way back up.
+     */
+    private void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        try {
+            if (path.length > 0 && levels[path.length - 1] != null && reader.peek() == JsonToken.END_ARRAY) {
+                reader.endArray();
+                for (int level = path.length - 1; level >= 0; level--) {
+                    JsonObject current = levels[level];
+                    while (reader.hasNext()) {
+                        current.add(reader.nextName(), readElement());
+                    }
+                    reader.endObject();
+                }
+            }
+        } finally {
+            closeQuietly();
+        }
+    }
+
+    private JsonElement readElement() throws IOException {
+        if (reader.peek() == JsonToken.NULL) {
+            reader.nextNull();
+            return JsonNull.INSTANCE;
+        }
+        return read(JsonElement.class);
+    }
+
+    private <V> V read(Type type) throws IOException {
+        if (reader instanceof CborJsonReader) {
+            // Gson adapters cannot run on the CBOR reader itself, see CborJsonReader
+            return JSON.getGson().fromJson(((CborJsonReader) reader).nextJsonElement(), type);
+        }
+        return JSON.getGson().fromJson(reader, type);
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException ignored) {
+            // the body is being discarded anyway
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package org.openapitools.client;
+
+import okhttp3.Cache;
+import okhttp3.Headers;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Opt-in HTTP cache for the API client, used through {@link ApiClientFactory#responseCache(ResponseCache)}.
+ * <p>
+ * Two layers, both driven by the server's {@code ETag} and {@code Cache-Control} headers:
+ * <ul>
+ *   <li>an in-memory LRU of recent GET bodies (merchant details, transaction pages) bounded by entry count and
+ *   bytes. Each use revalidates with {@code If-None-Match}; a {@code 304} is answered from memory without
+ *   reading a body from the network or the disk;</li>
+ *   <li>OkHttp's disk {@link Cache}, which keeps everything else and survives restarts.</li>
+ * </ul>
+ * Responses marked {@code no-store}, without an {@code ETag}, or larger than the per-entry limit are never
+ * kept in memory.
+ */
+public class ResponseCache implements Interceptor {
+
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String ETAG = "ETag";
+
+    private Cache diskCache;
+    private int maxEntries = 0;
+    private long maxBytes = 0;
+    private long maxEntryBytes = 256 * 1024;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<String, Entry>(16, 0.75f, true);
+    private long currentBytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder bytesServed = new LongAdder();
+
+    /**
+     * @param directory Directory for cached responses; must be private to this cache
+     * @param maxBytes  Maximum size of the directory
+     * @return this cache
+     */
+    public ResponseCache disk(File directory, long maxBytes) {
+        this.diskCache = new Cache(directory, maxBytes);
+        return this;
+    }
+
+    /**
+     * @param maxEntries Maximum number of bodies kept in memory; 0 disables the memory layer
+     * @param maxBytes   Maximum total size of bodies kept in memory
+     * @return this cache
+     */
+    public ResponseCache memory(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    /**
+     * @param maxEntryBytes Largest body kept in memory; larger responses go to the disk layer only
+     * @return this cache
+     */
+    public ResponseCache maxEntryBytes(long maxEntryBytes) {
+        this.maxEntryBytes = maxEntryBytes;
+        return this;
+    }
+
+    /**
+     * @return The disk cache, or null if none was configured
+     */
+    public Cache getDiskCache() {
+        return diskCache;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        if (maxEntries == 0 || !"GET".equals(request.method()) || request.header(IF_NONE_MATCH) != null) {
+            return chain.proceed(request);
+        }
+
+        String key = key(request);
+        Entry cached = get(key);
+        Request sent = cached == null ? request : request.newBuilder().header(IF_NONE_MATCH, cached.etag).build();
+        Response response = chain.proceed(sent);
+
+        if (cached != null && response.code() == 304) {
+            hits.increment();
+            bytesServed.add(cached.body.length);
+            response.close();
+            return cached.toResponse(sent, response);
+        }
+
+        misses.increment();
+        String etag = response.header(ETAG);
+        if (response.code() != 200 || etag == null || response.cacheControl().noStore()) {
+            if (cached != null) {
+                remove(key);
+            }
+            return response;
+        }
+
+        // peek without consuming, so bodies above the limit still stream to the caller untouched
+        ResponseBody peeked = response.peekBody(maxEntryBytes + 1);
+        byte[] body = peeked.bytes();
+        if (body.length <= maxEntryBytes) {
+            put(key, new Entry(etag, response.protocol(), response.message(), response.headers(), peeked.contentType(), body));
+        } else if (cached != null) {
+            remove(key);
+        }
+        return response;
+    }
+
+    /**
+     * @return Current hit, miss and size figures for both layers
+     */
+    public Stats stats() {
+        int size;
+        long bytes;
+        synchronized (entries) {
+            size = entries.size();
+            bytes = currentBytes;
+        }
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), bytesServed.sum(), size, bytes,
+                diskCache == null ? 0 : diskCache.hitCount(),
+                diskCache == null ? 0 : diskCache.networkCount(),
+                diskCache == null ? 0 : diskCache.requestCount(),
+                diskCache == null ? 0 : diskSize());
+    }
+
+    /**
+     * Drop everything from the memory layer and the disk layer.
+     *
+     * @throws IOException If the disk cache cannot be cleared
+     */
+    public void evictAll() throws IOException {
+        synchronized (entries) {
+            entries.clear();
+            currentBytes = 0;
+        }
+        if (diskCache != null) {
+            diskCache.evictAll();
+        }
+    }
+
+    private long diskSize() {
+        try {
+            return diskCache.size();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static String key(Request request) {
+        // Accept is part of the key because JSON and CBOR share one ETag
+        String accept = request.header("Accept");
+        return accept == null ? request.url().toString() : request.url() + "\n" + accept;
+    }
+
+    private Entry get(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    private void remove(String key) {
+        synchronized (entries) {
+            Entry removed = entries.remove(key);
+            if (removed != null) {
+                currentBytes -= removed.body.length;
+            }
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        synchronized (entries) {
+            Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                currentBytes -= previous.body.length;
+            }
+            currentBytes += entry.body.length;
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || currentBytes > maxBytes) && eldest.hasNext()) {
+                currentBytes -= eldest.next().getValue().body.length;
+                eldest.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * A cached 200 response. Immutable, so it can be handed out without copying.
+     */
+    private static final class Entry {
+
+        private final String etag;
+        private final Protocol protocol;
+        private final String message;
+        private final Headers headers;
+        private final MediaType contentType;
+        private final byte[] body;
+
+        Entry(String etag, Protocol protocol, String message, Headers headers, MediaType contentType, byte[] body) {
+            this.etag = etag;
+            this.protocol = protocol;
+            this.message = message;
+            this.headers = headers;
+            this.contentType = contentType;
+            this.body = body;
+        }
+
+        Response toResponse(Request request, Response notModified) {
+            return new Response.Builder()
+                    .request(request)
+                    .protocol(protocol)
+                    .code(200)
+                    .message(message)
+                    .headers(headers)
+                    .body(ResponseBody.create(body, contentType))
+                    .sentRequestAtMillis(notModified.sentRequestAtMillis())
+                    .receivedResponseAtMillis(notModified.receivedResponseAtMillis())
+                    .build();
+        }
+    }
+
+    /**
+     * Point-in-time view of {@link ResponseCache}.
+     */
+    public static class Stats {
+
+        private final long memoryHits;
+        private final long memoryMisses;
+        private final long memoryEvictions;
+        private final long memoryBytesServed;
+        private final int memoryEntries;
+        private final long memoryBytes;
+        private final int diskHits;
+        private final int diskNetworkCount;
+        private final int diskRequestCount;
+        private final long diskBytes;
+
+        Stats(long memoryHits, long memoryMisses, long memoryEvictions, long memoryBytesServed, int memoryEntries,
+              long memoryBytes, int diskHits, int diskNetworkCount, int diskRequestCount, long diskBytes) {
+            this.memoryHits = memoryHits;
+            this.memoryMisses = memoryMisses;
+            this.memoryEvictions = memoryEvictions;
+            this.memoryBytesServed = memoryBytesServed;
+            this.memoryEntries = memoryEntries;
+            this.memoryBytes = memoryBytes;
+            this.diskHits = diskHits;
+            this.diskNetworkCount = diskNetworkCount;
+            this.diskRequestCount = diskRequestCount;
+            this.diskBytes = diskBytes;
+        }
+
+        /** Revalidations answered with 304 and served from memory. */
+        public long getMemoryHits() {
+            return memoryHits;
+        }
+
+        /** GETs that went through the memory layer and needed a full response. */
+        public long getMemoryMisses() {
+            return memoryMisses;
+        }
+
+        public long getMemoryEvictions() {
+            return memoryEvictions;
+        }
+
+        /** Body bytes served from memory instead of the network. */
+        public long getMemoryBytesServed() {
+            return memoryBytesServed;
+        }
+
+        public int getMemoryEntries() {
+            return memoryEntries;
+        }
+
+        public long getMemoryBytes() {
+            return memoryBytes;
+        }
+
+        /** Responses served by the disk cache, including after a 304 revalidation. */
+        public int getDiskHits() {
+            return diskHits;
+        }
+
+        public int getDiskNetworkCount() {
+            return diskNetworkCount;
+        }
+
+        public int getDiskRequestCount() {
+            return diskRequestCount;
+        }
+
+        public long getDiskBytes() {
+            return diskBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "memory(hits=%d misses=%d evictions=%d entries=%d bytes=%d served=%d) disk(hits=%d network=%d requests=%d bytes=%d)",
+                    memoryHits, memoryMisses, memoryEvictions, memoryEntries, memoryBytes, memoryBytesServed,
+                    diskHits, diskNetworkCount, diskRequestCount, diskBytes);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.openapitools.client.api;
+
+import org.openapitools.client.ApiClient;
+import org.openapitools.client.AsyncApiExecutor;
+import org.openapitools.client.AsyncCallPolicy;
+import org.openapitools.client.Configuration;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link CompletableFuture} facade over {@link StatusApi}.
+ */
+public class StatusAsyncApi {
+
+    private final StatusApi api;
+    private final AsyncApiExecutor executor;
+    private AsyncCallPolicy policy = AsyncCallPolicy.defaults();
+
+    public StatusAsyncApi() {
+        this(Configuration.getDefaultApiClient());
+    }
+
+    public StatusAsyncApi(ApiClient apiClient) {
+        this(new StatusApi(apiClient), new AsyncApiExecutor());
+    }
+
+    public StatusAsyncApi(StatusApi api, AsyncApiExecutor executor) {
+        this.api = api;
+        this.executor = executor;
+    }
+
+    /**
+     * @param policy Policy for the status check
+     * @return this facade
+     */
+    public StatusAsyncApi policy(AsyncCallPolicy policy) {
+        this.policy = policy;
+        return this;
+    }
+
+    /**
+     * API status check (GET /api/v1/status).
+     *
+     * @return Future of the status document
+     */
+    public CompletableFuture<Map<String, Object>> status() {
+        return executor.execute(api::statusAsync, policy, true);
+    }
+}
@@ -0,0 +1,91 @@
+package org.openapitools.client.api;
+
+import org.openapitools.client.ApiClient;
+import org.openapitools.client.AsyncApiExecutor;
+import org.openapitools.client.AsyncCallPolicy;
+import org.openapitools.client.Configuration;
+import org.openapitools.client.model.TransactionMaster;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link CompletableFuture} facade over {@link TransactionsApi}.
+ * <p>
+ * Reads are retried with jittered backoff and, when the read policy has a hedge delay, hedged against slow
+ * responses. Transaction creation is not idempotent and is attempted once, with the write policy's timeouts.
+ *
+ * <pre>
+ * TransactionsAsyncApi api = new TransactionsAsyncApi(client)
+ *         .readPolicy(AsyncCallPolicy.defaults().attemptTimeoutMillis(2_000).hedgeDelayMillis(150));
+ * CompletableFuture&lt;Map&lt;String, Object&gt;&gt; page = api.getTransactions("1", 0, 20, null, null, null);
+ * </pre>
+ */
+public class TransactionsAsyncApi {
+
+    private final TransactionsApi api;
+    private final AsyncApiExecutor executor;
+    private AsyncCallPolicy readPolicy = AsyncCallPolicy.defaults();
+    private AsyncCallPolicy writePolicy = AsyncCallPolicy.defaults();
+
+    public TransactionsAsyncApi() {
+        this(Configuration.getDefaultApiClient());
+    }
+
+    public TransactionsAsyncApi(ApiClient apiClient) {
+        this(new TransactionsApi(apiClient), new AsyncApiExecutor());
+    }
+
+    public TransactionsAsyncApi(TransactionsApi api, AsyncApiExecutor executor) {
+        this.api = api;
+        this.executor = executor;
+    }
+
+    /**
+     * @param readPolicy Policy for GET operations
+     * @return this facade
+     */
+    public TransactionsAsyncApi readPolicy(AsyncCallPolicy readPolicy) {
+        this.readPolicy = readPolicy;
+        return this;
+    }
+
+    /**
+     * @param writePolicy Policy for non-idempotent operations; only its timeouts are used
+     * @return this facade
+     */
+    public TransactionsAsyncApi writePolicy(AsyncCallPolicy writePolicy) {
+        this.writePolicy = writePolicy;
+        return this;
+    }
+
+    /**
+     * Get merchant transactions (GET /api/v1/merchants/{merchantId}/transactions).
+     *
+     * @param merchantId  (required)
+     * @param page  (optional)
+     * @param size  (optional)
+     * @param startDate  (optional)
+     * @param endDate  (optional)
+     * @param status  (optional)
+     * @return Future of the page; cancelling it cancels the request(s) in flight
+     */
+    public CompletableFuture<Map<String, Object>> getTransactions(String merchantId, Integer page, Integer size, String startDate, String endDate, String status) {
+        return executor.execute(
+                callback -> api.getTransactionsAsync(merchantId, page, size, startDate, endDate, status, callback),
+                readPolicy, true);
+    }
+
+    /**
+     * Create a transaction (POST /api/v1/merchants/{merchantId}/transactions). Never retried or hedged.
+     *
+     * @param merchantId  (required)
+     * @param transactionMaster  (required)
+     * @return Future of the created transaction
+     */
+    public CompletableFuture<Map<String, Object>> createTransaction(String merchantId, TransactionMaster transactionMaster) {
+        return executor.execute(
+                callback -> api.createTransactionAsync(merchantId, transactionMaster, callback),
+                writePolicy, false);
+    }
+}
@@ -0,0 +1,141 @@
+package org.openapitools.client.api;
+
+import org.openapitools.client.ApiClient;
+import org.openapitools.client.ApiException;
+import org.openapitools.client.Configuration;
+import org.openapitools.client.JsonStreamReader;
+import org.openapitools.client.Pair;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming variants of the transaction read operations. Elements are bound one at a time, so a page or an
+ * export of any size is processed in constant memory.
+ *
+ * <pre>
+ * try (JsonStreamReader&lt;JsonObject&gt; export = api.exportTransactions("1", null, null, null, JsonObject.class)) {
+ *     while (export.hasNext()) {
+ *         process(export.next());
+ *     }
+ * }
+ * </pre>
+ */
+public class TransactionsStreamingApi {
+
+    private static final String EXPORT_MEDIA_TYPE = "application/x-json-stream";
+
+    private final ApiClient localVarApiClient;
+
+    public TransactionsStreamingApi() {
+        this(Configuration.getDefaultApiClient());
+    }
+
+    public TransactionsStreamingApi(ApiClient apiClient) {
+        this.localVarApiClient = apiClient;
+    }
+
+    /**
+     * Stream the {@code data.transactions} array of one page (GET /api/v1/merchants/{merchantId}/transactions).
+     * Pagination and summary are available from {@link JsonStreamReader#getEnvelope()} after the last element.
+     *
+     * @param <T>         Element type, e.g. {@code JsonObject} or an application class
+     * @param merchantId  (required)
+     * @param page  (optional)
+     * @param size  (optional)
+     * @param startDate  (optional)
+     * @param endDate  (optional)
+     * @param status  (optional)
+     * @param elementType Type of each transaction
+     * @return Reader over the page's transactions; close it when done
+     * @throws ApiException If the call fails or the server does not answer 2xx
+     */
+    public <T> JsonStreamReader<T> streamTransactions(String merchantId, Integer page, Integer size, String startDate, String endDate, String status, Type elementType) throws ApiException {
+        List<Pair> queryParams = filterParams(startDate, endDate, status);
+        if (page != null) {
+            queryParams.addAll(localVarApiClient.parameterToPair("page", page));
+        }
+        if (size != null) {
+            queryParams.addAll(localVarApiClient.parameterToPair("size", size));
+        }
+        okhttp3.Response response = execute(merchantId, "/transactions", "application/json", queryParams);
+        try {
+            return JsonStreamReader.array(response, elementType, "data", "transactions");
+        } catch (IOException e) {
+            response.close();
+            throw new ApiException(e);
+        }
+    }
+
+    /**
+     * Stream every matching transaction (GET /api/v1/merchants/{merchantId}/transactions/export).
+     *
+     * @param <T>         Element type, e.g. {@code JsonObject} or an application class
+     * @param merchantId  (required)
+     * @param startDate  (optional)
+     * @param endDate  (optional)
+     * @param status  (optional)
+     * @param elementType Type of each transaction
+     * @return Reader over the export; close it when done
+     * @throws ApiException If the call fails or the server does not answer 2xx
+     */
+    public <T> JsonStreamReader<T> exportTransactions(String merchantId, String startDate, String endDate, String status, Type elementType) throws ApiException {
+        okhttp3.Response response = execute(merchantId, "/transactions/export", EXPORT_MEDIA_TYPE, filterParams(startDate, endDate, status));
+        try {
+            return JsonStreamReader.ndjson(response, elementType);
+        } catch (IOException e) {
+            response.close();
+            throw new ApiException(e);
+        }
+    }
+
+    private List<Pair> filterParams(String startDate, String endDate, String status) {
+        List<Pair> queryParams = new ArrayList<Pair>();
+        if (startDate != null) {
+            queryParams.addAll(localVarApiClient.parameterToPair("startDate", startDate));
+        }
+        if (endDate != null) {
+            queryParams.addAll(localVarApiClient.parameterToPair("endDate", endDate));
+        }
+        if (status != null) {
+            queryParams.addAll(localVarApiClient.parameterToPair("status", status));
+        }
+        return queryParams;
+    }
+
+    private okhttp3.Response execute(String merchantId, String suffix, String accept, List<Pair> queryParams) throws ApiException {
+        if (merchantId == null) {
+            throw new ApiException("Missing the required parameter 'merchantId'");
+        }
+        String path = "/api/v1/merchants/" + localVarApiClient.escapeString(merchantId) + suffix;
+        Map<String, String> headerParams = new HashMap<String, String>();
+        headerParams.put("Accept", accept);
+
+        okhttp3.Call call = localVarApiClient.buildCall(null, path, "GET", queryParams, new ArrayList<Pair>(),
+                null, headerParams, new HashMap<String, String>(), new HashMap<String, Object>(), new String[0], null);
+        okhttp3.Response response;
+        try {
+            response = call.execute();
+        } catch (IOException e) {
+            throw new ApiException(e);
+        }
+        if (!response.isSuccessful()) {
+            String body = null;
+            try {
+                if (response.body() != null) {
+                    body = response.body().string();
+                }
+            } catch (IOException ignored) {
+                // keep the status code even if the error body cannot be read
+            } finally {
+                response.close();
+            }
+            throw new ApiException(response.message(), response.code(), response.headers().toMultimap(), body);
+        }
+        return response;
+    }
+}
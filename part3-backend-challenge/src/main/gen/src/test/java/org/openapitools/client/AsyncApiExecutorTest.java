@@ -0,0 +1,143 @@
+package org.openapitools.client;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Retry decisions and backoff of {@link AsyncApiExecutor}, with calls answered in place of OkHttp.
+ */
+public class AsyncApiExecutorTest {
+
+    private final ScheduledExecutorService timer = new ScheduledThreadPoolExecutor(1);
+    private final OkHttpClient httpClient = new OkHttpClient();
+
+    @AfterEach
+    public void tearDown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    public void retryAfterAboveMaxBackoffIsHonoured() {
+        AsyncCallPolicy policy = AsyncCallPolicy.defaults().maxBackoffMillis(2_000);
+        ApiException throttled = failure(429, "30");
+        for (int attempt = 1; attempt <= 5; attempt++) {
+            assertEquals(30_000, AsyncApiExecutor.backoffMillis(policy, attempt, throttled));
+        }
+    }
+
+    @Test
+    public void retryAfterIsALowerBound() {
+        AsyncCallPolicy policy = AsyncCallPolicy.defaults().initialBackoffMillis(100).maxBackoffMillis(2_000);
+        ApiException throttled = failure(503, "1");
+        for (int i = 0; i < 100; i++) {
+            long delay = AsyncApiExecutor.backoffMillis(policy, 1 + i % 6, throttled);
+            assertTrue(delay >= 1_000 && delay <= 2_000, "delay " + delay);
+        }
+    }
+
+    @Test
+    public void computedDelayStaysWithinMaxBackoff() {
+        AsyncCallPolicy policy = AsyncCallPolicy.defaults().initialBackoffMillis(100).maxBackoffMillis(2_000);
+        for (int attempt = 1; attempt <= 30; attempt++) {
+            long delay = AsyncApiExecutor.backoffMillis(policy, attempt, failure(503, null));
+            assertTrue(delay >= 0 && delay <= 2_000, "delay " + delay);
+        }
+    }
+
+    @Test
+    public void unparsableRetryAfterIsIgnored() {
+        AsyncCallPolicy policy = AsyncCallPolicy.defaults().initialBackoffMillis(100).maxBackoffMillis(200);
+        long delay = AsyncApiExecutor.backoffMillis(policy, 1, failure(429, "Wed, 21 Oct 2015 07:28:00 GMT"));
+        assertTrue(delay <= 200, "delay " + delay);
+    }
+
+    @Test
+    public void onlyTransientFailuresAreRetryable() {
+        assertTrue(AsyncApiExecutor.isRetryable(failure(0, null)));
+        assertTrue(AsyncApiExecutor.isRetryable(failure(429, null)));
+        assertTrue(AsyncApiExecutor.isRetryable(failure(503, null)));
+        assertTrue(AsyncApiExecutor.isRetryable(new TimeoutException()));
+        assertFalse(AsyncApiExecutor.isRetryable(failure(400, null)));
+        assertFalse(AsyncApiExecutor.isRetryable(failure(404, null)));
+        assertFalse(AsyncApiExecutor.isRetryable(new CancellationException()));
+    }
+
+    @Test
+    public void idempotentCallIsRetriedUntilItSucceeds() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> result = new AsyncApiExecutor(timer).execute(callback -> {
+            if (attempts.incrementAndGet() < 3) {
+                callback.onFailure(failure(503, null), 503, null);
+            } else {
+                callback.onSuccess("ok", 200, null);
+            }
+            return call();
+        }, fastPolicy(), true);
+
+        assertEquals("ok", result.get(5, TimeUnit.SECONDS));
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void nonIdempotentCallIsAttemptedOnce() {
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> result = new AsyncApiExecutor(timer).execute(callback -> {
+            attempts.incrementAndGet();
+            callback.onFailure(failure(503, null), 503, null);
+            return call();
+        }, fastPolicy(), false);
+
+        ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ApiException.class, error.getCause());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    public void clientErrorIsNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<String> result = new AsyncApiExecutor(timer).execute(callback -> {
+            attempts.incrementAndGet();
+            callback.onFailure(failure(404, null), 404, null);
+            return call();
+        }, fastPolicy(), true);
+
+        assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertEquals(1, attempts.get());
+    }
+
+    private static AsyncCallPolicy fastPolicy() {
+        return AsyncCallPolicy.defaults().maxAttempts(3).initialBackoffMillis(1).maxBackoffMillis(5);
+    }
+
+    private okhttp3.Call call() {
+        // Never executed; the executor only cancels it
+        return httpClient.newCall(new Request.Builder().url("http://localhost/").build());
+    }
+
+    private static ApiException failure(int code, String retryAfter) {
+        Map<String, List<String>> headers = retryAfter == null
+                ? Collections.<String, List<String>>emptyMap()
+                : Collections.singletonMap("Retry-After", Collections.singletonList(retryAfter));
+        return new ApiException(code, "status " + code, headers, null);
+    }
+}
@@ -0,0 +1,117 @@
+package org.openapitools.client;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okio.Buffer;
+import org.junit.jupiter.api.Test;
+import org.openapitools.client.api.TransactionsApi;
+import org.openapitools.client.model.TransactionMaster;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CBOR encoding and decoding through the generated API, with the server answered in place of OkHttp.
+ */
+public class CBORTest {
+
+    private static final MediaType CBOR_MEDIA_TYPE = MediaType.parse(CBOR.MEDIA_TYPE);
+
+    @Test
+    public void mapResponseRoundTripsThroughCreateTransaction() throws ApiException {
+        AtomicReference<Request> sent = new AtomicReference<Request>();
+        OkHttpClient httpClient = new OkHttpClient.Builder()
+                .addInterceptor(chain -> {
+                    Request request = chain.request();
+                    sent.set(request);
+                    Buffer body = new Buffer();
+                    request.body().writeTo(body);
+                    // echo the decoded transaction back inside the usual envelope
+                    Map<String, Object> transaction = CBOR.deserialize(body.inputStream(),
+                            new TypeToken<Map<String, Object>>() { }.getType());
+                    Map<String, Object> envelope = new LinkedHashMap<String, Object>();
+                    envelope.put("response_code", "000");
+                    envelope.put("data", transaction);
+                    return new Response.Builder()
+                            .request(request)
+                            .protocol(Protocol.HTTP_1_1)
+                            .code(200)
+                            .message("OK")
+                            .body(ResponseBody.create(CBOR.serialize(envelope), CBOR_MEDIA_TYPE))
+                            .build();
+                })
+                .build();
+        ApiClient client = new ApiClient(httpClient).setBasePath("http://localhost").setPreferCbor(true);
+
+        TransactionMaster transaction = new TransactionMaster()
+                .merchantId("MCH-00001")
+                .amount(new BigDecimal("125.50"))
+                .currency("USD")
+                .status("APPROVED");
+        Map<String, Object> response = new TransactionsApi(client).createTransaction("MCH-00001", transaction);
+
+        assertTrue(CBOR.isCborMime(sent.get().header("Content-Type")));
+        assertTrue(sent.get().header("Accept").startsWith(CBOR.MEDIA_TYPE));
+        assertEquals("000", response.get("response_code"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> data = (Map<String, Object>) response.get("data");
+        assertEquals("MCH-00001", data.get("merchantId"));
+        assertEquals("USD", data.get("currency"));
+        assertEquals(125.5, ((Number) data.get("amount")).doubleValue());
+    }
+
+    @Test
+    public void modelsKeepDecimalScale() {
+        TransactionMaster transaction = new TransactionMaster().merchantId("MCH-00001").amount(new BigDecimal("10.00"));
+
+        TransactionMaster decoded = CBOR.deserialize(new ByteArrayInputStream(CBOR.serialize(transaction)),
+                TransactionMaster.class);
+
+        assertEquals(new BigDecimal("10.00"), decoded.getAmount());
+        assertEquals("MCH-00001", decoded.getMerchantId());
+    }
+
+    @Test
+    public void emptyBodyIsNull() {
+        assertNull(CBOR.deserialize(new ByteArrayInputStream(new byte[0]), Map.class));
+    }
+
+    @Test
+    public void rawJsonValuesAreCopied() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = new CBORFactory().createGenerator(out);
+             CborJsonWriter writer = new CborJsonWriter(generator)) {
+            writer.beginObject();
+            writer.name("raw").jsonValue("{\"ids\":[1,2],\"amount\":2.50,\"note\":null}");
+            writer.name("skipped").jsonValue(null);
+            writer.endObject();
+        }
+
+        JsonObject decoded = CBOR.<JsonElement>deserialize(new ByteArrayInputStream(out.toByteArray()),
+                JsonElement.class).getAsJsonObject();
+
+        JsonObject raw = decoded.getAsJsonObject("raw");
+        assertEquals(2, raw.getAsJsonArray("ids").size());
+        assertEquals(new BigDecimal("2.50"), raw.get("amount").getAsBigDecimal());
+        assertTrue(raw.get("note").isJsonNull());
+        assertTrue(decoded.get("skipped").isJsonNull());
+    }
+}
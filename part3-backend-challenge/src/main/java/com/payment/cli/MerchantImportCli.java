@@ -0,0 +1,91 @@
+package com.payment.cli;
+
+import com.payment.dto.merchantDto.MerchantImportError;
+import com.payment.enums.MerchantImportFormat;
+import com.payment.repository.MerchantCopyImporter;
+import com.payment.responses.MerchantImportResponse;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Imports a CSV or NDJSON merchant file without starting the application.
+ * <pre>
+ * mvn compile exec:java -Dexec.mainClass=com.payment.cli.MerchantImportCli -Dexec.args="merchants.csv"
+ * </pre>
+ * The format follows the file extension ({@code .csv}, {@code .ndjson}/{@code .jsonl}) unless given as the second
+ * argument. The database is taken from the same {@code DB_*} variables as {@code application.yml}. Valid rows are
+ * committed in one transaction; the exit status is 0 if every row was imported, 1 if some were rejected and 2 if the
+ * import failed.
+ */
+public final class MerchantImportCli {
+
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private MerchantImportCli() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.err.println("Usage: MerchantImportCli <file> [csv|ndjson]");
+            System.exit(2);
+        }
+        Path file = Path.of(args[0]);
+        try {
+            MerchantImportFormat format = MerchantImportFormat.parse(args.length > 1 ? args[1] : formatOf(file));
+            MerchantImportResponse report = run(file, format);
+            System.out.printf("Read %d rows, imported %d, rejected %d in %d ms%n",
+                    report.rowsRead(), report.imported(), report.rejected(), report.elapsedMillis());
+            for (MerchantImportError error : report.errors()) {
+                System.out.printf("line %d: %s%n", error.line(), error.message());
+            }
+            if (report.errorsTruncated()) {
+                System.out.printf("... %d more rejected rows not listed%n", report.rejected() - report.errors().size());
+            }
+            System.exit(report.rejected() == 0 ? 0 : 1);
+        } catch (IllegalArgumentException | IOException | SQLException e) {
+            System.err.println("Import failed: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    private static MerchantImportResponse run(Path file, MerchantImportFormat format) throws IOException, SQLException {
+        String url = "jdbc:postgresql://" + env("DB_HOST", "localhost") + ":" + env("DB_PORT", "5433")
+                + "/" + env("DB_NAME", "payment_platform");
+        try (Connection connection = DriverManager.getConnection(url, env("DB_USER", "miroj"), env("DB_PASSWORD", "miroj"));
+             Reader input = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            connection.setAutoCommit(false);
+            try {
+                MerchantImportResponse report = new MerchantCopyImporter(0, MAX_REPORTED_ERRORS)
+                        .importMerchants(connection, input, format);
+                connection.commit();
+                return report;
+            } catch (RuntimeException | IOException | SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static String formatOf(Path file) {
+        String name = file.getFileName().toString().toLowerCase();
+        if (name.endsWith(".csv")) {
+            return "csv";
+        }
+        if (name.endsWith(".ndjson") || name.endsWith(".jsonl")) {
+            return "ndjson";
+        }
+        throw new IllegalArgumentException("Cannot tell the format of " + file + "; pass csv or ndjson");
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+}
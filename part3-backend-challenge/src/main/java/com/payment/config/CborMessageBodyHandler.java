@@ -0,0 +1,64 @@
+package com.payment.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.payment.dto.transactionDto.TransactionDetails;
+import io.micronaut.core.type.Argument;
+import io.micronaut.core.type.Headers;
+import io.micronaut.core.type.MutableHeaders;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Consumes;
+import io.micronaut.http.annotation.Produces;
+import io.micronaut.http.body.MessageBodyHandler;
+import io.micronaut.http.codec.CodecException;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Reads and writes {@code application/cbor} bodies for clients that ask for it in {@code Accept}.
+ * <p>
+ * The same DTOs are used as for JSON. Field names stay as text keys, but numbers, amounts and timestamps are
+ * written in their binary forms, so large transaction pages are smaller and cheaper to parse on both sides.
+ */
+@Singleton
+@Produces(CborMessageBodyHandler.APPLICATION_CBOR)
+@Consumes(CborMessageBodyHandler.APPLICATION_CBOR)
+public class CborMessageBodyHandler implements MessageBodyHandler<Object> {
+
+    public static final String APPLICATION_CBOR = "application/cbor";
+
+    private final ObjectMapper mapper = CBORMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .findAndAddModules()
+            .addModule(new SimpleModule()
+                    .addSerializer(TransactionDetails.class, new TransactionDetailsSerializer.Jackson()))
+            .build();
+
+    @Override
+    public Object read(Argument<Object> type, MediaType mediaType, Headers httpHeaders, InputStream inputStream) {
+        try {
+            return mapper.readValue(inputStream, mapper.constructType(type.asType()));
+        } catch (IOException e) {
+            throw new CodecException("Error decoding CBOR body: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void writeTo(Argument<Object> type, MediaType mediaType, Object object, MutableHeaders outgoingHeaders,
+                        OutputStream outputStream) {
+        if (!outgoingHeaders.contains(HttpHeaders.CONTENT_TYPE)) {
+            outgoingHeaders.set(HttpHeaders.CONTENT_TYPE, APPLICATION_CBOR);
+        }
+        try {
+            mapper.writeValue(outputStream, object);
+        } catch (IOException e) {
+            throw new CodecException("Error encoding CBOR body: " + e.getMessage(), e);
+        }
+    }
+}
@@ -1,42 +1,117 @@
 package com.payment.config;
 
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpMethod;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpHeaders;
 import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.Filter;
 import io.micronaut.http.filter.HttpServerFilter;
 import io.micronaut.http.filter.ServerFilterChain;
 import org.reactivestreams.Publisher;
-import reactor.core.publisher.Flux;
 
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Single CORS filter driven by {@link CorsProperties}; Micronaut's built-in CORS handling is disabled.
+ * <p>
+ * Header sets are built once per allowed origin at startup, so handling a CORS request is one map lookup plus
+ * copying a few prebuilt strings. Requests without an {@code Origin} header skip the filter without any
+ * reactive wrapping.
+ */
 @Filter("/**")
 public class CorsFilter implements HttpServerFilter {
 
+    private final Map<String, CorsHeaders> actualHeadersByOrigin;
+    private final Map<String, CorsHeaders> preflightHeadersByOrigin;
+
+    public CorsFilter(CorsProperties properties) {
+        Map<String, CorsHeaders> actual = new HashMap<>();
+        Map<String, CorsHeaders> preflight = new HashMap<>();
+        for (String origin : properties.getAllowedOrigins()) {
+            actual.put(origin, CorsHeaders.actual(origin, properties));
+            preflight.put(origin, CorsHeaders.preflight(origin, properties));
+        }
+        this.actualHeadersByOrigin = Map.copyOf(actual);
+        this.preflightHeadersByOrigin = Map.copyOf(preflight);
+    }
+
     @Override
     public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
-        // Handle preflight OPTIONS requests
-        if (request.getMethod() == HttpMethod.OPTIONS) {
-            return Flux.just(
-                    HttpResponse.ok()
-                            .header("Access-Control-Allow-Origin", "http://localhost:3000")
-                            .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS, HEAD")
-                            .header("Access-Control-Allow-Headers", "*")
-                            .header("Access-Control-Expose-Headers", "*")
-                            .header("Access-Control-Allow-Credentials", "true")
-                            .header("Access-Control-Max-Age", "3600")
-            );
-        }
-
-        // For all other requests, add CORS headers to the response
-        return Flux.from(chain.proceed(request))
-                .doOnNext(response -> {
-                    response.header("Access-Control-Allow-Origin", "http://localhost:3000");
-                    response.header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS, HEAD");
-                    response.header("Access-Control-Allow-Headers", "*");
-                    response.header("Access-Control-Expose-Headers", "*");
-                    response.header("Access-Control-Allow-Credentials", "true");
-                    response.header("Access-Control-Max-Age", "3600");
-                });
+        String origin = request.getHeaders().get(HttpHeaders.ORIGIN);
+        if (origin == null) {
+            return chain.proceed(request);
+        }
+
+        boolean preflight = request.getMethod() == HttpMethod.OPTIONS
+                && request.getHeaders().contains(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD);
+        if (preflight) {
+            CorsHeaders headers = preflightHeadersByOrigin.get(origin);
+            if (headers == null) {
+                return Publishers.just(HttpResponse.status(HttpStatus.FORBIDDEN));
+            }
+            return Publishers.just(headers.applyTo(HttpResponse.ok()));
+        }
+
+        CorsHeaders headers = actualHeadersByOrigin.get(origin);
+        if (headers == null) {
+            return chain.proceed(request);
+        }
+        return Publishers.map(chain.proceed(request), headers::applyTo);
+    }
+
+    /**
+     * Immutable, pre-rendered header names and values for one origin.
+     */
+    static final class CorsHeaders {
+
+        private final String[] names;
+        private final String[] values;
+
+        private CorsHeaders(Map<String, String> headers) {
+            this.names = headers.keySet().toArray(new String[0]);
+            this.values = headers.values().toArray(new String[0]);
+        }
+
+        static CorsHeaders actual(String origin, CorsProperties properties) {
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+            headers.put(HttpHeaders.VARY, HttpHeaders.ORIGIN);
+            if (properties.isAllowCredentials()) {
+                headers.put(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+            }
+            if (!properties.getExposedHeaders().isEmpty()) {
+                headers.put(HttpHeaders.ACCESS_CONTROL_EXPOSE_HEADERS, String.join(", ", properties.getExposedHeaders()));
+            }
+            return new CorsHeaders(headers);
+        }
+
+        static CorsHeaders preflight(String origin, CorsProperties properties) {
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, origin);
+            headers.put(HttpHeaders.VARY, HttpHeaders.ORIGIN);
+            headers.put(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS, String.join(", ", properties.getAllowedMethods()));
+            if (!properties.getAllowedHeaders().isEmpty()) {
+                headers.put(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS, String.join(", ", properties.getAllowedHeaders()));
+            }
+            if (properties.isAllowCredentials()) {
+                headers.put(HttpHeaders.ACCESS_CONTROL_ALLOW_CREDENTIALS, "true");
+            }
+            headers.put(HttpHeaders.ACCESS_CONTROL_MAX_AGE, Long.toString(properties.getMaxAge()));
+            return new CorsHeaders(headers);
+        }
+
+        MutableHttpResponse<?> applyTo(MutableHttpResponse<?> response) {
+            MutableHttpHeaders target = response.getHeaders();
+            for (int i = 0; i < names.length; i++) {
+                target.add(names[i], values[i]);
+            }
+            return response;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,67 @@
+package com.payment.config;
+
+import io.micronaut.context.annotation.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * CORS settings bound from {@code payment.cors}. Read once by {@link CorsFilter} at startup.
+ */
+@ConfigurationProperties("payment.cors")
+public class CorsProperties {
+
+    private List<String> allowedOrigins = List.of();
+    private List<String> allowedMethods = List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "HEAD");
+    private List<String> allowedHeaders = List.of("Content-Type", "Authorization", "Accept", "Origin", "If-None-Match");
+    private List<String> exposedHeaders = List.of("Authorization", "Content-Type", "ETag", "Retry-After");
+    private boolean allowCredentials = true;
+    private long maxAge = 3600;
+
+    public List<String> getAllowedOrigins() {
+        return allowedOrigins;
+    }
+
+    public void setAllowedOrigins(List<String> allowedOrigins) {
+        this.allowedOrigins = allowedOrigins;
+    }
+
+    public List<String> getAllowedMethods() {
+        return allowedMethods;
+    }
+
+    public void setAllowedMethods(List<String> allowedMethods) {
+        this.allowedMethods = allowedMethods;
+    }
+
+    public List<String> getAllowedHeaders() {
+        return allowedHeaders;
+    }
+
+    public void setAllowedHeaders(List<String> allowedHeaders) {
+        this.allowedHeaders = allowedHeaders;
+    }
+
+    public List<String> getExposedHeaders() {
+        return exposedHeaders;
+    }
+
+    public void setExposedHeaders(List<String> exposedHeaders) {
+        this.exposedHeaders = exposedHeaders;
+    }
+
+    public boolean isAllowCredentials() {
+        return allowCredentials;
+    }
+
+    public void setAllowCredentials(boolean allowCredentials) {
+        this.allowCredentials = allowCredentials;
+    }
+
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+    public void setMaxAge(long maxAge) {
+        this.maxAge = maxAge;
+    }
+}
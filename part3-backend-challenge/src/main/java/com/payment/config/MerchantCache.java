@@ -0,0 +1,160 @@
+package com.payment.config;
+
+import com.payment.entity.Merchant;
+import com.payment.repository.MerchantRepository;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Singleton;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Read-through cache of merchant rows in front of {@link MerchantRepository#findByMerchantId}.
+ * <p>
+ * Entries are kept in an access-ordered map bounded to {@code maximum-size}. Unknown ids are cached as well, for the
+ * shorter {@code negative-ttl}, so probing for missing merchants does not reach the database either. Writes through
+ * {@code MerchantServiceImpl} invalidate locally; writes from other nodes or straight to the table arrive through
+ * {@link MerchantChangeListener}. The TTL bounds staleness while that listener is reconnecting. Order counter
+ * flushes only carry new counts, which replace the count of a cached entry without evicting it.
+ * <p>
+ * Cached entities are shared between callers and must not be modified.
+ */
+@Singleton
+public class MerchantCache implements MerchantChangeHandler {
+
+    private final MerchantRepository merchantRepository;
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final Map<Integer, Entry> entries;
+
+    // Bumped on every invalidation; a load that overlapped one is returned but not stored
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder numOrdersUpdates = new LongAdder();
+
+    public MerchantCache(MerchantRepository merchantRepository,
+                         @Value("${payment.merchant-cache.maximum-size:10000}") int maximumSize,
+                         @Value("${payment.merchant-cache.ttl:10m}") Duration ttl,
+                         @Value("${payment.merchant-cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.merchantRepository = merchantRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.negativeTtlNanos = negativeTtl.toNanos();
+        this.entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entry> eldest) {
+                if (size() > maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<Merchant> find(int merchantId) {
+        long now = System.nanoTime();
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(merchantId);
+        }
+        if (entry != null && now - entry.expiresAt() < 0) {
+            if (entry.merchant() == null) {
+                negativeHits.increment();
+            } else {
+                hits.increment();
+            }
+            return Optional.ofNullable(entry.merchant());
+        }
+
+        misses.increment();
+        long loadGeneration = generation.get();
+        Merchant merchant = merchantRepository.findByMerchantId(merchantId);
+        Entry loaded = new Entry(merchant, now + (merchant != null ? ttlNanos : negativeTtlNanos));
+        synchronized (entries) {
+            if (generation.get() == loadGeneration) {
+                entries.put(merchantId, loaded);
+            }
+        }
+        return Optional.ofNullable(merchant);
+    }
+
+    public void invalidate(int merchantId) {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.remove(merchantId);
+        }
+        invalidations.increment();
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+        invalidations.increment();
+    }
+
+    @Override
+    public void merchantChanged(int merchantId) {
+        invalidate(merchantId);
+    }
+
+    @Override
+    public void allMerchantsChanged() {
+        invalidateAll();
+    }
+
+    @Override
+    public void numOrdersChanged(int merchantId, int numOrders) {
+        synchronized (entries) {
+            // A load that read the previous count must not overwrite this one
+            generation.incrementAndGet();
+            Entry entry = entries.get(merchantId);
+            if (entry != null && entry.merchant() != null) {
+                entries.put(merchantId, new Entry(entry.merchant().withNumOrders(numOrders), entry.expiresAt()));
+            }
+        }
+        numOrdersUpdates.increment();
+    }
+
+    @Override
+    public void allNumOrdersChanged() {
+        invalidateAll();
+    }
+
+    public Map<String, Object> snapshot() {
+        long hitCount = hits.sum();
+        long negativeHitCount = negativeHits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + negativeHitCount + missCount;
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("size", size);
+        snapshot.put("hits", hitCount);
+        snapshot.put("negativeHits", negativeHitCount);
+        snapshot.put("misses", missCount);
+        snapshot.put("hitRate", requests == 0 ? 0.0 : (double) (hitCount + negativeHitCount) / requests);
+        snapshot.put("evictions", evictions.sum());
+        snapshot.put("invalidations", invalidations.sum());
+        snapshot.put("numOrdersUpdates", numOrdersUpdates.sum());
+        return snapshot;
+    }
+
+    /**
+     * A {@code null} merchant records that the id does not exist.
+     */
+    private record Entry(Merchant merchant, long expiresAt) {
+    }
+}
@@ -0,0 +1,30 @@
+package com.payment.config;
+
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes merchant cache counters, including the hit rate, at {@code /merchantcache}.
+ */
+@Endpoint(id = "merchantcache")
+public class MerchantCacheEndpoint {
+
+    private final MerchantCache merchantCache;
+    private final MerchantChangeListener changeListener;
+
+    public MerchantCacheEndpoint(MerchantCache merchantCache, @Nullable MerchantChangeListener changeListener) {
+        this.merchantCache = merchantCache;
+        this.changeListener = changeListener;
+    }
+
+    @Read
+    public Map<String, Object> merchantCache() {
+        Map<String, Object> snapshot = new LinkedHashMap<>(merchantCache.snapshot());
+        snapshot.put("listener", changeListener != null ? changeListener.snapshot() : Map.of("connected", false));
+        return snapshot;
+    }
+}
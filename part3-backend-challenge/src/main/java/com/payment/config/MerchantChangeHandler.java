@@ -0,0 +1,27 @@
+package com.payment.config;
+
+/**
+ * Something holding merchant data in memory that {@link MerchantChangeListener} keeps current.
+ */
+public interface MerchantChangeHandler {
+
+    void merchantChanged(int merchantId);
+
+    /**
+     * Changes may have been missed, or too many merchants changed to list; forget everything.
+     */
+    void allMerchantsChanged();
+
+    /**
+     * Only {@code num_orders} of the merchant changed, to {@code numOrders}; holders that do not keep the count can
+     * ignore it.
+     */
+    default void numOrdersChanged(int merchantId, int numOrders) {
+    }
+
+    /**
+     * {@code num_orders} of every merchant may have changed, and nothing else.
+     */
+    default void allNumOrdersChanged() {
+    }
+}
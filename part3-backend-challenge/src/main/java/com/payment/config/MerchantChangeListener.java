@@ -0,0 +1,185 @@
+package com.payment.config;
+
+import com.payment.repository.MerchantCounterRepository;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.runtime.event.annotation.EventListener;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies merchant changes made by other nodes to every {@link MerchantChangeHandler}: {@link MerchantCache} and
+ * {@link MerchantDirectory}.
+ * <p>
+ * The {@code trg_merchants_notify_*} triggers (see {@code db/merchants.sql}) send the id of every changed merchant
+ * on the {@code merchant_changed} channel when the writing transaction commits, or {@code *} for large statements.
+ * Order counter flushes, which only change {@code num_orders}, send comma-separated {@code merchantId:numOrders} on
+ * {@value MerchantCounterRepository#ORDERS_CHANNEL} instead, so that only holders of the count act on them. This
+ * listener holds its own connection outside the Hikari pool so that a pooled connection is not pinned by
+ * {@code LISTEN}. Notifications sent while it is disconnected are lost, so every handler is told that all merchants
+ * changed on each (re)connect.
+ */
+@Singleton
+@Requires(property = "payment.merchant-cache.listen", notEquals = "false")
+public class MerchantChangeListener {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MerchantChangeListener.class);
+
+    private static final String CHANNEL = "merchant_changed";
+    private static final String ALL_MERCHANTS = "*";
+
+    private static final int POLL_MILLIS = 1000;
+
+    private final List<MerchantChangeHandler> handlers;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final long reconnectDelayMillis;
+
+    private final LongAdder notifications = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private volatile boolean running;
+    private volatile boolean connected;
+    private Thread thread;
+
+    public MerchantChangeListener(List<MerchantChangeHandler> handlers,
+                                  @Value("${datasources.default.url}") String url,
+                                  @Value("${datasources.default.username}") String username,
+                                  @Value("${datasources.default.password}") String password,
+                                  @Value("${payment.merchant-cache.reconnect-delay:5s}") Duration reconnectDelay) {
+        this.handlers = handlers;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.reconnectDelayMillis = reconnectDelay.toMillis();
+    }
+
+    @EventListener
+    void onStartup(StartupEvent event) {
+        running = true;
+        thread = new Thread(this::run, "merchant-change-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread.join(POLL_MILLIS * 2L);
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("connected", connected);
+        snapshot.put("notifications", notifications.sum());
+        snapshot.put("reconnects", reconnects.sum());
+        return snapshot;
+    }
+
+    private void run() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                    statement.execute("LISTEN " + MerchantCounterRepository.ORDERS_CHANNEL);
+                }
+                handlers.forEach(MerchantChangeHandler::allMerchantsChanged);
+                connected = true;
+                LOG.info("Listening for merchant changes on {}", CHANNEL);
+
+                while (running) {
+                    PGNotification[] received = pgConnection.getNotifications(POLL_MILLIS);
+                    if (received != null) {
+                        for (PGNotification notification : received) {
+                            if (MerchantCounterRepository.ORDERS_CHANNEL.equals(notification.getName())) {
+                                applyOrders(notification.getParameter());
+                            } else {
+                                apply(notification.getParameter());
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    LOG.warn("Merchant change listener disconnected, retrying in {} ms: {}",
+                            reconnectDelayMillis, e.getMessage());
+                }
+            } finally {
+                connected = false;
+            }
+
+            if (running) {
+                reconnects.increment();
+                try {
+                    Thread.sleep(reconnectDelayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void apply(String payload) {
+        notifications.increment();
+        if (ALL_MERCHANTS.equals(payload)) {
+            handlers.forEach(MerchantChangeHandler::allMerchantsChanged);
+            return;
+        }
+        int merchantId;
+        try {
+            merchantId = Integer.parseInt(payload);
+        } catch (NumberFormatException e) {
+            LOG.warn("Ignoring malformed {} payload '{}', treating as all merchants changed", CHANNEL, payload);
+            handlers.forEach(MerchantChangeHandler::allMerchantsChanged);
+            return;
+        }
+        for (MerchantChangeHandler handler : handlers) {
+            handler.merchantChanged(merchantId);
+        }
+    }
+
+    private void applyOrders(String payload) {
+        notifications.increment();
+        if (ALL_MERCHANTS.equals(payload)) {
+            handlers.forEach(MerchantChangeHandler::allNumOrdersChanged);
+            return;
+        }
+        for (String merchant : payload.split(",")) {
+            int separator = merchant.indexOf(':');
+            int merchantId;
+            int numOrders;
+            try {
+                merchantId = Integer.parseInt(merchant, 0, Math.max(separator, 0), 10);
+                numOrders = Integer.parseInt(merchant, separator + 1, merchant.length(), 10);
+            } catch (NumberFormatException e) {
+                LOG.warn("Ignoring malformed {} payload '{}', treating as all counts changed",
+                        MerchantCounterRepository.ORDERS_CHANNEL, payload);
+                handlers.forEach(MerchantChangeHandler::allNumOrdersChanged);
+                return;
+            }
+            for (MerchantChangeHandler handler : handlers) {
+                handler.numOrdersChanged(merchantId, numOrders);
+            }
+        }
+    }
+}
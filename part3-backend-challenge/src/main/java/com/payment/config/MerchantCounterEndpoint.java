@@ -0,0 +1,24 @@
+package com.payment.config;
+
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.util.Map;
+
+/**
+ * Exposes merchant order counter flush and reconciliation counters at {@code /merchantcounters}.
+ */
+@Endpoint(id = "merchantcounters")
+public class MerchantCounterEndpoint {
+
+    private final MerchantOrderCounter merchantOrderCounter;
+
+    public MerchantCounterEndpoint(MerchantOrderCounter merchantOrderCounter) {
+        this.merchantOrderCounter = merchantOrderCounter;
+    }
+
+    @Read
+    public Map<String, Object> merchantCounters() {
+        return merchantOrderCounter.snapshot();
+    }
+}
@@ -0,0 +1,145 @@
+package com.payment.config;
+
+import com.payment.dto.merchantDto.MerchantDirectoryEntry;
+import com.payment.helpers.MerchantDirectorySnapshot;
+import com.payment.repository.MerchantRepository;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Every merchant's id, name and status, held in memory so that merchant autocomplete and batch id lookups
+ * ({@code GET /api/v1/merchants/autocomplete} and {@code /lookup}) never reach the database.
+ * <p>
+ * The directory is loaded from {@code merchants.merchants} at startup. Changes reported by
+ * {@link MerchantChangeListener} or by local writes only mark ids dirty; {@link #refresh} re-reads just those rows
+ * and publishes a new {@link MerchantDirectorySnapshot}, so readers never lock and never see a half-applied change.
+ * A full reload happens when a change cannot be listed, when too many ids are dirty, and every
+ * {@code full-reload-interval} in case a notification was lost. The first load runs during startup; if it fails the
+ * directory stays empty and {@link #isLoaded} false until a later refresh succeeds.
+ */
+@Singleton
+public class MerchantDirectory implements MerchantChangeHandler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MerchantDirectory.class);
+
+    private final MerchantRepository merchantRepository;
+    private final int maxIncrementalChanges;
+
+    private volatile MerchantDirectorySnapshot current = MerchantDirectorySnapshot.empty();
+    private volatile boolean loaded;
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean reloadAll = new AtomicBoolean(true);
+
+    private final LongAdder fullLoads = new LongAdder();
+    private final LongAdder incrementalLoads = new LongAdder();
+    private final LongAdder failedLoads = new LongAdder();
+    private volatile long lastLoadMillis;
+
+    public MerchantDirectory(MerchantRepository merchantRepository,
+                             @Value("${payment.merchant-directory.max-incremental-changes:5000}") int maxIncrementalChanges) {
+        this.merchantRepository = merchantRepository;
+        this.maxIncrementalChanges = maxIncrementalChanges;
+    }
+
+    /**
+     * Readers should take the snapshot once per request so that related lookups agree with each other.
+     */
+    public MerchantDirectorySnapshot current() {
+        return current;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    @Override
+    public void merchantChanged(int merchantId) {
+        dirty.add(merchantId);
+    }
+
+    @Override
+    public void allMerchantsChanged() {
+        reloadAll.set(true);
+    }
+
+    @EventListener
+    void onStartup(StartupEvent event) {
+        refresh();
+    }
+
+    @Scheduled(fixedDelay = "${payment.merchant-directory.full-reload-interval:1h}",
+            initialDelay = "${payment.merchant-directory.full-reload-interval:1h}")
+    void scheduleFullReload() {
+        reloadAll.set(true);
+    }
+
+    /**
+     * Applies the pending changes, if any. Runs on one scheduler thread; only this method replaces the snapshot.
+     */
+    @Scheduled(fixedDelay = "${payment.merchant-directory.refresh-interval:1s}")
+    synchronized void refresh() {
+        long started = System.nanoTime();
+        try {
+            if (reloadAll.getAndSet(false) || dirty.size() > maxIncrementalChanges) {
+                // Ids marked from here on are applied on top of the full load by the next refresh
+                dirty.clear();
+                loadAll();
+            } else if (!dirty.isEmpty()) {
+                loadChanged();
+            } else {
+                return;
+            }
+            lastLoadMillis = (System.nanoTime() - started) / 1_000_000;
+        } catch (Exception e) {
+            failedLoads.increment();
+            reloadAll.set(true);
+            LOG.warn("Merchant directory refresh failed, retrying with a full reload: {}", e.getMessage());
+        }
+    }
+
+    private void loadAll() {
+        List<MerchantDirectoryEntry> entries = merchantRepository.findDirectoryEntries();
+        current = MerchantDirectorySnapshot.build(entries);
+        loaded = true;
+        fullLoads.increment();
+        LOG.info("Loaded {} merchants into the merchant directory", entries.size());
+    }
+
+    private void loadChanged() {
+        List<Integer> changed = new ArrayList<>(dirty);
+        // Removed before reading, so a change committed during the read is read again next time
+        dirty.removeAll(changed);
+        List<MerchantDirectoryEntry> rows =
+                merchantRepository.findDirectoryEntriesByIds(changed.toArray(new Integer[0]));
+        current = current.withChanges(changed, rows);
+        incrementalLoads.increment();
+    }
+
+    public Map<String, Object> snapshot() {
+        MerchantDirectorySnapshot current = this.current;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("loaded", loaded);
+        result.put("merchants", current.size());
+        result.put("trieNodes", current.trieNodes());
+        result.put("pendingChanges", dirty.size());
+        result.put("fullLoads", fullLoads.sum());
+        result.put("incrementalLoads", incrementalLoads.sum());
+        result.put("failedLoads", failedLoads.sum());
+        result.put("lastLoadMillis", lastLoadMillis);
+        return result;
+    }
+}
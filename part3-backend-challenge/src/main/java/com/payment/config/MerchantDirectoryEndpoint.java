@@ -0,0 +1,24 @@
+package com.payment.config;
+
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.util.Map;
+
+/**
+ * Exposes merchant directory size and refresh counters at {@code /merchantdirectory}.
+ */
+@Endpoint(id = "merchantdirectory")
+public class MerchantDirectoryEndpoint {
+
+    private final MerchantDirectory merchantDirectory;
+
+    public MerchantDirectoryEndpoint(MerchantDirectory merchantDirectory) {
+        this.merchantDirectory = merchantDirectory;
+    }
+
+    @Read
+    public Map<String, Object> merchantDirectory() {
+        return merchantDirectory.snapshot();
+    }
+}
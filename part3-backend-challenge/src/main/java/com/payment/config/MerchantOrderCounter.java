@@ -0,0 +1,253 @@
+package com.payment.config;
+
+import com.payment.dto.merchantDto.MerchantOrderDelta;
+import com.payment.helpers.MerchantCodes;
+import com.payment.repository.MerchantCounterRepository;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps {@code merchants.num_orders} up to date without touching the merchant row when a transaction is created.
+ * <p>
+ * {@link #recordOrder} only increments an in-memory counter for the merchant and the second the transaction was
+ * created in, one atomic add instead of queueing on a row lock. Each merchant and second has up to one counter per
+ * stripe of recording threads, so threads recording for the same busy merchant mostly add to different words.
+ * {@link #flush} writes the counts of settled seconds (older than {@code settle-time}) in one batched statement per
+ * interval, subtracts what it wrote from the counters and retries on the next run if the write fails. A counter is
+ * retired and dropped as soon as a successful flush leaves it at zero; retiring only succeeds on zero, so an order
+ * recorded at the same moment goes to a fresh counter rather than being lost.
+ * <p>
+ * Counts not yet flushed are lost if the process dies, so {@link #reconcile} recounts every merchant from
+ * {@code transaction_master} after startup and on {@code reconcile-cron}. It counts transactions created before
+ * {@code now - settle-time}; since no node flushes a second that recent, flushed seconds before the cutoff are
+ * exactly those the recount covers, and {@link MerchantCounterRepository} drops any that arrive later. This assumes
+ * node clocks agree to well within {@code settle-time} and that inserts commit within it.
+ * <p>
+ * Counter flushes do not send {@code merchant_changed} (see {@code db/merchants.sql}), which would make every node
+ * re-read its {@link MerchantDirectory} rows on each flush. Each flush sends the new counts of the merchants it
+ * touched on {@value MerchantCounterRepository#ORDERS_CHANNEL} instead, this node included, which only
+ * {@link MerchantCache} acts on: it updates the count of a cached merchant rather than evicting it. A merchant's
+ * count, and so its ETag, changes at most once per {@code flush-interval}.
+ */
+@Singleton
+public class MerchantOrderCounter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MerchantOrderCounter.class);
+
+    // A retired slot stays negative however many increments still land on it
+    private static final long RETIRED = Long.MIN_VALUE;
+    // A power of two up to 16, the stripe bits of a key
+    private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+    private final MerchantCounterRepository merchantCounterRepository;
+    private final MerchantCache merchantCache;
+    private final Duration settleTime;
+    private final boolean reconcileOnStartup;
+
+    // Orders not yet written per merchant, second and stripe, see key()
+    private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+
+    private final LongAdder recordedOrders = new LongAdder();
+    private final LongAdder unknownMerchants = new LongAdder();
+    private final LongAdder flushedOrders = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private final LongAdder reconciles = new LongAdder();
+    private final LongAdder failedReconciles = new LongAdder();
+    private volatile Instant reconciledAsOf;
+    private volatile long lastFlushMillis;
+
+    public MerchantOrderCounter(MerchantCounterRepository merchantCounterRepository,
+                                MerchantCache merchantCache,
+                                @Value("${payment.merchant-counters.settle-time:30s}") Duration settleTime,
+                                @Value("${payment.merchant-counters.reconcile-on-startup:true}") boolean reconcileOnStartup) {
+        this.merchantCounterRepository = merchantCounterRepository;
+        this.merchantCache = merchantCache;
+        this.settleTime = settleTime;
+        this.reconcileOnStartup = reconcileOnStartup;
+    }
+
+    /**
+     * Counts a committed transaction towards its merchant's {@code num_orders}.
+     *
+     * @param merchantCode {@code transaction_master.merchant_id}; codes that name no merchant id are ignored
+     */
+    public void recordOrder(String merchantCode, Instant createdAt) {
+        int merchantId = MerchantCodes.merchantIdOf(merchantCode);
+        if (merchantId < 0) {
+            unknownMerchants.increment();
+            return;
+        }
+        long second = createdAt.getEpochSecond();
+        long key = key(merchantId, second, stripe());
+        Slot slot;
+        while ((slot = slot(key, merchantId, second)).orders().getAndIncrement() < 0) {
+            // Retired after we looked it up; the increment on it is discarded
+            slots.remove(key, slot);
+        }
+        recordedOrders.increment();
+    }
+
+    private Slot slot(long key, int merchantId, long second) {
+        // get() first: computeIfAbsent locks the bin even when the slot exists
+        Slot slot = slots.get(key);
+        return slot != null ? slot : slots.computeIfAbsent(key, k -> new Slot(merchantId, second, new AtomicLong()));
+    }
+
+    @Scheduled(fixedDelay = "${payment.merchant-counters.flush-interval:10s}")
+    synchronized void flush() {
+        flushBefore(Instant.now().minus(settleTime).getEpochSecond());
+    }
+
+    /**
+     * Flushes every second, settled or not. Safe as long as no node reconciles within {@code settle-time} of
+     * shutdown; otherwise those seconds are counted twice until the next reconciliation.
+     */
+    @PreDestroy
+    synchronized void flushOnShutdown() {
+        flushBefore(Long.MAX_VALUE);
+    }
+
+    private void flushBefore(long second) {
+        long started = System.nanoTime();
+        // Stripes of the same merchant and second are written as one delta
+        Map<Long, long[]> orders = new LinkedHashMap<>();
+        List<Pending> flushing = new ArrayList<>();
+        for (Slot slot : slots.values()) {
+            if (slot.second() >= second) {
+                continue;
+            }
+            // Only this thread retires slots, so the count is not negative here
+            long pending = slot.orders().get();
+            if (pending > 0) {
+                long merchantSecond = ((long) slot.merchantId() << 32) | slot.second();
+                orders.computeIfAbsent(merchantSecond, k -> new long[1])[0] += pending;
+                flushing.add(new Pending(slot, pending));
+            }
+        }
+
+        if (!orders.isEmpty()) {
+            List<MerchantOrderDelta> deltas = new ArrayList<>(orders.size());
+            orders.forEach((merchantSecond, count) -> deltas.add(
+                    new MerchantOrderDelta((int) (merchantSecond >>> 32), merchantSecond & 0xFFFFFFFFL, count[0])));
+            try {
+                merchantCounterRepository.addOrders(deltas);
+            } catch (Exception e) {
+                // Nothing is marked flushed, so the same counts are sent again next time
+                failedFlushes.increment();
+                LOG.warn("Flushing {} merchant order counts failed: {}", deltas.size(), e.getMessage());
+                return;
+            }
+            long flushed = 0;
+            for (Pending pending : flushing) {
+                // Orders recorded since the read above stay in the slot for the next flush
+                pending.slot().orders().addAndGet(-pending.orders());
+                flushed += pending.orders();
+            }
+            flushedOrders.add(flushed);
+            flushes.increment();
+            lastFlushMillis = (System.nanoTime() - started) / 1_000_000;
+        }
+
+        // A late order for a removed second goes to a fresh slot and is flushed on the next run
+        removeFlushedBefore(second);
+    }
+
+    private void removeFlushedBefore(long second) {
+        for (Map.Entry<Long, Slot> entry : slots.entrySet()) {
+            Slot slot = entry.getValue();
+            // Fails if an order came in since the flush; recordOrder moves any order that loses the race
+            if (slot.second() < second && slot.orders().compareAndSet(0, RETIRED)) {
+                slots.remove(entry.getKey(), slot);
+            }
+        }
+    }
+
+    @Scheduled(initialDelay = "${payment.merchant-counters.settle-time:30s}")
+    void reconcileAfterStartup() {
+        // Delayed so that a previous instance's shutdown flush and its last inserts have landed
+        if (reconcileOnStartup) {
+            reconcile();
+        }
+    }
+
+    /**
+     * Recounts {@code num_orders} for every merchant from {@code transaction_master}.
+     */
+    @Scheduled(cron = "${payment.merchant-counters.reconcile-cron:0 45 3 * * *}")
+    public synchronized void reconcile() {
+        try {
+            // The cutoff is taken once the repository holds the counter lock, after any flush in progress
+            reconciledAsOf = merchantCounterRepository.reconcile(
+                    () -> Instant.now().minus(settleTime).truncatedTo(ChronoUnit.SECONDS));
+            reconciles.increment();
+            merchantCache.allMerchantsChanged();
+            LOG.info("Reconciled merchant order counts as of {}", reconciledAsOf);
+        } catch (Exception e) {
+            failedReconciles.increment();
+            LOG.warn("Reconciling merchant order counts failed: {}", e.getMessage());
+        }
+    }
+
+    public Map<String, Object> snapshot() {
+        long pending = 0;
+        for (Slot slot : slots.values()) {
+            pending += Math.max(0, slot.orders().get());
+        }
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("slots", slots.size());
+        snapshot.put("stripes", STRIPES);
+        snapshot.put("pendingOrders", pending);
+        snapshot.put("recordedOrders", recordedOrders.sum());
+        snapshot.put("unknownMerchants", unknownMerchants.sum());
+        snapshot.put("flushedOrders", flushedOrders.sum());
+        snapshot.put("flushes", flushes.sum());
+        snapshot.put("failedFlushes", failedFlushes.sum());
+        snapshot.put("lastFlushMillis", lastFlushMillis);
+        snapshot.put("reconciles", reconciles.sum());
+        snapshot.put("failedReconciles", failedReconciles.sum());
+        snapshot.put("reconciledAsOf", reconciledAsOf == null ? null : reconciledAsOf.toString());
+        return snapshot;
+    }
+
+    /**
+     * Merchant id in the high 32 bits, then 28 bits of the second and the stripe. The slot keeps the whole second;
+     * the key only has to tell apart the few seconds that are in flight.
+     */
+    private static long key(int merchantId, long second, int stripe) {
+        return ((long) merchantId << 32) | ((second & 0x0FFFFFFFL) << 4) | stripe;
+    }
+
+    private static int stripe() {
+        // Fibonacci hashing spreads consecutive thread ids over the stripes
+        return ((int) Thread.currentThread().getId() * 0x9E3779B9 >>> 28) & (STRIPES - 1);
+    }
+
+    static int stripes(int processors) {
+        return processors >= 16 ? 16 : Integer.highestOneBit(Math.max(1, processors) * 2 - 1);
+    }
+
+    /**
+     * Orders of one merchant and second recorded by one stripe of threads; negative once retired.
+     */
+    private record Slot(int merchantId, long second, AtomicLong orders) {
+    }
+
+    private record Pending(Slot slot, long orders) {
+    }
+}
@@ -0,0 +1,154 @@
+package com.payment.config;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-merchant token buckets plus global concurrency-based admission control.
+ * <p>
+ * Buckets live in a {@link ConcurrentHashMap} keyed by merchant id and are only ever touched with CAS,
+ * so tens of thousands of distinct merchants never contend on a shared lock. The admission semaphore is
+ * sized to the Hikari pool so that requests queue here, briefly, instead of inside the pool.
+ */
+@Singleton
+public class MerchantRateLimiter {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MerchantRateLimiter.class);
+
+    // Rejects for merchants beyond max-tracked-merchants are counted under this key
+    static final String OTHER_MERCHANTS = "other";
+
+    private final double permitsPerSecond;
+    private final int burst;
+    private final long queueTimeoutMillis;
+    private final int maxQueued;
+    private final int maxTrackedMerchants;
+
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> rejectsByMerchant = new ConcurrentHashMap<>();
+    private final LongAdder admissionRejects = new LongAdder();
+    private final Semaphore admission;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int maxConcurrent;
+
+    public MerchantRateLimiter(@Value("${payment.rate-limit.permits-per-second:20}") double permitsPerSecond,
+                               @Value("${payment.rate-limit.burst:40}") int burst,
+                               @Value("${payment.admission.max-concurrent:10}") int maxConcurrent,
+                               @Value("${payment.admission.max-queued:50}") int maxQueued,
+                               @Value("${payment.admission.queue-timeout-ms:200}") long queueTimeoutMillis,
+                               @Value("${payment.rate-limit.max-tracked-merchants:1000}") int maxTrackedMerchants) {
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.maxTrackedMerchants = maxTrackedMerchants;
+        this.admission = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * @return 0 if the merchant may proceed, otherwise the nanoseconds until its next token
+     */
+    public long tryAcquireToken(String merchantId) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(merchantId);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(merchantId, id -> new TokenBucket(permitsPerSecond, burst, now));
+        }
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            countReject(merchantId);
+        }
+        return waitNanos;
+    }
+
+    /**
+     * Merchant ids come straight from the request path, so only the first {@code max-tracked-merchants} get their own
+     * counter; the check-then-insert may overshoot by the number of concurrent callers, which is still bounded.
+     */
+    private void countReject(String merchantId) {
+        LongAdder rejects = rejectsByMerchant.get(merchantId);
+        if (rejects == null) {
+            String key = rejectsByMerchant.size() < maxTrackedMerchants ? merchantId : OTHER_MERCHANTS;
+            rejects = rejectsByMerchant.computeIfAbsent(key, id -> new LongAdder());
+        }
+        rejects.increment();
+    }
+
+    /**
+     * Non-blocking admission attempt.
+     */
+    public boolean tryAdmit() {
+        return admission.tryAcquire();
+    }
+
+    /**
+     * Waits up to the configured queue timeout for a permit. Callers must not run this on an event loop thread.
+     */
+    public boolean admitQueued() throws InterruptedException {
+        if (queued.incrementAndGet() > maxQueued) {
+            queued.decrementAndGet();
+            admissionRejects.increment();
+            return false;
+        }
+        try {
+            boolean admitted = admission.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+            if (!admitted) {
+                admissionRejects.increment();
+            }
+            return admitted;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        admission.release();
+    }
+
+    public long getRetryAfterSeconds() {
+        return Math.max(1, TimeUnit.MILLISECONDS.toSeconds(queueTimeoutMillis));
+    }
+
+    /**
+     * Drops buckets that have refilled completely so the map only holds recently active merchants.
+     */
+    @Scheduled(fixedDelay = "${payment.rate-limit.sweep-interval:60s}")
+    public void sweepIdleBuckets() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now));
+        LOG.debug("Rate limit sweep removed {} idle buckets", before - buckets.size());
+    }
+
+    public Map<String, Object> snapshot(int limit) {
+        Map<String, Long> topRejected = new LinkedHashMap<>();
+        rejectsByMerchant.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().sum()))
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .forEach(e -> topRejected.put(e.getKey(), e.getValue()));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("activeBuckets", buckets.size());
+        result.put("admissionMaxConcurrent", maxConcurrent);
+        result.put("admissionInFlight", maxConcurrent - admission.availablePermits());
+        result.put("admissionQueued", queued.get());
+        result.put("admissionRejects", admissionRejects.sum());
+        result.put("trackedMerchants", rejectsByMerchant.size());
+        result.put("merchantRejects", topRejected);
+        return result;
+    }
+}
@@ -0,0 +1,26 @@
+package com.payment.config;
+
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.util.Map;
+
+/**
+ * Exposes rate limiter and admission control counters at {@code /ratelimits}.
+ */
+@Endpoint(id = "ratelimits")
+public class RateLimitEndpoint {
+
+    private static final int TOP_MERCHANTS = 100;
+
+    private final MerchantRateLimiter rateLimiter;
+
+    public RateLimitEndpoint(MerchantRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Read
+    public Map<String, Object> rateLimits() {
+        return rateLimiter.snapshot(TOP_MERCHANTS);
+    }
+}
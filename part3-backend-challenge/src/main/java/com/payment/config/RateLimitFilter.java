@@ -0,0 +1,130 @@
+package com.payment.config;
+
+import com.payment.rest.RestResponse;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protects the shared connection pool from a single noisy merchant.
+ * <p>
+ * Requests for {@code /{merchantId}/transactions} first spend a token from that merchant's bucket. Every
+ * merchant API call then needs an admission permit; when none is free the request waits briefly off the
+ * event loop and is shed with {@code 429 Too Many Requests} and {@code Retry-After} if the pool stays saturated.
+ * The SSE stream and the NDJSON export are exempt from admission: both stay open as long as the client reads,
+ * and neither holds a database connection in between.
+ */
+@Filter("/api/v1/merchants/**")
+@Requires(property = "payment.rate-limit.enabled", notEquals = "false")
+public class RateLimitFilter implements HttpServerFilter {
+
+    private static final String PATH_PREFIX = "/api/v1/merchants/";
+    private static final String TRANSACTIONS_SEGMENT = "/transactions";
+    // Only the SSE route itself: /api/v1/merchants/{merchantId}/transactions/stream
+    private static final String STREAM_ROUTE_SUFFIX = TRANSACTIONS_SEGMENT + "/stream";
+    // Only the NDJSON route itself: /api/v1/merchants/{merchantId}/transactions/export
+    private static final String EXPORT_ROUTE_SUFFIX = TRANSACTIONS_SEGMENT + "/export";
+
+    private final MerchantRateLimiter rateLimiter;
+
+    public RateLimitFilter(MerchantRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public int getOrder() {
+        // Run inside CorsFilter so that rejections still carry CORS headers
+        return 100;
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+        String merchantId = merchantIdForTransactions(request.getPath());
+        if (merchantId != null) {
+            long waitNanos = rateLimiter.tryAcquireToken(merchantId);
+            if (waitNanos > 0) {
+                return Mono.<MutableHttpResponse<?>>just(tooManyRequests(TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1,
+                        "Rate limit exceeded for merchant " + merchantId));
+            }
+        }
+
+        // Long-lived SSE connections do not hold a database connection, so they must not hold a permit either.
+        // The export borrows a connection per keyset chunk only, so a slow reader must not hold a permit for the
+        // whole download.
+        if (isTransactionStream(request.getPath(), merchantId) || isTransactionExport(request.getPath(), merchantId)) {
+            return chain.proceed(request);
+        }
+
+        if (rateLimiter.tryAdmit()) {
+            return proceedAndRelease(request, chain);
+        }
+
+        return Mono.fromCallable(rateLimiter::admitQueued)
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(admitted -> admitted
+                        ? proceedAndRelease(request, chain)
+                        : Mono.<MutableHttpResponse<?>>just(tooManyRequests(rateLimiter.getRetryAfterSeconds(), "Server busy, retry later")));
+    }
+
+    private Flux<MutableHttpResponse<?>> proceedAndRelease(HttpRequest<?> request, ServerFilterChain chain) {
+        return Flux.from(chain.proceed(request))
+                .doFinally(signal -> rateLimiter.release());
+    }
+
+    private static MutableHttpResponse<?> tooManyRequests(long retryAfterSeconds, String message) {
+        return HttpResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+                .body(RestResponse.error("429", message));
+    }
+
+    /**
+     * Extracts {@code merchantId} from {@code /api/v1/merchants/{merchantId}/transactions...} without regex.
+     */
+    static String merchantIdForTransactions(String path) {
+        if (!path.startsWith(PATH_PREFIX)) {
+            return null;
+        }
+        int slash = path.indexOf('/', PATH_PREFIX.length());
+        if (slash <= PATH_PREFIX.length() || !path.startsWith(TRANSACTIONS_SEGMENT, slash)) {
+            return null;
+        }
+        // Whole segment only, not /transactionsX
+        int end = slash + TRANSACTIONS_SEGMENT.length();
+        if (end < path.length() && path.charAt(end) != '/') {
+            return null;
+        }
+        return path.substring(PATH_PREFIX.length(), slash);
+    }
+
+    /**
+     * True only for {@code /api/v1/merchants/{merchantId}/transactions/stream}, given the id extracted from that path.
+     */
+    static boolean isTransactionStream(String path, String merchantId) {
+        return isTransactionRoute(path, merchantId, STREAM_ROUTE_SUFFIX);
+    }
+
+    /**
+     * True only for {@code /api/v1/merchants/{merchantId}/transactions/export}, given the id extracted from that path.
+     */
+    static boolean isTransactionExport(String path, String merchantId) {
+        return isTransactionRoute(path, merchantId, EXPORT_ROUTE_SUFFIX);
+    }
+
+    private static boolean isTransactionRoute(String path, String merchantId, String routeSuffix) {
+        return merchantId != null
+                && path.length() == PATH_PREFIX.length() + merchantId.length() + routeSuffix.length()
+                && path.endsWith(routeSuffix);
+    }
+}
@@ -0,0 +1,128 @@
+package com.payment.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.payment.dto.transactionDto.TransactionDetailDto;
+import com.payment.dto.transactionDto.TransactionDetails;
+import io.micronaut.core.type.Argument;
+import io.micronaut.serde.Encoder;
+import io.micronaut.serde.Serializer;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes {@link TransactionDetails}.
+ * <p>
+ * Details aggregated by Postgres are passed through: the JSON text is read token by token and each token is
+ * handed straight to the encoder, so no detail DTOs, maps or trees are built, and amounts keep the scale the
+ * database rendered. Serde offers no raw-value write, so tokens are copied rather than the bytes.
+ */
+@Singleton
+public class TransactionDetailsSerializer implements Serializer<TransactionDetails> {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final Argument<List<TransactionDetailDto>> DETAIL_LIST = Argument.listOf(TransactionDetailDto.class);
+
+    @Override
+    public void serialize(Encoder encoder, EncoderContext context, Argument<? extends TransactionDetails> type,
+                          TransactionDetails value) throws IOException {
+        if (!value.isJson()) {
+            Serializer<? super List<TransactionDetailDto>> listSerializer =
+                    context.findSerializer(DETAIL_LIST).createSpecific(context, DETAIL_LIST);
+            listSerializer.serialize(encoder, context, DETAIL_LIST, value.details());
+            return;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(value.json())) {
+            copyValue(parser, parser.nextToken(), encoder);
+        }
+    }
+
+    private static void copyValue(JsonParser parser, JsonToken token, Encoder encoder) throws IOException {
+        if (token == null) {
+            throw new IOException("Truncated details JSON");
+        }
+        switch (token) {
+            case START_ARRAY -> {
+                Encoder array = encoder.encodeArray(Argument.OBJECT_ARGUMENT);
+                JsonToken next;
+                while ((next = parser.nextToken()) != JsonToken.END_ARRAY) {
+                    copyValue(parser, next, array);
+                }
+                array.finishStructure();
+            }
+            case START_OBJECT -> {
+                Encoder object = encoder.encodeObject(Argument.OBJECT_ARGUMENT);
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    object.encodeKey(parser.currentName());
+                    copyValue(parser, parser.nextToken(), object);
+                }
+                object.finishStructure();
+            }
+            case VALUE_STRING -> encoder.encodeString(parser.getText());
+            case VALUE_NUMBER_INT -> {
+                if (parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+                    encoder.encodeBigInteger(parser.getBigIntegerValue());
+                } else {
+                    encoder.encodeLong(parser.getLongValue());
+                }
+            }
+            case VALUE_NUMBER_FLOAT -> encoder.encodeBigDecimal(parser.getDecimalValue());
+            case VALUE_TRUE -> encoder.encodeBoolean(true);
+            case VALUE_FALSE -> encoder.encodeBoolean(false);
+            case VALUE_NULL -> encoder.encodeNull();
+            default -> throw new IOException("Unexpected token in details JSON: " + token);
+        }
+    }
+
+    /**
+     * Jackson counterpart for the CBOR body handler. Pre-built JSON is written as is to JSON generators and
+     * re-encoded token by token for binary ones.
+     */
+    public static class Jackson extends StdSerializer<TransactionDetails> {
+
+        public Jackson() {
+            super(TransactionDetails.class);
+        }
+
+        @Override
+        public void serialize(TransactionDetails value, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            if (!value.isJson()) {
+                provider.defaultSerializeValue(value.details(), generator);
+            } else if (generator.canWriteFormattedNumbers()) {
+                // Text formats only
+                generator.writeRawValue(value.json());
+            } else {
+                try (JsonParser parser = JSON_FACTORY.createParser(value.json())) {
+                    JsonToken token;
+                    while ((token = parser.nextToken()) != null) {
+                        copyToken(parser, token, generator);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Like {@link JsonGenerator#copyCurrentEvent}, but decimals stay {@link java.math.BigDecimal} instead of
+         * becoming doubles.
+         */
+        private static void copyToken(JsonParser parser, JsonToken token, JsonGenerator generator)
+                throws IOException {
+            switch (token) {
+                case START_ARRAY -> generator.writeStartArray();
+                case END_ARRAY -> generator.writeEndArray();
+                case START_OBJECT -> generator.writeStartObject();
+                case END_OBJECT -> generator.writeEndObject();
+                case FIELD_NAME -> generator.writeFieldName(parser.currentName());
+                case VALUE_NUMBER_FLOAT -> generator.writeNumber(parser.getDecimalValue());
+                default -> generator.copyCurrentEvent(parser);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.payment.controller;
+
+import com.payment.config.CborMessageBodyHandler;
+import com.payment.payloads.SettlementReportRequestPayload;
+import com.payment.payloads.SettlementReportRequestPayloadBuilder;
+import com.payment.rest.RestResponse;
+import com.payment.usecases.SettlementReportUseCase;
+import com.payment.usecases.UseCaseContext;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Produces;
+import io.micronaut.http.annotation.QueryValue;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.inject.Inject;
+
+import java.util.Optional;
+import java.util.logging.Logger;
+
+@Controller("/api/v1/settlements")
+@Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+@Tag(name = "Settlements")
+public class SettlementController {
+
+    private final Logger logger = Logger.getLogger(SettlementController.class.getName());
+    private final SettlementReportUseCase settlementReportUseCase;
+
+    @Inject
+    public SettlementController(SettlementReportUseCase settlementReportUseCase) {
+        this.settlementReportUseCase = settlementReportUseCase;
+    }
+
+    @Get("/report")
+    @Operation(
+            summary = "Settlement report",
+            description = "Completed amount per acquirer, day and currency over a date range, read from the daily settlement aggregates."
+    )
+    public RestResponse getSettlementReport(@QueryValue String startDate,
+                                            @QueryValue String endDate,
+                                            @QueryValue Optional<Long> acquirerId,
+                                            @QueryValue Optional<String> currency) {
+        logger.info("Settlement report " + startDate + ".." + endDate);
+        SettlementReportRequestPayload request = SettlementReportRequestPayloadBuilder.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .acquirerId(acquirerId)
+                .currency(currency)
+                .build();
+
+        var result = this.settlementReportUseCase.execute(UseCaseContext.empty(), request);
+        if (result.hasError()) {
+            return RestResponse.error("400", result.error().getMessage());
+        }
+        return RestResponse.success(result.data());
+    }
+}
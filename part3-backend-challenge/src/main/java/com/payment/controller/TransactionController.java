@@ -1,18 +1,34 @@
 package com.payment.controller;
 
+import com.payment.config.CborMessageBodyHandler;
 import com.payment.dto.transactionDto.CreateTransactionRequestPayloadWithMerchantId;
 import com.payment.dto.transactionDto.CreateTransactionRequestPayloadWithMerchantIdBuilder;
+import com.payment.dto.transactionDto.TransactionDtoWithDetails;
+import com.payment.helpers.ETags;
+import com.payment.helpers.TransactionProjection;
 import com.payment.payloads.*;
 import com.payment.rest.RestResponse;
 import com.payment.usecases.CreateTransactionControllerUseCase;
+import com.payment.usecases.ResourceVersionUseCase;
 import com.payment.usecases.TransactionControllerUseCase;
+import com.payment.usecases.TransactionExportUseCase;
+import com.payment.usecases.TransactionStreamUseCase;
 import com.payment.usecases.UseCaseContext;
 import com.payment.usecases.merchantUsecase.*;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
 import io.micronaut.http.annotation.*;
+import io.micronaut.http.sse.Event;
+import io.micronaut.scheduling.TaskExecutors;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.inject.Inject;
+import org.reactivestreams.Publisher;
 
+import java.io.InputStream;
 import java.util.Optional;
 import java.util.logging.Logger;
 
@@ -88,6 +104,8 @@ import java.util.logging.Logger;
  */
 
 @Controller("/api/v1/merchants")
+@Produces({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
+@Consumes({MediaType.APPLICATION_JSON, CborMessageBodyHandler.APPLICATION_CBOR})
 @Tag(name = "Transactions")
 public class TransactionController {
 
@@ -99,6 +117,14 @@ public class TransactionController {
     private DeleteMerchantUseCase deleteMerchantUseCase;
     private MerchantDetailUseCase merchantDetailUseCase;
     private UpdateMerchantUseCase updateMerchantUseCase;
+    private BulkUpdateMerchantUseCase bulkUpdateMerchantUseCase;
+    private ImportMerchantsUseCase importMerchantsUseCase;
+    private SearchMerchantsUseCase searchMerchantsUseCase;
+    private AutocompleteMerchantsUseCase autocompleteMerchantsUseCase;
+    private LookupMerchantsUseCase lookupMerchantsUseCase;
+    private ResourceVersionUseCase resourceVersionUseCase;
+    private TransactionStreamUseCase transactionStreamUseCase;
+    private TransactionExportUseCase transactionExportUseCase;
 
 
     @Inject
@@ -108,7 +134,15 @@ public class TransactionController {
                                  CreateMerchantUseCase createMerchantUseCase,
                                  DeleteMerchantUseCase deleteMerchantUseCase,
                                  MerchantDetailUseCase merchantDetailUseCase,
-                                 UpdateMerchantUseCase updateMerchantUseCase
+                                 UpdateMerchantUseCase updateMerchantUseCase,
+                                 BulkUpdateMerchantUseCase bulkUpdateMerchantUseCase,
+                                 ImportMerchantsUseCase importMerchantsUseCase,
+                                 SearchMerchantsUseCase searchMerchantsUseCase,
+                                 AutocompleteMerchantsUseCase autocompleteMerchantsUseCase,
+                                 LookupMerchantsUseCase lookupMerchantsUseCase,
+                                 ResourceVersionUseCase resourceVersionUseCase,
+                                 TransactionStreamUseCase transactionStreamUseCase,
+                                 TransactionExportUseCase transactionExportUseCase
 
     ) {
         this.transactionControllerUseCase = transactionControllerUseCase;
@@ -118,19 +152,31 @@ public class TransactionController {
         this.deleteMerchantUseCase = deleteMerchantUseCase;
         this.merchantDetailUseCase = merchantDetailUseCase;
         this.updateMerchantUseCase = updateMerchantUseCase;
+        this.bulkUpdateMerchantUseCase = bulkUpdateMerchantUseCase;
+        this.importMerchantsUseCase = importMerchantsUseCase;
+        this.searchMerchantsUseCase = searchMerchantsUseCase;
+        this.autocompleteMerchantsUseCase = autocompleteMerchantsUseCase;
+        this.lookupMerchantsUseCase = lookupMerchantsUseCase;
+        this.resourceVersionUseCase = resourceVersionUseCase;
+        this.transactionStreamUseCase = transactionStreamUseCase;
+        this.transactionExportUseCase = transactionExportUseCase;
     }
 
     @Get("/{merchantId}/transactions")
     @Operation(
             summary = "Get merchant transactions",
-            description = "Returns paginated list of transactions for a merchant. TODO: Implement proper pagination, filtering, and database queries."
+            description = "Returns paginated list of transactions for a merchant. fields= selects transaction fields, expand=details,summary adds the detail lists and the summary, includeTotal=none|estimate|exact controls how the total is computed."
     )
-    public RestResponse getMerchantTransactions(@PathVariable String merchantId,
-                                                @QueryValue Optional<Integer> page,
-                                                @QueryValue Optional<Integer> size,
-                                                @QueryValue Optional<String> startDate,
-                                                @QueryValue Optional<String> endDate,
-                                                @QueryValue Optional<String> status) {
+    public HttpResponse<RestResponse> getMerchantTransactions(@PathVariable String merchantId,
+                                                              @QueryValue Optional<Integer> page,
+                                                              @QueryValue Optional<Integer> size,
+                                                              @QueryValue Optional<String> startDate,
+                                                              @QueryValue Optional<String> endDate,
+                                                              @QueryValue Optional<String> status,
+                                                              @QueryValue Optional<String> includeTotal,
+                                                              @QueryValue Optional<String> fields,
+                                                              @QueryValue Optional<String> expand,
+                                                              @Header(HttpHeaders.IF_NONE_MATCH) Optional<String> ifNoneMatch) {
         logger.info("Get merchant transactions for merchant " + merchantId);
         TransactionRequestPayload request = TransactionRequestPayloadBuilder.builder()
                 .merchantId(merchantId)
@@ -139,25 +185,68 @@ public class TransactionController {
                 .startDate(startDate)
                 .endDate(endDate)
                 .status(status)
+                .includeTotal(includeTotal)
+                .fields(fields)
+                .expand(expand)
                 .build();
 
+        // Unchanged pages cost one index probe instead of the page, count and summary queries
+        String etag = this.resourceVersionUseCase.transactionsETag(request).data();
+        if (ETags.matches(ifNoneMatch.orElse(null), etag)) {
+            return notModified(etag);
+        }
+
         var result = this.transactionControllerUseCase.execute(UseCaseContext.empty(), request);
 
         if (result.hasError()) {
             // Could be validation or not found
-            return RestResponse.error("400", "Error while fetching transactions list");
+            return HttpResponse.ok(RestResponse.error("400", "Error while fetching transactions list"));
         }
 
         // If no transactions found, return 404 explicitly
         if (result.data() == null) {
-            return RestResponse.error("404", "No transactions found for merchant " + merchantId);
+            return HttpResponse.ok(RestResponse.error("404", "No transactions found for merchant " + merchantId));
         }
 
-        return RestResponse.success(result.data());
+        return withETag(HttpResponse.ok(RestResponse.success(result.data())), etag);
 
     }
 
 
+    @Get(value = "/{merchantId}/transactions/stream", produces = MediaType.TEXT_EVENT_STREAM)
+    @Operation(
+            summary = "Stream new merchant transactions",
+            description = "Server-Sent Events stream of transactions created after the subscription started."
+    )
+    public Publisher<Event<Object>> streamMerchantTransactions(@PathVariable String merchantId) {
+        logger.info("Transaction stream opened for merchant " + merchantId);
+        return this.transactionStreamUseCase.execute(merchantId);
+    }
+
+    @Get(value = "/{merchantId}/transactions/export", produces = MediaType.APPLICATION_JSON_STREAM)
+    @Operation(
+            summary = "Export merchant transactions",
+            description = "Newline-delimited JSON of every matching transaction in txn_id order, read in keyset chunks."
+    )
+    public Publisher<TransactionDtoWithDetails> exportMerchantTransactions(@PathVariable String merchantId,
+                                                                          @QueryValue Optional<String> startDate,
+                                                                          @QueryValue Optional<String> endDate,
+                                                                          @QueryValue Optional<String> status) {
+        logger.info("Export transactions for merchant " + merchantId);
+        TransactionRequestPayload request = TransactionRequestPayloadBuilder.builder()
+                .merchantId(merchantId)
+                .page(Optional.empty())
+                .size(Optional.empty())
+                .startDate(startDate)
+                .endDate(endDate)
+                .status(status)
+                .includeTotal(Optional.empty())
+                .fields(Optional.empty())
+                .expand(Optional.of(TransactionProjection.EXPAND_DETAILS))
+                .build();
+        return this.transactionExportUseCase.execute(request);
+    }
+
     @Post("/transactions")
     @Operation(
             summary = "Create new transaction",
@@ -200,14 +289,79 @@ public class TransactionController {
         return  RestResponse.success(result.data());
     }
 
+    @Get("/search")
+    @Operation(
+            summary = "Search merchants",
+            description = "Merchants whose name matches q, ranked by prefix match and trigram similarity. Continue with the returned nextCursor."
+    )
+    public RestResponse searchMerchants(@QueryValue String q,
+                                        @QueryValue Optional<String> tags,
+                                        @QueryValue Optional<Integer> limit,
+                                        @QueryValue Optional<String> cursor) {
+        MerchantSearchRequestPayload request = MerchantSearchRequestPayloadBuilder.builder()
+                .q(q)
+                .tags(tags)
+                .limit(limit)
+                .cursor(cursor)
+                .build();
+
+        var result = this.searchMerchantsUseCase.execute(UseCaseContext.empty(), request);
+        if (result.hasError()) {
+            return RestResponse.error("400", result.error().getMessage());
+        }
+        return RestResponse.success(result.data());
+    }
+
+    @Get("/autocomplete")
+    @Operation(
+            summary = "Autocomplete merchant names",
+            description = "Merchants whose name starts with prefix, in name order, served from the in-memory merchant directory."
+    )
+    public RestResponse autocompleteMerchants(@QueryValue String prefix,
+                                              @QueryValue Optional<Integer> limit) {
+        MerchantAutocompleteRequestPayload request = MerchantAutocompleteRequestPayloadBuilder.builder()
+                .prefix(prefix)
+                .limit(limit)
+                .build();
+
+        var result = this.autocompleteMerchantsUseCase.execute(UseCaseContext.empty(), request);
+        if (result.hasError()) {
+            return RestResponse.error("400", result.error().getMessage());
+        }
+        return RestResponse.success(result.data());
+    }
+
+    @Get("/lookup")
+    @Operation(
+            summary = "Look up merchant names and statuses",
+            description = "Name and status for each of the comma-separated ids, served from the in-memory merchant directory."
+    )
+    public RestResponse lookupMerchants(@QueryValue String ids) {
+        MerchantLookupRequestPayload request = MerchantLookupRequestPayloadBuilder.builder()
+                .ids(ids)
+                .build();
+
+        var result = this.lookupMerchantsUseCase.execute(UseCaseContext.empty(), request);
+        if (result.hasError()) {
+            return RestResponse.error("400", result.error().getMessage());
+        }
+        return RestResponse.success(result.data());
+    }
+
     @Get("/{merchantId}")
-    public RestResponse getMerchantDetail(@PathVariable String merchantId) {
+    public HttpResponse<RestResponse> getMerchantDetail(@PathVariable String merchantId,
+                                                        @Header(HttpHeaders.IF_NONE_MATCH) Optional<String> ifNoneMatch) {
+        String etag = this.resourceVersionUseCase.merchantETag(merchantId).data();
+        if (ETags.matches(ifNoneMatch.orElse(null), etag)) {
+            return notModified(etag);
+        }
+
         MerchantDetailRequestPayload requestPayload = MerchantDetailRequestPayloadBuilder.builder().merchantId(merchantId).build();
         var result = this.merchantDetailUseCase.execute(UseCaseContext.empty(), requestPayload);
         if (result.hasError()) {
-            return RestResponse.error("400", "Error while fetching merchant detail");
+            return HttpResponse.ok(RestResponse.error("400", "Error while fetching merchant detail"));
         }
-        return RestResponse.success(result.data());
+        return withETag(HttpResponse.ok(RestResponse.success(result.data())), etag);
     }
 
     @Post
@@ -220,6 +374,27 @@ public class TransactionController {
         return RestResponse.success(result.data());
     }
 
+    @Post(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @ExecuteOn(TaskExecutors.BLOCKING)
+    @Operation(
+            summary = "Import merchants",
+            description = "Streams CSV (header row, tags separated by |) or NDJSON merchants into the merchants table with COPY. Invalid rows are skipped and listed with their line number."
+    )
+    public RestResponse importMerchants(@Body InputStream body,
+                                        @Header(HttpHeaders.CONTENT_TYPE) String contentType,
+                                        @QueryValue Optional<String> format) {
+        MerchantImportPayload request = MerchantImportPayloadBuilder.builder()
+                .body(body)
+                .format(format.orElse(contentType.split(";", 2)[0]))
+                .build();
+
+        var result = this.importMerchantsUseCase.execute(UseCaseContext.empty(), request);
+        if (result.hasError()) {
+            return RestResponse.error("400", result.error().getMessage());
+        }
+        return RestResponse.success(result.data());
+    }
+
     @Put("/{merchantId}")
     public RestResponse updateMerchant(@PathVariable String merchantId, @Body UpdateMerchantPayload request) {
         UpdateMerchantPayloadWithMerchantId requestEntity = UpdateMerchantPayloadWithMerchantIdBuilder.builder()
@@ -241,12 +416,26 @@ public class TransactionController {
         var result = this.updateMerchantUseCase.execute(UseCaseContext.empty(), requestEntity);
 
         if(result.hasError()) {
-            return RestResponse.error("400", "Error while updating merchant");
+            return RestResponse.error("400", result.error().getMessage());
         }
 
         return RestResponse.success(result.data());
     }
 
+    @Patch
+    @Operation(
+            summary = "Bulk update merchants",
+            description = "Applies many partial merchant updates in one transaction. Only the fields present are written; merchants whose fields already match are left untouched."
+    )
+    public RestResponse bulkUpdateMerchants(@Body BulkUpdateMerchantPayload request) {
+        var result = this.bulkUpdateMerchantUseCase.execute(UseCaseContext.empty(), request);
+
+        if (result.hasError()) {
+            return RestResponse.error("400", result.error().getMessage());
+        }
+        return RestResponse.success(result.data());
+    }
+
     @Delete("/{merchantId}")
     public RestResponse deleteMerchant(@PathVariable String merchantId) {
 
@@ -259,5 +448,19 @@ public class TransactionController {
         }
         return RestResponse.success(result.data());
     }
-}
 
+    private static <T> MutableHttpResponse<T> notModified(String etag) {
+        return withETag(HttpResponse.notModified(), etag);
+    }
+
+    private static <T> MutableHttpResponse<T> withETag(MutableHttpResponse<T> response, String etag) {
+        if (etag != null) {
+            // no-cache: clients may store the response but must revalidate it with If-None-Match.
+            // Vary: the same ETag is served as JSON or CBOR, so caches must key on Accept as well.
+            response.header(HttpHeaders.ETAG, etag)
+                    .header(HttpHeaders.CACHE_CONTROL, "private, no-cache")
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,17 @@
+package com.payment.dto.merchantDto;
+
+import io.micronaut.serde.annotation.Serdeable;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+/**
+ * The part of a merchant kept in {@code MerchantDirectory}: enough to label an id in a lookup or an autocomplete
+ * match.
+ */
+@Serdeable
+@RecordBuilder
+public record MerchantDirectoryEntry(
+        Integer merchantId,
+        String merchantName,
+        String merchantStatus
+) {
+}
@@ -0,0 +1,15 @@
+package com.payment.dto.merchantDto;
+
+import io.micronaut.serde.annotation.Serdeable;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+/**
+ * A rejected import row; {@code line} is the 1-based line where the row starts.
+ */
+@Serdeable
+@RecordBuilder
+public record MerchantImportError(
+        long line,
+        String message
+) {
+}
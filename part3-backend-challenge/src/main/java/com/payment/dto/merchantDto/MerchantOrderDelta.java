@@ -0,0 +1,13 @@
+package com.payment.dto.merchantDto;
+
+/**
+ * Orders a merchant received within one second that are not yet in {@code num_orders}.
+ *
+ * @param second Epoch second the transactions were created in
+ */
+public record MerchantOrderDelta(
+        int merchantId,
+        long second,
+        long orders
+) {
+}
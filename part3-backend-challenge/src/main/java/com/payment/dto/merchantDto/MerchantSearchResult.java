@@ -0,0 +1,34 @@
+package com.payment.dto.merchantDto;
+
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.data.annotation.TypeDef;
+import io.micronaut.data.model.DataType;
+import io.micronaut.serde.annotation.Serdeable;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * A {@link MerchantDto} with its search rank: trigram similarity of the name to the query, plus 1 for a prefix match.
+ */
+@Serdeable
+@Introspected
+@RecordBuilder
+public record MerchantSearchResult(
+        Integer merchantId,
+        String merchantName,
+        String merchantStatus,
+        String contactInfo,
+        String merchantCategory,
+        String merchantLocation,
+        BigDecimal merchantRating,
+        Integer numOrders,
+        String paymentMethod,
+        String merchantLogo,
+        String merchantWebsite,
+        String merchantType,
+        @TypeDef(type = DataType.STRING_ARRAY) List<String> merchantTags,
+        float score
+) {
+}
@@ -0,0 +1,23 @@
+package com.payment.dto.settlementDto;
+
+import io.micronaut.serde.annotation.Serdeable;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Serdeable
+@RecordBuilder
+public record SettlementDailyRow(
+        Long acquirerId,
+        String acquirerName,
+        LocalDate settlementDate,
+        String currency,
+        BigDecimal totalAmount,
+        long transactionCount,
+        BigDecimal averageAmount,
+        boolean closed,
+        BigDecimal lateAmount,
+        long lateCount
+) {
+}
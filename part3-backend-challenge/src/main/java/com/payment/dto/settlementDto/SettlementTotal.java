@@ -0,0 +1,21 @@
+package com.payment.dto.settlementDto;
+
+import io.micronaut.serde.annotation.Serdeable;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.math.BigDecimal;
+
+/**
+ * Sum of the daily rows of one acquirer in one currency over the requested range.
+ */
+@Serdeable
+@RecordBuilder
+public record SettlementTotal(
+        Long acquirerId,
+        String acquirerName,
+        String currency,
+        BigDecimal totalAmount,
+        long transactionCount,
+        int days
+) {
+}
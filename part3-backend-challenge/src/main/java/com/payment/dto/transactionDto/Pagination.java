@@ -1,14 +1,20 @@
 package com.payment.dto.transactionDto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.micronaut.serde.annotation.Serdeable;
 import io.soabase.recordbuilder.core.RecordBuilder;
 
 @Serdeable
 @RecordBuilder
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record Pagination(
         int page,
         int size,
-        int totalPages,
-        int totalElements
+        // null when the request asked for includeTotal=none
+        Integer totalPages,
+        Integer totalElements,
+        // "exact" or "estimated"; null without a total
+        String totalAccuracy,
+        boolean hasNext
 ) {
 }
@@ -0,0 +1,12 @@
+package com.payment.dto.transactionDto;
+
+import io.micronaut.serde.annotation.Serdeable;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+@Serdeable
+@RecordBuilder
+public record TransactionCount(
+        long total,
+        boolean exact
+) {
+}
@@ -0,0 +1,89 @@
+package com.payment.dto.transactionDto;
+
+import com.payment.config.TransactionDetailsSerializer;
+import io.micronaut.serde.annotation.Serdeable;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The {@code details} array of a transaction: either detail DTOs, or the JSON array Postgres already built with
+ * {@code json_agg}. Both are written as the same JSON by {@link TransactionDetailsSerializer}; the JSON form is
+ * streamed to the response without creating a {@link TransactionDetailDto} per detail.
+ */
+@Serdeable.Serializable(using = TransactionDetailsSerializer.class)
+public final class TransactionDetails {
+
+    private static final TransactionDetails EMPTY = new TransactionDetails(List.of(), null);
+
+    private final List<TransactionDetailDto> details;
+    private final String json;
+
+    private TransactionDetails(List<TransactionDetailDto> details, String json) {
+        this.details = details;
+        this.json = json;
+    }
+
+    public static TransactionDetails of(List<TransactionDetailDto> details) {
+        return details.isEmpty() ? EMPTY : new TransactionDetails(List.copyOf(details), null);
+    }
+
+    /**
+     * Wraps the array without copying it; the caller must not modify it afterwards.
+     */
+    public static TransactionDetails wrap(TransactionDetailDto[] details) {
+        return details.length == 0 ? EMPTY : new TransactionDetails(Collections.unmodifiableList(Arrays.asList(details)), null);
+    }
+
+    /**
+     * @param json JSON array of objects with the {@link TransactionDetailDto} field names
+     */
+    public static TransactionDetails ofJson(String json) {
+        return json == null || json.equals("[]") ? EMPTY : new TransactionDetails(null, json);
+    }
+
+    public static TransactionDetails empty() {
+        return EMPTY;
+    }
+
+    public boolean isJson() {
+        return json != null;
+    }
+
+    /**
+     * @return The pre-built JSON array, or null when {@link #isJson()} is false
+     */
+    public String json() {
+        return json;
+    }
+
+    /**
+     * @return The detail DTOs, or null when {@link #isJson()} is true
+     */
+    public List<TransactionDetailDto> details() {
+        return details;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TransactionDetails other)) {
+            return false;
+        }
+        return Objects.equals(details, other.details) && Objects.equals(json, other.json);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(details, json);
+    }
+
+    @Override
+    public String toString() {
+        return isJson() ? json : String.valueOf(details);
+    }
+}
@@ -1,10 +1,10 @@
 package com.payment.dto.transactionDto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.micronaut.serde.annotation.Serdeable;
 import io.soabase.recordbuilder.core.RecordBuilder;
 
 import java.math.BigDecimal;
-import java.util.List;
 
 @Serdeable
 @RecordBuilder
@@ -18,5 +18,7 @@ public record TransactionDtoWithDetails(
         String cardLast4,
         String acquirer,
         String issuer,
-        List<TransactionDetailDto> details
+        // Absent without expand=details; every other field is written even when null
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        TransactionDetails details
 ) {}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.payment.dto.transactionDto;
+
+import io.micronaut.serde.annotation.Serdeable;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.time.Instant;
+
+/**
+ * Newest transaction of a merchant; any insert changes it, which is what the transaction ETag is derived from.
+ */
+@Serdeable
+@RecordBuilder
+public record TransactionVersion(
+        Long txnId,
+        Instant createdAt
+) {
+}
@@ -0,0 +1,25 @@
+package com.payment.dto.transactionDto;
+
+import io.micronaut.serde.annotation.Serdeable;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.math.BigDecimal;
+
+/**
+ * A transaction page row with its details already aggregated by Postgres into a JSON array.
+ */
+@Serdeable
+@RecordBuilder
+public record TransactionWithDetailsRow(
+        Long txnId,
+        BigDecimal amount,
+        String currency,
+        String status,
+        String timestamp,
+        String cardType,
+        String cardLast4,
+        String acquirer,
+        String issuer,
+        String details
+) {
+}
@@ -212,4 +212,29 @@ public class Merchant {
     public void setIsLoading(Boolean isLoading) {
         this.isLoading = isLoading;
     }
+
+    // Copy with another order count, for caches that must not modify a shared instance
+    public Merchant withNumOrders(Integer numOrders) {
+        Merchant copy = new Merchant();
+        copy.merchantId = merchantId;
+        copy.merchantName = merchantName;
+        copy.merchantStatus = merchantStatus;
+        copy.contactInfo = contactInfo;
+        copy.merchantCategory = merchantCategory;
+        copy.merchantLocation = merchantLocation;
+        copy.createdAt = createdAt;
+        copy.lastUpdated = lastUpdated;
+        copy.merchantRating = merchantRating;
+        copy.numOrders = numOrders;
+        copy.paymentMethod = paymentMethod;
+        copy.merchantLogo = merchantLogo;
+        copy.merchantWebsite = merchantWebsite;
+        copy.merchantType = merchantType;
+        copy.merchantTags = merchantTags;
+        copy.page = page;
+        copy.itemsPerPage = itemsPerPage;
+        copy.errorMessage = errorMessage;
+        copy.isLoading = isLoading;
+        return copy;
+    }
 }
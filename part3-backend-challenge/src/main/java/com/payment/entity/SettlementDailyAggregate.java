@@ -0,0 +1,123 @@
+package com.payment.entity;
+
+import io.micronaut.data.annotation.*;
+import io.micronaut.serde.annotation.Serdeable;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Completed amount of one acquirer on one settlement day in one currency.
+ * Rows are written by the {@code trg_transaction_master_settlement} trigger, never by the application.
+ */
+@Serdeable
+@MappedEntity(value = "settlement_daily_aggregates", schema = "operators")
+public class SettlementDailyAggregate {
+
+    @Id
+    @GeneratedValue(GeneratedValue.Type.IDENTITY)
+    private Long aggregateId;
+
+    private Long acquirerId;
+    private LocalDate settlementDate;
+    private String currency;
+    private BigDecimal totalAmount;
+    private Long transactionCount;
+    private Boolean closed;
+    private Instant closedAt;
+    private BigDecimal lateAmount;
+    private Long lateCount;
+    private Instant updatedAt;
+
+    public SettlementDailyAggregate() {
+    }
+
+    public Long getAggregateId() {
+        return aggregateId;
+    }
+
+    public void setAggregateId(Long aggregateId) {
+        this.aggregateId = aggregateId;
+    }
+
+    public Long getAcquirerId() {
+        return acquirerId;
+    }
+
+    public void setAcquirerId(Long acquirerId) {
+        this.acquirerId = acquirerId;
+    }
+
+    public LocalDate getSettlementDate() {
+        return settlementDate;
+    }
+
+    public void setSettlementDate(LocalDate settlementDate) {
+        this.settlementDate = settlementDate;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    public Boolean getClosed() {
+        return closed;
+    }
+
+    public void setClosed(Boolean closed) {
+        this.closed = closed;
+    }
+
+    public Instant getClosedAt() {
+        return closedAt;
+    }
+
+    public void setClosedAt(Instant closedAt) {
+        this.closedAt = closedAt;
+    }
+
+    public BigDecimal getLateAmount() {
+        return lateAmount;
+    }
+
+    public void setLateAmount(BigDecimal lateAmount) {
+        this.lateAmount = lateAmount;
+    }
+
+    public Long getLateCount() {
+        return lateCount;
+    }
+
+    public void setLateCount(Long lateCount) {
+        this.lateCount = lateCount;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
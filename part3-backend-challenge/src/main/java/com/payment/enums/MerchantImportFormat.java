@@ -0,0 +1,31 @@
+package com.payment.enums;
+
+/**
+ * Input format of a bulk merchant import.
+ */
+public enum MerchantImportFormat {
+    /** Header row with {@code CreateMerchantPayload} field names; tags separated by {@code |} */
+    csv,
+    /** One {@code CreateMerchantPayload} JSON object per line */
+    ndjson;
+
+    /**
+     * Also accepts the media types {@code text/csv} and {@code application/x-ndjson}.
+     */
+    public static MerchantImportFormat parse(String value) {
+        String format = value.trim().toLowerCase();
+        switch (format) {
+            case "text/csv":
+                return csv;
+            case "application/x-ndjson":
+            case "application/x-json-stream":
+                return ndjson;
+            default:
+                try {
+                    return valueOf(format);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("format must be one of csv, ndjson");
+                }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.payment.enums;
+
+/**
+ * Result of applying one merchant update.
+ */
+public enum MerchantUpdateOutcome {
+    /** At least one column changed */
+    updated,
+    /** Every supplied field already had the supplied value; the row was not written */
+    unchanged,
+    /** No merchant with that id */
+    notFound
+}
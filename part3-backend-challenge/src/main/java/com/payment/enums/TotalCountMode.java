@@ -0,0 +1,32 @@
+package com.payment.enums;
+
+/**
+ * How the total of a transaction page is computed, requested with {@code includeTotal}.
+ */
+public enum TotalCountMode {
+    /** No total; clients page with {@code hasNext} */
+    none,
+    /** Cached exact count if still current, otherwise the planner's row estimate */
+    estimate,
+    /** Cached exact count if still current, otherwise {@code COUNT(*)} */
+    exact;
+
+    /**
+     * Also accepts {@code true}/{@code false} for {@code exact}/{@code none}.
+     */
+    public static TotalCountMode parse(String value) {
+        String mode = value.trim().toLowerCase();
+        switch (mode) {
+            case "true":
+                return exact;
+            case "false":
+                return none;
+            default:
+                try {
+                    return valueOf(mode);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("includeTotal must be one of none, estimate, exact");
+                }
+        }
+    }
+}
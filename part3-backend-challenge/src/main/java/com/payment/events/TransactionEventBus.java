@@ -0,0 +1,69 @@
+package com.payment.events;
+
+import com.payment.dto.transactionDto.TransactionStreamEvent;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Exceptions;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process fan-out of newly committed transactions to per-merchant subscribers.
+ * <p>
+ * Each subscriber gets its own bounded buffer. A subscriber that falls more than {@code subscriber-buffer} events
+ * behind is evicted: its stream completes and the client is expected to reconnect and re-read the page endpoint.
+ * Publishing never blocks on a slow consumer.
+ */
+@Singleton
+public class TransactionEventBus {
+
+    private static final Logger LOG = LoggerFactory.getLogger(TransactionEventBus.class);
+
+    private final int subscriberBuffer;
+    private final Map<String, Set<FluxSink<TransactionStreamEvent>>> subscribers = new ConcurrentHashMap<>();
+
+    public TransactionEventBus(@Value("${payment.stream.subscriber-buffer:256}") int subscriberBuffer) {
+        this.subscriberBuffer = subscriberBuffer;
+    }
+
+    public void publish(TransactionStreamEvent event) {
+        Set<FluxSink<TransactionStreamEvent>> sinks = subscribers.get(event.merchantId());
+        if (sinks == null) {
+            return;
+        }
+        for (FluxSink<TransactionStreamEvent> sink : sinks) {
+            sink.next(event);
+        }
+    }
+
+    public Flux<TransactionStreamEvent> subscribe(String merchantId) {
+        return Flux.<TransactionStreamEvent>create(sink -> {
+                    // compute() so registration cannot race with the last subscriber removing the set
+                    subscribers.compute(merchantId, (id, sinks) -> {
+                        Set<FluxSink<TransactionStreamEvent>> target = sinks != null ? sinks : ConcurrentHashMap.newKeySet();
+                        target.add(sink);
+                        return target;
+                    });
+                    sink.onDispose(() -> unsubscribe(merchantId, sink));
+                })
+                .onBackpressureBuffer(subscriberBuffer, dropped -> { }, BufferOverflowStrategy.ERROR)
+                .onErrorResume(Exceptions::isOverflow, e -> {
+                    LOG.warn("Evicting slow transaction stream subscriber for merchant {}", merchantId);
+                    return Flux.empty();
+                });
+    }
+
+    private void unsubscribe(String merchantId, FluxSink<TransactionStreamEvent> sink) {
+        subscribers.computeIfPresent(merchantId, (id, sinks) -> {
+            sinks.remove(sink);
+            return sinks.isEmpty() ? null : sinks;
+        });
+    }
+}
@@ -9,6 +9,13 @@ import java.time.format.DateTimeFormatterBuilder;
 import java.util.Locale;
 
 public class DateUtils {
+    // Immutable and thread-safe; built once instead of once per transaction row
+    private static final DateTimeFormatter RFC_1123_LENIENT = new DateTimeFormatterBuilder()
+            .parseCaseInsensitive()
+            .parseLenient()
+            .appendPattern("EEE, dd MMM yyyy HH:mm:ss z")
+            .toFormatter(Locale.ENGLISH);
+
     public static String toIsoUtcStart(String date) {
         // Parse the input date (yyyy-MM-dd)
         LocalDate localDate = LocalDate.parse(date);
@@ -35,13 +42,7 @@ public class DateUtils {
     }
 
     public static String parseToIsoUtc(String dateTimeWithZone) {
-        DateTimeFormatter formatter = new DateTimeFormatterBuilder()
-                .parseCaseInsensitive()
-                .parseLenient()
-                .appendPattern("EEE, dd MMM yyyy HH:mm:ss z")
-                .toFormatter(Locale.ENGLISH);
-
-        ZonedDateTime zonedDateTime = ZonedDateTime.parse(dateTimeWithZone, formatter);
+        ZonedDateTime zonedDateTime = ZonedDateTime.parse(dateTimeWithZone, RFC_1123_LENIENT);
 
         // Convert to UTC
         return zonedDateTime.withZoneSameInstant(ZoneId.of("UTC"))
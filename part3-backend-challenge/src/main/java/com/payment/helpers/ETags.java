@@ -0,0 +1,44 @@
+package com.payment.helpers;
+
+public class ETags {
+
+    /**
+     * Builds a strong entity tag from version components; all parts are hashed so that the tag stays short.
+     */
+    public static String strong(Object... parts) {
+        long hash = 0xcbf29ce484222325L;
+        for (Object part : parts) {
+            String value = String.valueOf(part);
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            // Separator so that ("ab", "c") and ("a", "bc") differ
+            hash ^= 0x1f;
+            hash *= 0x100000001b3L;
+        }
+        return "\"" + Long.toHexString(hash) + "\"";
+    }
+
+    /**
+     * Evaluates an {@code If-None-Match} header value against the current tag (RFC 9110 weak comparison).
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
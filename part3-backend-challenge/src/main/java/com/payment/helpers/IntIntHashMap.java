@@ -0,0 +1,100 @@
+package com.payment.helpers;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from {@code int} to non-negative {@code int} with linear probing, at eight bytes per slot. Used
+ * by long-lived indexes over integer ids such as {@link MerchantDirectorySnapshot}, where it is 26-54 B per entry
+ * smaller and about twice as fast as a {@code HashMap<Integer, Integer>} (see {@code MerchantDirectoryBenchmark}).
+ * There is no removal.
+ */
+public class IntIntHashMap {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+
+    /**
+     * @param expectedSize Number of keys that fit without rehashing
+     */
+    public IntIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * @param value Must not be negative
+     */
+    public void put(int key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("value must be >= 0");
+        }
+        int slot = slot(key);
+        while (values[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > (mask + 1) >> 1) {
+            rehash();
+        }
+    }
+
+    /**
+     * @return The value for {@code key}, or {@code missing} when the key is absent
+     */
+    public int get(int key, int missing) {
+        int slot = slot(key);
+        int value;
+        while ((value = values[slot]) != EMPTY) {
+            if (keys[slot] == key) {
+                return value;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return missing;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int slot(int key) {
+        // Sequential IDs would otherwise fill one run of adjacent slots
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private void rehash() {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != EMPTY) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, EMPTY);
+        mask = capacity - 1;
+    }
+
+    /**
+     * Power of two with a load factor of at most one half.
+     */
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize) * 2 - 1) << 1;
+        return Math.max(8, capacity);
+    }
+}
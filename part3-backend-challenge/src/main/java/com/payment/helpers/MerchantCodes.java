@@ -0,0 +1,44 @@
+package com.payment.helpers;
+
+/**
+ * Transactions refer to merchants by code ({@code MCH-00042}) rather than by {@code merchants.merchant_id}.
+ * The code is the id, optionally prefixed with {@code MCH-} and zero-padded. Keep in step with
+ * {@code merchants.merchant_id_of} in {@code db/merchants.sql}, which does the same mapping in SQL.
+ */
+public final class MerchantCodes {
+
+    public static final String PREFIX = "MCH-";
+
+    // Nine digits always fit an int
+    private static final int MAX_DIGITS = 9;
+
+    private MerchantCodes() {
+    }
+
+    /**
+     * @return The merchant id named by {@code code}, or -1 when it does not name one
+     */
+    public static int merchantIdOf(String code) {
+        if (code == null) {
+            return -1;
+        }
+        int start = code.startsWith(PREFIX) ? PREFIX.length() : 0;
+        int end = code.length();
+        if (start == end) {
+            return -1;
+        }
+        for (int i = start; i < end; i++) {
+            char c = code.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        while (start < end - 1 && code.charAt(start) == '0') {
+            start++;
+        }
+        if (end - start > MAX_DIGITS) {
+            return -1;
+        }
+        return Integer.parseInt(code, start, end, 10);
+    }
+}
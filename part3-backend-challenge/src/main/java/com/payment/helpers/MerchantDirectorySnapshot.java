@@ -0,0 +1,286 @@
+package com.payment.helpers;
+
+import com.payment.dto.merchantDto.MerchantDirectoryEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable id and name index over every merchant, held by {@code MerchantDirectory}.
+ * <p>
+ * Rows are stored column-wise in normalized-name order, so row {@code i} is also key {@code i} of the
+ * {@link MerchantNameTrie} and an autocomplete result is a run of consecutive rows. Ids map to rows through an
+ * {@link IntIntHashMap}; statuses, of which there are a handful, are stored as indexes into a shared table. Nothing
+ * on the lookup path allocates apart from the entries returned.
+ * <p>
+ * {@link #withChanges} derives the next snapshot by merging the changed rows into the existing order, which is
+ * linear in the number of merchants and does not re-read or re-sort the unchanged ones.
+ */
+public final class MerchantDirectorySnapshot {
+
+    private static final int MISSING = -1;
+
+    private final int[] ids;
+    private final String[] names;
+    private final short[] statuses;
+    private final String[] statusTable;
+    private final IntIntHashMap rowsById;
+    private final MerchantNameTrie trie;
+
+    private MerchantDirectorySnapshot(int[] ids, String[] names, short[] statuses, String[] statusTable,
+                                      MerchantNameTrie trie) {
+        this.ids = ids;
+        this.names = names;
+        this.statuses = statuses;
+        this.statusTable = statusTable;
+        this.trie = trie;
+        this.rowsById = new IntIntHashMap(ids.length);
+        for (int row = 0; row < ids.length; row++) {
+            rowsById.put(ids[row], row);
+        }
+    }
+
+    public static MerchantDirectorySnapshot empty() {
+        return build(List.of());
+    }
+
+    public static MerchantDirectorySnapshot build(Collection<MerchantDirectoryEntry> entries) {
+        Sorted sorted = Sorted.of(entries);
+        Rows rows = new Rows(sorted.entries.length, totalLength(sorted.keys), new StatusTable(new String[0]));
+        for (int i = 0; i < sorted.entries.length; i++) {
+            rows.add(sorted.entries[i], sorted.keys[i]);
+        }
+        return rows.finish();
+    }
+
+    /**
+     * @param changedIds Ids that were inserted, updated or deleted since this snapshot
+     * @param current    Current rows for those ids; a changed id without a row was deleted
+     */
+    public MerchantDirectorySnapshot withChanges(Collection<Integer> changedIds,
+                                                 Collection<MerchantDirectoryEntry> current) {
+        Sorted added = Sorted.of(current);
+        IntIntHashMap changed = new IntIntHashMap(changedIds.size() + added.entries.length);
+        for (Integer merchantId : changedIds) {
+            changed.put(merchantId, 0);
+        }
+        for (MerchantDirectoryEntry entry : added.entries) {
+            changed.put(entry.merchantId(), 0);
+        }
+
+        Rows rows = new Rows(ids.length + added.entries.length, trie.keyChars() + totalLength(added.keys),
+                new StatusTable(statusTable));
+        int next = 0;
+        for (int row = 0; row < ids.length; row++) {
+            if (changed.get(ids[row], MISSING) != MISSING) {
+                continue;
+            }
+            while (next < added.entries.length && comesBefore(added.keys[next], added.entries[next].merchantId(), row)) {
+                rows.add(added.entries[next], added.keys[next]);
+                next++;
+            }
+            rows.copy(this, row);
+        }
+        for (; next < added.entries.length; next++) {
+            rows.add(added.entries[next], added.keys[next]);
+        }
+        return rows.finish();
+    }
+
+    private static int totalLength(String[] keys) {
+        int total = 0;
+        for (String key : keys) {
+            total += key.length();
+        }
+        return total;
+    }
+
+    private boolean comesBefore(String key, int merchantId, int row) {
+        int order = trie.compareKey(row, key);
+        return order > 0 || (order == 0 && ids[row] > merchantId);
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public boolean contains(int merchantId) {
+        return rowsById.get(merchantId, MISSING) != MISSING;
+    }
+
+    /**
+     * @return The merchant's name, or null for an unknown id
+     */
+    public String name(int merchantId) {
+        int row = rowsById.get(merchantId, MISSING);
+        return row == MISSING ? null : names[row];
+    }
+
+    /**
+     * @return The merchant's status, or null for an unknown id
+     */
+    public String status(int merchantId) {
+        int row = rowsById.get(merchantId, MISSING);
+        return row == MISSING ? null : statusTable[statuses[row]];
+    }
+
+    /**
+     * @return The entry, or null for an unknown id
+     */
+    public MerchantDirectoryEntry find(int merchantId) {
+        int row = rowsById.get(merchantId, MISSING);
+        return row == MISSING ? null : entry(row);
+    }
+
+    /**
+     * Merchants whose normalized name starts with the normalized {@code prefix}, in name order.
+     */
+    public List<MerchantDirectoryEntry> autocomplete(String prefix, int limit) {
+        int node = trie.find(MerchantNameTrie.normalize(prefix));
+        if (node < 0) {
+            return List.of();
+        }
+        int from = trie.rangeStart(node);
+        // Not from + limit, which overflows for a large limit
+        int to = from + Math.min(trie.rangeEnd(node) - from, limit);
+        List<MerchantDirectoryEntry> matches = new ArrayList<>(to - from);
+        for (int row = from; row < to; row++) {
+            matches.add(entry(row));
+        }
+        return matches;
+    }
+
+    public int trieNodes() {
+        return trie.nodeCount();
+    }
+
+    private MerchantDirectoryEntry entry(int row) {
+        return new MerchantDirectoryEntry(ids[row], names[row], statusTable[statuses[row]]);
+    }
+
+    /**
+     * Interns statuses into a table shared by consecutive snapshots; it only grows until the next full build.
+     */
+    private static final class StatusTable {
+
+        private final List<String> values;
+        private final Map<String, Short> codes = new HashMap<>();
+
+        StatusTable(String[] existing) {
+            values = new ArrayList<>(Arrays.asList(existing));
+            for (short code = 0; code < existing.length; code++) {
+                codes.put(existing[code], code);
+            }
+        }
+
+        short code(String status) {
+            Short code = codes.get(status);
+            if (code == null) {
+                if (values.size() > Short.MAX_VALUE) {
+                    throw new IllegalStateException("Too many distinct merchant statuses");
+                }
+                code = (short) values.size();
+                values.add(status);
+                codes.put(status, code);
+            }
+            return code;
+        }
+
+        String[] toArray() {
+            return values.toArray(new String[0]);
+        }
+    }
+
+    /**
+     * Entries ordered by normalized name, then id, with their keys.
+     */
+    private static final class Sorted {
+
+        private final MerchantDirectoryEntry[] entries;
+        private final String[] keys;
+
+        private Sorted(MerchantDirectoryEntry[] entries, String[] keys) {
+            this.entries = entries;
+            this.keys = keys;
+        }
+
+        static Sorted of(Collection<MerchantDirectoryEntry> entries) {
+            MerchantDirectoryEntry[] unsorted = entries.toArray(new MerchantDirectoryEntry[0]);
+            String[] unsortedKeys = new String[unsorted.length];
+            Integer[] order = new Integer[unsorted.length];
+            for (int i = 0; i < unsorted.length; i++) {
+                unsortedKeys[i] = MerchantNameTrie.normalize(unsorted[i].merchantName());
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparing((Integer i) -> unsortedKeys[i])
+                    .thenComparing(i -> unsorted[i].merchantId()));
+            MerchantDirectoryEntry[] sorted = new MerchantDirectoryEntry[order.length];
+            String[] keys = new String[order.length];
+            for (int i = 0; i < order.length; i++) {
+                sorted[i] = unsorted[order[i]];
+                keys[i] = unsortedKeys[order[i]];
+            }
+            return new Sorted(sorted, keys);
+        }
+    }
+
+    /**
+     * Column builder; rows must be appended in key order.
+     */
+    private static final class Rows {
+
+        private final int[] ids;
+        private final String[] names;
+        private final short[] statuses;
+        private final StatusTable statusTable;
+        private final char[] pool;
+        private final int[] keyStart;
+        private int count;
+
+        /**
+         * @param capacity     Upper bound on the rows added
+         * @param poolCapacity Upper bound on the total key length
+         */
+        Rows(int capacity, int poolCapacity, StatusTable statusTable) {
+            this.pool = new char[poolCapacity];
+            this.ids = new int[capacity];
+            this.names = new String[capacity];
+            this.statuses = new short[capacity];
+            this.keyStart = new int[capacity + 1];
+            this.statusTable = statusTable;
+        }
+
+        void add(MerchantDirectoryEntry entry, String key) {
+            ids[count] = entry.merchantId();
+            names[count] = entry.merchantName();
+            statuses[count] = statusTable.code(entry.merchantStatus());
+            key.getChars(0, key.length(), pool, keyStart[count]);
+            keyStart[count + 1] = keyStart[count] + key.length();
+            count++;
+        }
+
+        void copy(MerchantDirectorySnapshot from, int row) {
+            int length = from.trie.keyLength(row);
+            ids[count] = from.ids[row];
+            names[count] = from.names[row];
+            // Codes of the previous table are kept as they are
+            statuses[count] = from.statuses[row];
+            from.trie.copyKey(row, pool, keyStart[count]);
+            keyStart[count + 1] = keyStart[count] + length;
+            count++;
+        }
+
+        MerchantDirectorySnapshot finish() {
+            int[] keys = Arrays.copyOf(keyStart, count + 1);
+            char[] used = keys[count] == pool.length ? pool : Arrays.copyOf(pool, keys[count]);
+            MerchantNameTrie trie = MerchantNameTrie.build(used, keys);
+            return new MerchantDirectorySnapshot(Arrays.copyOf(ids, count), Arrays.copyOf(names, count),
+                    Arrays.copyOf(statuses, count), statusTable.toArray(), trie);
+        }
+    }
+}
@@ -0,0 +1,322 @@
+package com.payment.helpers;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Immutable radix (path-compressed prefix) trie over sorted, normalized names, for autocomplete.
+ * <p>
+ * The keys are concatenated into one {@code char[]} pool. Every trie node is a row in a handful of {@code int}
+ * arrays: its edge label is a slice of the pool, its children are a contiguous run of rows sorted by first
+ * character, and because the keys are sorted, the keys below a node are the contiguous positions
+ * {@code [rangeStart, rangeEnd)}. A prefix lookup therefore follows one edge per label, with a binary search over
+ * the children, and allocates nothing; listing matches is reading that range.
+ */
+public final class MerchantNameTrie {
+
+    private static final int ROOT = 0;
+
+    private final char[] pool;
+    // Key i is pool[keyStart[i], keyStart[i + 1])
+    private final int[] keyStart;
+
+    // Per node
+    private final int[] labelStart;
+    private final int[] labelLength;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] rangeStart;
+    private final int[] rangeEnd;
+
+    private MerchantNameTrie(char[] pool, int[] keyStart, int[] labelStart, int[] labelLength, int[] firstChild,
+                             int[] childCount, int[] rangeStart, int[] rangeEnd) {
+        this.pool = pool;
+        this.keyStart = keyStart;
+        this.labelStart = labelStart;
+        this.labelLength = labelLength;
+        this.firstChild = firstChild;
+        this.childCount = childCount;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+    }
+
+    /**
+     * Trimmed and lower-cased, with every run of whitespace folded to one space. Returns {@code name} itself when it
+     * is already normalized.
+     */
+    public static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        int length = name.length();
+        boolean space = true;
+        for (int i = 0; i < length; i++) {
+            char c = name.charAt(i);
+            boolean whitespace = Character.isWhitespace(c);
+            if (whitespace ? space || c != ' ' : Character.toLowerCase(c) != c) {
+                return fold(name);
+            }
+            space = whitespace;
+        }
+        return space && length > 0 ? fold(name) : name;
+    }
+
+    private static String fold(String name) {
+        StringBuilder folded = new StringBuilder(name.length());
+        boolean space = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = folded.length() > 0;
+            } else {
+                if (space) {
+                    folded.append(' ');
+                    space = false;
+                }
+                folded.append(c);
+            }
+        }
+        return folded.toString().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * @param keys Normalized keys in ascending {@link String#compareTo} order; duplicates are allowed
+     */
+    public static MerchantNameTrie build(String[] keys) {
+        int total = 0;
+        for (String key : keys) {
+            total += key.length();
+        }
+        char[] pool = new char[total];
+        int[] keyStart = new int[keys.length + 1];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i].getChars(0, keys[i].length(), pool, keyStart[i]);
+            keyStart[i + 1] = keyStart[i] + keys[i].length();
+        }
+        return build(pool, keyStart);
+    }
+
+    /**
+     * Builds over keys that are already laid out in a pool, as by {@link #copyKey}.
+     *
+     * @param keyStart Key i is {@code pool[keyStart[i], keyStart[i + 1])}; keys ascending
+     */
+    public static MerchantNameTrie build(char[] pool, int[] keyStart) {
+        assert isSorted(pool, keyStart) : "keys must be sorted";
+        return new Builder(pool, keyStart).build();
+    }
+
+    private static boolean isSorted(char[] pool, int[] keyStart) {
+        for (int i = 2; i < keyStart.length; i++) {
+            if (Arrays.compare(pool, keyStart[i - 2], keyStart[i - 1], pool, keyStart[i - 1], keyStart[i]) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return keyStart.length - 1;
+    }
+
+    public int nodeCount() {
+        return labelStart.length;
+    }
+
+    /**
+     * Total length of all keys.
+     */
+    public int keyChars() {
+        return pool.length;
+    }
+
+    public int keyLength(int position) {
+        return keyStart[position + 1] - keyStart[position];
+    }
+
+    /**
+     * Compares key {@code position} with {@code key} as {@link String#compareTo} would, without materializing it.
+     */
+    public int compareKey(int position, String key) {
+        int start = keyStart[position];
+        int length = keyStart[position + 1] - start;
+        int common = Math.min(length, key.length());
+        for (int i = 0; i < common; i++) {
+            char c = pool[start + i];
+            char other = key.charAt(i);
+            if (c != other) {
+                return c - other;
+            }
+        }
+        return length - key.length();
+    }
+
+    public void copyKey(int position, char[] destination, int offset) {
+        System.arraycopy(pool, keyStart[position], destination, offset, keyLength(position));
+    }
+
+    /**
+     * @param prefix Normalized prefix
+     * @return Node whose range holds every key starting with {@code prefix}, or -1 when there is none
+     */
+    public int find(String prefix) {
+        int node = ROOT;
+        int depth = 0;
+        while (depth < prefix.length()) {
+            int child = findChild(node, prefix.charAt(depth));
+            if (child < 0) {
+                return -1;
+            }
+            int start = labelStart[child];
+            int length = labelLength[child];
+            for (int i = 0; i < length && depth < prefix.length(); i++, depth++) {
+                if (pool[start + i] != prefix.charAt(depth)) {
+                    return -1;
+                }
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    /**
+     * First key position below {@code node}.
+     */
+    public int rangeStart(int node) {
+        return rangeStart[node];
+    }
+
+    /**
+     * Position after the last key below {@code node}.
+     */
+    public int rangeEnd(int node) {
+        return rangeEnd[node];
+    }
+
+    private int findChild(int node, char c) {
+        int low = firstChild[node];
+        int high = low + childCount[node] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char first = pool[labelStart[mid]];
+            if (first < c) {
+                low = mid + 1;
+            } else if (first > c) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Lays nodes out breadth-first, so the children of each node are appended together.
+     */
+    private static final class Builder {
+
+        private final char[] pool;
+        private final int[] keyStart;
+
+        private final int[] labelStart;
+        private final int[] labelLength;
+        private final int[] firstChild;
+        private final int[] childCount;
+        private final int[] rangeStart;
+        private final int[] rangeEnd;
+        private final int[] depth;
+        private int count;
+
+        Builder(char[] pool, int[] keyStart) {
+            this.pool = pool;
+            this.keyStart = keyStart;
+            // A radix trie over n keys has at most 2n nodes besides the root
+            int capacity = 2 * (keyStart.length - 1) + 1;
+            labelStart = new int[capacity];
+            labelLength = new int[capacity];
+            firstChild = new int[capacity];
+            childCount = new int[capacity];
+            rangeStart = new int[capacity];
+            rangeEnd = new int[capacity];
+            depth = new int[capacity];
+        }
+
+        MerchantNameTrie build() {
+            addNode(0, 0, 0, keyStart.length - 1, 0);
+            for (int node = 0; node < count; node++) {
+                addChildren(node);
+            }
+            return new MerchantNameTrie(pool, keyStart,
+                    Arrays.copyOf(labelStart, count), Arrays.copyOf(labelLength, count),
+                    Arrays.copyOf(firstChild, count), Arrays.copyOf(childCount, count),
+                    Arrays.copyOf(rangeStart, count), Arrays.copyOf(rangeEnd, count));
+        }
+
+        private void addChildren(int node) {
+            int d = depth[node];
+            int position = rangeStart[node];
+            int end = rangeEnd[node];
+            // Keys that end at this node sort first in its range
+            while (position < end && length(position) == d) {
+                position++;
+            }
+            firstChild[node] = count;
+            while (position < end) {
+                char c = charAt(position, d);
+                int groupEnd = groupEnd(position, end, d, c);
+                // The keys are sorted, so what the first and last key of the group share, all of them share
+                int last = groupEnd - 1;
+                int childDepth = d + 1;
+                int limit = Math.min(length(position), length(last));
+                while (childDepth < limit && charAt(position, childDepth) == charAt(last, childDepth)) {
+                    childDepth++;
+                }
+                addNode(keyStart[position] + d, childDepth - d, position, groupEnd, childDepth);
+                childCount[node]++;
+                position = groupEnd;
+            }
+        }
+
+        /**
+         * First position in {@code (position, end)} whose character at {@code d} is not {@code c}. Keys in the range
+         * share their first {@code d} characters and are sorted, so this is a galloping then binary search rather
+         * than a scan over every key of the group.
+         */
+        private int groupEnd(int position, int end, int d, char c) {
+            int low = position;
+            int step = 1;
+            while (low + step < end && charAt(low + step, d) == c) {
+                low += step;
+                step <<= 1;
+            }
+            int high = Math.min(end, low + step);
+            // charAt(low, d) == c; high is end or a position past the group
+            while (high - low > 1) {
+                int mid = (low + high) >>> 1;
+                if (charAt(mid, d) == c) {
+                    low = mid;
+                } else {
+                    high = mid;
+                }
+            }
+            return high;
+        }
+
+        private int length(int position) {
+            return keyStart[position + 1] - keyStart[position];
+        }
+
+        private char charAt(int position, int index) {
+            return pool[keyStart[position] + index];
+        }
+
+        private void addNode(int start, int length, int from, int to, int nodeDepth) {
+            labelStart[count] = start;
+            labelLength[count] = length;
+            rangeStart[count] = from;
+            rangeEnd[count] = to;
+            depth[count] = nodeDepth;
+            count++;
+        }
+    }
+}
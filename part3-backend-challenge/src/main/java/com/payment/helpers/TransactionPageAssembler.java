@@ -0,0 +1,115 @@
+package com.payment.helpers;
+
+import com.payment.dto.transactionDto.TransactionDetailDto;
+import com.payment.dto.transactionDto.TransactionDetailRow;
+import com.payment.dto.transactionDto.TransactionDetails;
+import com.payment.dto.transactionDto.TransactionDtoWithDetails;
+import com.payment.dto.transactionDto.TransactionsDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Attaches detail rows to their page rows.
+ * <p>
+ * Page rows are indexed by {@code txn_id}, and the detail rows, sorted by {@code master_txn_id}, are walked once:
+ * every run of one transaction becomes an exactly sized array, looked up once per run rather than once per detail.
+ * No growing lists or per-detail map entries are created.
+ */
+public class TransactionPageAssembler {
+
+    private TransactionPageAssembler() {
+    }
+
+    /**
+     * @param details Detail rows ordered by {@code masterTxnId}; rows of transactions not on the page are ignored
+     * @return Page rows in their original order
+     */
+    public static List<TransactionDtoWithDetails> assemble(List<TransactionsDto> rows,
+                                                           List<TransactionDetailRow> details) {
+        int size = rows.size();
+        TransactionDetailDto[][] detailsByRow = new TransactionDetailDto[size][];
+
+        if (!details.isEmpty()) {
+            Map<Long, Integer> rowIndex = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                rowIndex.put(rows.get(i).txnId(), i);
+            }
+
+            int count = details.size();
+            int start = 0;
+            while (start < count) {
+                long txnId = details.get(start).masterTxnId();
+                int end = start + 1;
+                while (end < count && details.get(end).masterTxnId() == txnId) {
+                    end++;
+                }
+                Integer row = rowIndex.get(txnId);
+                if (row != null) {
+                    detailsByRow[row] = append(detailsByRow[row], details, start, end);
+                }
+                start = end;
+            }
+        }
+
+        List<TransactionDtoWithDetails> transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TransactionsDto t = rows.get(i);
+            transactions.add(new TransactionDtoWithDetails(
+                    t.txnId(),
+                    t.amount(),
+                    t.currency(),
+                    t.status(),
+                    DateUtils.parseToIsoUtc(t.timestamp()),
+                    t.cardType(),
+                    t.cardLast4(),
+                    t.acquirer(),
+                    t.issuer(),
+                    detailsByRow[i] == null ? TransactionDetails.empty() : TransactionDetails.wrap(detailsByRow[i])
+            ));
+        }
+        return transactions;
+    }
+
+    /**
+     * Page rows without their details ({@code details} stays null).
+     */
+    public static List<TransactionDtoWithDetails> withoutDetails(List<TransactionsDto> rows) {
+        List<TransactionDtoWithDetails> transactions = new ArrayList<>(rows.size());
+        for (TransactionsDto t : rows) {
+            transactions.add(new TransactionDtoWithDetails(
+                    t.txnId(),
+                    t.amount(),
+                    t.currency(),
+                    t.status(),
+                    DateUtils.parseToIsoUtc(t.timestamp()),
+                    t.cardType(),
+                    t.cardLast4(),
+                    t.acquirer(),
+                    t.issuer(),
+                    null
+            ));
+        }
+        return transactions;
+    }
+
+    /**
+     * Copies {@code details[start, end)} behind {@code existing}; {@code existing} is only non-null when the input
+     * was not sorted after all.
+     */
+    private static TransactionDetailDto[] append(TransactionDetailDto[] existing, List<TransactionDetailRow> details,
+                                                 int start, int end) {
+        int offset = existing == null ? 0 : existing.length;
+        TransactionDetailDto[] result = existing == null
+                ? new TransactionDetailDto[end - start]
+                : Arrays.copyOf(existing, offset + end - start);
+        for (int i = start; i < end; i++) {
+            TransactionDetailRow row = details.get(i);
+            result[offset + i - start] = new TransactionDetailDto(row.detailId(), row.type(), row.amount(), row.description());
+        }
+        return result;
+    }
+}
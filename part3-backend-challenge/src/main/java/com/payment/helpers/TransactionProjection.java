@@ -0,0 +1,102 @@
+package com.payment.helpers;
+
+import com.payment.dto.transactionDto.TransactionDtoWithDetails;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * What a transaction page request reads: the transaction fields named in {@code fields=} and the optional parts
+ * named in {@code expand=}. Parts that are not expanded are not queried at all and left out of the response;
+ * unselected fields are written as null.
+ */
+public class TransactionProjection {
+
+    public static final String EXPAND_DETAILS = "details";
+    public static final String EXPAND_SUMMARY = "summary";
+
+    private static final List<String> FIELDS = List.of(
+            "txnId", "amount", "currency", "status", "timestamp", "cardType", "cardLast4", "acquirer", "issuer");
+    private static final Set<String> EXPANDABLE = Set.of(EXPAND_DETAILS, EXPAND_SUMMARY);
+
+    /** null selects every field */
+    private final Set<String> fields;
+    private final Set<String> expand;
+
+    private TransactionProjection(Set<String> fields, Set<String> expand) {
+        this.fields = fields;
+        this.expand = expand;
+    }
+
+    /**
+     * @param fields Comma-separated transaction fields, or null for all; {@code txnId} is always included
+     * @param expand Comma-separated parts among {@code details} and {@code summary}, or null for none
+     */
+    public static TransactionProjection parse(String fields, String expand) {
+        Set<String> selected = null;
+        if (fields != null && !fields.isBlank()) {
+            selected = split(fields, Set.copyOf(FIELDS), "fields");
+            selected.add("txnId");
+        }
+        Set<String> expanded = expand == null ? Set.of() : split(expand, EXPANDABLE, "expand");
+        return new TransactionProjection(selected, expanded);
+    }
+
+    public boolean includesDetails() {
+        return expand.contains(EXPAND_DETAILS);
+    }
+
+    public boolean includesSummary() {
+        return expand.contains(EXPAND_SUMMARY);
+    }
+
+    /**
+     * @return The transaction with unselected fields set to null, or the same instance when all are selected
+     */
+    public TransactionDtoWithDetails apply(TransactionDtoWithDetails t) {
+        if (fields == null) {
+            return t;
+        }
+        return new TransactionDtoWithDetails(
+                t.txnId(),
+                fields.contains("amount") ? t.amount() : null,
+                fields.contains("currency") ? t.currency() : null,
+                fields.contains("status") ? t.status() : null,
+                fields.contains("timestamp") ? t.timestamp() : null,
+                fields.contains("cardType") ? t.cardType() : null,
+                fields.contains("cardLast4") ? t.cardLast4() : null,
+                fields.contains("acquirer") ? t.acquirer() : null,
+                fields.contains("issuer") ? t.issuer() : null,
+                t.details()
+        );
+    }
+
+    /**
+     * Canonical form for cache keys and ETags, independent of the order the client listed things in.
+     */
+    public String key() {
+        StringBuilder key = new StringBuilder();
+        for (String field : FIELDS) {
+            if (fields == null || fields.contains(field)) {
+                key.append(field).append(',');
+            }
+        }
+        return key.append(includesDetails() ? "+details" : "").append(includesSummary() ? "+summary" : "").toString();
+    }
+
+    private static Set<String> split(String value, Set<String> allowed, String parameter) {
+        Set<String> result = new HashSet<>();
+        for (String part : value.split(",")) {
+            String name = part.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown " + parameter + " value: " + name);
+            }
+            result.add(name);
+        }
+        return result;
+    }
+}
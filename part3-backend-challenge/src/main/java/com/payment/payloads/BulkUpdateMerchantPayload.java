@@ -0,0 +1,16 @@
+package com.payment.payloads;
+
+import com.payment.usecases.UseCaseRequest;
+import io.micronaut.core.annotation.Introspected;
+import io.micronaut.serde.annotation.Serdeable;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.util.List;
+
+@Introspected
+@Serdeable
+@RecordBuilder
+public record BulkUpdateMerchantPayload(
+        List<UpdateMerchantPayloadWithMerchantId> merchants
+) implements UseCaseRequest {
+}
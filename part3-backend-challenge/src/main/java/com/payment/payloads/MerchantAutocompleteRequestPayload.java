@@ -0,0 +1,13 @@
+package com.payment.payloads;
+
+import com.payment.usecases.UseCaseRequest;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.util.Optional;
+
+@RecordBuilder
+public record MerchantAutocompleteRequestPayload(
+        String prefix,
+        Optional<Integer> limit
+) implements UseCaseRequest {
+}
@@ -0,0 +1,17 @@
+package com.payment.payloads;
+
+import com.payment.usecases.UseCaseRequest;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.io.InputStream;
+
+/**
+ * @param body   UTF-8 CSV or NDJSON, read as it arrives
+ * @param format {@code csv}, {@code ndjson} or the matching media type
+ */
+@RecordBuilder
+public record MerchantImportPayload(
+        InputStream body,
+        String format
+) implements UseCaseRequest {
+}
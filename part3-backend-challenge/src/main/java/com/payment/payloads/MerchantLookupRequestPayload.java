@@ -0,0 +1,13 @@
+package com.payment.payloads;
+
+import com.payment.usecases.UseCaseRequest;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+/**
+ * @param ids Comma-separated merchant ids
+ */
+@RecordBuilder
+public record MerchantLookupRequestPayload(
+        String ids
+) implements UseCaseRequest {
+}
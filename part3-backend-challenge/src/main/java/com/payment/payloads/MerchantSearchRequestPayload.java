@@ -0,0 +1,19 @@
+package com.payment.payloads;
+
+import com.payment.usecases.UseCaseRequest;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.util.Optional;
+
+/**
+ * @param tags   Comma-separated; merchants must carry all of them
+ * @param cursor {@code nextCursor} of the previous page
+ */
+@RecordBuilder
+public record MerchantSearchRequestPayload(
+        String q,
+        Optional<String> tags,
+        Optional<Integer> limit,
+        Optional<String> cursor
+) implements UseCaseRequest {
+}
@@ -0,0 +1,15 @@
+package com.payment.payloads;
+
+import com.payment.usecases.UseCaseRequest;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.util.Optional;
+
+@RecordBuilder
+public record SettlementReportRequestPayload(
+        String startDate,
+        String endDate,
+        Optional<Long> acquirerId,
+        Optional<String> currency
+) implements UseCaseRequest {
+}
@@ -13,6 +13,9 @@ public record TransactionRequestPayload (
         Optional<Integer> size,
         Optional<String> startDate,
         Optional<String> endDate,
-        Optional<String> status
+        Optional<String> status,
+        Optional<String> includeTotal,
+        Optional<String> fields,
+        Optional<String> expand
 ) implements UseCaseRequest {
 }
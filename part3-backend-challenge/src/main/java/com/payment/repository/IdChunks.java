@@ -0,0 +1,37 @@
+package com.payment.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Runs a {@code = ANY(:ids)} query over an ID list of any size.
+ * <p>
+ * The IDs are bound as one {@code bigint[]} parameter, so the statement text is the same for every list length
+ * and a single prepared plan is reused. Lists above {@link #CHUNK_SIZE} are sorted and split, which keeps each
+ * array parameter at a bounded size; results are returned in chunk order.
+ */
+final class IdChunks {
+
+    static final int CHUNK_SIZE = 5_000;
+
+    private IdChunks() {
+    }
+
+    static <T> List<T> query(List<Long> ids, Function<Long[], List<T>> query) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Long[] all = ids.toArray(new Long[0]);
+        if (all.length <= CHUNK_SIZE) {
+            return query.apply(all);
+        }
+        Arrays.sort(all);
+        List<T> result = new ArrayList<>();
+        for (int from = 0; from < all.length; from += CHUNK_SIZE) {
+            result.addAll(query.apply(Arrays.copyOfRange(all, from, Math.min(all.length, from + CHUNK_SIZE))));
+        }
+        return result;
+    }
+}
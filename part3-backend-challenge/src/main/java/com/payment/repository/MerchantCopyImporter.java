@@ -0,0 +1,457 @@
+package com.payment.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.payment.dto.merchantDto.MerchantImportError;
+import com.payment.enums.MerchantImportFormat;
+import com.payment.payloads.CreateMerchantPayload;
+import com.payment.responses.MerchantImportResponse;
+import com.payment.responses.MerchantImportResponseBuilder;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Streams CSV or NDJSON merchants into {@code merchants.merchants} with {@code COPY ... FROM STDIN}.
+ * <p>
+ * The input is split into chunks of {@link #CHUNK_ROWS} rows on the calling thread. Each chunk is parsed, validated
+ * and encoded to COPY text format on the common pool, up to {@code parallelism} chunks at a time, and the encoded
+ * chunks are written to the COPY stream in input order. Invalid rows are left out and reported by line number; this
+ * includes values longer than their column's declared length and NUL characters, which would otherwise abort the
+ * whole COPY. The valid rows go in as one statement, so {@code merchant_id} comes from the column's sequence and the statement-level
+ * {@code merchant_changed} trigger fires once. Memory stays bounded by the chunks in flight, whatever the input size.
+ * <p>
+ * The caller owns the connection and the transaction.
+ */
+public final class MerchantCopyImporter {
+
+    private static final int CHUNK_ROWS = 1_000;
+
+    private static final String COPY_SQL = "COPY merchants.merchants (merchant_name, merchant_status, contact_info, "
+            + "merchant_category, merchant_location, merchant_rating, num_orders, payment_method, merchant_logo, "
+            + "merchant_website, merchant_type, merchant_tags, created_at, last_updated) FROM STDIN";
+
+    // Same defaults as MerchantServiceImpl.createNewMerchant
+    private static final String DEFAULT_RATING = "0";
+    private static final String DEFAULT_NUM_ORDERS = "0";
+    private static final String DEFAULT_LOGO = "logourl";
+
+    private static final String[] CSV_COLUMNS = {"merchantName", "merchantStatus", "contactInfo", "merchantCategory",
+            "merchantLocation", "paymentMethod", "merchantWebsite", "merchantType", "merchantTags"};
+    // Columns of the text fields, in CSV_COLUMNS order
+    private static final String[] TEXT_COLUMNS = {"merchant_name", "merchant_status", "contact_info",
+            "merchant_category", "merchant_location", "payment_method", "merchant_website", "merchant_type"};
+    private static final String TAG_SEPARATOR = "\\|";
+
+    private static final String MAX_LENGTHS_SQL = "SELECT column_name, character_maximum_length "
+            + "FROM information_schema.columns WHERE table_schema = 'merchants' AND table_name = 'merchants' "
+            + "AND character_maximum_length IS NOT NULL";
+
+    private static final ObjectReader NDJSON_READER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+            .readerFor(CreateMerchantPayload.class);
+
+    private final int parallelism;
+    private final int maxReportedErrors;
+
+    /**
+     * @param parallelism       Chunks validated concurrently; 0 means one per core
+     * @param maxReportedErrors Rejected rows listed in the report; all of them are counted
+     */
+    public MerchantCopyImporter(int parallelism, int maxReportedErrors) {
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public MerchantImportResponse importMerchants(Connection connection, Reader input, MerchantImportFormat format)
+            throws SQLException, IOException {
+        long started = System.nanoTime();
+        RowReader rows = new RowReader(new BufferedReader(input, 1 << 16), format);
+        int[] csvColumns = format == MerchantImportFormat.csv ? csvColumns(rows.nextRow()) : null;
+        String timestamp = OffsetDateTime.now(ZoneOffset.UTC).toString();
+        int[] maxLengths = maxLengths(connection);
+
+        CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+        Deque<CompletableFuture<EncodedChunk>> inFlight = new ArrayDeque<>();
+        long rowsRead = 0;
+        long rejected = 0;
+        List<MerchantImportError> errors = new ArrayList<>();
+        long imported;
+        try {
+            List<RawRow> chunk;
+            while (!(chunk = rows.nextChunk(CHUNK_ROWS)).isEmpty()) {
+                rowsRead += chunk.size();
+                if (inFlight.size() >= parallelism) {
+                    rejected += write(copyIn, join(inFlight.removeFirst()), errors);
+                }
+                List<RawRow> rawRows = chunk;
+                inFlight.addLast(CompletableFuture.supplyAsync(
+                        () -> encode(rawRows, format, csvColumns, maxLengths, timestamp)));
+            }
+            while (!inFlight.isEmpty()) {
+                rejected += write(copyIn, join(inFlight.removeFirst()), errors);
+            }
+            imported = copyIn.endCopy();
+        } finally {
+            if (copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+
+        return MerchantImportResponseBuilder.builder()
+                .format(format.name())
+                .rowsRead(rowsRead)
+                .imported(imported)
+                .rejected(rejected)
+                .errors(errors)
+                .errorsTruncated(rejected > errors.size())
+                .elapsedMillis((System.nanoTime() - started) / 1_000_000)
+                .build();
+    }
+
+    private long write(CopyIn copyIn, EncodedChunk chunk, List<MerchantImportError> errors) throws SQLException {
+        if (chunk.data().length > 0) {
+            copyIn.writeToCopy(chunk.data(), 0, chunk.data().length);
+        }
+        for (MerchantImportError error : chunk.errors()) {
+            if (errors.size() >= maxReportedErrors) {
+                break;
+            }
+            errors.add(error);
+        }
+        return chunk.errors().size();
+    }
+
+    private static EncodedChunk join(CompletableFuture<EncodedChunk> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+    }
+
+    /**
+     * Declared lengths of the text columns, e.g. 255 for {@code varchar(255)}, in {@link #TEXT_COLUMNS} order;
+     * {@code -1} for columns without one. Read from the catalog so the check follows the live table definition.
+     */
+    static int[] maxLengths(Connection connection) throws SQLException {
+        int[] maxLengths = new int[TEXT_COLUMNS.length];
+        Arrays.fill(maxLengths, -1);
+        try (PreparedStatement statement = connection.prepareStatement(MAX_LENGTHS_SQL);
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                int column = Arrays.asList(TEXT_COLUMNS).indexOf(rs.getString(1));
+                if (column >= 0) {
+                    maxLengths[column] = rs.getInt(2);
+                }
+            }
+        }
+        return maxLengths;
+    }
+
+    /**
+     * Maps the header row to {@link #CSV_COLUMNS}: entry {@code i} is the position of column {@code i} in a row.
+     * Names match case-insensitively and with or without underscores.
+     */
+    static int[] csvColumns(RawRow header) {
+        if (header == null) {
+            throw new IllegalArgumentException("CSV input has no header row");
+        }
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.fields().size(); i++) {
+            positions.put(normalize(header.fields().get(i)), i);
+        }
+        int[] columns = new int[CSV_COLUMNS.length];
+        List<String> missing = new ArrayList<>();
+        for (int i = 0; i < CSV_COLUMNS.length; i++) {
+            Integer position = positions.get(normalize(CSV_COLUMNS[i]));
+            if (position == null) {
+                missing.add(CSV_COLUMNS[i]);
+            } else {
+                columns[i] = position;
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("CSV header is missing columns " + missing);
+        }
+        return columns;
+    }
+
+    private static String normalize(String name) {
+        // A byte order mark would otherwise stick to the first column name
+        return name.replace("\uFEFF", "").trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    static EncodedChunk encode(List<RawRow> rows, MerchantImportFormat format, int[] csvColumns, int[] maxLengths,
+                               String timestamp) {
+        StringBuilder copy = new StringBuilder(rows.size() * 256);
+        List<MerchantImportError> errors = new ArrayList<>();
+        for (RawRow row : rows) {
+            CreateMerchantPayload merchant;
+            try {
+                merchant = format == MerchantImportFormat.csv ? fromCsv(row, csvColumns) : fromJson(row);
+            } catch (IllegalArgumentException | IOException e) {
+                errors.add(new MerchantImportError(row.line(), e.getMessage()));
+                continue;
+            }
+            String problems = validate(merchant, maxLengths);
+            if (problems != null) {
+                errors.add(new MerchantImportError(row.line(), problems));
+                continue;
+            }
+            appendCopyRow(copy, merchant, timestamp);
+        }
+        return new EncodedChunk(copy.toString().getBytes(StandardCharsets.UTF_8), errors);
+    }
+
+    private static CreateMerchantPayload fromCsv(RawRow row, int[] columns) {
+        List<String> fields = row.fields();
+        int expected = Arrays.stream(columns).max().orElse(0) + 1;
+        if (fields.size() < expected) {
+            throw new IllegalArgumentException("Expected at least " + expected + " columns, found " + fields.size());
+        }
+        String tags = fields.get(columns[8]).trim();
+        return new CreateMerchantPayload(
+                blankToNull(fields.get(columns[0])),
+                blankToNull(fields.get(columns[1])),
+                blankToNull(fields.get(columns[2])),
+                blankToNull(fields.get(columns[3])),
+                blankToNull(fields.get(columns[4])),
+                blankToNull(fields.get(columns[5])),
+                blankToNull(fields.get(columns[6])),
+                blankToNull(fields.get(columns[7])),
+                tags.isEmpty() ? List.of() : Arrays.stream(tags.split(TAG_SEPARATOR)).map(String::trim).toList());
+    }
+
+    private static CreateMerchantPayload fromJson(RawRow row) throws IOException {
+        try {
+            return NDJSON_READER.readValue(row.text());
+        } catch (JsonProcessingException e) {
+            throw new IOException("Malformed JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    /**
+     * The {@code @NotNull} constraints of {@link CreateMerchantPayload}, with blank strings counted as missing, and
+     * what the table itself would reject: values over the column length and NUL characters.
+     *
+     * @return the problems joined with {@code "; "}, or {@code null} if the row is valid
+     */
+    private static String validate(CreateMerchantPayload merchant, int[] maxLengths) {
+        List<String> problems = new ArrayList<>(0);
+        String[] values = {merchant.merchantName(), merchant.merchantStatus(), merchant.contactInfo(),
+                merchant.merchantCategory(), merchant.merchantLocation(), merchant.paymentMethod(),
+                merchant.merchantWebsite(), merchant.merchantType()};
+        for (int i = 0; i < values.length; i++) {
+            checkText(values[i], CSV_COLUMNS[i], maxLengths[i], problems);
+        }
+        if (merchant.merchantTags() == null) {
+            problems.add("merchantTags is required");
+        } else if (merchant.merchantTags().stream().anyMatch(tag -> tag == null || tag.isBlank())) {
+            problems.add("merchantTags must not contain blank tags");
+        } else if (merchant.merchantTags().stream().anyMatch(tag -> tag.indexOf('\0') >= 0)) {
+            problems.add("merchantTags must not contain NUL characters");
+        }
+        return problems.isEmpty() ? null : String.join("; ", problems);
+    }
+
+    private static void checkText(String value, String field, int maxLength, List<String> problems) {
+        if (value == null || value.isBlank()) {
+            problems.add(field + " is required");
+        } else if (value.indexOf('\0') >= 0) {
+            // Postgres text cannot hold NUL
+            problems.add(field + " must not contain NUL characters");
+        } else if (maxLength >= 0 && value.codePointCount(0, value.length()) > maxLength) {
+            // varchar(n) counts characters, not UTF-16 units
+            problems.add(field + " is longer than " + maxLength + " characters");
+        }
+    }
+
+    private static void appendCopyRow(StringBuilder copy, CreateMerchantPayload merchant, String timestamp) {
+        appendField(copy, merchant.merchantName()).append('\t');
+        appendField(copy, merchant.merchantStatus()).append('\t');
+        appendField(copy, merchant.contactInfo()).append('\t');
+        appendField(copy, merchant.merchantCategory()).append('\t');
+        appendField(copy, merchant.merchantLocation()).append('\t');
+        copy.append(DEFAULT_RATING).append('\t');
+        copy.append(DEFAULT_NUM_ORDERS).append('\t');
+        appendField(copy, merchant.paymentMethod()).append('\t');
+        appendField(copy, DEFAULT_LOGO).append('\t');
+        appendField(copy, merchant.merchantWebsite()).append('\t');
+        appendField(copy, merchant.merchantType()).append('\t');
+        appendField(copy, arrayLiteral(merchant.merchantTags())).append('\t');
+        copy.append(timestamp).append('\t');
+        copy.append(timestamp).append('\n');
+    }
+
+    /**
+     * COPY text format: backslash, tab and line breaks are escaped.
+     */
+    private static StringBuilder appendField(StringBuilder copy, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> copy.append("\\\\");
+                case '\t' -> copy.append("\\t");
+                case '\n' -> copy.append("\\n");
+                case '\r' -> copy.append("\\r");
+                default -> copy.append(c);
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * Array literal with every element quoted, e.g. {@code {"grocery","organic"}}.
+     */
+    private static String arrayLiteral(List<String> values) {
+        StringBuilder literal = new StringBuilder(2 + values.size() * 16).append('{');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                literal.append(',');
+            }
+            literal.append('"');
+            String value = values.get(i);
+            for (int j = 0; j < value.length(); j++) {
+                char c = value.charAt(j);
+                if (c == '"' || c == '\\') {
+                    literal.append('\\');
+                }
+                literal.append(c);
+            }
+            literal.append('"');
+        }
+        return literal.append('}').toString();
+    }
+
+    /**
+     * One input row. CSV rows carry their split fields, NDJSON rows their line.
+     */
+    record RawRow(long line, String text, List<String> fields) {
+    }
+
+    record EncodedChunk(byte[] data, List<MerchantImportError> errors) {
+    }
+
+    /**
+     * Splits the input into rows and skips blank lines. CSV follows RFC 4180: quoted fields may contain commas,
+     * doubled quotes and line breaks.
+     */
+    static final class RowReader {
+
+        private final BufferedReader reader;
+        private final MerchantImportFormat format;
+        private long line = 1;
+
+        RowReader(BufferedReader reader, MerchantImportFormat format) {
+            this.reader = reader;
+            this.format = format;
+        }
+
+        List<RawRow> nextChunk(int size) throws IOException {
+            List<RawRow> chunk = new ArrayList<>(size);
+            RawRow row;
+            while (chunk.size() < size && (row = nextRow()) != null) {
+                chunk.add(row);
+            }
+            return chunk;
+        }
+
+        RawRow nextRow() throws IOException {
+            while (true) {
+                long start = line;
+                if (format == MerchantImportFormat.ndjson) {
+                    String text = reader.readLine();
+                    if (text == null) {
+                        return null;
+                    }
+                    line++;
+                    if (!text.isBlank()) {
+                        return new RawRow(start, text, null);
+                    }
+                } else {
+                    List<String> fields = readCsvRecord();
+                    if (fields == null) {
+                        return null;
+                    }
+                    if (fields.size() > 1 || !fields.get(0).isBlank()) {
+                        return new RawRow(start, null, fields);
+                    }
+                }
+            }
+        }
+
+        private List<String> readCsvRecord() throws IOException {
+            long start = line;
+            List<String> fields = new ArrayList<>(CSV_COLUMNS.length);
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    line++;
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted field in the CSV row at line " + start);
+            }
+            if (!any) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.payment.repository;
+
+import com.payment.dto.merchantDto.MerchantOrderDelta;
+import io.micronaut.data.exceptions.DataAccessException;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.transaction.annotation.Transactional;
+import jakarta.inject.Singleton;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Writes for {@code merchants.num_orders}, which is maintained from counts rather than per transaction.
+ * <p>
+ * {@code num_orders_as_of} records the cutoff of the last reconciliation: {@code num_orders} counts every
+ * transaction created before it, and a delta for an earlier second is already included and is dropped. Flushes and
+ * reconciliations from every node take the same transaction-level advisory lock, so a flush never interleaves with
+ * a reconciliation that would overwrite it. Flushes lock the merchant rows in id order, as
+ * {@link MerchantUpdateRepository} does, so they cannot deadlock with bulk updates.
+ * <p>
+ * The {@code merchant_changed} triggers ignore {@code num_orders}, so both writes announce themselves on
+ * {@link #ORDERS_CHANNEL} instead, delivered on commit: a flush sends {@code merchantId:numOrders} for each merchant
+ * whose count it changed, comma-separated and at most {@value #MERCHANTS_PER_NOTIFICATION} per notification, so
+ * that caches can update the count without re-reading the row. A reconciliation sends {@code *}.
+ */
+@Singleton
+public class MerchantCounterRepository {
+
+    public static final String ORDERS_CHANNEL = "merchant_orders_changed";
+
+    // "num_ords"
+    private static final long LOCK_KEY = 0x6E756D5F6F726473L;
+
+    // At most 22 bytes per merchant keeps a payload well below the 8000 byte limit of pg_notify
+    private static final int MERCHANTS_PER_NOTIFICATION = 300;
+
+    private static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    private static final String RECONCILE = """
+            WITH counted AS (
+                SELECT merchants.merchant_id_of(merchant_id) AS merchant_id, SUM(orders) AS orders
+                FROM (
+                    SELECT merchant_id, COUNT(*) AS orders
+                    FROM operators.transaction_master
+                    WHERE created_at < ? OR created_at IS NULL
+                    GROUP BY merchant_id
+                ) per_code
+                GROUP BY 1
+            )
+            UPDATE merchants.merchants m
+            SET num_orders = CAST(COALESCE(c.orders, 0) AS INTEGER), num_orders_as_of = ?
+            FROM merchants.merchants t
+            LEFT JOIN counted c ON c.merchant_id = t.merchant_id
+            WHERE t.merchant_id = m.merchant_id
+            """;
+
+    private final JdbcOperations jdbcOperations;
+    private final Map<Integer, String> statements = new ConcurrentHashMap<>();
+
+    public MerchantCounterRepository(JdbcOperations jdbcOperations) {
+        this.jdbcOperations = jdbcOperations;
+    }
+
+    /**
+     * Adds the deltas to {@code num_orders}, skipping those a reconciliation already counted, and announces the new
+     * counts.
+     */
+    @Transactional
+    public void addOrders(List<MerchantOrderDelta> deltas) {
+        List<MerchantOrderDelta> sorted = deltas.stream()
+                .sorted(Comparator.comparingInt(MerchantOrderDelta::merchantId))
+                .toList();
+        Connection connection = jdbcOperations.getConnection();
+        // A merchant split across statements is returned by each; the last one has its final count
+        Map<Integer, Integer> numOrders = new TreeMap<>();
+        try {
+            lock(connection);
+            for (int from = 0; from < sorted.size(); from += MAX_ROWS_PER_STATEMENT) {
+                List<MerchantOrderDelta> chunk = sorted.subList(from, Math.min(sorted.size(), from + MAX_ROWS_PER_STATEMENT));
+                try (PreparedStatement statement =
+                             connection.prepareStatement(statements.computeIfAbsent(chunk.size(), MerchantCounterRepository::sql))) {
+                    int index = 1;
+                    for (MerchantOrderDelta delta : chunk) {
+                        statement.setInt(index++, delta.merchantId());
+                        statement.setLong(index++, delta.second());
+                        statement.setLong(index++, delta.orders());
+                    }
+                    try (ResultSet rows = statement.executeQuery()) {
+                        while (rows.next()) {
+                            numOrders.put(rows.getInt(1), rows.getInt(2));
+                        }
+                    }
+                }
+            }
+            notifyOrdersChanged(connection, numOrders);
+        } catch (SQLException e) {
+            throw new DataAccessException("Adding merchant orders failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Sets every merchant's {@code num_orders} to its transactions created before {@code cutoff}, which is computed
+     * once the lock is held so that no flush of a later second has been applied.
+     *
+     * @return The cutoff used
+     */
+    @Transactional
+    public Instant reconcile(Supplier<Instant> cutoff) {
+        Connection connection = jdbcOperations.getConnection();
+        try {
+            lock(connection);
+            Instant asOf = cutoff.get();
+            OffsetDateTime timestamp = OffsetDateTime.ofInstant(asOf, ZoneOffset.UTC);
+            try (PreparedStatement statement = connection.prepareStatement(RECONCILE)) {
+                statement.setObject(1, timestamp);
+                statement.setObject(2, timestamp);
+                statement.executeUpdate();
+            }
+            notify(connection, "*");
+            return asOf;
+        } catch (SQLException e) {
+            throw new DataAccessException("Reconciling merchant orders failed: " + e.getMessage(), e);
+        }
+    }
+
+    private static void lock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_xact_lock(?)")) {
+            statement.setLong(1, LOCK_KEY);
+            statement.execute();
+        }
+    }
+
+    private static void notifyOrdersChanged(Connection connection, Map<Integer, Integer> numOrders)
+            throws SQLException {
+        StringBuilder payload = new StringBuilder();
+        int count = 0;
+        for (Map.Entry<Integer, Integer> merchant : numOrders.entrySet()) {
+            payload.append(count == 0 ? "" : ",").append(merchant.getKey()).append(':').append(merchant.getValue());
+            if (++count == MERCHANTS_PER_NOTIFICATION) {
+                notify(connection, payload.toString());
+                payload.setLength(0);
+                count = 0;
+            }
+        }
+        if (count > 0) {
+            notify(connection, payload.toString());
+        }
+    }
+
+    private static void notify(Connection connection, String payload) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            statement.setString(1, ORDERS_CHANNEL);
+            statement.setString(2, payload);
+            statement.execute();
+        }
+    }
+
+    private static String sql(int rows) {
+        StringBuilder values = new StringBuilder("(CAST(? AS INTEGER), CAST(? AS BIGINT), CAST(? AS BIGINT))");
+        for (int i = 1; i < rows; i++) {
+            values.append(", (?, ?, ?)");
+        }
+        return """
+                WITH v(merchant_id, bucket, orders) AS (VALUES %s),
+                locked AS (
+                    SELECT merchant_id, num_orders_as_of
+                    FROM merchants.merchants
+                    WHERE merchant_id IN (SELECT merchant_id FROM v)
+                    ORDER BY merchant_id
+                    FOR UPDATE
+                ),
+                d AS (
+                    SELECT l.merchant_id, SUM(v.orders) AS orders
+                    FROM v
+                    JOIN locked l ON l.merchant_id = v.merchant_id
+                    WHERE l.num_orders_as_of IS NULL OR v.bucket >= EXTRACT(EPOCH FROM l.num_orders_as_of)
+                    GROUP BY l.merchant_id
+                )
+                UPDATE merchants.merchants m
+                SET num_orders = COALESCE(m.num_orders, 0) + CAST(d.orders AS INTEGER)
+                FROM d
+                WHERE m.merchant_id = d.merchant_id
+                RETURNING m.merchant_id, m.num_orders
+                """.formatted(values);
+    }
+}
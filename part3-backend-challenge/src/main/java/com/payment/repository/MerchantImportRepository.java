@@ -0,0 +1,43 @@
+package com.payment.repository;
+
+import com.payment.enums.MerchantImportFormat;
+import com.payment.responses.MerchantImportResponse;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.data.exceptions.DataAccessException;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.transaction.annotation.Transactional;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+
+/**
+ * Runs {@link MerchantCopyImporter} on the current transaction's connection, so an import commits or rolls back as
+ * a whole.
+ */
+@Singleton
+public class MerchantImportRepository {
+
+    private final JdbcOperations jdbcOperations;
+    private final MerchantCopyImporter importer;
+
+    public MerchantImportRepository(JdbcOperations jdbcOperations,
+                                    @Value("${payment.merchants.import.parallelism:0}") int parallelism,
+                                    @Value("${payment.merchants.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.jdbcOperations = jdbcOperations;
+        this.importer = new MerchantCopyImporter(parallelism, maxReportedErrors);
+    }
+
+    @Transactional
+    public MerchantImportResponse importMerchants(Reader input, MerchantImportFormat format) {
+        try {
+            return importer.importMerchants(jdbcOperations.getConnection(), input, format);
+        } catch (SQLException e) {
+            throw new DataAccessException("Merchant import failed: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Merchant import failed reading input: " + e.getMessage(), e);
+        }
+    }
+}
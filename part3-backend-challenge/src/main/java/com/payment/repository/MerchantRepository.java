@@ -1,14 +1,17 @@
 package com.payment.repository;
 
+import com.payment.dto.merchantDto.MerchantDirectoryEntry;
+import com.payment.dto.merchantDto.MerchantSearchResult;
 import com.payment.entity.Merchant;
 import io.micronaut.data.annotation.Query;
+import io.micronaut.data.annotation.TypeDef;
 import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.DataType;
 import io.micronaut.data.model.query.builder.sql.Dialect;
 import io.micronaut.data.repository.CrudRepository;
 import io.micronaut.serde.annotation.Serdeable;
 import jakarta.annotation.Nullable;
 
-import java.math.BigDecimal;
 import java.util.List;
 
 @Serdeable
@@ -16,38 +19,77 @@ import java.util.List;
 public interface MerchantRepository extends CrudRepository<Merchant, Integer > {
     Merchant findByMerchantId(Integer merchantId);
 
+    @Query("""
+    SELECT merchant_id, merchant_name, merchant_status FROM merchants.merchants
+""")
+    List<MerchantDirectoryEntry> findDirectoryEntries();
+
+    @Query("""
+    SELECT merchant_id, merchant_name, merchant_status FROM merchants.merchants WHERE merchant_id = ANY(:merchantIds)
+""")
+    List<MerchantDirectoryEntry> findDirectoryEntriesByIds(@TypeDef(type = DataType.INTEGER_ARRAY) Integer[] merchantIds);
+
+
+    /**
+     * Merchants whose name matches {@code pattern} ({@code ILIKE}) or is trigram-similar to {@code q}, both served
+     * by {@code idx_merchants_name_trgm}, ranked by score then id. {@code afterScore}/{@code afterId} continue after
+     * the last row of the previous page.
+     */
+    @Query("""
+    SELECT merchant_id, merchant_name, merchant_status, contact_info, merchant_category, merchant_location,
+           merchant_rating, num_orders, payment_method, merchant_logo, merchant_website, merchant_type, merchant_tags,
+           score
+    FROM (
+        SELECT m.*,
+               CAST(similarity(m.merchant_name, :q)
+                    + CASE WHEN m.merchant_name ILIKE :prefix THEN 1 ELSE 0 END AS REAL) AS score
+        FROM merchants.merchants m
+        WHERE m.merchant_name ILIKE :pattern OR m.merchant_name % :q
+    ) ranked
+    WHERE CAST(:afterScore AS REAL) IS NULL
+       OR score < CAST(:afterScore AS REAL)
+       OR (score = CAST(:afterScore AS REAL) AND merchant_id > :afterId)
+    ORDER BY score DESC, merchant_id
+    LIMIT :limit
+""")
+    List<MerchantSearchResult> searchMerchants(
+            String q,
+            String pattern,
+            String prefix,
+            @Nullable Float afterScore,
+            @Nullable Integer afterId,
+            int limit
+    );
 
+    /**
+     * As {@link #searchMerchants}, restricted to merchants carrying every tag ({@code idx_merchants_tags}).
+     */
     @Query("""
-    UPDATE merchants.merchants
-    SET merchant_name     = COALESCE(:merchantName, merchant_name),
-        merchant_status   = COALESCE(:merchantStatus, merchant_status),
-        contact_info      = COALESCE(:contactInfo, contact_info),
-        merchant_category = COALESCE(:merchantCategory, merchant_category),
-        merchant_location = COALESCE(:merchantLocation, merchant_location),
-        merchant_rating   = COALESCE(:merchantRating, merchant_rating),
-        num_orders        = COALESCE(:numOrders, num_orders),
-        payment_method    = COALESCE(:paymentMethod, payment_method),
-        merchant_logo     = COALESCE(:merchantLogo, merchant_logo),
-        merchant_website  = COALESCE(:merchantWebsite, merchant_website),
-        merchant_type     = COALESCE(:merchantType, merchant_type),
-        merchant_tags     = COALESCE(:merchantTags, merchant_tags),
-        last_updated      = NOW()
-    WHERE merchant_id = :merchantId
+    SELECT merchant_id, merchant_name, merchant_status, contact_info, merchant_category, merchant_location,
+           merchant_rating, num_orders, payment_method, merchant_logo, merchant_website, merchant_type, merchant_tags,
+           score
+    FROM (
+        SELECT m.*,
+               CAST(similarity(m.merchant_name, :q)
+                    + CASE WHEN m.merchant_name ILIKE :prefix THEN 1 ELSE 0 END AS REAL) AS score
+        FROM merchants.merchants m
+        WHERE (m.merchant_name ILIKE :pattern OR m.merchant_name % :q)
+          AND m.merchant_tags @> CAST(:tags AS text[])
+    ) ranked
+    WHERE CAST(:afterScore AS REAL) IS NULL
+       OR score < CAST(:afterScore AS REAL)
+       OR (score = CAST(:afterScore AS REAL) AND merchant_id > :afterId)
+    ORDER BY score DESC, merchant_id
+    LIMIT :limit
 """)
-    long updateMerchant(
-            Integer merchantId,
-            @Nullable String merchantName,
-            @Nullable String merchantStatus,
-            @Nullable String contactInfo,
-            @Nullable String merchantCategory,
-            @Nullable String merchantLocation,
-            @Nullable BigDecimal merchantRating,
-            @Nullable Integer numOrders,
-            @Nullable String paymentMethod,
-            @Nullable String merchantLogo,
-            @Nullable String merchantWebsite,
-            @Nullable String merchantType,
-            @Nullable List<String> merchantTags
+    List<MerchantSearchResult> searchMerchantsWithTags(
+            String q,
+            String pattern,
+            String prefix,
+            @TypeDef(type = DataType.STRING_ARRAY) String[] tags,
+            @Nullable Float afterScore,
+            @Nullable Integer afterId,
+            int limit
     );
 
     @Query("""
@@ -0,0 +1,207 @@
+package com.payment.repository;
+
+import com.payment.enums.MerchantUpdateOutcome;
+import com.payment.payloads.UpdateMerchantPayloadWithMerchantId;
+import io.micronaut.data.exceptions.DataAccessException;
+import io.micronaut.data.jdbc.runtime.JdbcOperations;
+import io.micronaut.transaction.annotation.Transactional;
+import jakarta.inject.Singleton;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Partial merchant updates that write only the fields present in the payload.
+ * <p>
+ * The non-null fields of an update form a bitmask over {@link Column}. The {@code UPDATE} text for each mask is
+ * built once and cached, so the driver and Postgres see at most one statement per shape, and only the supplied
+ * columns are bound and written. The {@code IS DISTINCT FROM} guard skips rows whose supplied values are already
+ * current, so a no-op update writes no tuple, no WAL, and fires no {@code merchant_changed} notification.
+ */
+@Singleton
+public class MerchantUpdateRepository {
+
+    private enum Column {
+        MERCHANT_NAME("merchant_name", UpdateMerchantPayloadWithMerchantId::merchantName),
+        MERCHANT_STATUS("merchant_status", UpdateMerchantPayloadWithMerchantId::merchantStatus),
+        CONTACT_INFO("contact_info", UpdateMerchantPayloadWithMerchantId::contactInfo),
+        MERCHANT_CATEGORY("merchant_category", UpdateMerchantPayloadWithMerchantId::merchantCategory),
+        MERCHANT_LOCATION("merchant_location", UpdateMerchantPayloadWithMerchantId::merchantLocation),
+        MERCHANT_RATING("merchant_rating", UpdateMerchantPayloadWithMerchantId::merchantRating),
+        PAYMENT_METHOD("payment_method", UpdateMerchantPayloadWithMerchantId::paymentMethod),
+        MERCHANT_LOGO("merchant_logo", UpdateMerchantPayloadWithMerchantId::merchantLogo),
+        MERCHANT_WEBSITE("merchant_website", UpdateMerchantPayloadWithMerchantId::merchantWebsite),
+        MERCHANT_TYPE("merchant_type", UpdateMerchantPayloadWithMerchantId::merchantType),
+        MERCHANT_TAGS("merchant_tags", UpdateMerchantPayloadWithMerchantId::merchantTags);
+
+        private static final Column[] VALUES = values();
+
+        private final String name;
+        private final Function<UpdateMerchantPayloadWithMerchantId, Object> value;
+
+        Column(String name, Function<UpdateMerchantPayloadWithMerchantId, Object> value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+
+    private final JdbcOperations jdbcOperations;
+    private final Map<Integer, String> statements = new ConcurrentHashMap<>();
+
+    public MerchantUpdateRepository(JdbcOperations jdbcOperations) {
+        this.jdbcOperations = jdbcOperations;
+    }
+
+    @Transactional
+    public MerchantUpdateOutcome update(UpdateMerchantPayloadWithMerchantId update) {
+        return updateAll(List.of(update)).get(update.merchantId());
+    }
+
+    /**
+     * Applies the updates in one transaction. Updates with the same shape go out as one JDBC batch, in merchant id
+     * order so that concurrent bulk runs lock rows in the same order.
+     *
+     * @return outcome per merchant id, in request order
+     */
+    @Transactional
+    public Map<Integer, MerchantUpdateOutcome> updateAll(List<UpdateMerchantPayloadWithMerchantId> updates) {
+        Map<Integer, List<UpdateMerchantPayloadWithMerchantId>> byShape = new LinkedHashMap<>();
+        for (UpdateMerchantPayloadWithMerchantId update : updates) {
+            byShape.computeIfAbsent(shape(update), mask -> new ArrayList<>()).add(update);
+        }
+
+        Map<Integer, MerchantUpdateOutcome> outcomes = new LinkedHashMap<>();
+        List<Integer> notWritten = new ArrayList<>();
+        for (UpdateMerchantPayloadWithMerchantId update : updates) {
+            outcomes.put(update.merchantId(), MerchantUpdateOutcome.updated);
+        }
+
+        Connection connection = jdbcOperations.getConnection();
+        try {
+            for (Map.Entry<Integer, List<UpdateMerchantPayloadWithMerchantId>> group : byShape.entrySet()) {
+                int mask = group.getKey();
+                List<UpdateMerchantPayloadWithMerchantId> rows = group.getValue();
+                if (mask == 0) {
+                    rows.forEach(row -> notWritten.add(row.merchantId()));
+                    continue;
+                }
+                rows.sort(Comparator.comparing(UpdateMerchantPayloadWithMerchantId::merchantId));
+                try (PreparedStatement statement =
+                             connection.prepareStatement(statements.computeIfAbsent(mask, MerchantUpdateRepository::sql))) {
+                    for (UpdateMerchantPayloadWithMerchantId row : rows) {
+                        bind(connection, statement, mask, row);
+                        statement.addBatch();
+                    }
+                    int[] counts = statement.executeBatch();
+                    for (int i = 0; i < counts.length; i++) {
+                        if (counts[i] == 0) {
+                            notWritten.add(rows.get(i).merchantId());
+                        }
+                    }
+                }
+            }
+
+            if (!notWritten.isEmpty()) {
+                Set<Integer> existing = existingIds(connection, notWritten);
+                for (Integer merchantId : notWritten) {
+                    outcomes.put(merchantId, existing.contains(merchantId)
+                            ? MerchantUpdateOutcome.unchanged
+                            : MerchantUpdateOutcome.notFound);
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Merchant update failed: " + e.getMessage(), e);
+        }
+        return outcomes;
+    }
+
+    private static int shape(UpdateMerchantPayloadWithMerchantId update) {
+        int mask = 0;
+        for (Column column : Column.VALUES) {
+            if (column.value.apply(update) != null) {
+                mask |= 1 << column.ordinal();
+            }
+        }
+        return mask;
+    }
+
+    private static String sql(int mask) {
+        StringBuilder set = new StringBuilder();
+        StringBuilder current = new StringBuilder();
+        StringBuilder supplied = new StringBuilder();
+        for (Column column : Column.VALUES) {
+            if ((mask & (1 << column.ordinal())) == 0) {
+                continue;
+            }
+            set.append(column.name).append(" = ?, ");
+            if (current.length() > 0) {
+                current.append(", ");
+                supplied.append(", ");
+            }
+            current.append(column.name);
+            supplied.append('?');
+        }
+        return "UPDATE merchants.merchants SET " + set + "last_updated = NOW()"
+                + " WHERE merchant_id = ? AND ROW(" + current + ") IS DISTINCT FROM ROW(" + supplied + ")";
+    }
+
+    /**
+     * Binds the supplied values for the {@code SET} list, the merchant id, then the same values again for the guard.
+     */
+    private static void bind(Connection connection, PreparedStatement statement, int mask,
+                             UpdateMerchantPayloadWithMerchantId update) throws SQLException {
+        int columns = Integer.bitCount(mask);
+        int index = 1;
+        for (Column column : Column.VALUES) {
+            if ((mask & (1 << column.ordinal())) == 0) {
+                continue;
+            }
+            Object value = column.value.apply(update);
+            bindValue(connection, statement, index, value);
+            bindValue(connection, statement, index + columns + 1, value);
+            index++;
+        }
+        statement.setInt(index, update.merchantId());
+    }
+
+    private static void bindValue(Connection connection, PreparedStatement statement, int index, Object value)
+            throws SQLException {
+        if (value instanceof String text) {
+            statement.setString(index, text);
+        } else if (value instanceof BigDecimal decimal) {
+            statement.setBigDecimal(index, decimal);
+        } else if (value instanceof Integer number) {
+            statement.setInt(index, number);
+        } else if (value instanceof List<?> list) {
+            statement.setArray(index, connection.createArrayOf("text", list.toArray()));
+        } else {
+            throw new IllegalStateException("Unsupported merchant column value: " + value.getClass());
+        }
+    }
+
+    private static Set<Integer> existingIds(Connection connection, List<Integer> merchantIds) throws SQLException {
+        Set<Integer> existing = new HashSet<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT merchant_id FROM merchants.merchants WHERE merchant_id = ANY(?)")) {
+            statement.setArray(1, connection.createArrayOf("integer", merchantIds.toArray()));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    existing.add(rs.getInt(1));
+                }
+            }
+        }
+        return existing;
+    }
+}
@@ -0,0 +1,71 @@
+package com.payment.repository;
+
+import com.payment.dto.settlementDto.SettlementDailyRow;
+import com.payment.entity.SettlementDailyAggregate;
+import io.micronaut.data.annotation.Query;
+import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.query.builder.sql.Dialect;
+import io.micronaut.data.repository.CrudRepository;
+import jakarta.annotation.Nullable;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository for the trigger-maintained settlement aggregates. Reports read one row per acquirer, day
+ * and currency instead of scanning {@code transaction_master}.
+ */
+@Repository
+@JdbcRepository(dialect = Dialect.POSTGRES)
+public interface SettlementRepository extends CrudRepository<SettlementDailyAggregate, Long> {
+
+    @Query("""
+                    SELECT agg.acquirer_id                                                   AS acquirer_id,
+                               acq.member_name                                               AS acquirer_name,
+                               agg.settlement_date                                           AS settlement_date,
+                               agg.currency                                                  AS currency,
+                               agg.total_amount                                              AS total_amount,
+                               agg.transaction_count                                         AS transaction_count,
+                               ROUND(agg.total_amount / NULLIF(agg.transaction_count, 0), 2) AS average_amount,
+                               agg.closed                                                    AS closed,
+                               agg.late_amount                                               AS late_amount,
+                               agg.late_count                                                AS late_count
+                    FROM operators.settlement_daily_aggregates agg
+                             JOIN operators.members acq ON agg.acquirer_id = acq.member_id
+                    WHERE agg.settlement_date BETWEEN :startDate AND :endDate
+                      AND (:acquirerId IS NULL OR agg.acquirer_id = :acquirerId)
+                      AND (:currency IS NULL OR agg.currency = :currency)
+                      AND (agg.transaction_count <> 0 OR agg.late_count <> 0)
+                    ORDER BY agg.settlement_date, acq.member_name, agg.currency
+            """)
+    List<SettlementDailyRow> findDailySettlements(
+            LocalDate startDate,
+            LocalDate endDate,
+            @Nullable Long acquirerId,
+            @Nullable String currency
+    );
+
+    /**
+     * Freeze every open day before {@code cutoff}. Later changes to those days are booked as late
+     * adjustments by the trigger, also for an acquirer and currency that had no row for the day yet.
+     *
+     * @return Number of aggregate rows closed
+     */
+    @Query("""
+                    WITH advanced AS (
+                        INSERT INTO operators.settlement_close_cutoff AS c (id, closed_before)
+                        VALUES (TRUE, :cutoff)
+                        ON CONFLICT (id) DO UPDATE
+                            SET closed_before = GREATEST(c.closed_before, EXCLUDED.closed_before),
+                                updated_at = NOW()
+                    )
+                    UPDATE operators.settlement_daily_aggregates
+                    SET closed = TRUE,
+                        closed_at = NOW(),
+                        updated_at = NOW()
+                    WHERE closed = FALSE
+                      AND settlement_date < :cutoff
+            """)
+    long closeDaysBefore(LocalDate cutoff);
+}
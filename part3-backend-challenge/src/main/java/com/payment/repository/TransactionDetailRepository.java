@@ -1,8 +1,11 @@
 package com.payment.repository;
 
 import com.payment.entity.TransactionDetail;
+import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.annotation.TypeDef;
 import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.DataType;
 import io.micronaut.data.model.query.builder.sql.Dialect;
 import io.micronaut.data.repository.CrudRepository;
 
@@ -17,5 +20,17 @@ public interface TransactionDetailRepository extends CrudRepository<TransactionD
 
     List<TransactionDetail> findByMasterTxnId(Long masterTxnId);
 
-    List<TransactionDetail> findByMasterTxnIdInList(List<Long> masterTxnIds);
+    /**
+     * Details of the given transactions; lists of any length are chunked, see {@link IdChunks}.
+     */
+    default List<TransactionDetail> findByMasterTxnIdInList(List<Long> masterTxnIds) {
+        return IdChunks.query(masterTxnIds, this::findByMasterTxnIds);
+    }
+
+    @Query("""
+              SELECT *
+              FROM operators.transaction_details
+              WHERE master_txn_id = ANY(:masterTxnIds)
+            """)
+    List<TransactionDetail> findByMasterTxnIds(@TypeDef(type = DataType.LONG_ARRAY) Long[] masterTxnIds);
 }
@@ -4,12 +4,15 @@ import com.payment.dto.transactionDto.*;
 import com.payment.entity.TransactionMaster;
 import io.micronaut.data.annotation.Query;
 import io.micronaut.data.annotation.Repository;
+import io.micronaut.data.annotation.TypeDef;
 import io.micronaut.data.jdbc.annotation.JdbcRepository;
+import io.micronaut.data.model.DataType;
 import io.micronaut.data.model.query.builder.sql.Dialect;
 import io.micronaut.data.repository.CrudRepository;
 import jakarta.annotation.Nullable;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository for TransactionMaster entities.
@@ -44,7 +47,7 @@ public interface TransactionRepository extends CrudRepository<TransactionMaster,
                       AND (:startDate IS NULL OR tm.txn_date >= CAST(:startDate AS DATE))
                       AND (:endDate IS NULL OR tm.txn_date <= CAST(:endDate AS DATE))
                       AND (:status IS NULL OR tm.status = :status)
-                    ORDER BY tm.txn_date DESC
+                    ORDER BY tm.txn_date DESC, tm.txn_id DESC
                     LIMIT :limit OFFSET :offset
             """)
     List<TransactionsDto> findTransactions(
@@ -56,6 +59,40 @@ public interface TransactionRepository extends CrudRepository<TransactionMaster,
             int offset
     );
 
+    /**
+     * Keyset page for exports: transactions with {@code txn_id > afterTxnId} in {@code txn_id} order. Unlike
+     * {@link #findTransactions} the cost does not grow with the position in the result.
+     */
+    @Query("""
+                    SELECT tm.txn_id              AS txn_id,
+                               tm.amount              AS amount,
+                               tm.currency            AS currency,
+                               tm.status              AS status,
+                               tm.local_txn_date_time AS timestamp,
+                               tm.card_type           AS card_type,
+                               tm.card_last4          AS card_last4,
+                               acq.member_name        AS acquirer,
+                               iss.member_name        AS issuer
+                    FROM operators.transaction_master tm
+                             LEFT JOIN operators.members acq ON tm.gp_acquirer_id = acq.member_id
+                             LEFT JOIN operators.members iss ON tm.gp_issuer_id = iss.member_id
+                    WHERE tm.merchant_id = :merchantId
+                      AND tm.txn_id > :afterTxnId
+                      AND (:startDate IS NULL OR tm.txn_date >= CAST(:startDate AS DATE))
+                      AND (:endDate IS NULL OR tm.txn_date <= CAST(:endDate AS DATE))
+                      AND (:status IS NULL OR tm.status = :status)
+                    ORDER BY tm.txn_id
+                    LIMIT :limit
+            """)
+    List<TransactionsDto> findTransactionsAfter(
+            String merchantId,
+            @Nullable String startDate,
+            @Nullable String endDate,
+            @Nullable String status,
+            long afterTxnId,
+            int limit
+    );
+
     @Query("""
         SELECT COUNT(*) AS count
         FROM operators.transaction_master
@@ -69,6 +106,18 @@ public interface TransactionRepository extends CrudRepository<TransactionMaster,
             @Nullable String endDate
     );
 
+    /**
+     * Planner row estimate for {@link #countTransactions}; costs a plan, not a scan.
+     */
+    @Query("""
+        SELECT operators.estimate_transaction_count(:merchantId, CAST(:startDate AS DATE), CAST(:endDate AS DATE))
+    """)
+    long estimateTransactions(
+            String merchantId,
+            @Nullable String startDate,
+            @Nullable String endDate
+    );
+
     @Query("""
     SELECT 
         COUNT(*) AS total_transactions,
@@ -101,6 +150,13 @@ public interface TransactionRepository extends CrudRepository<TransactionMaster,
             @Nullable String endDate
     );
 
+    /**
+     * Detail rows of the given transactions, ordered by {@code masterTxnId}; lists of any length are chunked.
+     */
+    default List<TransactionDetailRow> findDetailsForTransactions(List<Long> txnIds) {
+        return IdChunks.query(txnIds, this::findDetailsForTransactionIds);
+    }
+
     @Query("""
               SELECT 
                  td.txn_detail_id AS detail_id,
@@ -109,8 +165,112 @@ public interface TransactionRepository extends CrudRepository<TransactionMaster,
                  td.amount AS amount,
                  td.description AS description
               FROM operators.transaction_details td
-              WHERE td.master_txn_id IN (:txnIds)
+              WHERE td.master_txn_id = ANY(:txnIds)
+              ORDER BY td.master_txn_id, td.txn_detail_id
             """)
-    List<TransactionDetailRow> findDetailsForTransactions(List<Long> txnIds);
-}
+    List<TransactionDetailRow> findDetailsForTransactionIds(@TypeDef(type = DataType.LONG_ARRAY) Long[] txnIds);
 
+    /**
+     * Same page as {@link #findTransactions}, with each row's details aggregated by Postgres into a JSON array
+     * (field names of {@code TransactionDetailDto}). The page is cut first, so details are only read for the
+     * rows that are returned, and everything comes back in one round trip.
+     */
+    @Query("""
+                    WITH page AS (
+                        SELECT tm.txn_id, tm.amount, tm.currency, tm.status, tm.local_txn_date_time,
+                               tm.card_type, tm.card_last4, tm.gp_acquirer_id, tm.gp_issuer_id, tm.txn_date
+                        FROM operators.transaction_master tm
+                        WHERE tm.merchant_id = :merchantId
+                          AND (:startDate IS NULL OR tm.txn_date >= CAST(:startDate AS DATE))
+                          AND (:endDate IS NULL OR tm.txn_date <= CAST(:endDate AS DATE))
+                          AND (:status IS NULL OR tm.status = :status)
+                        ORDER BY tm.txn_date DESC, tm.txn_id DESC
+                        LIMIT :limit OFFSET :offset
+                    )
+                    SELECT page.txn_id              AS txn_id,
+                               page.amount              AS amount,
+                               page.currency            AS currency,
+                               page.status              AS status,
+                               page.local_txn_date_time AS timestamp,
+                               page.card_type           AS card_type,
+                               page.card_last4          AS card_last4,
+                               acq.member_name          AS acquirer,
+                               iss.member_name          AS issuer,
+                               COALESCE(CAST((SELECT json_agg(json_build_object(
+                                                        'detailId', td.txn_detail_id,
+                                                        'type', td.detail_type,
+                                                        'amount', td.amount,
+                                                        'description', td.description
+                                                    ) ORDER BY td.txn_detail_id)
+                                              FROM operators.transaction_details td
+                                              WHERE td.master_txn_id = page.txn_id) AS TEXT), '[]') AS details
+                    FROM page
+                             LEFT JOIN operators.members acq ON page.gp_acquirer_id = acq.member_id
+                             LEFT JOIN operators.members iss ON page.gp_issuer_id = iss.member_id
+                    ORDER BY page.txn_date DESC, page.txn_id DESC
+            """)
+    List<TransactionWithDetailsRow> findTransactionsWithDetails(
+            String merchantId,
+            @Nullable String startDate,
+            @Nullable String endDate,
+            @Nullable String status,
+            int limit,
+            int offset
+    );
+
+    /**
+     * Keyset counterpart of {@link #findTransactionsWithDetails}, see {@link #findTransactionsAfter}.
+     */
+    @Query("""
+                    WITH page AS (
+                        SELECT tm.txn_id, tm.amount, tm.currency, tm.status, tm.local_txn_date_time,
+                               tm.card_type, tm.card_last4, tm.gp_acquirer_id, tm.gp_issuer_id
+                        FROM operators.transaction_master tm
+                        WHERE tm.merchant_id = :merchantId
+                          AND tm.txn_id > :afterTxnId
+                          AND (:startDate IS NULL OR tm.txn_date >= CAST(:startDate AS DATE))
+                          AND (:endDate IS NULL OR tm.txn_date <= CAST(:endDate AS DATE))
+                          AND (:status IS NULL OR tm.status = :status)
+                        ORDER BY tm.txn_id
+                        LIMIT :limit
+                    )
+                    SELECT page.txn_id              AS txn_id,
+                               page.amount              AS amount,
+                               page.currency            AS currency,
+                               page.status              AS status,
+                               page.local_txn_date_time AS timestamp,
+                               page.card_type           AS card_type,
+                               page.card_last4          AS card_last4,
+                               acq.member_name          AS acquirer,
+                               iss.member_name          AS issuer,
+                               COALESCE(CAST((SELECT json_agg(json_build_object(
+                                                        'detailId', td.txn_detail_id,
+                                                        'type', td.detail_type,
+                                                        'amount', td.amount,
+                                                        'description', td.description
+                                                    ) ORDER BY td.txn_detail_id)
+                                              FROM operators.transaction_details td
+                                              WHERE td.master_txn_id = page.txn_id) AS TEXT), '[]') AS details
+                    FROM page
+                             LEFT JOIN operators.members acq ON page.gp_acquirer_id = acq.member_id
+                             LEFT JOIN operators.members iss ON page.gp_issuer_id = iss.member_id
+                    ORDER BY page.txn_id
+            """)
+    List<TransactionWithDetailsRow> findTransactionsWithDetailsAfter(
+            String merchantId,
+            @Nullable String startDate,
+            @Nullable String endDate,
+            @Nullable String status,
+            long afterTxnId,
+            int limit
+    );
+
+    @Query("""
+              SELECT txn_id, created_at
+              FROM operators.transaction_master
+              WHERE merchant_id = :merchantId
+              ORDER BY txn_id DESC
+              LIMIT 1
+            """)
+    Optional<TransactionVersion> findLatestVersion(String merchantId);
+}
@@ -0,0 +1,17 @@
+package com.payment.responses;
+
+import com.payment.usecases.UseCaseResponse;
+import io.micronaut.serde.annotation.Serdeable;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.util.List;
+
+@Serdeable
+@RecordBuilder
+public record BulkUpdateMerchantResponse(
+        int requested,
+        int updated,
+        int unchanged,
+        List<Integer> notFound
+) implements UseCaseResponse {
+}
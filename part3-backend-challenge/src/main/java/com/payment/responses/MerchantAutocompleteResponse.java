@@ -0,0 +1,15 @@
+package com.payment.responses;
+
+import com.payment.dto.merchantDto.MerchantDirectoryEntry;
+import com.payment.usecases.UseCaseResponse;
+import io.micronaut.serde.annotation.Serdeable;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.util.List;
+
+@Serdeable
+@RecordBuilder
+public record MerchantAutocompleteResponse(
+        List<MerchantDirectoryEntry> merchants
+) implements UseCaseResponse {
+}
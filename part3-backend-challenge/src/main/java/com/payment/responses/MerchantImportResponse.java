@@ -0,0 +1,21 @@
+package com.payment.responses;
+
+import com.payment.dto.merchantDto.MerchantImportError;
+import com.payment.usecases.UseCaseResponse;
+import io.micronaut.serde.annotation.Serdeable;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.util.List;
+
+@Serdeable
+@RecordBuilder
+public record MerchantImportResponse(
+        String format,
+        long rowsRead,
+        long imported,
+        long rejected,
+        List<MerchantImportError> errors,
+        boolean errorsTruncated,
+        long elapsedMillis
+) implements UseCaseResponse {
+}
@@ -0,0 +1,20 @@
+package com.payment.responses;
+
+import com.payment.dto.merchantDto.MerchantDirectoryEntry;
+import com.payment.usecases.UseCaseResponse;
+import io.micronaut.serde.annotation.Serdeable;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.util.List;
+
+/**
+ * @param merchants Known merchants, in request order
+ * @param unknown   Requested ids with no merchant
+ */
+@Serdeable
+@RecordBuilder
+public record MerchantLookupResponse(
+        List<MerchantDirectoryEntry> merchants,
+        List<Integer> unknown
+) implements UseCaseResponse {
+}
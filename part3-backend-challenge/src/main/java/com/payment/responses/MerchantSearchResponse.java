@@ -0,0 +1,19 @@
+package com.payment.responses;
+
+import com.payment.dto.merchantDto.MerchantSearchResult;
+import com.payment.usecases.UseCaseResponse;
+import io.micronaut.serde.annotation.Serdeable;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.util.List;
+
+/**
+ * @param nextCursor Pass as {@code cursor} for the next page; {@code null} on the last page
+ */
+@Serdeable
+@RecordBuilder
+public record MerchantSearchResponse(
+        List<MerchantSearchResult> merchants,
+        String nextCursor
+) implements UseCaseResponse {
+}
@@ -0,0 +1,19 @@
+package com.payment.responses;
+
+import com.payment.dto.settlementDto.SettlementDailyRow;
+import com.payment.dto.settlementDto.SettlementTotal;
+import com.payment.dto.transactionDto.DateRange;
+import com.payment.usecases.UseCaseResponse;
+import io.micronaut.serde.annotation.Serdeable;
+import io.soabase.recordbuilder.core.RecordBuilder;
+
+import java.util.List;
+
+@Serdeable
+@RecordBuilder
+public record SettlementReportResponse(
+        DateRange dateRange,
+        List<SettlementDailyRow> days,
+        List<SettlementTotal> totals
+) implements UseCaseResponse {
+}
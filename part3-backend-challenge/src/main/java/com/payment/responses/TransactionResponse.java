@@ -1,5 +1,6 @@
 package com.payment.responses;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.payment.dto.transactionDto.*;
 import com.payment.usecases.UseCaseResponse;
 import io.micronaut.serde.annotation.Serdeable;
@@ -12,6 +13,8 @@ import java.util.List;
 public record TransactionResponse(
         String merchantId,
         DateRange dateRange,
+        // Only present with expand=summary
+        @JsonInclude(JsonInclude.Include.NON_NULL)
         TransactionSummary summary,
         List<TransactionDtoWithDetails> transactions,
         Pagination pagination
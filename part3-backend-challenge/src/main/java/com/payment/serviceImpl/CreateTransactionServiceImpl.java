@@ -1,9 +1,12 @@
 package com.payment.serviceImpl;
 
 
+import com.payment.config.MerchantOrderCounter;
 import com.payment.dto.transactionDto.CreateTransactionRequestPayloadWithMerchantId;
+import com.payment.dto.transactionDto.TransactionStreamEvent;
 import com.payment.entity.TransactionMaster;
 import com.payment.enums.TransactionStatus;
+import com.payment.events.TransactionEventBus;
 import com.payment.payloads.CreateTransactionRequestPayload;
 import com.payment.repository.TransactionRepository;
 import com.payment.responses.CreateTransactionResponse;
@@ -16,15 +19,21 @@ import org.slf4j.LoggerFactory;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 
 public class CreateTransactionServiceImpl implements CreateTransactionService {
 
     private final Logger logger = LoggerFactory.getLogger(CreateTransactionServiceImpl.class);
     private final TransactionRepository transactionRepository;
+    private final TransactionEventBus transactionEventBus;
+    private final MerchantOrderCounter merchantOrderCounter;
 
     @Inject
-    public CreateTransactionServiceImpl(TransactionRepository transactionRepository) {
+    public CreateTransactionServiceImpl(TransactionRepository transactionRepository, TransactionEventBus transactionEventBus,
+                                        MerchantOrderCounter merchantOrderCounter) {
         this.transactionRepository = transactionRepository;
+        this.transactionEventBus = transactionEventBus;
+        this.merchantOrderCounter = merchantOrderCounter;
     }
 
     @Override
@@ -36,6 +45,12 @@ public class CreateTransactionServiceImpl implements CreateTransactionService {
 
         logger.info("Transaction inserted into the database");
 
+        // save() has committed at this point, so stream subscribers never see a rolled back row
+        this.transactionEventBus.publish(toStreamEvent(result));
+        // num_orders is flushed in batches rather than updated here, so inserts never wait on the merchant row
+        this.merchantOrderCounter.recordOrder(result.getMerchantId(),
+                result.getCreatedAt() != null ? result.getCreatedAt() : Instant.now());
+
         return CreateTransactionResponseBuilder.builder()
                 .transactionId(result.getTxnId().toString())
                 .responseMessage("Successfully inserted New Transaction")
@@ -43,11 +58,25 @@ public class CreateTransactionServiceImpl implements CreateTransactionService {
 
     }
 
+    private TransactionStreamEvent toStreamEvent(TransactionMaster tm) {
+        return new TransactionStreamEvent(
+                tm.getTxnId(),
+                tm.getMerchantId(),
+                tm.getAmount(),
+                tm.getCurrency(),
+                tm.getStatus(),
+                tm.getLocalTxnDateTime().toString(),
+                tm.getCardType(),
+                tm.getCardLast4()
+        );
+    }
+
     private TransactionMaster toTransactionMaster(CreateTransactionRequestPayload request) {
         TransactionMaster tm = new TransactionMaster();
         tm.setTxnId(System.currentTimeMillis());
         tm.setAmount(new BigDecimal(request.amount()));
-        tm.setTxnDate(java.sql.Date.valueOf(LocalDate.now()));
+        // UTC, like the settlement days SettlementClosingJob closes
+        tm.setTxnDate(java.sql.Date.valueOf(LocalDate.now(ZoneOffset.UTC)));
         tm.setLocalTxnDateTime(Instant.now());
         tm.setAuthCode(request.authCode());
         tm.setCurrency(request.currency());
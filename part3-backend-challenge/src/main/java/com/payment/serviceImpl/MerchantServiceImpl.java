@@ -1,27 +1,75 @@
 package com.payment.serviceImpl;
 
+import com.payment.config.MerchantCache;
+import com.payment.config.MerchantDirectory;
+import com.payment.dto.merchantDto.MerchantDirectoryEntry;
 import com.payment.dto.merchantDto.MerchantDto;
+import com.payment.dto.merchantDto.MerchantSearchResult;
 import com.payment.entity.Merchant;
+import com.payment.helpers.MerchantDirectorySnapshot;
+import com.payment.enums.MerchantImportFormat;
+import com.payment.enums.MerchantUpdateOutcome;
+import com.payment.exception.NotFoundException;
+import com.payment.payloads.BulkUpdateMerchantPayload;
 import com.payment.payloads.CreateMerchantPayload;
+import com.payment.payloads.MerchantAutocompleteRequestPayload;
+import com.payment.payloads.MerchantImportPayload;
+import com.payment.payloads.MerchantLookupRequestPayload;
+import com.payment.payloads.MerchantSearchRequestPayload;
 import com.payment.payloads.UpdateMerchantPayloadWithMerchantId;
+import com.payment.repository.MerchantImportRepository;
 import com.payment.repository.MerchantRepository;
+import com.payment.repository.MerchantUpdateRepository;
 import com.payment.responses.*;
 import com.payment.services.MerchantService;
+import io.micronaut.context.annotation.Value;
 import jakarta.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.InputStreamReader;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class MerchantServiceImpl implements MerchantService {
 
     private final Logger logger = LoggerFactory.getLogger(MerchantServiceImpl.class);
     private final MerchantRepository merchantRepository;
+    private final MerchantUpdateRepository merchantUpdateRepository;
+    private final MerchantImportRepository merchantImportRepository;
+    private final MerchantCache merchantCache;
+    private final MerchantDirectory merchantDirectory;
+    private final int bulkUpdateMaxSize;
+    private final int searchDefaultLimit;
+    private final int searchMaxLimit;
+    private final int lookupMaxIds;
 
     @Inject
-    public MerchantServiceImpl(MerchantRepository merchantRepository) {
+    public MerchantServiceImpl(MerchantRepository merchantRepository,
+                               MerchantUpdateRepository merchantUpdateRepository,
+                               MerchantImportRepository merchantImportRepository,
+                               MerchantCache merchantCache,
+                               MerchantDirectory merchantDirectory,
+                               @Value("${payment.merchants.bulk-update-max-size:5000}") int bulkUpdateMaxSize,
+                               @Value("${payment.merchants.search.default-limit:10}") int searchDefaultLimit,
+                               @Value("${payment.merchants.search.max-limit:50}") int searchMaxLimit,
+                               @Value("${payment.merchant-directory.lookup-max-ids:1000}") int lookupMaxIds) {
         this.merchantRepository = merchantRepository;
+        this.merchantUpdateRepository = merchantUpdateRepository;
+        this.merchantImportRepository = merchantImportRepository;
+        this.merchantCache = merchantCache;
+        this.merchantDirectory = merchantDirectory;
+        this.bulkUpdateMaxSize = bulkUpdateMaxSize;
+        this.searchDefaultLimit = searchDefaultLimit;
+        this.searchMaxLimit = searchMaxLimit;
+        this.lookupMaxIds = lookupMaxIds;
     }
 
     @Override
@@ -53,8 +101,8 @@ public class MerchantServiceImpl implements MerchantService {
     @Override
     public MerchantDetailsResponse getMerchantDetails(String merchantId) {
         logger.info("Merchant details id" + merchantId);
-        var result = this.merchantRepository.findByMerchantId(Integer.parseInt(merchantId));
-        logger.info("merchant detail result" + result);
+        var result = this.merchantCache.find(Integer.parseInt(merchantId))
+                .orElseThrow(() -> new NotFoundException("Merchant", merchantId));
         return MerchantDetailsResponseBuilder.builder()
                 .merchantId(result.getMerchantId())
                 .merchantName(result.getMerchantName())
@@ -73,11 +121,136 @@ public class MerchantServiceImpl implements MerchantService {
                 .build();
     }
 
+    /**
+     * Queries shorter than a trigram only match name prefixes; longer ones match anywhere in the name or by trigram
+     * similarity. The cursor carries the exact {@code float} score of the last row, so continuation neither skips
+     * nor repeats rows with equal scores.
+     */
+    @Override
+    public MerchantSearchResponse searchMerchants(MerchantSearchRequestPayload request) {
+        String q = request.q() == null ? "" : request.q().trim();
+        if (q.isEmpty()) {
+            throw new IllegalArgumentException("q is required");
+        }
+        int limit = request.limit().orElse(searchDefaultLimit);
+        if (limit < 1 || limit > searchMaxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + searchMaxLimit);
+        }
+        String[] tags = request.tags()
+                .map(value -> Arrays.stream(value.split(",")).map(String::trim).filter(tag -> !tag.isEmpty())
+                        .toArray(String[]::new))
+                .orElse(new String[0]);
+
+        SearchPosition after = request.cursor().map(MerchantServiceImpl::decodeCursor).orElse(null);
+        Float afterScore = after == null ? null : after.score();
+        Integer afterId = after == null ? null : after.merchantId();
+
+        String escaped = q.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        String prefix = escaped + "%";
+        String pattern = q.length() < 3 ? prefix : "%" + escaped + "%";
+
+        List<MerchantSearchResult> rows = tags.length == 0
+                ? merchantRepository.searchMerchants(q, pattern, prefix, afterScore, afterId, limit + 1)
+                : merchantRepository.searchMerchantsWithTags(q, pattern, prefix, tags, afterScore, afterId, limit + 1);
+
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            MerchantSearchResult last = rows.get(limit - 1);
+            nextCursor = encodeCursor(new SearchPosition(last.score(), last.merchantId()));
+        }
+        return MerchantSearchResponseBuilder.builder()
+                .merchants(rows)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * Served from {@link MerchantDirectory} without touching the database; matches are name prefixes in name order.
+     */
+    @Override
+    public MerchantAutocompleteResponse autocompleteMerchants(MerchantAutocompleteRequestPayload request) {
+        if (request.prefix() == null || request.prefix().isBlank()) {
+            throw new IllegalArgumentException("prefix is required");
+        }
+        int limit = request.limit().orElse(searchDefaultLimit);
+        if (limit < 1 || limit > searchMaxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + searchMaxLimit);
+        }
+        if (!merchantDirectory.isLoaded()) {
+            throw new IllegalStateException("Merchant directory is not loaded yet");
+        }
+        return MerchantAutocompleteResponseBuilder.builder()
+                .merchants(merchantDirectory.current().autocomplete(request.prefix(), limit))
+                .build();
+    }
+
+    /**
+     * Labels merchant ids from {@link MerchantDirectory}; ids it does not hold are reported as unknown.
+     */
+    @Override
+    public MerchantLookupResponse lookupMerchants(MerchantLookupRequestPayload request) {
+        if (request.ids() == null || request.ids().isBlank()) {
+            throw new IllegalArgumentException("ids is required");
+        }
+        String[] parts = request.ids().split(",");
+        if (parts.length > lookupMaxIds) {
+            throw new IllegalArgumentException("At most " + lookupMaxIds + " ids per request");
+        }
+        if (!merchantDirectory.isLoaded()) {
+            throw new IllegalStateException("Merchant directory is not loaded yet");
+        }
+        MerchantDirectorySnapshot directory = merchantDirectory.current();
+        List<MerchantDirectoryEntry> merchants = new ArrayList<>(parts.length);
+        List<Integer> unknown = new ArrayList<>();
+        for (String part : parts) {
+            int merchantId;
+            try {
+                merchantId = Integer.parseInt(part.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid merchant id: " + part.trim());
+            }
+            MerchantDirectoryEntry entry = directory.find(merchantId);
+            if (entry != null) {
+                merchants.add(entry);
+            } else {
+                unknown.add(merchantId);
+            }
+        }
+        return MerchantLookupResponseBuilder.builder()
+                .merchants(merchants)
+                .unknown(unknown)
+                .build();
+    }
+
+    private static String encodeCursor(SearchPosition position) {
+        String text = Integer.toHexString(Float.floatToIntBits(position.score())) + ":" + position.merchantId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static SearchPosition decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            return new SearchPosition(Float.intBitsToFloat(Integer.parseUnsignedInt(parts[0], 16)),
+                    Integer.parseInt(parts[1]));
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Score and id of the last merchant on a search page.
+     */
+    private record SearchPosition(float score, int merchantId) {
+    }
+
     @Override
     public CreateMerchantResponse createNewMerchant(CreateMerchantPayload createMerchantPayload) {
         Merchant entity =  toMerchantEntity(createMerchantPayload);
 
         var result = this.merchantRepository.save(entity);
+        // Drops a cached "unknown id" entry for the new merchant
+        merchantChanged(result.getMerchantId());
 
         logger.info("New merchant created Successfully");
 
@@ -89,7 +262,6 @@ public class MerchantServiceImpl implements MerchantService {
 
     private Merchant toMerchantEntity(CreateMerchantPayload request) {
      Merchant merchant = new Merchant();
-     merchant.setMerchantId(java.util.concurrent.ThreadLocalRandom.current().nextInt());
      merchant.setMerchantName(request.merchantName());
      merchant.setMerchantStatus(request.merchantStatus());
      merchant.setContactInfo(request.contactInfo());
@@ -105,31 +277,43 @@ public class MerchantServiceImpl implements MerchantService {
      return merchant;
     }
 
+    @Override
+    public MerchantImportResponse importMerchants(MerchantImportPayload payload) {
+        if (payload.format() == null) {
+            throw new IllegalArgumentException("format is required");
+        }
+        MerchantImportFormat format = MerchantImportFormat.parse(payload.format());
+
+        var result = this.merchantImportRepository.importMerchants(
+                new InputStreamReader(payload.body(), StandardCharsets.UTF_8), format);
+        // New ids may have negative cache entries
+        merchantCache.allMerchantsChanged();
+        merchantDirectory.allMerchantsChanged();
+
+        logger.info("Imported {} merchants ({} rejected) in {} ms",
+                result.imported(), result.rejected(), result.elapsedMillis());
+        return result;
+    }
+
     @Override
     public UpdateMerchantResponse updateMerchant(UpdateMerchantPayloadWithMerchantId p) {
-        long updated = merchantRepository.updateMerchant(
-                p.merchantId(),
-                p.merchantName(),
-                p.merchantStatus(),
-                p.contactInfo(),
-                p.merchantCategory(),
-                p.merchantLocation(),
-                p.merchantRating(),
-                p.numOrders(),
-                p.paymentMethod(),
-                p.merchantLogo(),
-                p.merchantWebsite(),
-                p.merchantType(),
-                p.merchantTags()
-        );
-
-        if (updated == 0) {
+        rejectNumOrders(p);
+        MerchantUpdateOutcome outcome = merchantUpdateRepository.update(p);
+
+        if (outcome == MerchantUpdateOutcome.notFound) {
             return UpdateMerchantResponseBuilder.builder()
                     .merchantId(p.merchantId().toString())
                     .message( "Merchant not found")
                     .build();
         }
+        if (outcome == MerchantUpdateOutcome.unchanged) {
+            return UpdateMerchantResponseBuilder.builder()
+                    .merchantId(p.merchantId().toString())
+                    .message("Merchant already up to date")
+                    .build();
+        }
 
+        merchantChanged(p.merchantId());
         return  UpdateMerchantResponseBuilder.builder()
                 .merchantId(p.merchantId().toString())
                 .message( "Merchant Updated Successfully")
@@ -137,10 +321,56 @@ public class MerchantServiceImpl implements MerchantService {
 
     }
 
+    @Override
+    public BulkUpdateMerchantResponse bulkUpdateMerchants(BulkUpdateMerchantPayload payload) {
+        List<UpdateMerchantPayloadWithMerchantId> updates = payload.merchants();
+        if (updates == null || updates.isEmpty()) {
+            throw new IllegalArgumentException("merchants must not be empty");
+        }
+        if (updates.size() > bulkUpdateMaxSize) {
+            throw new IllegalArgumentException("At most " + bulkUpdateMaxSize + " merchants per request");
+        }
+        Set<Integer> seen = new HashSet<>();
+        for (UpdateMerchantPayloadWithMerchantId update : updates) {
+            if (update.merchantId() == null) {
+                throw new IllegalArgumentException("merchantId is required for every merchant");
+            }
+            if (!seen.add(update.merchantId())) {
+                throw new IllegalArgumentException("Duplicate merchantId " + update.merchantId());
+            }
+            rejectNumOrders(update);
+        }
+
+        Map<Integer, MerchantUpdateOutcome> outcomes = merchantUpdateRepository.updateAll(updates);
+
+        int updated = 0;
+        int unchanged = 0;
+        List<Integer> notFound = new ArrayList<>();
+        for (Map.Entry<Integer, MerchantUpdateOutcome> outcome : outcomes.entrySet()) {
+            switch (outcome.getValue()) {
+                case updated -> {
+                    updated++;
+                    merchantChanged(outcome.getKey());
+                }
+                case unchanged -> unchanged++;
+                case notFound -> notFound.add(outcome.getKey());
+            }
+        }
+        logger.info("Bulk merchant update: {} updated, {} unchanged, {} not found", updated, unchanged, notFound.size());
+
+        return BulkUpdateMerchantResponseBuilder.builder()
+                .requested(updates.size())
+                .updated(updated)
+                .unchanged(unchanged)
+                .notFound(notFound)
+                .build();
+    }
+
     @Override
     public DeleteMerchantResponse deleteMerchant(String merchantId) {
 
         long deleted = merchantRepository.deleteMerhcantByMerchantId(Integer.parseInt(merchantId));
+        merchantChanged(Integer.parseInt(merchantId));
 
         if (deleted == 0) {
             return DeleteMerchantResponseBuilder.builder()
@@ -153,4 +383,22 @@ public class MerchantServiceImpl implements MerchantService {
                 .message( "Merchant deltedSuccessfully")
                 .build();
     }
+
+    /**
+     * {@code num_orders} is counted from transactions by {@code MerchantOrderCounter}; a written value would be
+     * overwritten by the next reconciliation.
+     */
+    private static void rejectNumOrders(UpdateMerchantPayloadWithMerchantId update) {
+        if (update.numOrders() != null) {
+            throw new IllegalArgumentException("numOrders is counted from transactions and cannot be updated");
+        }
+    }
+
+    /**
+     * Applies a local write right away; other nodes learn of it through {@code MerchantChangeListener}.
+     */
+    private void merchantChanged(int merchantId) {
+        merchantCache.merchantChanged(merchantId);
+        merchantDirectory.merchantChanged(merchantId);
+    }
 }
@@ -0,0 +1,55 @@
+package com.payment.serviceImpl;
+
+import com.payment.config.MerchantCache;
+import com.payment.dto.transactionDto.TransactionVersion;
+import com.payment.helpers.ETags;
+import com.payment.helpers.TransactionProjection;
+import com.payment.payloads.TransactionRequestPayload;
+import com.payment.repository.TransactionRepository;
+import com.payment.services.ResourceVersionService;
+import jakarta.inject.Inject;
+
+/**
+ * Derives ETags from a single index probe instead of running the page queries.
+ * <p>
+ * Transaction pages are versioned by the merchant's newest {@code txn_id}/{@code created_at} (served by
+ * {@code idx_transaction_master_merchant_txn_id}) plus the query parameters; merchant profiles by {@code last_updated}
+ * and {@code num_orders}, which changes without touching {@code last_updated}, both read from {@link MerchantCache} so
+ * a revalidation hit does not touch the database.
+ */
+public class ResourceVersionServiceImpl implements ResourceVersionService {
+
+    private final TransactionRepository transactionRepository;
+    private final MerchantCache merchantCache;
+
+    @Inject
+    public ResourceVersionServiceImpl(TransactionRepository transactionRepository, MerchantCache merchantCache) {
+        this.transactionRepository = transactionRepository;
+        this.merchantCache = merchantCache;
+    }
+
+    @Override
+    public String transactionsETag(TransactionRequestPayload request) {
+        TransactionVersion latest = transactionRepository.findLatestVersion(request.merchantId())
+                .orElse(new TransactionVersion(0L, null));
+        return ETags.strong(
+                request.merchantId(),
+                latest.txnId(),
+                latest.createdAt(),
+                request.page().orElse(null),
+                request.size().orElse(null),
+                request.startDate().orElse(null),
+                request.endDate().orElse(null),
+                request.status().orElse(null),
+                request.includeTotal().orElse(null),
+                TransactionProjection.parse(request.fields().orElse(null), request.expand().orElse(null)).key()
+        );
+    }
+
+    @Override
+    public String merchantETag(String merchantId) {
+        return merchantCache.find(Integer.parseInt(merchantId))
+                .map(merchant -> ETags.strong(merchant.getMerchantId(), merchant.getLastUpdated(), merchant.getNumOrders()))
+                .orElse(null);
+    }
+}
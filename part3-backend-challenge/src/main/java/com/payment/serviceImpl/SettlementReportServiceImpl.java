@@ -0,0 +1,102 @@
+package com.payment.serviceImpl;
+
+import com.payment.dto.settlementDto.SettlementDailyRow;
+import com.payment.dto.settlementDto.SettlementTotal;
+import com.payment.dto.transactionDto.DateRange;
+import com.payment.payloads.SettlementReportRequestPayload;
+import com.payment.repository.SettlementRepository;
+import com.payment.responses.SettlementReportResponse;
+import com.payment.responses.SettlementReportResponseBuilder;
+import com.payment.services.SettlementReportService;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Inject;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+public class SettlementReportServiceImpl implements SettlementReportService {
+    private final Logger logger = Logger.getLogger(SettlementReportServiceImpl.class.getName());
+    private final SettlementRepository settlementRepository;
+    private final int maxRangeDays;
+
+    @Inject
+    public SettlementReportServiceImpl(SettlementRepository settlementRepository,
+                                       @Value("${payment.settlement.max-range-days:366}") int maxRangeDays) {
+        this.settlementRepository = settlementRepository;
+        this.maxRangeDays = maxRangeDays;
+    }
+
+    @Override
+    public SettlementReportResponse fetchSettlementReport(SettlementReportRequestPayload request) {
+        LocalDate start = parseDate("startDate", request.startDate());
+        LocalDate end = parseDate("endDate", request.endDate());
+
+        if (start.isAfter(end)) {
+            logger.warning("Start date " + start + " cannot be after end date " + end);
+            throw new IllegalArgumentException("startDate cannot be after endDate");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= maxRangeDays) {
+            throw new IllegalArgumentException("date range cannot exceed " + maxRangeDays + " days");
+        }
+
+        String currency = request.currency().map(String::toUpperCase).orElse(null);
+        List<SettlementDailyRow> days = settlementRepository.findDailySettlements(
+                start,
+                end,
+                request.acquirerId().orElse(null),
+                currency
+        );
+
+        logger.info("Settlement report " + start + ".." + end + ": " + days.size() + " daily rows");
+
+        return SettlementReportResponseBuilder.builder()
+                .dateRange(new DateRange(start.toString(), end.toString()))
+                .days(days)
+                .totals(toTotals(days))
+                .build();
+    }
+
+    @Override
+    public long closeDaysBefore(LocalDate cutoff) {
+        return settlementRepository.closeDaysBefore(cutoff);
+    }
+
+    /**
+     * Roll the daily rows up per acquirer and currency. Amounts of different currencies are never added.
+     */
+    private List<SettlementTotal> toTotals(List<SettlementDailyRow> days) {
+        Map<String, SettlementTotal> totals = new LinkedHashMap<>();
+        for (SettlementDailyRow day : days) {
+            totals.merge(day.acquirerId() + ":" + day.currency(),
+                    new SettlementTotal(day.acquirerId(), day.acquirerName(), day.currency(),
+                            day.totalAmount(), day.transactionCount(), 1),
+                    (a, b) -> new SettlementTotal(a.acquirerId(), a.acquirerName(), a.currency(),
+                            a.totalAmount().add(b.totalAmount()),
+                            a.transactionCount() + b.transactionCount(),
+                            a.days() + b.days()));
+        }
+        List<SettlementTotal> result = new ArrayList<>(totals.values());
+        result.sort((a, b) -> {
+            int byName = a.acquirerName().compareTo(b.acquirerName());
+            return byName != 0 ? byName : a.currency().compareTo(b.currency());
+        });
+        return result;
+    }
+
+    private static LocalDate parseDate(String name, String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid " + name + ": " + value);
+        }
+    }
+}
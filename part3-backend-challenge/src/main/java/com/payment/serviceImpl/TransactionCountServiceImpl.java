@@ -0,0 +1,75 @@
+package com.payment.serviceImpl;
+
+import com.payment.dto.transactionDto.TransactionCount;
+import com.payment.dto.transactionDto.TransactionVersion;
+import com.payment.enums.TotalCountMode;
+import com.payment.repository.TransactionRepository;
+import com.payment.services.TransactionCountService;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Inject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * Page totals without a {@code COUNT(*)} on every request.
+ * <p>
+ * Exact counts are cached per merchant and date range together with the merchant's newest {@code txn_id} at the
+ * time of counting (one probe of {@code idx_transaction_master_merchant_txn_id}). While that high-water mark is
+ * unchanged the cached count is still exact, so paging through a quiet merchant counts once. Otherwise
+ * {@code estimate} asks the planner for its row estimate and only {@code exact} pays for the scan.
+ * Transactions are only ever inserted, so the high-water mark catches every change that affects a count (an insert
+ * that commits out of {@code txn_id} order is picked up with the next insert, as for the page ETags).
+ */
+public class TransactionCountServiceImpl implements TransactionCountService {
+    private final Logger logger = Logger.getLogger(TransactionCountServiceImpl.class.getName());
+    private final TransactionRepository transactionRepository;
+    private final Map<String, CachedCount> exactCounts;
+
+    @Inject
+    public TransactionCountServiceImpl(TransactionRepository transactionRepository,
+                                       @Value("${payment.transactions.count-cache-size:10000}") int cacheSize) {
+        this.transactionRepository = transactionRepository;
+        this.exactCounts = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedCount> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    @Override
+    public TransactionCount countTransactions(String merchantId, String start, String end, TotalCountMode mode) {
+        if (mode == TotalCountMode.none) {
+            return null;
+        }
+
+        long highWaterMark = transactionRepository.findLatestVersion(merchantId)
+                .map(TransactionVersion::txnId)
+                .orElse(0L);
+        String key = merchantId + '|' + start + '|' + end;
+
+        CachedCount cached;
+        synchronized (exactCounts) {
+            cached = exactCounts.get(key);
+        }
+        if (cached != null && cached.highWaterMark() == highWaterMark) {
+            return new TransactionCount(cached.count(), true);
+        }
+
+        if (mode == TotalCountMode.estimate) {
+            return new TransactionCount(transactionRepository.estimateTransactions(merchantId, start, end), false);
+        }
+
+        long count = transactionRepository.countTransactions(merchantId, start, end);
+        synchronized (exactCounts) {
+            exactCounts.put(key, new CachedCount(highWaterMark, count));
+        }
+        logger.fine("Counted " + count + " transactions for " + key + " at txn_id " + highWaterMark);
+        return new TransactionCount(count, true);
+    }
+
+    private record CachedCount(long highWaterMark, long count) {
+    }
+}
@@ -1,27 +1,40 @@
 package com.payment.serviceImpl;
 
 import com.payment.dto.transactionDto.*;
+import com.payment.enums.TotalCountMode;
 import com.payment.helpers.DateUtils;
+import com.payment.helpers.TransactionPageAssembler;
+import com.payment.helpers.TransactionProjection;
 import com.payment.payloads.TransactionRequestPayload;
 import com.payment.repository.TransactionRepository;
 import com.payment.responses.TransactionResponse;
 import com.payment.responses.TransactionResponseBuilder;
+import com.payment.services.TransactionCountService;
 import com.payment.services.TransactionService;
+import io.micronaut.context.annotation.Value;
 import jakarta.inject.Inject;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.Map;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
 public class TransactionServiceImpl implements TransactionService {
     private final Logger logger = Logger.getLogger(TransactionServiceImpl.class.getName());
     private final TransactionRepository transactionRepository;
+    private final TransactionCountService transactionCountService;
+    private final boolean jsonAggDetails;
+    private final TotalCountMode defaultTotalMode;
 
     @Inject
-    public TransactionServiceImpl(TransactionRepository transactionRepository) {
+    public TransactionServiceImpl(TransactionRepository transactionRepository,
+                                  TransactionCountService transactionCountService,
+                                  @Value("${payment.transactions.details-mode:json-agg}") String detailsMode,
+                                  @Value("${payment.transactions.default-include-total:estimate}") String defaultTotalMode) {
         this.transactionRepository = transactionRepository;
+        this.transactionCountService = transactionCountService;
+        this.jsonAggDetails = parseDetailsMode(detailsMode);
+        this.defaultTotalMode = TotalCountMode.parse(defaultTotalMode);
     }
 
     @Override
@@ -55,51 +68,48 @@ public class TransactionServiceImpl implements TransactionService {
                 throw new IllegalArgumentException("startDate cannot be after endDate");
             }
 
+            TotalCountMode totalMode = request.includeTotal().map(TotalCountMode::parse).orElse(defaultTotalMode);
+            TransactionProjection projection = TransactionProjection.parse(
+                    request.fields().orElse(null), request.expand().orElse(null));
 
-            List<TransactionsDto> transactionsList = this.transactionRepository.findTransactions(
-                    merchantId,
-                    start,
-                    end,
-                    request.status().orElse(null),
-                    size,
-                    offset
-            );
-
-            logger.info("transactionsList"+transactionsList);
-
-            // Get total count for all matching transactions
-            long longTotalCountValue = this.transactionRepository.countTransactions(
-                    merchantId,
-                    start,
-                    end
-            );
-
-            int totalCount = (int) longTotalCountValue;
-
-            logger.info("Found " + transactionsList.size() + " transactions on page " + page + ", total: " + totalCount);
-
-            Map<Long, List<TransactionDetailDto>> detailsGrouped = fetchTransactionDetails(transactionsList);
-
-            List<TransactionDtoWithDetails> transactions = buildTransactionList(transactionsList, detailsGrouped);
-
-            TransactionSummaryAggregation summaryAgg = transactionRepository.fetchSummaryAggregation(
-                    merchantId, start, end
-            );
-
-            StatusBreakdown breakdown = transactionRepository.fetchStatusBreakdown(
-                    merchantId, start, end
-            );
+            // One row beyond the page tells whether there is a next page without counting
+            List<TransactionDtoWithDetails> transactions = fetchTransactionPage(
+                    merchantId, start, end, request.status().orElse(null), size + 1, offset, projection.includesDetails());
+            boolean hasNext = transactions.size() > size;
+            if (hasNext) {
+                transactions = transactions.subList(0, size);
+            }
+            transactions = transactions.stream().map(projection::apply).toList();
+
+            TransactionSummary summary = null;
+            TransactionCount totalCount;
+            if (projection.includesSummary()) {
+                TransactionSummaryAggregation summaryAgg = transactionRepository.fetchSummaryAggregation(
+                        merchantId, start, end
+                );
+
+                StatusBreakdown breakdown = transactionRepository.fetchStatusBreakdown(
+                        merchantId, start, end
+                );
+
+                summary = new TransactionSummary(
+                        summaryAgg.totalTransactions(),
+                        summaryAgg.totalAmount(),
+                        summaryAgg.currency(),
+                        breakdown
+                );
+                // Same filter as countTransactions, so the exact total comes for free
+                totalCount = totalMode == TotalCountMode.none ? null : new TransactionCount(summaryAgg.totalTransactions(), true);
+            } else {
+                totalCount = transactionCountService.countTransactions(merchantId, start, end, totalMode);
+            }
 
-            TransactionSummary summary = new TransactionSummary(
-                    summaryAgg.totalTransactions(),
-                    summaryAgg.totalAmount(),
-                    summaryAgg.currency(),
-                    breakdown
-            );
+            logger.info("Found " + transactions.size() + " transactions on page " + page + ", total: "
+                    + (totalCount == null ? "not requested" : totalCount.total() + (totalCount.exact() ? "" : " (estimated)")));
 
             DateRange dateRange = toDateRange(start, end);
 
-            Pagination paginationInfo = toPaginationInfo(page, size, totalCount);
+            Pagination paginationInfo = toPaginationInfo(page, size, transactions.size(), totalCount, hasNext);
 
             return toTransactionResponse(merchantId, dateRange, transactions, paginationInfo, summary);
 
@@ -112,40 +122,73 @@ public class TransactionServiceImpl implements TransactionService {
         }
     }
 
+    @Override
+    public List<TransactionDtoWithDetails> fetchTransactionsAfter(TransactionRequestPayload request, long afterTxnId, int limit) {
+        String start = request.startDate().map(DateUtils::toIsoUtcStart).orElse(null);
+        String end = request.endDate().map(DateUtils::toIsoUtcEnd).orElse(null);
+
+        if (jsonAggDetails) {
+            return toTransactionList(this.transactionRepository.findTransactionsWithDetailsAfter(
+                    request.merchantId(), start, end, request.status().orElse(null), afterTxnId, limit));
+        }
+
+        List<TransactionsDto> transactionsList = this.transactionRepository.findTransactionsAfter(
+                request.merchantId(),
+                start,
+                end,
+                request.status().orElse(null),
+                afterTxnId,
+                limit
+        );
+
+        return TransactionPageAssembler.assemble(transactionsList, fetchTransactionDetails(transactionsList));
+    }
+
+    private List<TransactionDtoWithDetails> fetchTransactionPage(String merchantId, String start, String end,
+                                                                 String status, int size, int offset,
+                                                                 boolean withDetails) {
+        if (withDetails && jsonAggDetails) {
+            return toTransactionList(this.transactionRepository.findTransactionsWithDetails(
+                    merchantId, start, end, status, size, offset));
+        }
+
+        List<TransactionsDto> transactionsList = this.transactionRepository.findTransactions(
+                merchantId,
+                start,
+                end,
+                status,
+                size,
+                offset
+        );
 
+        logger.info("transactionsList"+transactionsList);
 
-    private Map<Long, List<TransactionDetailDto>> fetchTransactionDetails(List<TransactionsDto> transactionsList) {
+        if (!withDetails) {
+            return TransactionPageAssembler.withoutDetails(transactionsList);
+        }
+        return TransactionPageAssembler.assemble(transactionsList, fetchTransactionDetails(transactionsList));
+    }
+
+    /**
+     * @return Detail rows of the page, ordered by {@code masterTxnId}
+     */
+    private List<TransactionDetailRow> fetchTransactionDetails(List<TransactionsDto> transactionsList) {
         if (transactionsList.isEmpty()) {
-            return Map.of();
+            return List.of();
         }
 
         List<Long> txnIds = transactionsList.stream()
                 .map(TransactionsDto::txnId)
                 .toList();
 
-        List<TransactionDetailRow> details = transactionRepository.findDetailsForTransactions(txnIds);
-
-        if (details.isEmpty()) {
-            return Map.of();
-        }
-
-        return details.stream()
-                .collect(Collectors.groupingBy(
-                        TransactionDetailRow::masterTxnId,
-                        Collectors.mapping(
-                                row -> new TransactionDetailDto(
-                                        row.detailId(),
-                                        row.type(),
-                                        row.amount(),
-                                        row.description()
-                                ),
-                                Collectors.toList()
-                        )
-                ));
+        return transactionRepository.findDetailsForTransactions(txnIds);
     }
 
-    private List<TransactionDtoWithDetails> buildTransactionList(List<TransactionsDto> transactionsList, Map<Long, List<TransactionDetailDto>> detailsGrouped) {
-        return transactionsList.stream()
+    /**
+     * Rows from the json_agg queries; the details JSON is handed to the response as is.
+     */
+    private List<TransactionDtoWithDetails> toTransactionList(List<TransactionWithDetailsRow> rows) {
+        return rows.stream()
                 .map(t -> new TransactionDtoWithDetails(
                         t.txnId(),
                         t.amount(),
@@ -156,18 +199,50 @@ public class TransactionServiceImpl implements TransactionService {
                         t.cardLast4(),
                         t.acquirer(),
                         t.issuer(),
-                        detailsGrouped.getOrDefault(t.txnId(), List.of())
+                        TransactionDetails.ofJson(t.details())
                 ))
                 .collect(Collectors.toList());
     }
 
-    private Pagination toPaginationInfo(int page, int size, int totalElements) {
+    private static boolean parseDetailsMode(String detailsMode) {
+        switch (detailsMode.trim().toLowerCase()) {
+            case "json-agg":
+                return true;
+            case "grouped":
+                return false;
+            default:
+                throw new IllegalArgumentException("Unknown payment.transactions.details-mode: " + detailsMode);
+        }
+    }
+
+    /**
+     * @param rowsOnPage Rows returned for this page, at most {@code size}
+     */
+    static Pagination toPaginationInfo(int page, int size, int rowsOnPage, TransactionCount totalCount, boolean hasNext) {
+        if (totalCount == null) {
+            return PaginationBuilder.builder()
+                    .page(page)
+                    .size(size)
+                    .hasNext(hasNext)
+                    .build();
+        }
+        long seen = (long) page * size + rowsOnPage + (hasNext ? 1 : 0);
+        if (!hasNext && (rowsOnPage > 0 || page == 0)) {
+            // The last page pins the total down, whatever the count said
+            totalCount = new TransactionCount(seen, true);
+        } else if (!totalCount.exact()) {
+            // An estimate can be below what has already been seen; never report fewer than that
+            totalCount = new TransactionCount(Math.max(totalCount.total(), seen), false);
+        }
+        int totalElements = (int) Math.min(Integer.MAX_VALUE, totalCount.total());
         int totalPages = totalElements > 0 ? (int) Math.ceil((double) totalElements / size) : 0;
         return PaginationBuilder.builder()
                 .page(page)
                 .size(size)
                 .totalPages(totalPages)
                 .totalElements(totalElements)
+                .totalAccuracy(totalCount.exact() ? "exact" : "estimated")
+                .hasNext(hasNext)
                 .build();
     }
 
@@ -1,6 +1,11 @@
 package com.payment.services;
 
+import com.payment.payloads.BulkUpdateMerchantPayload;
 import com.payment.payloads.CreateMerchantPayload;
+import com.payment.payloads.MerchantAutocompleteRequestPayload;
+import com.payment.payloads.MerchantImportPayload;
+import com.payment.payloads.MerchantLookupRequestPayload;
+import com.payment.payloads.MerchantSearchRequestPayload;
 import com.payment.payloads.UpdateMerchantPayload;
 import com.payment.payloads.UpdateMerchantPayloadWithMerchantId;
 import com.payment.responses.*;
@@ -13,9 +18,19 @@ public interface MerchantService {
 
     MerchantDetailsResponse getMerchantDetails(String merchantId);
 
+    MerchantSearchResponse searchMerchants(MerchantSearchRequestPayload merchantSearchRequestPayload);
+
+    MerchantAutocompleteResponse autocompleteMerchants(MerchantAutocompleteRequestPayload merchantAutocompleteRequestPayload);
+
+    MerchantLookupResponse lookupMerchants(MerchantLookupRequestPayload merchantLookupRequestPayload);
+
     CreateMerchantResponse createNewMerchant(CreateMerchantPayload createMerchantPayload);
 
+    MerchantImportResponse importMerchants(MerchantImportPayload merchantImportPayload);
+
     UpdateMerchantResponse updateMerchant(UpdateMerchantPayloadWithMerchantId updateMerchantPayload);
 
+    BulkUpdateMerchantResponse bulkUpdateMerchants(BulkUpdateMerchantPayload bulkUpdateMerchantPayload);
+
     DeleteMerchantResponse deleteMerchant(String merchantId);
 }
@@ -0,0 +1,16 @@
+package com.payment.services;
+
+import com.payment.payloads.TransactionRequestPayload;
+
+public interface ResourceVersionService {
+
+    /**
+     * @return strong ETag of the transaction page described by the request
+     */
+    String transactionsETag(TransactionRequestPayload request);
+
+    /**
+     * @return strong ETag of the merchant profile, or {@code null} if the merchant does not exist
+     */
+    String merchantETag(String merchantId);
+}
@@ -0,0 +1,13 @@
+package com.payment.services;
+
+import com.payment.payloads.SettlementReportRequestPayload;
+import com.payment.responses.SettlementReportResponse;
+
+import java.time.LocalDate;
+
+public interface SettlementReportService {
+
+    SettlementReportResponse fetchSettlementReport(SettlementReportRequestPayload request);
+
+    long closeDaysBefore(LocalDate cutoff);
+}
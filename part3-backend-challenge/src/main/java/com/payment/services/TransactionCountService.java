@@ -0,0 +1,12 @@
+package com.payment.services;
+
+import com.payment.dto.transactionDto.TransactionCount;
+import com.payment.enums.TotalCountMode;
+
+public interface TransactionCountService {
+
+    /**
+     * @return Number of the merchant's transactions in the range, or {@code null} for {@link TotalCountMode#none}
+     */
+    TransactionCount countTransactions(String merchantId, String start, String end, TotalCountMode mode);
+}
@@ -1,10 +1,15 @@
 package com.payment.services;
 
+import com.payment.dto.transactionDto.TransactionDtoWithDetails;
 import com.payment.payloads.TransactionRequestPayload;
 import com.payment.responses.CreateTransactionResponse;
 import com.payment.responses.TransactionResponse;
 
+import java.util.List;
+
 public interface TransactionService {
 
     TransactionResponse fetchTransactionsList(TransactionRequestPayload request);
+
+    List<TransactionDtoWithDetails> fetchTransactionsAfter(TransactionRequestPayload request, long afterTxnId, int limit);
 }
@@ -0,0 +1,39 @@
+package com.payment.usecases;
+
+import com.payment.payloads.TransactionRequestPayload;
+import com.payment.services.ResourceVersionService;
+import com.payment.support.Result;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Singleton
+public class ResourceVersionUseCase {
+
+    private final Logger logger = LoggerFactory.getLogger(ResourceVersionUseCase.class);
+    private final ResourceVersionService resourceVersionService;
+
+    @Inject
+    public ResourceVersionUseCase(ResourceVersionService resourceVersionService) {
+        this.resourceVersionService = resourceVersionService;
+    }
+
+    public Result<String> transactionsETag(TransactionRequestPayload request) {
+        try {
+            return Result.ok(this.resourceVersionService.transactionsETag(request));
+        } catch (Exception e) {
+            logger.warn("Could not compute transactions ETag: " + e.getMessage());
+            return Result.fail(new Error("Could not compute ETag: " + e.getMessage()));
+        }
+    }
+
+    public Result<String> merchantETag(String merchantId) {
+        try {
+            return Result.ok(this.resourceVersionService.merchantETag(merchantId));
+        } catch (Exception e) {
+            logger.warn("Could not compute merchant ETag: " + e.getMessage());
+            return Result.fail(new Error("Could not compute ETag: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.payment.usecases;
+
+import com.payment.services.SettlementReportService;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Closes a settlement day once {@code payment.settlement.close-after-days} further days have ended. A closed day's
+ * totals no longer change, so reports over past months are stable; late corrections stay visible as
+ * {@code lateAmount}/{@code lateCount}.
+ */
+@Singleton
+public class SettlementClosingJob {
+
+    private final Logger logger = LoggerFactory.getLogger(SettlementClosingJob.class);
+    private final SettlementReportService settlementReportService;
+    private final int closeAfterDays;
+
+    @Inject
+    public SettlementClosingJob(SettlementReportService settlementReportService,
+                                @Value("${payment.settlement.close-after-days:1}") int closeAfterDays) {
+        this.settlementReportService = settlementReportService;
+        this.closeAfterDays = closeAfterDays;
+    }
+
+    @Scheduled(cron = "${payment.settlement.close-cron:0 15 0 * * *}")
+    void closeFinishedDays() {
+        // txn_date is a UTC date, see DateUtils and CreateTransactionServiceImpl
+        LocalDate cutoff = LocalDate.now(ZoneOffset.UTC).minusDays(closeAfterDays);
+        try {
+            long closed = settlementReportService.closeDaysBefore(cutoff);
+            if (closed > 0) {
+                logger.info("Closed {} settlement aggregates before {}", closed, cutoff);
+            }
+        } catch (Exception e) {
+            // Retried on the next run; open days simply keep accumulating until then
+            logger.warn("Closing settlement days before {} failed: {}", cutoff, e.getMessage());
+        }
+    }
+}
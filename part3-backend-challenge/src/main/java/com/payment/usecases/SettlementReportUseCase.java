@@ -0,0 +1,35 @@
+package com.payment.usecases;
+
+import com.payment.payloads.SettlementReportRequestPayload;
+import com.payment.responses.SettlementReportResponse;
+import com.payment.services.SettlementReportService;
+import com.payment.support.Result;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Singleton
+public class SettlementReportUseCase implements UseCase<SettlementReportRequestPayload, SettlementReportResponse> {
+
+    private final Logger logger = LoggerFactory.getLogger(SettlementReportUseCase.class);
+    private final SettlementReportService settlementReportService;
+
+    @Inject
+    public SettlementReportUseCase(SettlementReportService settlementReportService) {
+        this.settlementReportService = settlementReportService;
+    }
+
+    @Override
+    public Result<SettlementReportResponse> execute(UseCaseContext context, SettlementReportRequestPayload request) {
+        try {
+            return Result.ok(this.settlementReportService.fetchSettlementReport(request));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid argument: " + e.getMessage());
+            return Result.fail(new Error("Invalid argument: " + e.getMessage()));
+        } catch (Exception e) {
+            logger.warn("Error fetching settlement report: " + e.getMessage());
+            return Result.fail(new Error("Failed to fetch settlement report: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.payment.usecases;
+
+import com.payment.dto.transactionDto.TransactionDtoWithDetails;
+import com.payment.helpers.DateUtils;
+import com.payment.payloads.TransactionRequestPayload;
+import com.payment.services.TransactionService;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.function.Function;
+
+@Singleton
+public class TransactionExportUseCase {
+
+    private final TransactionService transactionService;
+    private final int chunkSize;
+
+    @Inject
+    public TransactionExportUseCase(TransactionService transactionService,
+                                    @Value("${payment.export.chunk-size:500}") int chunkSize) {
+        this.transactionService = transactionService;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * All matching transactions of the merchant in {@code txn_id} order.
+     * <p>
+     * Rows are read in keyset chunks only as the client consumes them, so a slow reader holds neither a
+     * database connection nor more than one chunk in memory.
+     */
+    public Flux<TransactionDtoWithDetails> execute(TransactionRequestPayload request) {
+        if (request.merchantId() == null || request.merchantId().isEmpty()) {
+            throw new IllegalArgumentException("merchantId is required");
+        }
+        // Fail before the response starts rather than halfway through the stream
+        try {
+            request.startDate().ifPresent(DateUtils::toIsoUtcStart);
+            request.endDate().ifPresent(DateUtils::toIsoUtcEnd);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + e.getParsedString());
+        }
+
+        return Flux.<List<TransactionDtoWithDetails>, Long>generate(() -> 0L, (afterTxnId, sink) -> {
+                    List<TransactionDtoWithDetails> chunk =
+                            transactionService.fetchTransactionsAfter(request, afterTxnId, chunkSize);
+                    if (chunk.isEmpty()) {
+                        sink.complete();
+                        return afterTxnId;
+                    }
+                    sink.next(chunk);
+                    if (chunk.size() < chunkSize) {
+                        sink.complete();
+                    }
+                    return chunk.get(chunk.size() - 1).txnId();
+                })
+                .concatMapIterable(Function.identity(), 1)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,43 @@
+package com.payment.usecases;
+
+import com.payment.events.TransactionEventBus;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.sse.Event;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+
+@Singleton
+public class TransactionStreamUseCase {
+
+    private final TransactionEventBus transactionEventBus;
+    private final Duration heartbeatInterval;
+
+    @Inject
+    public TransactionStreamUseCase(TransactionEventBus transactionEventBus,
+                                    @Value("${payment.stream.heartbeat-interval:15s}") Duration heartbeatInterval) {
+        this.transactionEventBus = transactionEventBus;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    /**
+     * New transactions of the merchant as SSE events, interleaved with heartbeats that keep idle proxies from
+     * closing the connection.
+     */
+    public Flux<Event<Object>> execute(String merchantId) {
+        Flux<Event<Object>> transactions = transactionEventBus.subscribe(merchantId)
+                .map(event -> Event.<Object>of(event)
+                        .id(String.valueOf(event.txnId()))
+                        .name("transaction"))
+                .share();
+
+        Flux<Event<Object>> heartbeats = Flux.interval(heartbeatInterval)
+                .map(tick -> Event.<Object>of("").name("heartbeat"))
+                // Stop heartbeating once the subscriber has been evicted
+                .takeUntilOther(transactions.then());
+
+        return Flux.merge(transactions, heartbeats);
+    }
+}
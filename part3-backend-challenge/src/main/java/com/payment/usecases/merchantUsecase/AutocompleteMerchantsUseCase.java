@@ -0,0 +1,37 @@
+package com.payment.usecases.merchantUsecase;
+
+import com.payment.payloads.MerchantAutocompleteRequestPayload;
+import com.payment.responses.MerchantAutocompleteResponse;
+import com.payment.services.MerchantService;
+import com.payment.support.Result;
+import com.payment.usecases.UseCase;
+import com.payment.usecases.UseCaseContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Singleton
+public class AutocompleteMerchantsUseCase implements UseCase<MerchantAutocompleteRequestPayload, MerchantAutocompleteResponse> {
+
+    private final Logger logger = LoggerFactory.getLogger(AutocompleteMerchantsUseCase.class);
+    private final MerchantService merchantService;
+
+    @Inject
+    public AutocompleteMerchantsUseCase(MerchantService merchantService) {
+        this.merchantService = merchantService;
+    }
+
+    @Override
+    public Result<MerchantAutocompleteResponse> execute(UseCaseContext context, MerchantAutocompleteRequestPayload request) {
+        try {
+            return Result.ok(this.merchantService.autocompleteMerchants(request));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid argument: " + e.getMessage());
+            return Result.fail(new Error("Invalid argument: " + e.getMessage()));
+        } catch (Exception e) {
+            logger.warn("Error autocompleting merchant names: " + e.getMessage());
+            return Result.fail(new Error("Failed to autocomplete merchant names: " + e.getMessage()));
+        }
+    }
+}
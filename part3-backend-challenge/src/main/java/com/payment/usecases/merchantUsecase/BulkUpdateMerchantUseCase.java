@@ -0,0 +1,37 @@
+package com.payment.usecases.merchantUsecase;
+
+import com.payment.payloads.BulkUpdateMerchantPayload;
+import com.payment.responses.BulkUpdateMerchantResponse;
+import com.payment.services.MerchantService;
+import com.payment.support.Result;
+import com.payment.usecases.UseCase;
+import com.payment.usecases.UseCaseContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Singleton
+public class BulkUpdateMerchantUseCase implements UseCase<BulkUpdateMerchantPayload, BulkUpdateMerchantResponse> {
+
+    private final Logger logger = LoggerFactory.getLogger(BulkUpdateMerchantUseCase.class);
+    private final MerchantService merchantService;
+
+    @Inject
+    public BulkUpdateMerchantUseCase(MerchantService merchantService) {
+        this.merchantService = merchantService;
+    }
+
+    @Override
+    public Result<BulkUpdateMerchantResponse> execute(UseCaseContext context, BulkUpdateMerchantPayload request) {
+        try {
+            return Result.ok(this.merchantService.bulkUpdateMerchants(request));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid argument: " + e.getMessage());
+            return Result.fail(new Error("Invalid argument: " + e.getMessage()));
+        } catch (Exception e) {
+            logger.warn("Error updating merchants: " + e.getMessage());
+            return Result.fail(new Error("Failed to update merchants: " + e.getMessage()));
+        }
+    }
+}
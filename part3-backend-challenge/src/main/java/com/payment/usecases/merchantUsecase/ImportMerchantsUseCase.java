@@ -0,0 +1,37 @@
+package com.payment.usecases.merchantUsecase;
+
+import com.payment.payloads.MerchantImportPayload;
+import com.payment.responses.MerchantImportResponse;
+import com.payment.services.MerchantService;
+import com.payment.support.Result;
+import com.payment.usecases.UseCase;
+import com.payment.usecases.UseCaseContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Singleton
+public class ImportMerchantsUseCase implements UseCase<MerchantImportPayload, MerchantImportResponse> {
+
+    private final Logger logger = LoggerFactory.getLogger(ImportMerchantsUseCase.class);
+    private final MerchantService merchantService;
+
+    @Inject
+    public ImportMerchantsUseCase(MerchantService merchantService) {
+        this.merchantService = merchantService;
+    }
+
+    @Override
+    public Result<MerchantImportResponse> execute(UseCaseContext context, MerchantImportPayload request) {
+        try {
+            return Result.ok(this.merchantService.importMerchants(request));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid argument: " + e.getMessage());
+            return Result.fail(new Error("Invalid argument: " + e.getMessage()));
+        } catch (Exception e) {
+            logger.warn("Error importing merchants: " + e.getMessage());
+            return Result.fail(new Error("Failed to import merchants: " + e.getMessage()));
+        }
+    }
+}
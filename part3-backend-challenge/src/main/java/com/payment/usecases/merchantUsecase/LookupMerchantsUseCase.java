@@ -0,0 +1,37 @@
+package com.payment.usecases.merchantUsecase;
+
+import com.payment.payloads.MerchantLookupRequestPayload;
+import com.payment.responses.MerchantLookupResponse;
+import com.payment.services.MerchantService;
+import com.payment.support.Result;
+import com.payment.usecases.UseCase;
+import com.payment.usecases.UseCaseContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Singleton
+public class LookupMerchantsUseCase implements UseCase<MerchantLookupRequestPayload, MerchantLookupResponse> {
+
+    private final Logger logger = LoggerFactory.getLogger(LookupMerchantsUseCase.class);
+    private final MerchantService merchantService;
+
+    @Inject
+    public LookupMerchantsUseCase(MerchantService merchantService) {
+        this.merchantService = merchantService;
+    }
+
+    @Override
+    public Result<MerchantLookupResponse> execute(UseCaseContext context, MerchantLookupRequestPayload request) {
+        try {
+            return Result.ok(this.merchantService.lookupMerchants(request));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid argument: " + e.getMessage());
+            return Result.fail(new Error("Invalid argument: " + e.getMessage()));
+        } catch (Exception e) {
+            logger.warn("Error looking up merchants: " + e.getMessage());
+            return Result.fail(new Error("Failed to look up merchants: " + e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.payment.usecases.merchantUsecase;
+
+import com.payment.payloads.MerchantSearchRequestPayload;
+import com.payment.responses.MerchantSearchResponse;
+import com.payment.services.MerchantService;
+import com.payment.support.Result;
+import com.payment.usecases.UseCase;
+import com.payment.usecases.UseCaseContext;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Singleton
+public class SearchMerchantsUseCase implements UseCase<MerchantSearchRequestPayload, MerchantSearchResponse> {
+
+    private final Logger logger = LoggerFactory.getLogger(SearchMerchantsUseCase.class);
+    private final MerchantService merchantService;
+
+    @Inject
+    public SearchMerchantsUseCase(MerchantService merchantService) {
+        this.merchantService = merchantService;
+    }
+
+    @Override
+    public Result<MerchantSearchResponse> execute(UseCaseContext context, MerchantSearchRequestPayload request) {
+        try {
+            return Result.ok(this.merchantService.searchMerchants(request));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid argument: " + e.getMessage());
+            return Result.fail(new Error("Invalid argument: " + e.getMessage()));
+        } catch (Exception e) {
+            logger.warn("Error searching merchants: " + e.getMessage());
+            return Result.fail(new Error("Failed to search merchants: " + e.getMessage()));
+        }
+    }
+}
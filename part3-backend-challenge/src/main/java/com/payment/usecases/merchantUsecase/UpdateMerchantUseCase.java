@@ -24,7 +24,11 @@ public class UpdateMerchantUseCase implements UseCase<UpdateMerchantPayloadWithM
 
     @Override
     public Result<UpdateMerchantResponse> execute(UseCaseContext context, UpdateMerchantPayloadWithMerchantId request) {
-        var result =  this.merchantService.updateMerchant(request);
-        return Result.ok(result);
+        try {
+            var result =  this.merchantService.updateMerchant(request);
+            return Result.ok(result);
+        } catch (IllegalArgumentException e) {
+            return Result.fail(new Error("Invalid argument: " + e.getMessage()));
+        }
     }
 }
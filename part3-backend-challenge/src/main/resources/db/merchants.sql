@@ -0,0 +1,88 @@
+-- ============================================================================
+-- MERCHANTS SCHEMA (Backend API)
+-- Objects the backend relies on in merchants.merchants; apply after the table exists
+-- ============================================================================
+
+CREATE EXTENSION IF NOT EXISTS "pg_trgm";
+
+-- ============================================================================
+-- Search: GET /api/v1/merchants/search
+-- ============================================================================
+
+-- Name matching for search: ILIKE '%q%' / 'q%' and the % similarity operator all use this index
+CREATE INDEX IF NOT EXISTS idx_merchants_name_trgm ON merchants.merchants USING GIN (merchant_name gin_trgm_ops);
+
+-- Tag filters (merchant_tags @> ARRAY[...]); merchant_tags is text[]
+CREATE INDEX IF NOT EXISTS idx_merchants_tags ON merchants.merchants USING GIN (merchant_tags);
+
+-- ============================================================================
+-- Cache invalidation: merchant_changed channel
+-- ============================================================================
+
+-- Sends the id of every inserted, updated or deleted merchant on merchant_changed. Notifications are
+-- delivered when the writing transaction commits and duplicates within it are folded by Postgres.
+-- Statements touching more than 100 rows send '*' instead, and listeners drop their whole cache.
+CREATE OR REPLACE FUNCTION merchants.notify_merchant_changed() RETURNS TRIGGER AS $$
+BEGIN
+    IF (SELECT COUNT(*) FROM changed_merchants) > 100 THEN
+        PERFORM pg_notify('merchant_changed', '*');
+    ELSE
+        PERFORM pg_notify('merchant_changed', merchant_id::TEXT) FROM changed_merchants;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Statement-level, so bulk writes notify once per statement rather than once per row.
+-- A trigger with a transition table covers a single event, hence three of them.
+DROP TRIGGER IF EXISTS trg_merchants_notify_insert ON merchants.merchants;
+CREATE TRIGGER trg_merchants_notify_insert
+    AFTER INSERT ON merchants.merchants
+    REFERENCING NEW TABLE AS changed_merchants
+    FOR EACH STATEMENT EXECUTE FUNCTION merchants.notify_merchant_changed();
+
+-- Updates compare old and new rows so that order counter flushes, which only touch num_orders and
+-- num_orders_as_of, do not notify. Those send merchant_id:num_orders pairs on merchant_orders_changed
+-- instead, one notification per 300 merchants in a flush (see MerchantCounterRepository).
+CREATE OR REPLACE FUNCTION merchants.notify_merchant_updated() RETURNS TRIGGER AS $$
+DECLARE
+    changed INTEGER[];
+BEGIN
+    SELECT array_agg(n.merchant_id) INTO changed
+    FROM new_merchants n
+    JOIN old_merchants o ON o.merchant_id = n.merchant_id
+    WHERE to_jsonb(n) - 'num_orders' - 'num_orders_as_of' IS DISTINCT FROM to_jsonb(o) - 'num_orders' - 'num_orders_as_of';
+    IF cardinality(changed) > 100 THEN
+        PERFORM pg_notify('merchant_changed', '*');
+    ELSIF changed IS NOT NULL THEN
+        PERFORM pg_notify('merchant_changed', id::TEXT) FROM unnest(changed) AS id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_merchants_notify_update ON merchants.merchants;
+CREATE TRIGGER trg_merchants_notify_update
+    AFTER UPDATE ON merchants.merchants
+    REFERENCING OLD TABLE AS old_merchants NEW TABLE AS new_merchants
+    FOR EACH STATEMENT EXECUTE FUNCTION merchants.notify_merchant_updated();
+
+DROP TRIGGER IF EXISTS trg_merchants_notify_delete ON merchants.merchants;
+CREATE TRIGGER trg_merchants_notify_delete
+    AFTER DELETE ON merchants.merchants
+    REFERENCING OLD TABLE AS changed_merchants
+    FOR EACH STATEMENT EXECUTE FUNCTION merchants.notify_merchant_changed();
+
+-- ============================================================================
+-- Order counts: num_orders, maintained by MerchantOrderCounter
+-- ============================================================================
+
+-- Cutoff of the last reconciliation: num_orders counts the merchant's transactions created before it,
+-- plus the flushed counts of later seconds.
+ALTER TABLE merchants.merchants ADD COLUMN IF NOT EXISTS num_orders_as_of TIMESTAMPTZ;
+
+-- Maps a transaction_master.merchant_id code (MCH-00042) to merchants.merchant_id, or NULL.
+-- Keep in step with MerchantCodes.merchantIdOf.
+CREATE OR REPLACE FUNCTION merchants.merchant_id_of(code TEXT) RETURNS INTEGER AS $$
+    SELECT CAST(substring(code FROM '^(?:MCH-)?0*([0-9]{1,9})$') AS INTEGER);
+$$ LANGUAGE sql IMMUTABLE;
@@ -0,0 +1,119 @@
+package com.payment.benchmark;
+
+import com.payment.config.CorsFilter;
+import com.payment.config.CorsProperties;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.filter.ServerFilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request overhead of the CORS layer: the previous Flux/doOnNext filter against the precomputed one.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="CorsFilterBenchmark"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CorsFilterBenchmark {
+
+    private static final String ORIGIN = "http://localhost:3000";
+
+    private final ServerFilterChain chain = request -> Mono.just(HttpResponse.ok());
+
+    private LegacyCorsFilter legacyFilter;
+    private CorsFilter corsFilter;
+    private HttpRequest<?> plainRequest;
+    private HttpRequest<?> corsRequest;
+    private HttpRequest<?> preflightRequest;
+
+    @Setup
+    public void setUp() {
+        CorsProperties properties = new CorsProperties();
+        properties.setAllowedOrigins(List.of(ORIGIN, "http://localhost:5173"));
+        properties.setAllowedHeaders(List.of("Content-Type", "Authorization", "Accept", "Origin"));
+        properties.setExposedHeaders(List.of("Authorization", "Content-Type"));
+
+        legacyFilter = new LegacyCorsFilter();
+        corsFilter = new CorsFilter(properties);
+        plainRequest = HttpRequest.GET("/api/v1/merchants/1/transactions");
+        corsRequest = HttpRequest.GET("/api/v1/merchants/1/transactions").header("Origin", ORIGIN);
+        preflightRequest = HttpRequest.create(HttpMethod.OPTIONS, "/api/v1/merchants/1/transactions")
+                .header("Origin", ORIGIN)
+                .header("Access-Control-Request-Method", "GET");
+    }
+
+    @Benchmark
+    public Object legacyPlainRequest() {
+        return Mono.from(legacyFilter.doFilter(plainRequest, chain)).block();
+    }
+
+    @Benchmark
+    public Object legacyCorsRequest() {
+        return Mono.from(legacyFilter.doFilter(corsRequest, chain)).block();
+    }
+
+    @Benchmark
+    public Object legacyPreflight() {
+        return Mono.from(legacyFilter.doFilter(preflightRequest, chain)).block();
+    }
+
+    @Benchmark
+    public Object plainRequest() {
+        return Mono.from(corsFilter.doFilter(plainRequest, chain)).block();
+    }
+
+    @Benchmark
+    public Object corsRequest() {
+        return Mono.from(corsFilter.doFilter(corsRequest, chain)).block();
+    }
+
+    @Benchmark
+    public Object preflight() {
+        return Mono.from(corsFilter.doFilter(preflightRequest, chain)).block();
+    }
+
+    /**
+     * Copy of the filter as it was before it became configuration driven.
+     */
+    static class LegacyCorsFilter {
+
+        Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+            if (request.getMethod() == HttpMethod.OPTIONS) {
+                return Flux.just(
+                        HttpResponse.ok()
+                                .header("Access-Control-Allow-Origin", "http://localhost:3000")
+                                .header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS, HEAD")
+                                .header("Access-Control-Allow-Headers", "*")
+                                .header("Access-Control-Expose-Headers", "*")
+                                .header("Access-Control-Allow-Credentials", "true")
+                                .header("Access-Control-Max-Age", "3600")
+                );
+            }
+
+            return Flux.from(chain.proceed(request))
+                    .doOnNext(response -> {
+                        response.header("Access-Control-Allow-Origin", "http://localhost:3000");
+                        response.header("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS, HEAD");
+                        response.header("Access-Control-Allow-Headers", "*");
+                        response.header("Access-Control-Expose-Headers", "*");
+                        response.header("Access-Control-Allow-Credentials", "true");
+                        response.header("Access-Control-Max-Age", "3600");
+                    });
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.payment.benchmark;
+
+import com.payment.dto.transactionDto.TransactionDetailDto;
+import com.payment.dto.transactionDto.TransactionDetailRow;
+import com.payment.dto.transactionDto.TransactionDetails;
+import com.payment.dto.transactionDto.TransactionDtoWithDetails;
+import com.payment.dto.transactionDto.TransactionsDto;
+import com.payment.helpers.DateUtils;
+import com.payment.helpers.TransactionPageAssembler;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Attaching detail rows to a transaction page: the previous {@code groupingBy} into boxed-key lists against
+ * {@link TransactionPageAssembler}. Five details per transaction, as in production.
+ * <p>
+ * Allocation is the figure of interest ({@code gc.alloc.rate.norm}, bytes per page), so run with the GC profiler:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="TransactionPageAssemblyBenchmark -prof gc"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TransactionPageAssemblyBenchmark {
+
+    private static final int DETAILS_PER_TRANSACTION = 5;
+    private static final String[] DETAIL_TYPES = {"fee", "tax", "adjustment", "refund", "chargeback"};
+
+    @Param({"20", "500", "5000"})
+    public int pageSize;
+
+    private List<TransactionsDto> rows;
+    private List<TransactionDetailRow> details;
+
+    @Setup
+    public void setUp() {
+        rows = new ArrayList<>(pageSize);
+        details = new ArrayList<>(pageSize * DETAILS_PER_TRANSACTION);
+        long firstTxnId = 4_000_000L;
+        for (int i = 0; i < pageSize; i++) {
+            long txnId = firstTxnId + i * 7L;
+            rows.add(new TransactionsDto(txnId, new BigDecimal("125.50"), "USD", "completed",
+                    "Mon, 17 Nov 2025 10:15:30 UTC", "visa", "4242", "Acquirer " + (i % 10), "Issuer " + (i % 20)));
+            for (int d = 0; d < DETAILS_PER_TRANSACTION; d++) {
+                details.add(new TransactionDetailRow(txnId * 10 + d, txnId, DETAIL_TYPES[d],
+                        new BigDecimal("2.50"), "detail " + d));
+            }
+        }
+    }
+
+    @Benchmark
+    public List<TransactionDtoWithDetails> groupingBy() {
+        Map<Long, List<TransactionDetailDto>> grouped = details.stream()
+                .collect(Collectors.groupingBy(
+                        TransactionDetailRow::masterTxnId,
+                        Collectors.mapping(
+                                row -> new TransactionDetailDto(row.detailId(), row.type(), row.amount(), row.description()),
+                                Collectors.toList())));
+        return rows.stream()
+                .map(t -> new TransactionDtoWithDetails(t.txnId(), t.amount(), t.currency(), t.status(),
+                        DateUtils.parseToIsoUtc(t.timestamp()), t.cardType(), t.cardLast4(), t.acquirer(), t.issuer(),
+                        TransactionDetails.of(grouped.getOrDefault(t.txnId(), List.of()))))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<TransactionDtoWithDetails> assembler() {
+        return TransactionPageAssembler.assemble(rows, details);
+    }
+}
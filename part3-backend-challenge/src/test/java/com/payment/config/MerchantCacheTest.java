@@ -0,0 +1,84 @@
+package com.payment.config;
+
+import com.payment.entity.Merchant;
+import com.payment.repository.MerchantRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link MerchantCache} against a repository that counts its loads.
+ */
+public class MerchantCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final MerchantCache cache = new MerchantCache(repository(), 100, Duration.ofMinutes(10),
+            Duration.ofSeconds(30));
+
+    @Test
+    public void newCountReplacesTheCachedCountWithoutAReload() {
+        Merchant loaded = cache.find(7).orElseThrow();
+
+        cache.numOrdersChanged(7, 12);
+        Merchant updated = cache.find(7).orElseThrow();
+
+        assertEquals(1, loads.get());
+        assertEquals(12, updated.getNumOrders());
+        assertEquals(loaded.getMerchantName(), updated.getMerchantName());
+        assertEquals(loaded.getLastUpdated(), updated.getLastUpdated());
+        // Callers may still hold the instance handed out before
+        assertEquals(3, loaded.getNumOrders());
+    }
+
+    @Test
+    public void newCountOfAnUncachedMerchantIsNotLoaded() {
+        cache.numOrdersChanged(7, 12);
+
+        assertEquals(0, loads.get());
+        assertEquals(3, cache.find(7).orElseThrow().getNumOrders());
+    }
+
+    @Test
+    public void newCountKeepsUnknownIdsUnknown() {
+        assertTrue(cache.find(404).isEmpty());
+        cache.numOrdersChanged(404, 1);
+
+        assertTrue(cache.find(404).isEmpty());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void otherChangesStillEvict() {
+        cache.find(7);
+        cache.merchantChanged(7);
+        cache.find(7);
+
+        assertEquals(2, loads.get());
+    }
+
+    private MerchantRepository repository() {
+        return (MerchantRepository) Proxy.newProxyInstance(MerchantRepository.class.getClassLoader(),
+                new Class<?>[]{MerchantRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findByMerchantId")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    loads.incrementAndGet();
+                    int merchantId = (Integer) args[0];
+                    if (merchantId == 404) {
+                        return null;
+                    }
+                    Merchant merchant = new Merchant();
+                    merchant.setMerchantId(merchantId);
+                    merchant.setMerchantName("Merchant " + merchantId);
+                    merchant.setLastUpdated(Instant.parse("2024-01-01T00:00:00Z"));
+                    merchant.setNumOrders(3);
+                    return merchant;
+                });
+    }
+}
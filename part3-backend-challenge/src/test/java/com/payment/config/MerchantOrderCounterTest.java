@@ -0,0 +1,214 @@
+package com.payment.config;
+
+import com.payment.dto.merchantDto.MerchantOrderDelta;
+import com.payment.repository.MerchantCounterRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Flushing of {@link MerchantOrderCounter} against a repository that records the deltas it is given.
+ */
+public class MerchantOrderCounterTest {
+
+    private final RecordingRepository repository = new RecordingRepository();
+    private final MerchantOrderCounter counter = new MerchantOrderCounter(repository,
+            new MerchantCache(null, 100, Duration.ofMinutes(10), Duration.ofSeconds(30)), Duration.ZERO, false);
+
+    @Test
+    public void ordersRecordedDuringFlushesAreNeitherLostNorCountedTwice() throws Exception {
+        int threads = 4;
+        int ordersPerThread = 50_000;
+        int merchants = 8;
+        // Settled seconds, so flushed slots are removed while orders for them keep arriving
+        Instant old = Instant.now().minusSeconds(1_000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> recorders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                recorders.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ordersPerThread; i++) {
+                        counter.recordOrder("MCH-" + (1 + i % merchants), old.plusSeconds(i % 3));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            repository.failEvery(5);
+            while (!recorders.stream().allMatch(Future::isDone)) {
+                counter.flushOnShutdown();
+            }
+            for (Future<?> recorder : recorders) {
+                recorder.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        repository.failEvery(0);
+        counter.flushOnShutdown();
+
+        assertEquals((long) threads * ordersPerThread, repository.total());
+        Map<Integer, Long> perMerchant = repository.perMerchant();
+        for (int merchantId = 1; merchantId <= merchants; merchantId++) {
+            assertEquals((long) threads * ordersPerThread / merchants, perMerchant.getOrDefault(merchantId, 0L).longValue(),
+                    "merchant " + merchantId);
+        }
+        assertEquals(0L, counter.snapshot().get("pendingOrders"));
+        assertEquals(0, counter.snapshot().get("slots"));
+    }
+
+    @Test
+    public void failedFlushIsRetried() {
+        Instant now = Instant.now().minusSeconds(5);
+        counter.recordOrder("MCH-00042", now);
+        counter.recordOrder("MCH-00042", now);
+        counter.recordOrder("42", now);
+
+        repository.failEvery(1);
+        counter.flush();
+        assertEquals(0, repository.total());
+        assertEquals(3L, counter.snapshot().get("pendingOrders"));
+
+        repository.failEvery(0);
+        counter.flush();
+        assertEquals(3, repository.total());
+        assertEquals(List.of(new MerchantOrderDelta(42, now.getEpochSecond(), 3)), repository.deltas);
+    }
+
+    @Test
+    public void flushedOrdersAreNotSentAgain() {
+        Instant now = Instant.now().minusSeconds(5);
+        counter.recordOrder("MCH-7", now);
+        counter.flush();
+        counter.flush();
+        counter.recordOrder("MCH-7", now);
+        counter.flush();
+
+        assertEquals(List.of(new MerchantOrderDelta(7, now.getEpochSecond(), 1),
+                new MerchantOrderDelta(7, now.getEpochSecond(), 1)), repository.deltas);
+    }
+
+    @Test
+    public void flushedSlotsAreRemovedRightAway() {
+        Instant now = Instant.now().minusSeconds(5);
+        counter.recordOrder("MCH-7", now);
+        counter.recordOrder("MCH-8", now.minusSeconds(1));
+        assertEquals(2, counter.snapshot().get("slots"));
+
+        counter.flush();
+        assertEquals(0, counter.snapshot().get("slots"));
+
+        // A late order for the same second starts a new slot and is flushed on its own
+        counter.recordOrder("MCH-7", now);
+        counter.flush();
+        assertEquals(0, counter.snapshot().get("slots"));
+        assertEquals(3, repository.total());
+    }
+
+    @Test
+    public void failedFlushKeepsTheSlots() {
+        counter.recordOrder("MCH-7", Instant.now().minusSeconds(5));
+        repository.failEvery(1);
+        counter.flush();
+
+        assertEquals(1, counter.snapshot().get("slots"));
+    }
+
+    @Test
+    public void stripesOfOneMerchantAndSecondAreFlushedAsOneDelta() throws Exception {
+        Instant now = Instant.now().minusSeconds(5);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> recorders = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                recorders.add(executor.submit(() -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        counter.recordOrder("MCH-9", now);
+                    }
+                }));
+            }
+            for (Future<?> recorder : recorders) {
+                recorder.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        counter.flush();
+
+        assertEquals(List.of(new MerchantOrderDelta(9, now.getEpochSecond(), 8_000)), repository.deltas);
+    }
+
+    @Test
+    public void stripeCountIsAPowerOfTwoUpToSixteen() {
+        assertEquals(1, MerchantOrderCounter.stripes(1));
+        assertEquals(2, MerchantOrderCounter.stripes(2));
+        assertEquals(4, MerchantOrderCounter.stripes(3));
+        assertEquals(8, MerchantOrderCounter.stripes(8));
+        assertEquals(16, MerchantOrderCounter.stripes(12));
+        assertEquals(16, MerchantOrderCounter.stripes(64));
+    }
+
+    @Test
+    public void unsettledSecondsWaitAndUnknownCodesAreIgnored() {
+        MerchantOrderCounter settling = new MerchantOrderCounter(repository,
+                new MerchantCache(null, 100, Duration.ofMinutes(10), Duration.ofSeconds(30)), Duration.ofSeconds(30), false);
+        settling.recordOrder("MCH-3", Instant.now());
+        settling.recordOrder("not-a-merchant", Instant.now());
+        settling.flush();
+
+        assertTrue(repository.deltas.isEmpty());
+        assertEquals(1L, settling.snapshot().get("unknownMerchants"));
+        assertEquals(1L, settling.snapshot().get("pendingOrders"));
+    }
+
+    private static final class RecordingRepository extends MerchantCounterRepository {
+
+        private final List<MerchantOrderDelta> deltas = new ArrayList<>();
+        private int failEvery;
+        private int calls;
+
+        RecordingRepository() {
+            super(null);
+        }
+
+        synchronized void failEvery(int failEvery) {
+            this.failEvery = failEvery;
+        }
+
+        @Override
+        public synchronized void addOrders(List<MerchantOrderDelta> batch) {
+            if (failEvery > 0 && ++calls % failEvery == 0) {
+                throw new IllegalStateException("connection reset");
+            }
+            deltas.addAll(batch);
+        }
+
+        synchronized long total() {
+            return deltas.stream().mapToLong(MerchantOrderDelta::orders).sum();
+        }
+
+        synchronized Map<Integer, Long> perMerchant() {
+            Map<Integer, Long> orders = new HashMap<>();
+            for (MerchantOrderDelta delta : deltas) {
+                orders.merge(delta.merchantId(), delta.orders(), Long::sum);
+            }
+            return orders;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.payment.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Which paths {@link RateLimitFilter} treats as a merchant's transaction routes.
+ */
+public class RateLimitFilterTest {
+
+    @Test
+    public void merchantIdIsTakenFromTransactionRoutes() {
+        assertEquals("MCH-00042", RateLimitFilter.merchantIdForTransactions("/api/v1/merchants/MCH-00042/transactions"));
+        assertEquals("MCH-00042", RateLimitFilter.merchantIdForTransactions("/api/v1/merchants/MCH-00042/transactions/export"));
+        assertEquals("42", RateLimitFilter.merchantIdForTransactions("/api/v1/merchants/42/transactions/stream"));
+    }
+
+    @Test
+    public void otherSegmentsAreNotTransactionRoutes() {
+        assertNull(RateLimitFilter.merchantIdForTransactions("/api/v1/merchants/42/transactionsX"));
+        assertNull(RateLimitFilter.merchantIdForTransactions("/api/v1/merchants/42/transactions-archive/export"));
+        assertNull(RateLimitFilter.merchantIdForTransactions("/api/v1/merchants/42"));
+        assertNull(RateLimitFilter.merchantIdForTransactions("/api/v1/merchants//transactions"));
+        assertNull(RateLimitFilter.merchantIdForTransactions("/api/v1/other/42/transactions"));
+    }
+
+    @Test
+    public void onlyTheStreamRouteIsAStream() {
+        assertTrue(RateLimitFilter.isTransactionStream("/api/v1/merchants/42/transactions/stream", "42"));
+        assertFalse(RateLimitFilter.isTransactionStream("/api/v1/merchants/42/transactions/stream/x", "42"));
+        assertFalse(RateLimitFilter.isTransactionStream("/api/v1/merchants/42/transactions", "42"));
+        assertFalse(RateLimitFilter.isTransactionStream("/api/v1/merchants/42/transactions/stream", null));
+    }
+
+    @Test
+    public void onlyTheExportRouteIsAnExport() {
+        assertTrue(RateLimitFilter.isTransactionExport("/api/v1/merchants/42/transactions/export", "42"));
+        assertFalse(RateLimitFilter.isTransactionExport("/api/v1/merchants/42/transactions/exports", "42"));
+        assertFalse(RateLimitFilter.isTransactionExport("/api/v1/merchants/42/transactions/stream", "42"));
+        assertFalse(RateLimitFilter.isTransactionExport("/api/v1/merchants/42/transactions/export", null));
+    }
+}
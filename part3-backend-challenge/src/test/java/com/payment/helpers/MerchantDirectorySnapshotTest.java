@@ -0,0 +1,251 @@
+package com.payment.helpers;
+
+import com.payment.dto.merchantDto.MerchantDirectoryEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * {@link MerchantDirectorySnapshot#withChanges} must give the same snapshot as {@link MerchantDirectorySnapshot#build}
+ * over the resulting rows: same lookups, same autocomplete ranges in the same order.
+ */
+public class MerchantDirectorySnapshotTest {
+
+    @Test
+    public void insertsAreMergedIntoNameOrder() {
+        Map<Integer, MerchantDirectoryEntry> rows = rows(
+                entry(10, "Bravo", "active"),
+                entry(20, "Delta", "active"),
+                entry(30, "Foxtrot", "active"));
+        MerchantDirectorySnapshot snapshot = MerchantDirectorySnapshot.build(rows.values());
+
+        snapshot = apply(snapshot, rows, List.of(), List.of(
+                entry(5, "Alpha", "active"),
+                entry(25, "Echo", "active"),
+                entry(40, "Golf", "active")));
+
+        assertMatchesBuild(snapshot, rows.values());
+        assertEquals(List.of(5, 10, 20, 25, 30, 40), ids(snapshot.autocomplete("", 100)));
+    }
+
+    @Test
+    public void equalNamesAreOrderedById() {
+        Map<Integer, MerchantDirectoryEntry> rows = rows(
+                entry(5, "Acme", "active"),
+                entry(9, "acme", "active"));
+        MerchantDirectorySnapshot snapshot = MerchantDirectorySnapshot.build(rows.values());
+
+        // Same normalized key as existing rows: comesBefore falls back to the id
+        snapshot = apply(snapshot, rows, List.of(), List.of(
+                entry(3, "ACME", "active"),
+                entry(7, " acme ", "active"),
+                entry(11, "Acme", "active")));
+
+        assertMatchesBuild(snapshot, rows.values());
+        assertEquals(List.of(3, 5, 7, 9, 11), ids(snapshot.autocomplete("acme", 100)));
+    }
+
+    @Test
+    public void renamesMoveTheRow() {
+        Map<Integer, MerchantDirectoryEntry> rows = rows(
+                entry(1, "Alpha", "active"),
+                entry(2, "Mike", "active"),
+                entry(3, "Zulu", "active"));
+        MerchantDirectorySnapshot snapshot = MerchantDirectorySnapshot.build(rows.values());
+
+        snapshot = apply(snapshot, rows, List.of(), List.of(
+                entry(1, "Zulu Two", "active"),
+                entry(3, "Aardvark", "active")));
+
+        assertMatchesBuild(snapshot, rows.values());
+        assertEquals(List.of(3, 2, 1), ids(snapshot.autocomplete("", 100)));
+        assertEquals(List.of(), snapshot.autocomplete("alpha", 100));
+        assertEquals("Zulu Two", snapshot.name(1));
+    }
+
+    @Test
+    public void deletesDropTheRow() {
+        Map<Integer, MerchantDirectoryEntry> rows = rows(
+                entry(1, "Alpha", "active"),
+                entry(2, "Alphabet", "active"),
+                entry(3, "Beta", "active"));
+        MerchantDirectorySnapshot snapshot = MerchantDirectorySnapshot.build(rows.values());
+
+        snapshot = apply(snapshot, rows, List.of(2, 99), List.of());
+
+        assertMatchesBuild(snapshot, rows.values());
+        assertFalse(snapshot.contains(2));
+        assertNull(snapshot.find(2));
+        assertEquals(List.of(1), ids(snapshot.autocomplete("alpha", 100)));
+
+        snapshot = apply(snapshot, rows, List.of(1, 3), List.of());
+        assertEquals(0, snapshot.size());
+        assertEquals(List.of(), snapshot.autocomplete("", 100));
+    }
+
+    @Test
+    public void newStatusesGrowTheTableAndKeepExistingCodes() {
+        Map<Integer, MerchantDirectoryEntry> rows = rows(
+                entry(1, "Alpha", "active"),
+                entry(2, "Beta", "inactive"));
+        MerchantDirectorySnapshot snapshot = MerchantDirectorySnapshot.build(rows.values());
+
+        snapshot = apply(snapshot, rows, List.of(), List.of(entry(3, "Gamma", "suspended")));
+        snapshot = apply(snapshot, rows, List.of(), List.of(entry(4, "Delta", "pending"), entry(1, "Alpha", "closed")));
+
+        assertMatchesBuild(snapshot, rows.values());
+        assertEquals("closed", snapshot.status(1));
+        assertEquals("inactive", snapshot.status(2));
+        assertEquals("suspended", snapshot.status(3));
+        assertEquals("pending", snapshot.status(4));
+    }
+
+    @Test
+    public void keysEndingAtInnerNodesStayInTheirRange() {
+        Map<Integer, MerchantDirectoryEntry> rows = rows(
+                entry(1, "ab", "active"),
+                entry(2, "abcd", "active"),
+                entry(3, "b", "active"));
+        MerchantDirectorySnapshot snapshot = MerchantDirectorySnapshot.build(rows.values());
+
+        // "a" and "abc" end on nodes that other keys pass through
+        snapshot = apply(snapshot, rows, List.of(), List.of(
+                entry(4, "a", "active"),
+                entry(5, "abc", "active"),
+                entry(6, "abce", "active")));
+
+        assertMatchesBuild(snapshot, rows.values());
+        assertEquals(List.of(4, 1, 5, 2, 6), ids(snapshot.autocomplete("a", 100)));
+        assertEquals(List.of(5, 2, 6), ids(snapshot.autocomplete("abc", 100)));
+        assertEquals(List.of(5, 2), ids(snapshot.autocomplete("abc", 2)));
+    }
+
+    @Test
+    public void randomBatchesMatchAFullBuild() {
+        Random random = new Random(42);
+        Map<Integer, MerchantDirectoryEntry> rows = new TreeMap<>();
+        MerchantDirectorySnapshot snapshot = MerchantDirectorySnapshot.empty();
+        int nextId = 1;
+        for (int batch = 0; batch < 200; batch++) {
+            List<Integer> deleted = new ArrayList<>();
+            List<MerchantDirectoryEntry> current = new ArrayList<>();
+            Set<Integer> touched = new TreeSet<>();
+            int changes = 1 + random.nextInt(8);
+            for (int i = 0; i < changes; i++) {
+                int kind = rows.isEmpty() ? 0 : random.nextInt(3);
+                if (kind == 0) {
+                    current.add(entry(nextId++, randomName(random), randomStatus(random, batch)));
+                } else {
+                    Integer id = new ArrayList<>(rows.keySet()).get(random.nextInt(rows.size()));
+                    if (!touched.add(id)) {
+                        continue;
+                    }
+                    if (kind == 1) {
+                        current.add(entry(id, randomName(random), randomStatus(random, batch)));
+                    } else {
+                        deleted.add(id);
+                    }
+                }
+            }
+            snapshot = apply(snapshot, rows, deleted, current);
+            assertMatchesBuild(snapshot, rows.values());
+        }
+    }
+
+    /**
+     * Applies the batch to {@code rows} and to the snapshot, passing the changed ids the way
+     * {@code MerchantDirectory} does: every id that was written, with current rows only for those still present.
+     */
+    private static MerchantDirectorySnapshot apply(MerchantDirectorySnapshot snapshot,
+                                                   Map<Integer, MerchantDirectoryEntry> rows,
+                                                   Collection<Integer> deleted,
+                                                   Collection<MerchantDirectoryEntry> current) {
+        List<Integer> changedIds = new ArrayList<>(deleted);
+        for (Integer id : deleted) {
+            rows.remove(id);
+        }
+        for (MerchantDirectoryEntry entry : current) {
+            changedIds.add(entry.merchantId());
+            rows.put(entry.merchantId(), entry);
+        }
+        return snapshot.withChanges(changedIds, current);
+    }
+
+    private static void assertMatchesBuild(MerchantDirectorySnapshot snapshot,
+                                           Collection<MerchantDirectoryEntry> rows) {
+        MerchantDirectorySnapshot built = MerchantDirectorySnapshot.build(rows);
+        assertEquals(built.size(), snapshot.size());
+        assertEquals(built.trieNodes(), snapshot.trieNodes());
+        for (MerchantDirectoryEntry entry : rows) {
+            assertEquals(entry, snapshot.find(entry.merchantId()));
+            assertEquals(entry.merchantStatus(), snapshot.status(entry.merchantId()));
+        }
+
+        List<MerchantDirectoryEntry> ordered = new ArrayList<>(rows);
+        ordered.sort(Comparator.comparing((MerchantDirectoryEntry e) -> MerchantNameTrie.normalize(e.merchantName()))
+                .thenComparing(MerchantDirectoryEntry::merchantId));
+        Set<String> prefixes = new TreeSet<>(List.of("", "zz", "a b c d e"));
+        for (MerchantDirectoryEntry entry : rows) {
+            String key = MerchantNameTrie.normalize(entry.merchantName());
+            for (int length = 0; length <= key.length(); length++) {
+                prefixes.add(key.substring(0, length));
+            }
+            prefixes.add(key + "x");
+        }
+        for (String prefix : prefixes) {
+            List<MerchantDirectoryEntry> expected = new ArrayList<>();
+            for (MerchantDirectoryEntry entry : ordered) {
+                // autocomplete normalizes the prefix too, e.g. "a " matches like "a"
+                String key = MerchantNameTrie.normalize(entry.merchantName());
+                if (key.startsWith(MerchantNameTrie.normalize(prefix))) {
+                    expected.add(entry);
+                }
+            }
+            assertEquals(expected, snapshot.autocomplete(prefix, Integer.MAX_VALUE), "prefix '" + prefix + "'");
+            assertEquals(built.autocomplete(prefix, 3), snapshot.autocomplete(prefix, 3), "prefix '" + prefix + "'");
+        }
+    }
+
+    private static String randomName(Random random) {
+        // A small alphabet so names share prefixes and some end where others continue
+        String[] parts = {"a", "b", "ab", "ba", " ", "A", "c"};
+        StringBuilder name = new StringBuilder();
+        int length = random.nextInt(6);
+        for (int i = 0; i < length; i++) {
+            name.append(parts[random.nextInt(parts.length)]);
+        }
+        return name.toString();
+    }
+
+    private static String randomStatus(Random random, int batch) {
+        return random.nextInt(10) == 0 ? "status-" + batch : random.nextBoolean() ? "active" : "inactive";
+    }
+
+    private static Map<Integer, MerchantDirectoryEntry> rows(MerchantDirectoryEntry... entries) {
+        Map<Integer, MerchantDirectoryEntry> rows = new TreeMap<>();
+        for (MerchantDirectoryEntry entry : entries) {
+            rows.put(entry.merchantId(), entry);
+        }
+        return rows;
+    }
+
+    private static MerchantDirectoryEntry entry(int merchantId, String name, String status) {
+        return new MerchantDirectoryEntry(merchantId, name, status);
+    }
+
+    private static List<Integer> ids(List<MerchantDirectoryEntry> entries) {
+        return entries.stream().map(MerchantDirectoryEntry::merchantId).toList();
+    }
+}
@@ -0,0 +1,123 @@
+package com.payment.helpers;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prefix ranges and key access of {@link MerchantNameTrie}, checked against a scan of the sorted keys.
+ */
+public class MerchantNameTrieTest {
+
+    @Test
+    public void keysEndingAtInnerNodesAreInTheirRange() {
+        String[] keys = {"", "a", "ab", "ab", "abc", "abcd", "abd", "b", "ba"};
+        MerchantNameTrie trie = MerchantNameTrie.build(keys.clone());
+
+        assertRange(trie, keys, "");
+        assertRange(trie, keys, "a");
+        assertRange(trie, keys, "ab");
+        assertRange(trie, keys, "abc");
+        assertRange(trie, keys, "abcd");
+        assertRange(trie, keys, "b");
+        assertEquals(-1, trie.find("abe"));
+        assertEquals(-1, trie.find("abcde"));
+        assertEquals(-1, trie.find("c"));
+    }
+
+    @Test
+    public void prefixInsideAnEdgeLabelFindsTheChild() {
+        String[] keys = {"merchant alpha", "merchant beta"};
+        MerchantNameTrie trie = MerchantNameTrie.build(keys.clone());
+
+        // "mer" ends halfway along the shared "merchant " edge
+        assertRange(trie, keys, "mer");
+        assertRange(trie, keys, "merchant b");
+        assertEquals(-1, trie.find("merx"));
+    }
+
+    @Test
+    public void randomKeysMatchAScan() {
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            String[] keys = new String[random.nextInt(60)];
+            for (int i = 0; i < keys.length; i++) {
+                StringBuilder key = new StringBuilder();
+                int length = random.nextInt(5);
+                for (int j = 0; j < length; j++) {
+                    key.append("abc".charAt(random.nextInt(3)));
+                }
+                keys[i] = key.toString();
+            }
+            Arrays.sort(keys);
+            MerchantNameTrie trie = MerchantNameTrie.build(keys.clone());
+
+            assertEquals(keys.length, trie.size());
+            assertTrue(trie.nodeCount() <= 2 * keys.length + 1, "nodes " + trie.nodeCount());
+            Set<String> prefixes = new TreeSet<>();
+            for (String key : keys) {
+                for (int length = 0; length <= key.length(); length++) {
+                    prefixes.add(key.substring(0, length));
+                }
+                prefixes.add(key + "a");
+            }
+            for (String prefix : prefixes) {
+                assertRange(trie, keys, prefix);
+            }
+        }
+    }
+
+    @Test
+    public void compareKeyAndCopyKeyReadThePool() {
+        String[] keys = {"ab", "abc", "b"};
+        MerchantNameTrie trie = MerchantNameTrie.build(keys.clone());
+
+        for (int position = 0; position < keys.length; position++) {
+            for (String other : List.of("", "a", "ab", "abc", "abd", "b", "c")) {
+                assertEquals(Integer.signum(keys[position].compareTo(other)),
+                        Integer.signum(trie.compareKey(position, other)), keys[position] + " vs " + other);
+            }
+            char[] copy = new char[trie.keyLength(position) + 2];
+            trie.copyKey(position, copy, 1);
+            assertEquals(keys[position], new String(copy, 1, trie.keyLength(position)));
+        }
+        assertEquals(6, trie.keyChars());
+    }
+
+    @Test
+    public void normalizeFoldsCaseAndWhitespace() {
+        assertEquals("acme inc", MerchantNameTrie.normalize("  Acme \t Inc  "));
+        assertEquals("", MerchantNameTrie.normalize("   "));
+        assertEquals("", MerchantNameTrie.normalize(null));
+        String normalized = "acme inc";
+        assertSame(normalized, MerchantNameTrie.normalize(normalized));
+    }
+
+    private static void assertRange(MerchantNameTrie trie, String[] sortedKeys, String prefix) {
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < sortedKeys.length; i++) {
+            if (sortedKeys[i].startsWith(prefix)) {
+                expected.add(i);
+            }
+        }
+        int node = trie.find(prefix);
+        if (expected.isEmpty()) {
+            assertEquals(-1, node, "prefix '" + prefix + "'");
+            return;
+        }
+        List<Integer> actual = new ArrayList<>();
+        for (int i = trie.rangeStart(node); i < trie.rangeEnd(node); i++) {
+            actual.add(i);
+        }
+        assertEquals(expected, actual, "prefix '" + prefix + "'");
+    }
+}
@@ -0,0 +1,135 @@
+package com.payment.repository;
+
+import com.payment.dto.merchantDto.MerchantImportError;
+import com.payment.enums.MerchantImportFormat;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * CSV parsing, validation and COPY encoding of {@link MerchantCopyImporter}, without a database.
+ */
+public class MerchantCopyImporterTest {
+
+    private static final String HEADER = "merchantName,merchantStatus,contactInfo,merchantCategory,merchantLocation,"
+            + "paymentMethod,merchantWebsite,merchantType,merchantTags\n";
+    private static final String TIMESTAMP = "2026-01-01T00:00Z";
+    private static final int[] NO_LIMITS = {-1, -1, -1, -1, -1, -1, -1, -1};
+
+    // COPY columns, see MerchantCopyImporter.COPY_SQL
+    private static final int NAME = 0;
+    private static final int CONTACT = 2;
+    private static final int TAGS = 11;
+
+    @Test
+    public void quotedFieldsKeepCommasAndDoubledQuotes() throws IOException {
+        Result result = importCsv(HEADER
+                + "\"Acme, Inc.\",active,\"The \"\"Best\"\" Shop\",retail,Kathmandu,card,acme.test,online,grocery\n",
+                NO_LIMITS);
+
+        assertEquals(List.of(), result.errors());
+        assertEquals(1, result.rows().size());
+        assertEquals("Acme, Inc.", result.rows().get(0)[NAME]);
+        assertEquals("The \"Best\" Shop", result.rows().get(0)[CONTACT]);
+    }
+
+    @Test
+    public void embeddedNewlinesAreEscapedAndCountedInLineNumbers() throws IOException {
+        Result result = importCsv(HEADER
+                + "Acme,active,\"Street 1\nCity\",retail,Kathmandu,card,acme.test,online,grocery\n"
+                + ",active,mail,retail,Kathmandu,card,empty.test,online,grocery\n",
+                NO_LIMITS);
+
+        assertEquals(1, result.rows().size());
+        // COPY text escapes the line break inside the field
+        assertEquals("Street 1\\nCity", result.rows().get(0)[CONTACT]);
+        // header on line 1, the quoted row spans lines 2-3, the invalid row starts on line 4
+        assertEquals(List.of(new MerchantImportError(4, "merchantName is required")), result.errors());
+    }
+
+    @Test
+    public void byteOrderMarkBeforeTheHeaderIsIgnored() throws IOException {
+        Result result = importCsv("\uFEFF" + HEADER
+                + "Acme,active,mail,retail,Kathmandu,card,acme.test,online,grocery\n",
+                NO_LIMITS);
+
+        assertEquals(List.of(), result.errors());
+        assertEquals("Acme", result.rows().get(0)[NAME]);
+    }
+
+    @Test
+    public void tagsAreSplitOnPipes() throws IOException {
+        Result result = importCsv(HEADER
+                + "Acme,active,mail,retail,Kathmandu,card,acme.test,online,grocery| organic |\"quoted\"\n"
+                + "Bare,active,mail,retail,Kathmandu,card,bare.test,online,\n",
+                NO_LIMITS);
+
+        assertEquals(List.of(), result.errors());
+        assertEquals("{\"grocery\",\"organic\",\"\\\\\"quoted\\\\\"\"}", result.rows().get(0)[TAGS]);
+        assertEquals("{}", result.rows().get(1)[TAGS]);
+    }
+
+    @Test
+    public void rowsTheTableWouldRejectAreReportedPerRow() throws IOException {
+        int[] maxLengths = NO_LIMITS.clone();
+        maxLengths[0] = 5;
+        Result result = importCsv(HEADER
+                + "Acme,active,mail,retail,Kathmandu,card,acme.test,online,grocery\n"
+                + "Acme Holdings,active,mail,retail,Kathmandu,card,long.test,online,grocery\n"
+                + "Nul,active,ma\u0000il,retail,Kathmandu,card,nul.test,online,grocery\n"
+                + "Tag,active,mail,retail,Kathmandu,card,tag.test,online,a\u0000b\n"
+                + "\u00dcber,active,mail,retail,Kathmandu,card,uber.test,online,grocery\n",
+                maxLengths);
+
+        assertEquals(2, result.rows().size());
+        assertEquals("Acme", result.rows().get(0)[NAME]);
+        assertEquals("\u00dcber", result.rows().get(1)[NAME]);
+        assertEquals(List.of(
+                new MerchantImportError(3, "merchantName is longer than 5 characters"),
+                new MerchantImportError(4, "contactInfo must not contain NUL characters"),
+                new MerchantImportError(5, "merchantTags must not contain NUL characters")), result.errors());
+    }
+
+    @Test
+    public void headerColumnsMayBeReorderedAndSnakeCased() throws IOException {
+        Result result = importCsv("merchant_tags,merchant_type,merchant_website,payment_method,merchant_location,"
+                + "merchant_category,contact_info,merchant_status,merchant_name\n"
+                + "grocery,online,acme.test,card,Kathmandu,retail,mail,active,Acme\n",
+                NO_LIMITS);
+
+        assertEquals(List.of(), result.errors());
+        assertEquals("Acme", result.rows().get(0)[NAME]);
+        assertEquals("{\"grocery\"}", result.rows().get(0)[TAGS]);
+    }
+
+    private static Result importCsv(String csv, int[] maxLengths) throws IOException {
+        MerchantCopyImporter.RowReader reader =
+                new MerchantCopyImporter.RowReader(new BufferedReader(new StringReader(csv)), MerchantImportFormat.csv);
+        int[] columns = MerchantCopyImporter.csvColumns(reader.nextRow());
+        MerchantCopyImporter.EncodedChunk chunk = MerchantCopyImporter.encode(
+                reader.nextChunk(100), MerchantImportFormat.csv, columns, maxLengths, TIMESTAMP);
+
+        List<String[]> rows = new ArrayList<>();
+        String copy = new String(chunk.data(), StandardCharsets.UTF_8);
+        for (String line : copy.split("\n")) {
+            if (!line.isEmpty()) {
+                rows.add(line.split("\t", -1));
+            }
+        }
+        rows.forEach(row -> assertEquals(14, row.length, Arrays.toString(row)));
+        assertTrue(copy.isEmpty() || copy.endsWith("\n"));
+        return new Result(rows, chunk.errors());
+    }
+
+    private record Result(List<String[]> rows, List<MerchantImportError> errors) {
+    }
+}
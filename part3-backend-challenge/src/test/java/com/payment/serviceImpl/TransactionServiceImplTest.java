@@ -0,0 +1,83 @@
+package com.payment.serviceImpl;
+
+import com.payment.dto.transactionDto.Pagination;
+import com.payment.dto.transactionDto.TransactionCount;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pagination totals built from the page and the (possibly estimated) count.
+ */
+public class TransactionServiceImplTest {
+
+    @Test
+    public void lastPageReportsAnExactTotalOverAnEstimate() {
+        // Page 2 of size 20 returned 7 rows: 47 transactions, whatever the planner guessed
+        Pagination pagination = TransactionServiceImpl.toPaginationInfo(2, 20, 7, new TransactionCount(1_000, false), false);
+
+        assertEquals(47, pagination.totalElements());
+        assertEquals(3, pagination.totalPages());
+        assertEquals("exact", pagination.totalAccuracy());
+        assertFalse(pagination.hasNext());
+    }
+
+    @Test
+    public void lastPageOverridesAStaleExactCount() {
+        Pagination pagination = TransactionServiceImpl.toPaginationInfo(1, 20, 20, new TransactionCount(38, true), false);
+
+        assertEquals(40, pagination.totalElements());
+        assertEquals(2, pagination.totalPages());
+        assertEquals("exact", pagination.totalAccuracy());
+    }
+
+    @Test
+    public void emptyFirstPageIsAnExactZero() {
+        Pagination pagination = TransactionServiceImpl.toPaginationInfo(0, 20, 0, new TransactionCount(12, false), false);
+
+        assertEquals(0, pagination.totalElements());
+        assertEquals(0, pagination.totalPages());
+        assertEquals("exact", pagination.totalAccuracy());
+    }
+
+    @Test
+    public void estimateIsRaisedToWhatHasBeenSeen() {
+        // Page 3 is full and one more row exists, so there are at least 81
+        Pagination pagination = TransactionServiceImpl.toPaginationInfo(3, 20, 20, new TransactionCount(50, false), true);
+
+        assertEquals(81, pagination.totalElements());
+        assertEquals(5, pagination.totalPages());
+        assertEquals("estimated", pagination.totalAccuracy());
+        assertTrue(pagination.hasNext());
+    }
+
+    @Test
+    public void estimateAboveWhatHasBeenSeenIsKept() {
+        Pagination pagination = TransactionServiceImpl.toPaginationInfo(0, 20, 20, new TransactionCount(500, false), true);
+
+        assertEquals(500, pagination.totalElements());
+        assertEquals(25, pagination.totalPages());
+        assertEquals("estimated", pagination.totalAccuracy());
+    }
+
+    @Test
+    public void pageBeyondTheEndKeepsTheCount() {
+        Pagination pagination = TransactionServiceImpl.toPaginationInfo(9, 20, 0, new TransactionCount(47, true), false);
+
+        assertEquals(47, pagination.totalElements());
+        assertEquals("exact", pagination.totalAccuracy());
+    }
+
+    @Test
+    public void noTotalWhenNoneWasRequested() {
+        Pagination pagination = TransactionServiceImpl.toPaginationInfo(0, 20, 7, null, false);
+
+        assertNull(pagination.totalElements());
+        assertNull(pagination.totalPages());
+        assertNull(pagination.totalAccuracy());
+        assertFalse(pagination.hasNext());
+    }
+}
@@ -17,7 +17,6 @@ const EditMerchants = () => {
     merchantCategory: "",
     merchantLocation: "",
     merchantRating: 0,
-    numOrders: 0,
     paymentMethod: "",
     merchantLogo: "",
     merchantWebsite: "",
@@ -45,7 +44,6 @@ const EditMerchants = () => {
             merchantCategory: data.merchantCategory,
             merchantLocation: data.merchantLocation,
             merchantRating: data.merchantRating,
-            numOrders: data.numOrders,
             paymentMethod: data.paymentMethod,
             merchantLogo: data.merchantLogo,
             merchantWebsite: data.merchantWebsite,
@@ -179,11 +177,6 @@ const EditMerchants = () => {
 
         {/* Row 4 */}
         <div className="form-row">
-          <div className="form-group">
-            <label>Orders</label>
-            <input type="number" name="numOrders" value={formData.numOrders} onChange={handleChange} />
-          </div>
-
           <div className="form-group">
             <label>Payment Method</label>
             <input type="text" name="paymentMethod" value={formData.paymentMethod} onChange={handleChange} />
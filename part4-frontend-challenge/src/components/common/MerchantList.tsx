@@ -1,5 +1,5 @@
 import React, { useEffect, useState, useMemo } from "react";
-import { getAllMerchants } from "@/services/merchantService";
+import { getAllMerchants, searchMerchants } from "@/services/merchantService";
 import { Merchant } from "@/types/merchant";
 import "./MerchantList.css";
 
@@ -12,6 +12,9 @@ function MerchantList() {
   const [statusFilter, setStatusFilter] = useState("");
   const [categoryFilter, setCategoryFilter] = useState("");
 
+  // Server-side name search results; null while the search box is empty
+  const [searchResults, setSearchResults] = useState<Merchant[] | null>(null);
+
   // Pagination
   const [currentPage, setCurrentPage] = useState(1);
   const pageSize = 100;
@@ -30,23 +33,40 @@ function MerchantList() {
     fetchMerchants();
   }, []);
 
+  // Name search runs on the backend, debounced; stale responses are ignored
+  useEffect(() => {
+    const query = search.trim();
+    if (!query) {
+      setSearchResults(null);
+      return;
+    }
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      try {
+        const response = await searchMerchants({ q: query, limit: 50 });
+        if (!cancelled) setSearchResults(response.data.merchants);
+      } catch (err) {
+        console.error(err);
+      }
+    }, 150);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [search]);
+
   // Reset page to 1 whenever filters/search change
   useEffect(() => {
     setCurrentPage(1);
   }, [search, statusFilter, categoryFilter]);
 
   const filteredMerchants = useMemo(() => {
-    const normalizedSearch = search.toLowerCase().replace(/\s+/g, "");
-    return merchants
-      .filter((m) => {
-        const normalizedName = m.merchantName.toLowerCase().replace(/\s+/g, "");
-        return normalizedName.includes(normalizedSearch);
-      })
+    return (searchResults ?? merchants)
       .filter((m) => (statusFilter ? m.merchantStatus === statusFilter : true))
       .filter((m) =>
         categoryFilter ? m.merchantCategory === categoryFilter : true
       );
-  }, [merchants, search, statusFilter, categoryFilter]);
+  }, [merchants, searchResults, statusFilter, categoryFilter]);
 
   const totalPages = Math.ceil(filteredMerchants.length / pageSize);
 
@@ -1,10 +1,17 @@
 import { get,post, put } from './api';
-import { MerchantResponse, CreateMerchantPayload, CreateMerchantResponse, UpdateMerchantPayload, UpdateMerchantResponse, MerchantDetailResponse } from '../types/merchant';
+import { MerchantResponse, CreateMerchantPayload, CreateMerchantResponse, UpdateMerchantPayload, UpdateMerchantResponse, MerchantDetailResponse, MerchantSearchParams, MerchantSearchResponse } from '../types/merchant';
 
 export const getAllMerchants = async (): Promise<MerchantResponse> => {
     return get<MerchantResponse>('/merchants/getAllMerchants');
 };
 
+/**
+ * Ranked name search served by the backend's trigram index, for typeahead without loading every merchant
+ */
+export const searchMerchants = async (params: MerchantSearchParams): Promise<MerchantSearchResponse> => {
+    return get<MerchantSearchResponse>('/merchants/search', { params });
+};
+
 export const createMerchant = async (
     payload: CreateMerchantPayload
   ): Promise<CreateMerchantResponse> => {
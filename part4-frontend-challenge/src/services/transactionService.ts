@@ -28,6 +28,8 @@ export const getTransactions = async (
     startDate: filters.startDate,
     endDate: filters.endDate,
     ...(filters.status && { status: filters.status }),
+    // The list shows the summary cards but not the per-transaction details
+    expand: 'summary',
   };
 
   // TODO: Make API call
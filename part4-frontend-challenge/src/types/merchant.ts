@@ -49,7 +49,6 @@ export interface CreateMerchantPayload {
     merchantCategory: string;
     merchantLocation: string;
     merchantRating: number;
-    numOrders: number;
     paymentMethod: string;
     merchantLogo: string;
     merchantWebsite: string;
@@ -81,4 +80,26 @@ export interface CreateMerchantPayload {
     merchantWebsite: string;
     merchantType: 'Individual' | 'Business' | 'Franchise';
   }
-  
\ No newline at end of file
+  
+  export interface MerchantSearchParams {
+    q: string;
+    /** Comma-separated; results carry all of them */
+    tags?: string;
+    limit?: number;
+    cursor?: string;
+  }
+
+  export interface MerchantSearchResult extends Merchant {
+    merchantTags: string[];
+    score: number;
+  }
+
+  export interface MerchantSearchResponse {
+    response_code: string;
+    response_message: string;
+    data: {
+      merchants: MerchantSearchResult[];
+      /** Pass back as cursor for the next page; null on the last page */
+      nextCursor: string | null;
+    };
+  }
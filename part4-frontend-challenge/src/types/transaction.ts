@@ -10,7 +10,8 @@ export interface Transaction {
   cardLast4: string;
   acquirer: string;
   issuer: string;
-  details: TransactionDetail[];
+  // Only with expand=details
+  details?: TransactionDetail[];
 }
 
 export interface TransactionDetail {
@@ -37,6 +38,7 @@ export interface TransactionResponse {
     start: string;
     end: string;
   };
+  // Present because getTransactions always sends expand=summary
   summary: TransactionSummary;
   transactions: Transaction[];
   pagination: PaginationInfo;
@@ -45,8 +47,11 @@ export interface TransactionResponse {
 export interface PaginationInfo {
   page: number;
   size: number;
-  totalPages: number;
-  totalElements: number;
+  // Absent when the request sent includeTotal=none
+  totalPages?: number;
+  totalElements?: number;
+  totalAccuracy?: 'exact' | 'estimated';
+  hasNext: boolean;
 }
 
 export interface FilterState {
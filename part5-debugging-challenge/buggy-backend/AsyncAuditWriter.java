@@ -0,0 +1,455 @@
+package com.payment.service;
+
+import io.micronaut.context.annotation.Value;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Takes audit logging off the payment path.
+ *
+ * {@link #record(AuditEvent)} puts the event into a bounded lock-free ring buffer and returns; one
+ * background thread drains it in batches into a {@link Sink} (the audit table or memory-mapped
+ * segment files) and makes the batches durable:
+ * <ul>
+ *   <li>{@code per-batch}: every batch is synced before the next one is taken;</li>
+ *   <li>{@code interval}: batches are synced at most every {@code sync-interval-ms}, trading a
+ *   short window of loss on a crash for fewer fsyncs.</li>
+ * </ul>
+ * Audit events are never lost silently, and an audit outage can neither fail nor stall a payment:
+ * <ul>
+ *   <li>when the buffer is full, {@link #record} waits at most {@code max-block-ms} for space, and
+ *   {@link #tryRecord} does not wait at all; an event that does not fit is written to the
+ *   application log instead;</li>
+ *   <li>a failed batch, whatever the sink threw, is retried with backoff up to {@code max-attempts}
+ *   times and then written to the application log, so the writer keeps draining the buffer.</li>
+ * </ul>
+ * Waits, retries and events logged instead of written show up in {@link #metrics()}.
+ */
+@Singleton
+public class AsyncAuditWriter implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncAuditWriter.class);
+
+    private static final int SPINS_BEFORE_PARK = 64;
+    private static final long PRODUCER_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 30_000;
+
+    public enum DurabilityMode {
+        PER_BATCH,
+        INTERVAL;
+
+        public static DurabilityMode parse(String value) {
+            return valueOf(value.trim().replace('-', '_').toUpperCase());
+        }
+    }
+
+    /**
+     * Destination of audit batches. Only ever called from the writer thread.
+     */
+    public interface Sink extends Closeable {
+
+        void write(List<AuditEvent> batch) throws IOException;
+
+        /** Make everything written so far durable */
+        void sync() throws IOException;
+    }
+
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final Sink sink;
+    private final int batchSize;
+    private final DurabilityMode durability;
+    private final long syncIntervalNanos;
+    private final long shutdownTimeoutMillis;
+    private final long maxBlockNanos;
+    private final int maxAttempts;
+    private final Thread writerThread;
+
+    private volatile boolean running = true;
+    private volatile boolean writerIdle;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder fullWaits = new LongAdder();
+    private final LongAdder blockedNanos = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+    private final LongAdder writeFailures = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+    private final LongAdder spilled = new LongAdder();
+    private volatile long lastBatchNanos;
+
+    @Inject
+    public AsyncAuditWriter(DataSource dataSource,
+                            @Value("${payment.audit.sink:jdbc}") String sinkType,
+                            @Value("${payment.audit.file.directory:audit}") String directory,
+                            @Value("${payment.audit.file.segment-bytes:67108864}") long segmentBytes,
+                            @Value("${payment.audit.capacity:65536}") int capacity,
+                            @Value("${payment.audit.batch-size:512}") int batchSize,
+                            @Value("${payment.audit.durability:per-batch}") String durability,
+                            @Value("${payment.audit.sync-interval-ms:100}") long syncIntervalMillis,
+                            @Value("${payment.audit.max-block-ms:100}") long maxBlockMillis,
+                            @Value("${payment.audit.max-attempts:5}") int maxAttempts) throws IOException {
+        this(createSink(dataSource, sinkType, directory, segmentBytes, DurabilityMode.parse(durability)),
+            capacity, batchSize, DurabilityMode.parse(durability), syncIntervalMillis, 10_000,
+            maxBlockMillis, maxAttempts);
+    }
+
+    /**
+     * @param maxBlockMillis Longest {@link #record} waits for space in a full buffer
+     * @param maxAttempts    Attempts to write one batch before it goes to the application log
+     */
+    public AsyncAuditWriter(Sink sink, int capacity, int batchSize, DurabilityMode durability,
+                            long syncIntervalMillis, long shutdownTimeoutMillis,
+                            long maxBlockMillis, int maxAttempts) {
+        this.buffer = new AuditRingBuffer<>(capacity);
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.durability = durability;
+        this.syncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(syncIntervalMillis);
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.maxBlockNanos = TimeUnit.MILLISECONDS.toNanos(maxBlockMillis);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.writerThread = new Thread(this::runWriter, "audit-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+        LOG.info("Audit writer started: sink={}, capacity={}, batchSize={}, durability={}",
+            sink.getClass().getSimpleName(), buffer.capacity(), batchSize, durability);
+    }
+
+    /**
+     * Queue an event for writing. Returns as soon as the event is in the buffer; while the buffer
+     * is full it waits up to {@code max-block-ms}, then logs the event instead. Never throws, so an
+     * audit problem cannot fail a payment.
+     */
+    public void record(AuditEvent event) {
+        if (!running) {
+            LOG.error("Audit writer closed; event written to log instead: {}", event);
+            return;
+        }
+        if (!buffer.offer(event) && !waitForSpace(event)) {
+            overflow(event);
+            return;
+        }
+        enqueued.increment();
+        wakeWriter();
+    }
+
+    /**
+     * Queue an event only if there is room right now, for threads that must never wait on the
+     * audit writer. Never throws.
+     *
+     * @return False if the event was written to the application log instead
+     */
+    public boolean tryRecord(AuditEvent event) {
+        if (!running) {
+            LOG.error("Audit writer closed; event written to log instead: {}", event);
+            return false;
+        }
+        if (!buffer.offer(event)) {
+            overflow(event);
+            return false;
+        }
+        enqueued.increment();
+        wakeWriter();
+        return true;
+    }
+
+    /**
+     * @return Point-in-time throughput and backpressure figures
+     */
+    public Metrics metrics() {
+        long last = lastBatchNanos;
+        return new Metrics(buffer.size(), buffer.capacity(), enqueued.sum(), written.sum(), batches.sum(),
+            syncs.sum(), fullWaits.sum(), TimeUnit.NANOSECONDS.toMillis(blockedNanos.sum()),
+            writeFailures.sum(), overflowed.sum(), spilled.sum(),
+            last == 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - last));
+    }
+
+    /**
+     * Stop accepting events, write what is buffered and close the sink. Producers must be stopped
+     * first; the payment service depends on this bean and is therefore destroyed before it.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive()) {
+            LOG.error("Audit writer did not drain within {} ms; {} events still buffered",
+                shutdownTimeoutMillis, buffer.size());
+            writerThread.interrupt();
+        }
+    }
+
+    private void wakeWriter() {
+        if (writerIdle) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    /**
+     * @return False if the buffer stayed full for {@code max-block-ms}
+     */
+    private boolean waitForSpace(AuditEvent event) {
+        fullWaits.increment();
+        long start = System.nanoTime();
+        int spins = 0;
+        try {
+            while (!buffer.offer(event)) {
+                if (System.nanoTime() - start >= maxBlockNanos) {
+                    return false;
+                }
+                LockSupport.unpark(writerThread);
+                if (++spins < SPINS_BEFORE_PARK) {
+                    Thread.onSpinWait();
+                } else {
+                    LockSupport.parkNanos(PRODUCER_PARK_NANOS);
+                }
+            }
+            return true;
+        } finally {
+            blockedNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private void overflow(AuditEvent event) {
+        overflowed.increment();
+        LOG.error("Audit buffer full; event written to log instead: {}", event);
+    }
+
+    private void runWriter() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        long lastSync = System.nanoTime();
+        boolean unsynced = false;
+        try {
+            while (true) {
+                // read the flag before draining, so nothing queued before close() is left behind
+                boolean stopping = !running;
+                batch.clear();
+                if (buffer.drainTo(batch, batchSize) > 0) {
+                    if (!writeWithRetry(batch)) {
+                        return;
+                    }
+                    unsynced = true;
+                }
+
+                long now = System.nanoTime();
+                if (unsynced && (durability == DurabilityMode.PER_BATCH || now - lastSync >= syncIntervalNanos
+                        || stopping)) {
+                    sync();
+                    lastSync = now;
+                    unsynced = false;
+                }
+
+                if (batch.isEmpty()) {
+                    if (stopping) {
+                        return;
+                    }
+                    writerIdle = true;
+                    // re-check after publishing the flag, or a producer's unpark could be missed
+                    if (buffer.size() == 0) {
+                        LockSupport.parkNanos(unsynced ? syncIntervalNanos : IDLE_PARK_NANOS);
+                    }
+                    writerIdle = false;
+                }
+            }
+        } finally {
+            closeSink();
+        }
+    }
+
+    /**
+     * Any exception from the sink counts as a failed attempt (a SQL error wrapped by a JDBC
+     * driver or pool is as likely as an IOException); after {@code max-attempts} the batch is
+     * logged, so a persistent outage cannot stop the writer from draining the buffer.
+     *
+     * @return False if the writer was interrupted during shutdown before the batch was written
+     */
+    private boolean writeWithRetry(List<AuditEvent> batch) {
+        long backoff = 100;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                sink.write(batch);
+                written.add(batch.size());
+                batches.increment();
+                lastBatchNanos = System.nanoTime();
+                return true;
+            } catch (IOException | RuntimeException e) {
+                writeFailures.increment();
+                if (attempt >= maxAttempts) {
+                    LOG.error("Audit batch of {} events failed {} times; writing it to the log instead",
+                        batch.size(), attempt, e);
+                    spill(batch);
+                    return true;
+                }
+                LOG.error("Audit batch of {} events failed; retrying in {} ms", batch.size(), backoff, e);
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                // shutdown timed out: keep the events in the application log rather than lose them
+                spill(batch);
+                return false;
+            }
+            backoff = Math.min(backoff * 2, MAX_RETRY_BACKOFF_MILLIS);
+        }
+    }
+
+    private void spill(List<AuditEvent> batch) {
+        spilled.add(batch.size());
+        for (AuditEvent event : batch) {
+            LOG.error("Unwritten audit event: {}", event);
+        }
+    }
+
+    private void sync() {
+        try {
+            sink.sync();
+            syncs.increment();
+        } catch (IOException | RuntimeException e) {
+            writeFailures.increment();
+            LOG.error("Audit sync failed", e);
+        }
+    }
+
+    private void closeSink() {
+        try {
+            sink.close();
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Closing audit sink failed", e);
+        }
+    }
+
+    private static Sink createSink(DataSource dataSource, String sinkType, String directory, long segmentBytes,
+                                   DurabilityMode durability) throws IOException {
+        switch (sinkType.trim().toLowerCase()) {
+            case "jdbc":
+                return new JdbcAuditSink(dataSource, durability == DurabilityMode.INTERVAL);
+            case "file":
+                return new MappedFileAuditSink(Paths.get(directory), segmentBytes);
+            default:
+                throw new IllegalArgumentException("Unknown payment.audit.sink: " + sinkType);
+        }
+    }
+
+    /**
+     * Snapshot of {@link AsyncAuditWriter} counters.
+     */
+    public static class Metrics {
+        private final int depth;
+        private final int capacity;
+        private final long enqueued;
+        private final long written;
+        private final long batches;
+        private final long syncs;
+        private final long fullWaits;
+        private final long blockedMillis;
+        private final long writeFailures;
+        private final long overflowed;
+        private final long spilled;
+        private final long millisSinceLastBatch;
+
+        Metrics(int depth, int capacity, long enqueued, long written, long batches, long syncs,
+                long fullWaits, long blockedMillis, long writeFailures, long overflowed, long spilled,
+                long millisSinceLastBatch) {
+            this.depth = depth;
+            this.capacity = capacity;
+            this.enqueued = enqueued;
+            this.written = written;
+            this.batches = batches;
+            this.syncs = syncs;
+            this.fullWaits = fullWaits;
+            this.blockedMillis = blockedMillis;
+            this.writeFailures = writeFailures;
+            this.overflowed = overflowed;
+            this.spilled = spilled;
+            this.millisSinceLastBatch = millisSinceLastBatch;
+        }
+
+        /** Events waiting in the buffer */
+        public int getDepth() {
+            return depth;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public long getEnqueued() {
+            return enqueued;
+        }
+
+        public long getWritten() {
+            return written;
+        }
+
+        public long getBatches() {
+            return batches;
+        }
+
+        public long getSyncs() {
+            return syncs;
+        }
+
+        /** Times a producer found the buffer full and had to wait */
+        public long getFullWaits() {
+            return fullWaits;
+        }
+
+        /** Total time producers spent waiting for space */
+        public long getBlockedMillis() {
+            return blockedMillis;
+        }
+
+        /** Failed write or sync attempts; failed batches are retried up to max-attempts times */
+        public long getWriteFailures() {
+            return writeFailures;
+        }
+
+        /** Events logged instead of buffered because the buffer stayed full */
+        public long getOverflowed() {
+            return overflowed;
+        }
+
+        /** Events logged instead of written because their batch failed max-attempts times */
+        public long getSpilled() {
+            return spilled;
+        }
+
+        /** -1 before the first batch */
+        public long getMillisSinceLastBatch() {
+            return millisSinceLastBatch;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                "depth=%d/%d enqueued=%d written=%d batches=%d syncs=%d fullWaits=%d blockedMs=%d writeFailures=%d"
+                    + " overflowed=%d spilled=%d",
+                depth, capacity, enqueued, written, batches, syncs, fullWaits, blockedMillis, writeFailures,
+                overflowed, spilled);
+        }
+    }
+}
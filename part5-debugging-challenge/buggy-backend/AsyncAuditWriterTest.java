@@ -0,0 +1,174 @@
+package com.payment.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * BUG 8: an audit outage must neither fail nor block the payment path.
+ */
+class AsyncAuditWriterTest {
+
+    private static final long MAX_BLOCK_MILLIS = 50;
+
+    private AsyncAuditWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    @Test
+    void recordReturnsPromptlyWhenTheSinkAlwaysThrows() {
+        writer = new AsyncAuditWriter(new FailingSink(Integer.MAX_VALUE), 8, 4,
+            AsyncAuditWriter.DurabilityMode.PER_BATCH, 100, 1_000, MAX_BLOCK_MILLIS, 2);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(15), () -> {
+            for (int i = 0; i < 100; i++) {
+                long start = System.nanoTime();
+                writer.record(event(i));
+                long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                assertTrue(millis < MAX_BLOCK_MILLIS + 500, "record() blocked for " + millis + " ms");
+            }
+        });
+
+        AsyncAuditWriter.Metrics metrics = writer.metrics();
+        assertTrue(metrics.getOverflowed() > 0, metrics.toString());
+        assertEquals(100, metrics.getEnqueued() + metrics.getOverflowed(), metrics.toString());
+        assertEquals(0, metrics.getWritten(), metrics.toString());
+    }
+
+    @Test
+    void writerSurvivesRuntimeExceptionsFromTheSink() throws Exception {
+        FailingSink sink = new FailingSink(3);
+        writer = new AsyncAuditWriter(sink, 64, 8,
+            AsyncAuditWriter.DurabilityMode.PER_BATCH, 100, 1_000, MAX_BLOCK_MILLIS, 10);
+
+        for (int i = 0; i < 20; i++) {
+            writer.record(event(i));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writer.metrics().getWritten() < 20 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        AsyncAuditWriter.Metrics metrics = writer.metrics();
+        assertEquals(20, metrics.getWritten(), metrics.toString());
+        assertEquals(3, metrics.getWriteFailures(), metrics.toString());
+        assertEquals(0, metrics.getSpilled(), metrics.toString());
+    }
+
+    @Test
+    void batchIsLoggedAfterMaxAttempts() throws Exception {
+        writer = new AsyncAuditWriter(new FailingSink(Integer.MAX_VALUE), 64, 8,
+            AsyncAuditWriter.DurabilityMode.PER_BATCH, 100, 1_000, MAX_BLOCK_MILLIS, 2);
+
+        for (int i = 0; i < 8; i++) {
+            writer.record(event(i));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (writer.metrics().getSpilled() < 8 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(8, writer.metrics().getSpilled(), writer.metrics().toString());
+    }
+
+    @Test
+    void tryRecordNeverWaits() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch writing = new CountDownLatch(1);
+        writer = new AsyncAuditWriter(new BlockingSink(writing, release), 2, 1,
+            AsyncAuditWriter.DurabilityMode.PER_BATCH, 100, 1_000, 10_000, 1);
+        try {
+            // the writer takes the first event and blocks in the sink; the next two fill the buffer
+            assertTrue(writer.tryRecord(event(0)));
+            assertTrue(writing.await(5, TimeUnit.SECONDS));
+            assertTrue(writer.tryRecord(event(1)));
+            assertTrue(writer.tryRecord(event(2)));
+
+            long start = System.nanoTime();
+            assertFalse(writer.tryRecord(event(3)));
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100);
+            assertEquals(1, writer.metrics().getOverflowed());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static AuditEvent event(int i) {
+        return new AuditEvent(System.currentTimeMillis(), AuditEvent.PROCESSED, "PAY-" + i, "MCH-00001",
+            BigDecimal.TEN, null);
+    }
+
+    /**
+     * Throws an unchecked exception, as a JDBC pool or driver can, for the first {@code failures} writes.
+     */
+    private static final class FailingSink implements AsyncAuditWriter.Sink {
+
+        private final AtomicInteger remainingFailures;
+
+        FailingSink(int failures) {
+            this.remainingFailures = new AtomicInteger(failures);
+        }
+
+        @Override
+        public void write(List<AuditEvent> batch) {
+            if (remainingFailures.getAndDecrement() > 0) {
+                throw new IllegalStateException("relation \"payment_audit_log\" does not exist");
+            }
+        }
+
+        @Override
+        public void sync() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private static final class BlockingSink implements AsyncAuditWriter.Sink {
+
+        private final CountDownLatch writing;
+        private final CountDownLatch release;
+
+        BlockingSink(CountDownLatch writing, CountDownLatch release) {
+            this.writing = writing;
+            this.release = release;
+        }
+
+        @Override
+        public void write(List<AuditEvent> batch) throws IOException {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+
+        @Override
+        public void sync() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
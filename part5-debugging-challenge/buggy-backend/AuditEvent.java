@@ -0,0 +1,122 @@
+package com.payment.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * One audit record. Producers only capture references; the text is built on the writer thread,
+ * so no string concatenation happens on the payment path.
+ */
+public final class AuditEvent {
+
+    public static final String PROCESSED = "PAYMENT_PROCESSED";
+    public static final String FAILED = "PAYMENT_FAILED";
+
+    private final long timestampMillis;
+    private final String type;
+    private final String paymentId;
+    private final String merchantId;
+    private final BigDecimal amount;
+    private final String detail;
+
+    public AuditEvent(long timestampMillis, String type, String paymentId, String merchantId,
+                      BigDecimal amount, String detail) {
+        this.timestampMillis = timestampMillis;
+        this.type = type;
+        this.paymentId = paymentId;
+        this.merchantId = merchantId;
+        this.amount = amount;
+        this.detail = detail;
+    }
+
+    public static AuditEvent processed(Payment payment) {
+        return new AuditEvent(System.currentTimeMillis(), PROCESSED, payment.getId(),
+            payment.getMerchantId(), payment.getAmount(), null);
+    }
+
+    public static AuditEvent failed(Payment payment, String errorMessage) {
+        return new AuditEvent(System.currentTimeMillis(), FAILED, payment.getId(),
+            payment.getMerchantId(), payment.getAmount(), errorMessage);
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getPaymentId() {
+        return paymentId;
+    }
+
+    public String getMerchantId() {
+        return merchantId;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    /**
+     * @return The event as one line of JSON, newline terminated
+     */
+    public byte[] toJsonLine() {
+        StringBuilder line = new StringBuilder(160);
+        line.append("{\"ts\":\"").append(Instant.ofEpochMilli(timestampMillis)).append('"');
+        appendField(line, "type", type);
+        appendField(line, "paymentId", paymentId);
+        appendField(line, "merchantId", merchantId);
+        if (amount != null) {
+            line.append(",\"amount\":").append(amount.toPlainString());
+        }
+        appendField(line, "detail", detail);
+        line.append("}\n");
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return new String(toJsonLine(), StandardCharsets.UTF_8).trim();
+    }
+
+    private static void appendField(StringBuilder line, String name, String value) {
+        if (value == null) {
+            return;
+        }
+        line.append(",\"").append(name).append("\":\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    line.append("\\\"");
+                    break;
+                case '\\':
+                    line.append("\\\\");
+                    break;
+                case '\n':
+                    line.append("\\n");
+                    break;
+                case '\r':
+                    line.append("\\r");
+                    break;
+                case '\t':
+                    line.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+            }
+        }
+        line.append('"');
+    }
+}
@@ -0,0 +1,283 @@
+package com.payment.service;
+
+import io.micronaut.context.annotation.Value;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalescing buffer for FAILED status writes.
+ *
+ * Instead of one transaction per failed payment, failures are collected and written by one
+ * background thread with a single set-based UPDATE per flush, when {@code batch-size} failures
+ * are pending or {@code flush-interval-ms} has passed. Two failures of the same payment before a
+ * flush collapse into one row (last message wins). Each caller gets a future with its own row's
+ * outcome, so a mass decline costs a handful of statements rather than thousands of commits.
+ *
+ * If a batch statement fails, its rows are retried one by one so that a single bad row does not
+ * fail the rest. When more than {@code max-pending} failures are waiting, submitters block until
+ * the writer catches up.
+ */
+@Singleton
+public class FailedStatusBuffer implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FailedStatusBuffer.class);
+
+    /**
+     * One statement shape for any batch size, so the server reuses the prepared plan.
+     */
+    private static final String UPDATE_SQL =
+        "UPDATE payments AS p "
+            + "SET status = 'FAILED', error_message = v.error_message "
+            + "FROM unnest(?::varchar[], ?::text[]) AS v(payment_id, error_message) "
+            + "WHERE p.id = v.payment_id "
+            + "RETURNING p.id";
+
+    public enum Outcome {
+        /** FAILED status and message written */
+        PERSISTED,
+        /** No payment row with this ID */
+        NOT_FOUND,
+        /** The write failed, also when retried on its own */
+        ERROR,
+        /** The write had not finished when the batch result was built */
+        UNKNOWN
+    }
+
+    private final DataSource dataSource;
+    private final int batchSize;
+    private final int maxPending;
+    private final long flushIntervalNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushDue = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private LinkedHashMap<String, Pending> pending = new LinkedHashMap<>();
+    private boolean running = true;
+
+    private final Thread flusherThread;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder rowsUpdated = new LongAdder();
+    private final LongAdder rowFallbacks = new LongAdder();
+
+    @Inject
+    public FailedStatusBuffer(DataSource dataSource,
+                              @Value("${payment.failed-status.batch-size:500}") int batchSize,
+                              @Value("${payment.failed-status.flush-interval-ms:50}") long flushIntervalMillis,
+                              @Value("${payment.failed-status.max-pending:10000}") int maxPending) {
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+        this.maxPending = Math.max(maxPending, batchSize);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.flusherThread = new Thread(this::runFlusher, "failed-status-flusher");
+        this.flusherThread.setDaemon(true);
+        this.flusherThread.start();
+    }
+
+    /**
+     * Queue a FAILED status write.
+     *
+     * @return Future completed with this payment's outcome once its batch has been written
+     */
+    public CompletableFuture<Outcome> submit(String paymentId, String errorMessage) throws InterruptedException {
+        lock.lock();
+        try {
+            while (running && pending.size() >= maxPending) {
+                notFull.await();
+            }
+            if (!running) {
+                return CompletableFuture.completedFuture(Outcome.ERROR);
+            }
+            submitted.increment();
+            Pending existing = pending.get(paymentId);
+            if (existing != null) {
+                coalesced.increment();
+                existing.errorMessage = errorMessage;
+                return existing.future;
+            }
+            Pending entry = new Pending(paymentId, errorMessage);
+            pending.put(paymentId, entry);
+            if (pending.size() >= batchSize) {
+                flushDue.signal();
+            }
+            return entry.future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return Submitted, coalesced, flush and row counters
+     */
+    public String stats() {
+        return String.format("submitted=%d coalesced=%d flushes=%d rowsUpdated=%d rowFallbacks=%d",
+            submitted.sum(), coalesced.sum(), flushes.sum(), rowsUpdated.sum(), rowFallbacks.sum());
+    }
+
+    /**
+     * Write everything still pending, then stop.
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+            flushDue.signal();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            flusherThread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void runFlusher() {
+        while (true) {
+            List<Pending> batch;
+            boolean stopping;
+            lock.lock();
+            try {
+                long waitNanos = flushIntervalNanos;
+                while (running && pending.size() < batchSize && waitNanos > 0) {
+                    waitNanos = flushDue.awaitNanos(waitNanos);
+                }
+                stopping = !running;
+                batch = take();
+                notFull.signalAll();
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            for (int from = 0; from < batch.size(); from += batchSize) {
+                write(batch.subList(from, Math.min(batch.size(), from + batchSize)));
+            }
+            if (stopping && batch.isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Swap out the pending map. Caller holds the lock.
+     */
+    private List<Pending> take() {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        List<Pending> batch = new ArrayList<>(pending.values());
+        pending = new LinkedHashMap<>();
+        return batch;
+    }
+
+    private void write(List<Pending> batch) {
+        try (Connection connection = dataSource.getConnection()) {
+            Set<String> updated = update(connection, batch);
+            flushes.increment();
+            rowsUpdated.add(updated.size());
+            for (Pending entry : batch) {
+                entry.future.complete(updated.contains(entry.paymentId) ? Outcome.PERSISTED : Outcome.NOT_FOUND);
+            }
+        } catch (SQLException e) {
+            LOG.error("Batched FAILED status update of {} payments failed; retrying row by row",
+                batch.size(), e);
+            writeRowByRow(batch);
+        } catch (RuntimeException e) {
+            LOG.error("Batched FAILED status update of {} payments failed", batch.size(), e);
+            batch.forEach(entry -> entry.future.complete(Outcome.ERROR));
+        }
+    }
+
+    private void writeRowByRow(List<Pending> batch) {
+        try (Connection connection = dataSource.getConnection()) {
+            for (Pending entry : batch) {
+                rowFallbacks.increment();
+                try {
+                    boolean found = !update(connection, List.of(entry)).isEmpty();
+                    rowsUpdated.add(found ? 1 : 0);
+                    entry.future.complete(found ? Outcome.PERSISTED : Outcome.NOT_FOUND);
+                } catch (SQLException e) {
+                    LOG.error("Failed to persist error status for payment {}: {}",
+                        entry.paymentId, e.getMessage(), e);
+                    entry.future.complete(Outcome.ERROR);
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("No connection for row-by-row FAILED status update", e);
+        } finally {
+            // no-op for rows already completed above
+            batch.forEach(entry -> entry.future.complete(Outcome.ERROR));
+        }
+    }
+
+    /**
+     * One auto-committed statement for the whole list.
+     *
+     * @return IDs of the rows that were updated
+     */
+    private static Set<String> update(Connection connection, List<Pending> entries) throws SQLException {
+        String[] ids = new String[entries.size()];
+        String[] messages = new String[entries.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = entries.get(i).paymentId;
+            messages[i] = entries.get(i).errorMessage;
+        }
+        Set<String> updated = new HashSet<>();
+        Array idArray = connection.createArrayOf("varchar", ids);
+        Array messageArray = connection.createArrayOf("text", messages);
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_SQL)) {
+            statement.setArray(1, idArray);
+            statement.setArray(2, messageArray);
+            try (ResultSet rows = statement.executeQuery()) {
+                while (rows.next()) {
+                    updated.add(rows.getString(1));
+                }
+            }
+        } finally {
+            idArray.free();
+            messageArray.free();
+        }
+        return updated;
+    }
+
+    private static final class Pending {
+        private final String paymentId;
+        private final CompletableFuture<Outcome> future = new CompletableFuture<>();
+        /** Guarded by the buffer lock until the entry is taken for a flush */
+        private String errorMessage;
+
+        Pending(String paymentId, String errorMessage) {
+            this.paymentId = paymentId;
+            this.errorMessage = errorMessage;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.payment.service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * Writes audit batches to {@code payment_audit_log} with one multi-row JDBC batch and one commit
+ * per batch (see SOLUTION.md for the table).
+ *
+ * Durability follows PostgreSQL's commit: with {@code relaxedCommit} each batch commits with
+ * {@code synchronous_commit = off}, so the WAL is flushed by the WAL writer a few hundred
+ * milliseconds later instead of at every commit.
+ */
+public class JdbcAuditSink implements AsyncAuditWriter.Sink {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO payment_audit_log (event_time, event_type, payment_id, merchant_id, amount, detail) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final DataSource dataSource;
+    private final boolean relaxedCommit;
+
+    public JdbcAuditSink(DataSource dataSource, boolean relaxedCommit) {
+        this.dataSource = dataSource;
+        this.relaxedCommit = relaxedCommit;
+    }
+
+    @Override
+    public void write(List<AuditEvent> batch) throws IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                if (relaxedCommit) {
+                    try (Statement statement = connection.createStatement()) {
+                        statement.execute("SET LOCAL synchronous_commit TO OFF");
+                    }
+                }
+                try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+                    for (AuditEvent event : batch) {
+                        insert.setTimestamp(1, new Timestamp(event.getTimestampMillis()));
+                        insert.setString(2, event.getType());
+                        insert.setString(3, event.getPaymentId());
+                        insert.setString(4, event.getMerchantId());
+                        if (event.getAmount() == null) {
+                            insert.setNull(5, Types.NUMERIC);
+                        } else {
+                            insert.setBigDecimal(5, event.getAmount());
+                        }
+                        insert.setString(6, event.getDetail());
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Audit batch of " + batch.size() + " events failed", e);
+        }
+    }
+
+    @Override
+    public void sync() {
+        // every batch is already committed; the database owns the flush
+    }
+
+    @Override
+    public void close() {
+        // connections are returned to the pool after every batch
+    }
+}
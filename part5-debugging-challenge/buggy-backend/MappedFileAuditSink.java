@@ -0,0 +1,110 @@
+package com.payment.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends audit events as JSON lines to memory-mapped segment files
+ * ({@code audit-00000000000000000001.log}, ...) in one directory.
+ *
+ * A segment is mapped at its full size up front, so an append is a memory copy; {@link #sync()}
+ * forces the dirty pages to disk. When a segment is full it is forced, truncated to the bytes
+ * written and closed, and the next one is started. After a crash the unwritten tail of the last
+ * segment is zero bytes; readers stop at the first NUL. A restart always begins a new segment.
+ */
+public class MappedFileAuditSink implements AsyncAuditWriter.Sink {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MappedFileAuditSink.class);
+
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final long segmentBytes;
+
+    private long segmentNumber;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    public MappedFileAuditSink(Path directory, long segmentBytes) throws IOException {
+        if (segmentBytes <= 0 || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("segmentBytes must be between 1 and " + Integer.MAX_VALUE);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.segmentNumber = lastSegmentNumber();
+        openNextSegment(0);
+    }
+
+    @Override
+    public void write(List<AuditEvent> batch) throws IOException {
+        for (AuditEvent event : batch) {
+            byte[] line = event.toJsonLine();
+            if (buffer.remaining() < line.length) {
+                closeSegment();
+                openNextSegment(line.length);
+            }
+            buffer.put(line);
+        }
+    }
+
+    @Override
+    public void sync() {
+        buffer.force();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            closeSegment();
+        }
+    }
+
+    private void openNextSegment(int minimumBytes) throws IOException {
+        segmentNumber++;
+        Path file = directory.resolve(String.format("%s%020d%s", PREFIX, segmentNumber, SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(segmentBytes, minimumBytes));
+        LOG.info("Audit segment {} opened", file);
+    }
+
+    private void closeSegment() throws IOException {
+        buffer.force();
+        int written = buffer.position();
+        buffer = null;
+        try {
+            // drop the zero-filled tail so a closed segment holds only whole lines
+            channel.truncate(written);
+            channel.force(true);
+        } finally {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private long lastSegmentNumber() throws IOException {
+        long last = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    last = Math.max(last, Long.parseLong(
+                        name.substring(PREFIX.length(), name.length() - SUFFIX.length())));
+                } catch (NumberFormatException ignored) {
+                    // not one of ours
+                }
+            }
+        }
+        return last;
+    }
+}
@@ -0,0 +1,162 @@
+package com.payment.service;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.Currency;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contention-free running totals of money, per currency and per merchant.
+ *
+ * Amounts are kept as scaled minor units ({@code long} cents for USD) in {@link LongAdder}s, so
+ * concurrent writers update separate cells instead of CAS-spinning on one {@code BigDecimal}
+ * reference, and nothing is allocated on the hot path once a merchant/currency pair has been seen.
+ * Reads sum the cells and convert back to an exact {@code BigDecimal}.
+ *
+ * A read taken while payments are being added is exact for every completed {@link #add} but may
+ * or may not include adds that are still in progress; totals are only final once the batch is done.
+ */
+public class MonetaryAccumulator {
+
+    private final ConcurrentHashMap<String, Total> byCurrency = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Total>> byMerchant = new ConcurrentHashMap<>();
+
+    /**
+     * Add an amount to the currency total and to the merchant's total in that currency.
+     *
+     * @param currency   ISO 4217 code, e.g. "USD"
+     * @param merchantId Merchant the amount belongs to
+     * @param amount     Amount with no more decimals than the currency's minor unit
+     * @throws IllegalArgumentException if the amount has more decimals than the currency allows
+     */
+    public void add(String currency, String merchantId, BigDecimal amount) {
+        Total currencyTotal = currencyTotal(currency);
+        long minorUnits = currencyTotal.toMinorUnits(amount);
+
+        currencyTotal.add(minorUnits);
+        merchantTotal(merchantId, currency, currencyTotal.scale).add(minorUnits);
+    }
+
+    /**
+     * @return Exact total for one currency, zero if nothing was added
+     */
+    public BigDecimal total(String currency) {
+        Total total = byCurrency.get(currency);
+        return total == null ? BigDecimal.ZERO : total.sum();
+    }
+
+    /**
+     * @return Number of amounts added for one currency
+     */
+    public long count(String currency) {
+        Total total = byCurrency.get(currency);
+        return total == null ? 0 : total.count.sum();
+    }
+
+    /**
+     * @return Exact totals keyed by currency, in currency order
+     */
+    public Map<String, BigDecimal> totalsByCurrency() {
+        return snapshot(byCurrency);
+    }
+
+    /**
+     * @return Exact totals of one merchant keyed by currency, empty if the merchant has none
+     */
+    public Map<String, BigDecimal> totalsForMerchant(String merchantId) {
+        ConcurrentHashMap<String, Total> totals = byMerchant.get(merchantId);
+        return totals == null ? Collections.emptyMap() : snapshot(totals);
+    }
+
+    /**
+     * @return Exact totals keyed by merchant, then by currency, in merchant order
+     */
+    public Map<String, Map<String, BigDecimal>> totalsByMerchant() {
+        Map<String, Map<String, BigDecimal>> result = new TreeMap<>();
+        byMerchant.forEach((merchantId, totals) -> result.put(merchantId, snapshot(totals)));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Drop all totals. Adds running at the same time may survive the reset; call it between batches.
+     */
+    public void reset() {
+        byCurrency.clear();
+        byMerchant.clear();
+    }
+
+    private Total currencyTotal(String currency) {
+        Total total = byCurrency.get(currency);
+        if (total == null) {
+            total = byCurrency.computeIfAbsent(currency, code -> new Total(minorUnitScale(code)));
+        }
+        return total;
+    }
+
+    private Total merchantTotal(String merchantId, String currency, int scale) {
+        // get() first: computeIfAbsent may lock the bin even when the key is present
+        ConcurrentHashMap<String, Total> totals = byMerchant.get(merchantId);
+        if (totals == null) {
+            totals = byMerchant.computeIfAbsent(merchantId, id -> new ConcurrentHashMap<>());
+        }
+        Total total = totals.get(currency);
+        if (total == null) {
+            total = totals.computeIfAbsent(currency, code -> new Total(scale));
+        }
+        return total;
+    }
+
+    private static Map<String, BigDecimal> snapshot(Map<String, Total> totals) {
+        Map<String, BigDecimal> result = new TreeMap<>();
+        totals.forEach((currency, total) -> result.put(currency, total.sum()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * @return Decimal places of the currency's minor unit; 2 for unknown codes and pseudo-currencies
+     */
+    static int minorUnitScale(String currency) {
+        try {
+            int digits = Currency.getInstance(currency).getDefaultFractionDigits();
+            // -1 for pseudo-currencies such as XAU
+            return digits < 0 ? 2 : digits;
+        } catch (IllegalArgumentException e) {
+            return 2;
+        }
+    }
+
+    /**
+     * Striped sum of minor units at a fixed scale.
+     */
+    private static final class Total {
+
+        private final int scale;
+        private final LongAdder minorUnits = new LongAdder();
+        private final LongAdder count = new LongAdder();
+
+        Total(int scale) {
+            this.scale = scale;
+        }
+
+        long toMinorUnits(BigDecimal amount) {
+            try {
+                return amount.movePointRight(scale).longValueExact();
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException(
+                    "Amount " + amount + " does not fit " + scale + " decimal places", e);
+            }
+        }
+
+        void add(long units) {
+            minorUnits.add(units);
+            count.increment();
+        }
+
+        BigDecimal sum() {
+            return BigDecimal.valueOf(minorUnits.sum(), scale);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.payment.service;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Throughput of the running payment total as writer threads are added: the single
+ * {@code AtomicReference<BigDecimal>} the fixed service used before against {@link MonetaryAccumulator}.
+ * The shared reference flattens out (or drops) beyond a couple of threads; the striped totals keep scaling.
+ * <p>
+ * Run with JMH on the classpath:
+ * <pre>
+ * java -cp ... org.openjdk.jmh.Main MonetaryAccumulatorBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MonetaryAccumulatorBenchmark {
+
+    private static final int MERCHANTS = 64;
+
+    private final AtomicReference<BigDecimal> atomicTotal = new AtomicReference<>(BigDecimal.ZERO);
+    private final MonetaryAccumulator stripedTotal = new MonetaryAccumulator();
+
+    private final String[] merchantIds = new String[MERCHANTS];
+    private final BigDecimal[] amounts = new BigDecimal[MERCHANTS];
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < MERCHANTS; i++) {
+            merchantIds[i] = "MCH-" + String.format("%05d", i);
+            amounts[i] = BigDecimal.valueOf(100 + i * 37L, 2);
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void atomicReference1() {
+        addAtomic();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void atomicReference4() {
+        addAtomic();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void atomicReferenceMax() {
+        addAtomic();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void striped1() {
+        addStriped();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void striped4() {
+        addStriped();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void stripedMax() {
+        addStriped();
+    }
+
+    private void addAtomic() {
+        BigDecimal amount = amounts[ThreadLocalRandom.current().nextInt(MERCHANTS)];
+        atomicTotal.updateAndGet(current -> current.add(amount));
+    }
+
+    private void addStriped() {
+        int merchant = ThreadLocalRandom.current().nextInt(MERCHANTS);
+        stripedTotal.add("USD", merchantIds[merchant], amounts[merchant]);
+    }
+}
@@ -0,0 +1,288 @@
+package com.payment.service;
+
+import com.payment.service.PaymentProcessingServiceFixed.PaymentValidationException;
+import com.payment.service.PaymentProcessingServiceFixed.ProcessingError;
+import com.payment.service.PaymentProcessingServiceFixed.ProcessingResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Function;
+
+/**
+ * Parallel batch runner for {@link PaymentProcessingServiceFixed}.
+ *
+ * Payments are split into lanes by a partition key (merchant ID by default). A lane is processed
+ * sequentially in batch order, so two payments of the same merchant never run concurrently and keep
+ * their relative order; different lanes run in parallel on a work-stealing pool or on virtual threads.
+ *
+ * Every payment still goes through its own transactional {@code processPayment} call, so a failing
+ * payment never affects another; failed statuses are written in batches by {@link FailedStatusBuffer}
+ * and their per-payment outcome is attached to the matching error. Outcomes are written into
+ * per-position slots (each slot is owned by exactly one lane), so no collection is shared between
+ * threads and the result lists come back in batch order.
+ */
+public class PaymentBatchEngine implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PaymentBatchEngine.class);
+
+    /** Lanes per worker thread, so that one slow merchant does not leave the other workers idle */
+    private static final int LANES_PER_WORKER = 4;
+
+    /** How long a finished batch waits for its last failed-status flush */
+    private static final long STATUS_WRITE_TIMEOUT_SECONDS = 30;
+
+    private static final int PENDING = 0;
+    private static final int SUCCEEDED = 1;
+    private static final int FAILED = 2;
+
+    public enum ExecutorMode {
+        /** {@link java.util.concurrent.ForkJoinPool} with one worker per unit of parallelism */
+        WORK_STEALING,
+        /** One virtual thread per lane (Java 21+); parallelism bounds the number of lanes */
+        VIRTUAL_THREADS;
+
+        public static ExecutorMode parse(String value) {
+            return valueOf(value.trim().replace('-', '_').toUpperCase());
+        }
+    }
+
+    /**
+     * Processes one payment in its own transaction.
+     */
+    @FunctionalInterface
+    public interface PaymentHandler {
+        void process(Payment payment) throws Exception;
+    }
+
+    /**
+     * Queues the failed status of one payment; must not throw.
+     */
+    @FunctionalInterface
+    public interface FailureRecorder {
+        CompletableFuture<FailedStatusBuffer.Outcome> recordFailure(Payment payment, String errorMessage);
+    }
+
+    private final ExecutorService executor;
+    private final int lanes;
+    private final long timeoutMillis;
+    private final Function<Payment, ?> partitionKey;
+
+    /**
+     * @param mode          Executor to run lanes on
+     * @param parallelism   Worker threads (or concurrent lanes for virtual threads); 0 means one per core.
+     *                      Keep it at or below the JDBC connection pool size.
+     * @param timeoutMillis Deadline for a whole batch
+     */
+    public PaymentBatchEngine(ExecutorMode mode, int parallelism, long timeoutMillis) {
+        this(mode, parallelism, timeoutMillis, Payment::getMerchantId);
+    }
+
+    /**
+     * @param partitionKey Payments with equal keys are processed sequentially in batch order,
+     *                     e.g. {@code Payment::getMerchantId} or an account ID
+     */
+    public PaymentBatchEngine(ExecutorMode mode, int parallelism, long timeoutMillis,
+                              Function<Payment, ?> partitionKey) {
+        int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        if (mode == ExecutorMode.VIRTUAL_THREADS) {
+            this.executor = newVirtualThreadExecutor();
+            this.lanes = workers;
+        } else {
+            this.executor = Executors.newWorkStealingPool(workers);
+            this.lanes = workers * LANES_PER_WORKER;
+        }
+        this.timeoutMillis = timeoutMillis;
+        this.partitionKey = Objects.requireNonNull(partitionKey, "partitionKey");
+        LOG.info("Payment batch engine started: mode={}, workers={}, lanes={}", mode, workers, lanes);
+    }
+
+    /**
+     * Process a batch in parallel.
+     *
+     * Payments not finished when the batch deadline passes are reported as timed out; a payment that
+     * was in flight at that moment may still have committed, so its error says the outcome is unknown.
+     *
+     * @return ProcessingResult with successful IDs and errors in batch order
+     */
+    public ProcessingResult process(List<Payment> payments, PaymentHandler handler,
+                                    FailureRecorder failureRecorder) throws InterruptedException {
+        int size = payments.size();
+        AtomicIntegerArray states = new AtomicIntegerArray(size);
+        ProcessingError[] errors = new ProcessingError[size];
+        @SuppressWarnings("unchecked")
+        CompletableFuture<FailedStatusBuffer.Outcome>[] statusWrites = new CompletableFuture[size];
+        AtomicBoolean stopped = new AtomicBoolean();
+
+        int[][] laneIndexes = partition(payments, states, errors);
+
+        List<Future<?>> futures = new ArrayList<>(laneIndexes.length);
+        for (int[] indexes : laneIndexes) {
+            if (indexes.length > 0) {
+                futures.add(executor.submit(
+                    () -> runLane(payments, indexes, handler, failureRecorder, states, errors, statusWrites, stopped)));
+            }
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        try {
+            for (Future<?> future : futures) {
+                try {
+                    future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                } catch (ExecutionException e) {
+                    // runLane catches per payment, so this is an Error thrown inside a lane; the other lanes keep going
+                    LOG.error("Payment lane failed unexpectedly", e.getCause());
+                }
+            }
+        } catch (TimeoutException e) {
+            LOG.error("Payment batch of {} exceeded {} ms; cancelling remaining payments", size, timeoutMillis);
+        } catch (InterruptedException e) {
+            stopLanes(stopped, futures);
+            throw e;
+        }
+        stopLanes(stopped, futures);
+
+        return collect(payments, states, errors, statusWrites);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * Assign every payment to a lane. Null payments are failed immediately and take no lane.
+     */
+    private int[][] partition(List<Payment> payments, AtomicIntegerArray states, ProcessingError[] errors) {
+        int size = payments.size();
+        int laneCount = Math.max(1, Math.min(lanes, size));
+        int[] laneOf = new int[size];
+        int[] counts = new int[laneCount];
+
+        for (int i = 0; i < size; i++) {
+            Payment payment = payments.get(i);
+            if (payment == null) {
+                LOG.error("Null payment in batch");
+                errors[i] = new ProcessingError("NULL", "Payment object is null");
+                states.set(i, FAILED);
+                laneOf[i] = -1;
+                continue;
+            }
+            int lane = laneFor(partitionKey.apply(payment), laneCount);
+            laneOf[i] = lane;
+            counts[lane]++;
+        }
+
+        int[][] laneIndexes = new int[laneCount][];
+        for (int lane = 0; lane < laneCount; lane++) {
+            laneIndexes[lane] = new int[counts[lane]];
+            counts[lane] = 0;
+        }
+        for (int i = 0; i < size; i++) {
+            int lane = laneOf[i];
+            if (lane >= 0) {
+                laneIndexes[lane][counts[lane]++] = i;
+            }
+        }
+        return laneIndexes;
+    }
+
+    private static int laneFor(Object key, int laneCount) {
+        // Payments without a key fail validation anyway; keep them together in lane 0
+        if (key == null) {
+            return 0;
+        }
+        int hash = key.hashCode();
+        hash ^= hash >>> 16;
+        return (hash & Integer.MAX_VALUE) % laneCount;
+    }
+
+    private static void runLane(List<Payment> payments, int[] indexes, PaymentHandler handler,
+                                FailureRecorder failureRecorder, AtomicIntegerArray states,
+                                ProcessingError[] errors,
+                                CompletableFuture<FailedStatusBuffer.Outcome>[] statusWrites,
+                                AtomicBoolean stopped) {
+        for (int index : indexes) {
+            if (stopped.get() || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            Payment payment = payments.get(index);
+            try {
+                handler.process(payment);
+                states.set(index, SUCCEEDED);
+            } catch (Exception e) {
+                if (e instanceof PaymentValidationException) {
+                    LOG.warn("Payment validation failed for {}: {}", payment.getId(), e.getMessage());
+                } else {
+                    LOG.error("Unexpected error processing payment {}: {}",
+                        payment.getId(), e.getMessage(), e);
+                }
+                // The slots are written before the state, so a reader that sees FAILED also sees them
+                errors[index] = new ProcessingError(payment.getId(), e.getMessage());
+                statusWrites[index] = failureRecorder.recordFailure(payment, e.getMessage());
+                states.set(index, FAILED);
+            }
+        }
+    }
+
+    private static void stopLanes(AtomicBoolean stopped, List<Future<?>> futures) {
+        stopped.set(true);
+        for (Future<?> future : futures) {
+            if (!future.isDone()) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private ProcessingResult collect(List<Payment> payments, AtomicIntegerArray states, ProcessingError[] errors,
+                                     CompletableFuture<FailedStatusBuffer.Outcome>[] statusWrites)
+            throws InterruptedException {
+        List<String> successfulIds = new ArrayList<>();
+        List<ProcessingError> failures = new ArrayList<>();
+        long statusDeadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(STATUS_WRITE_TIMEOUT_SECONDS);
+        for (int i = 0; i < states.length(); i++) {
+            switch (states.get(i)) {
+                case SUCCEEDED:
+                    successfulIds.add(payments.get(i).getId());
+                    break;
+                case FAILED:
+                    failures.add(statusWrites[i] == null ? errors[i]
+                        : errors[i].withStatusOutcome(awaitStatusWrite(statusWrites[i], statusDeadline)));
+                    break;
+                default:
+                    failures.add(new ProcessingError(payments.get(i).getId(),
+                        "Batch timeout of " + timeoutMillis + " ms exceeded; outcome unknown"));
+            }
+        }
+        return new ProcessingResult(successfulIds.size(), failures.size(), successfulIds, failures);
+    }
+
+    private static FailedStatusBuffer.Outcome awaitStatusWrite(CompletableFuture<FailedStatusBuffer.Outcome> write,
+                                                               long deadline) throws InterruptedException {
+        try {
+            return write.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return FailedStatusBuffer.Outcome.UNKNOWN;
+        }
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            // Looked up reflectively so the class still compiles on Java 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Virtual threads require Java 21 or later", e);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.payment.service;
 
+import io.micronaut.context.annotation.Value;
 import io.micronaut.transaction.annotation.Transactional;
+import jakarta.annotation.PreDestroy;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import org.slf4j.Logger;
@@ -9,20 +11,19 @@ import org.slf4j.LoggerFactory;
 import java.math.BigDecimal;
 import java.util.*;
 import java.util.concurrent.*;
-import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * PRODUCTION-GRADE Payment Processing Service
  * All 10 bugs identified and fixed:
  * 
- * BUG 1: ✅ Race condition on totalProcessed → AtomicReference
- * BUG 2: ✅ Failed status never persisted → Explicit DB update
+ * BUG 1: ✅ Race condition on totalProcessed → Striped MonetaryAccumulator
+ * BUG 2: ✅ Failed status never persisted → Batched DB update via FailedStatusBuffer
  * BUG 3: ✅ No transaction management → @Transactional boundaries
  * BUG 4: ✅ No error propagation → ProcessingResult object
  * BUG 5: ✅ Data races in parallel streams → Sequential processing + thread-safe collections
- * BUG 6: ✅ No timeout protection → ExecutorService with explicit timeouts
+ * BUG 6: ✅ No timeout protection → PaymentBatchEngine with a batch deadline
  * BUG 7: ✅ No input validation → Null/empty checks
- * BUG 8: ✅ Audit logging not protected → Separate try-catch block
+ * BUG 8: ✅ Audit logging not protected → Asynchronous AsyncAuditWriter outside the transaction
  * BUG 9: ✅ Inconsistent totalProcessed → Update AFTER DB success
  * BUG 10: ✅ Silent exception swallowing → Proper exception handling hierarchy
  */
@@ -32,21 +33,43 @@ public class PaymentProcessingServiceFixed {
     private static final Logger LOG = LoggerFactory.getLogger(PaymentProcessingServiceFixed.class);
     
     private final PaymentRepository paymentRepository;
-    private final AuditService auditService;
+    private final AsyncAuditWriter auditWriter;
+    private final FailedStatusBuffer failedStatusBuffer;
     
-    // BUG 1 FIX: Use AtomicReference for thread-safe updates
-    private final AtomicReference<BigDecimal> totalProcessed = 
-        new AtomicReference<>(BigDecimal.ZERO);
+    // Payment carries no currency; amounts are in the configured default currency
+    private final String defaultCurrency;
+    private final int defaultCurrencyScale;
     
-    // BUG 6 FIX: Explicit ExecutorService with bounded thread pool and timeout
-    private final ExecutorService executorService = Executors.newFixedThreadPool(10);
-    private static final long PAYMENT_TIMEOUT_SECONDS = 30;
+    // BUG 1 FIX: Striped totals, so parallel lanes don't CAS-spin on one BigDecimal
+    private final MonetaryAccumulator totalProcessed = new MonetaryAccumulator();
+    
+    // How long a finished batch waits for its last failed-status flush
+    private static final long STATUS_WRITE_TIMEOUT_SECONDS = 30;
+    
+    // BUG 6 FIX: Configurable, merchant-partitioned executor with a batch deadline
+    private final PaymentBatchEngine batchEngine;
     
     @Inject
     public PaymentProcessingServiceFixed(PaymentRepository paymentRepository, 
-                                         AuditService auditService) {
+                                         AsyncAuditWriter auditWriter,
+                                         FailedStatusBuffer failedStatusBuffer,
+                                         @Value("${payment.batch.executor:work-stealing}") String executorMode,
+                                         @Value("${payment.batch.parallelism:0}") int parallelism,
+                                         @Value("${payment.batch.timeout-seconds:600}") long timeoutSeconds,
+                                         @Value("${payment.default-currency:USD}") String defaultCurrency) {
         this.paymentRepository = paymentRepository;
-        this.auditService = auditService;
+        // Fails startup on a code that is not ISO 4217
+        this.defaultCurrency = Currency.getInstance(defaultCurrency).getCurrencyCode();
+        this.defaultCurrencyScale = MonetaryAccumulator.minorUnitScale(this.defaultCurrency);
+        this.auditWriter = auditWriter;
+        this.failedStatusBuffer = failedStatusBuffer;
+        this.batchEngine = new PaymentBatchEngine(PaymentBatchEngine.ExecutorMode.parse(executorMode),
+            parallelism, TimeUnit.SECONDS.toMillis(timeoutSeconds));
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        batchEngine.close();
     }
     
     /**
@@ -73,6 +96,7 @@ public class PaymentProcessingServiceFixed {
         
         List<String> successfulIds = new ArrayList<>();
         List<ProcessingError> errors = new ArrayList<>();
+        List<CompletableFuture<FailedStatusBuffer.Outcome>> statusWrites = new ArrayList<>();
         
         // BUG 5 FIX: Process sequentially instead of parallelStream to avoid data races
         // If parallel processing needed, use proper thread-safe aggregation
@@ -81,12 +105,13 @@ public class PaymentProcessingServiceFixed {
             if (payment == null) {
                 ProcessingError error = new ProcessingError("NULL", "Payment object is null");
                 errors.add(error);
+                statusWrites.add(null);
                 LOG.error("Null payment in batch");
                 continue;
             }
             
             try {
-                processPayment(payment);
+                processAndAudit(payment);
                 successfulIds.add(payment.getId());
                 
             } catch (PaymentValidationException e) {
@@ -94,9 +119,9 @@ public class PaymentProcessingServiceFixed {
                     payment.getId(), e.getMessage());
                 errors.add(new ProcessingError(payment.getId(), e.getMessage()));
                 
-                // BUG 2 & BUG 10 FIX: Persist failed status in separate transaction
+                // BUG 2 & BUG 10 FIX: Persist failed status outside the payment's transaction
                 // Don't let failure persistence exception hide the original error
-                persistFailedPaymentStatus(payment, e.getMessage());
+                statusWrites.add(persistFailedPaymentStatus(payment, e.getMessage()));
                 
             } catch (Exception e) {
                 LOG.error("Unexpected error processing payment {}: {}", 
@@ -104,7 +129,15 @@ public class PaymentProcessingServiceFixed {
                 errors.add(new ProcessingError(payment.getId(), e.getMessage()));
                 
                 // BUG 2 & BUG 10 FIX: Persist failed status with proper exception handling
-                persistFailedPaymentStatus(payment, e.getMessage());
+                statusWrites.add(persistFailedPaymentStatus(payment, e.getMessage()));
+            }
+        }
+        
+        // BUG 2 FIX: Report whether each failed status actually reached the database
+        for (int i = 0; i < errors.size(); i++) {
+            CompletableFuture<FailedStatusBuffer.Outcome> write = statusWrites.get(i);
+            if (write != null) {
+                errors.set(i, errors.get(i).withStatusOutcome(awaitStatusWrite(write)));
             }
         }
         
@@ -117,12 +150,20 @@ public class PaymentProcessingServiceFixed {
         );
     }
     
+    /**
+     * BUG 8 FIX: Audit only after the payment's transaction has committed. The event is queued
+     * for the background writer, so audit I/O adds nothing to payment latency
+     */
+    protected void processAndAudit(Payment payment) throws PaymentValidationException {
+        processPayment(payment);
+        auditWriter.record(AuditEvent.processed(payment));
+    }
+    
     /**
      * Process a single payment within a transaction
      * 
      * BUG 3 FIX: @Transactional ensures atomicity
      * BUG 9 FIX: Update totalProcessed AFTER successful database operation
-     * BUG 8 FIX: Audit logging in separate try-catch (doesn't rollback payment)
      */
     @Transactional
     protected void processPayment(Payment payment) throws PaymentValidationException {
@@ -133,58 +174,67 @@ public class PaymentProcessingServiceFixed {
         payment.setStatus("COMPLETED");
         paymentRepository.update(payment);
         
-        // BUG 8 FIX: Audit logging is protected - failure doesn't rollback payment
-        try {
-            auditService.log("Payment " + payment.getId() + " processed for amount " 
-                + payment.getAmount());
-        } catch (Exception auditError) {
-            LOG.error("Audit logging failed for payment {} (non-critical)", 
-                payment.getId(), auditError);
-            // Continue execution - audit failure should not fail the payment
-        }
-        
         // BUG 9 FIX: Update totalProcessed AFTER successful database operation
         // If DB update above fails, this line won't execute (due to exception)
         // Ensures consistency between totalProcessed and database
-        totalProcessed.updateAndGet(current -> current.add(payment.getAmount()));
+        totalProcessed.add(defaultCurrency, payment.getMerchantId(), payment.getAmount());
     }
     
     /**
      * BUG 2 FIX: Explicitly persist failed payment status to database
-     * BUG 10 FIX: Separate transaction prevents exception chaining
+     * BUG 10 FIX: Written outside the payment's transaction, so it cannot hide the original error
      * BUG 8 FIX: This operation is isolated and won't affect other payments
+     * 
+     * The write is queued in FailedStatusBuffer and coalesced with other failures into one
+     * UPDATE, so a mass decline does not cost one transaction per payment.
+     * 
+     * @return Future with the outcome of this payment's status write; never fails
      */
-    @Transactional
-    protected void persistFailedPaymentStatus(Payment payment, String errorMessage) {
+    protected CompletableFuture<FailedStatusBuffer.Outcome> persistFailedPaymentStatus(Payment payment, 
+                                                                                      String errorMessage) {
         if (payment == null || payment.getId() == null) {
             LOG.error("Cannot persist status for null payment");
-            return;
+            return CompletableFuture.completedFuture(FailedStatusBuffer.Outcome.ERROR);
         }
         
+        payment.setStatus("FAILED");
+        payment.setErrorMessage(errorMessage);
         try {
-            payment.setStatus("FAILED");
-            payment.setErrorMessage(errorMessage);
-            paymentRepository.update(payment);
-            
-            // BUG 8 FIX: Protect audit logging
-            try {
-                auditService.log("Payment " + payment.getId() + " failed: " + errorMessage);
-            } catch (Exception auditError) {
-                LOG.error("Audit logging failed for failed payment {} (non-critical)", 
-                    payment.getId(), auditError);
-            }
-            
-        } catch (Exception persistError) {
-            // BUG 10 FIX: Log persistence error but don't re-throw
-            // The original payment processing error already recorded
-            LOG.error("Failed to persist error status for payment {}: {}", 
-                payment.getId(), persistError.getMessage(), persistError);
+            return failedStatusBuffer.submit(payment.getId(), errorMessage)
+                .whenComplete((outcome, error) -> {
+                    if (outcome == FailedStatusBuffer.Outcome.PERSISTED) {
+                        // BUG 8 FIX: Runs on the failed-status flusher, which must not wait for the
+                        // audit writer; if its buffer is full the event is logged instead
+                        auditWriter.tryRecord(AuditEvent.failed(payment, errorMessage));
+                    } else {
+                        // BUG 10 FIX: Log persistence problem but don't re-throw
+                        LOG.error("Failed to persist error status for payment {}: {}", 
+                            payment.getId(), outcome);
+                    }
+                });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOG.error("Interrupted while queueing error status for payment {}", payment.getId());
+            return CompletableFuture.completedFuture(FailedStatusBuffer.Outcome.ERROR);
+        }
+    }
+    
+    private static FailedStatusBuffer.Outcome awaitStatusWrite(CompletableFuture<FailedStatusBuffer.Outcome> write) {
+        try {
+            return write.get(STATUS_WRITE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return FailedStatusBuffer.Outcome.UNKNOWN;
+        } catch (TimeoutException | ExecutionException e) {
+            return FailedStatusBuffer.Outcome.UNKNOWN;
         }
     }
     
     /**
-     * BUG 6 FIX: Process payments asynchronously with explicit timeout protection
-     * Use this when you need parallel processing
+     * BUG 6 FIX: Process payments in parallel with explicit timeout protection
+     * BUG 5 FIX: Payments of one merchant stay sequential and in order; results are
+     * collected without shared mutable lists (see PaymentBatchEngine)
+     * Use this when you need parallel processing, e.g. for batches of 100K payments
      */
     public ProcessingResult processPaymentBatchWithTimeout(List<Payment> payments) 
             throws InterruptedException {
@@ -194,61 +244,8 @@ public class PaymentProcessingServiceFixed {
             return new ProcessingResult(0, 0, Collections.emptyList(), Collections.emptyList());
         }
         
-        List<Future<PaymentResult>> futures = new ArrayList<>();
-        
-        // BUG 6 FIX: Submit tasks to executor service
-        for (Payment payment : payments) {
-            if (payment == null) {
-                LOG.error("Null payment in batch");
-                continue;
-            }
-            
-            Future<PaymentResult> future = executorService.submit(() -> {
-                try {
-                    processPayment(payment);
-                    return new PaymentResult(payment.getId(), true, null);
-                } catch (PaymentValidationException e) {
-                    LOG.warn("Payment {} validation failed: {}", payment.getId(), e.getMessage());
-                    persistFailedPaymentStatus(payment, e.getMessage());
-                    return new PaymentResult(payment.getId(), false, e.getMessage());
-                } catch (Exception e) {
-                    LOG.error("Payment {} processing failed: {}", payment.getId(), e.getMessage(), e);
-                    persistFailedPaymentStatus(payment, e.getMessage());
-                    return new PaymentResult(payment.getId(), false, e.getMessage());
-                }
-            });
-            
-            futures.add(future);
-        }
-        
-        // BUG 6 FIX: Wait for all with explicit timeout
-        List<String> successful = new ArrayList<>();
-        List<ProcessingError> errors = new ArrayList<>();
-        
-        for (int i = 0; i < futures.size(); i++) {
-            Future<PaymentResult> future = futures.get(i);
-            try {
-                // BUG 6 FIX: Timeout prevents indefinite hanging
-                PaymentResult result = future.get(PAYMENT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
-                
-                if (result.isSuccess()) {
-                    successful.add(result.getPaymentId());
-                } else {
-                    errors.add(new ProcessingError(result.getPaymentId(), result.getErrorMessage()));
-                }
-                
-            } catch (TimeoutException e) {
-                LOG.error("Payment processing timeout for payment {}", i);
-                future.cancel(true); // BUG 6 FIX: Cancel stuck tasks
-                errors.add(new ProcessingError("TIMEOUT_" + i, "Processing timeout exceeded " + PAYMENT_TIMEOUT_SECONDS + "s"));
-                
-            } catch (ExecutionException e) {
-                LOG.error("Payment processing failed with execution error", e);
-                errors.add(new ProcessingError("ERROR_" + i, e.getCause().getMessage()));
-            }
-        }
-        
-        return new ProcessingResult(successful.size(), errors.size(), successful, errors);
+        // BUG 3 FIX: Each payment keeps its own transaction; failures are persisted separately
+        return batchEngine.process(payments, this::processAndAudit, this::persistFailedPaymentStatus);
     }
     
     /**
@@ -273,23 +270,44 @@ public class PaymentProcessingServiceFixed {
                 " (must be greater than 0)");
         }
         
+        // JPY has no minor unit, KWD has three
+        if (payment.getAmount().stripTrailingZeros().scale() > defaultCurrencyScale) {
+            throw new PaymentValidationException(
+                "Invalid payment amount: " + payment.getAmount() +
+                " (at most " + defaultCurrencyScale + " decimal places for " + defaultCurrency + ")");
+        }
+
         if (payment.getMerchantId() == null || payment.getMerchantId().trim().isEmpty()) {
             throw new PaymentValidationException("Merchant ID cannot be null or empty");
         }
     }
     
     /**
-     * BUG 1 FIX: Thread-safe getter for total processed
+     * BUG 1 FIX: Thread-safe getter for total processed in the default currency
      */
     public BigDecimal getTotalProcessed() {
-        return totalProcessed.get();
+        return totalProcessed.total(defaultCurrency);
+    }
+    
+    /**
+     * Exact totals processed per currency
+     */
+    public Map<String, BigDecimal> getTotalsByCurrency() {
+        return totalProcessed.totalsByCurrency();
+    }
+    
+    /**
+     * Exact totals processed per merchant, then per currency
+     */
+    public Map<String, Map<String, BigDecimal>> getTotalsByMerchant() {
+        return totalProcessed.totalsByMerchant();
     }
     
     /**
      * BUG 1 FIX: Thread-safe reset for testing
      */
     public void resetTotal() {
-        totalProcessed.set(BigDecimal.ZERO);
+        totalProcessed.reset();
     }
     
     // ============ RESULT CLASSES ============
@@ -335,6 +353,15 @@ public class PaymentProcessingServiceFixed {
         public int getTotalCount() { 
             return successCount + failureCount; 
         }
+        
+        /**
+         * BUG 2 FIX: Failures whose FAILED status did not reach the database
+         */
+        public long getUnpersistedFailureCount() { 
+            return errors.stream()
+                .filter(error -> error.getStatusOutcome() != null && !error.isStatusPersisted())
+                .count(); 
+        }
     }
     
     /**
@@ -344,11 +371,25 @@ public class PaymentProcessingServiceFixed {
         private final String paymentId;
         private final String errorMessage;
         private final long timestamp;
+        private final FailedStatusBuffer.Outcome statusOutcome;
         
         public ProcessingError(String paymentId, String errorMessage) {
+            this(paymentId, errorMessage, System.currentTimeMillis(), null);
+        }
+        
+        private ProcessingError(String paymentId, String errorMessage, long timestamp,
+                                FailedStatusBuffer.Outcome statusOutcome) {
             this.paymentId = paymentId;
             this.errorMessage = errorMessage;
-            this.timestamp = System.currentTimeMillis();
+            this.timestamp = timestamp;
+            this.statusOutcome = statusOutcome;
+        }
+        
+        /**
+         * BUG 2 FIX: Copy carrying the outcome of the FAILED status write
+         */
+        public ProcessingError withStatusOutcome(FailedStatusBuffer.Outcome statusOutcome) {
+            return new ProcessingError(paymentId, errorMessage, timestamp, statusOutcome);
         }
         
         public String getPaymentId() { 
@@ -362,32 +403,16 @@ public class PaymentProcessingServiceFixed {
         public long getTimestamp() { 
             return timestamp; 
         }
-    }
-    
-    /**
-     * BUG 6 FIX: Internal result for async processing
-     */
-    private static class PaymentResult {
-        private final String paymentId;
-        private final boolean success;
-        private final String errorMessage;
-        
-        PaymentResult(String paymentId, boolean success, String errorMessage) {
-            this.paymentId = paymentId;
-            this.success = success;
-            this.errorMessage = errorMessage;
-        }
         
-        String getPaymentId() { 
-            return paymentId; 
-        }
-        
-        boolean isSuccess() { 
-            return success; 
+        /**
+         * @return Outcome of the FAILED status write, null if there was nothing to write
+         */
+        public FailedStatusBuffer.Outcome getStatusOutcome() { 
+            return statusOutcome; 
         }
         
-        String getErrorMessage() { 
-            return errorMessage; 
+        public boolean isStatusPersisted() { 
+            return statusOutcome == FailedStatusBuffer.Outcome.PERSISTED; 
         }
     }
     